@@ -0,0 +1,63 @@
+package com.winlabs.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import com.winlabs.model.AudioTrack;
+import com.winlabs.service.audio.NullBackend;
+
+/**
+ * Acquire/release throughput of one AudioPlayerPool shared by several threads, on the
+ * NullBackend so only the pool's own bookkeeping is measured.
+ *
+ * With more threads than {@code maxTracks}, callers wait on the cap, so the result shows
+ * how the pool behaves under contention. The score per thread should stay flat as the
+ * pool grows; a scan or a pool-wide lock would make it fall.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(8)
+public class AudioPlayerPoolBenchmark {
+
+    @Param({ "4", "64" })
+    int maxTracks;
+
+    AudioPlayerPool pool;
+    Path file;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = Files.createTempFile("pool-benchmark", ".wav");
+        pool = new AudioPlayerPool(maxTracks, maxTracks, 1, new NullBackend(1.0));
+        pool.disableAutoCulling();
+        pool.prewarm();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        pool.dispose();
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public AudioTrack acquireRelease() throws Exception {
+        AudioTrack track = pool.acquireTrack(file.toString(), 1, TimeUnit.SECONDS);
+        pool.releaseTrack(track);
+        return track;
+    }
+}
@@ -0,0 +1,78 @@
+package com.winlabs.service.audio;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Sustained throughput of one PcmRingBuffer with a producer and a consumer thread running
+ * concurrently, as the prefetch and render threads do.
+ *
+ * The {@code framesRead} counter is frames per second through the buffer. Real time at
+ * 48 kHz is 48,000 frames per second whatever the channel count, so at 64 channels the
+ * result divided by 48,000 is how many times faster than real time the handoff runs.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class PcmRingBufferBenchmark {
+
+    @Param({ "2", "64" })
+    int channels;
+
+    @Param({ "256" })
+    int blockFrames;
+
+    PcmRingBuffer ring;
+    float[] producerBlock;
+    float[] consumerBlock;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        ring = new PcmRingBuffer(PcmMixer.STREAM_BUFFER_FRAMES, channels);
+        producerBlock = new float[blockFrames * channels];
+        consumerBlock = new float[blockFrames * channels];
+        for (int i = 0; i < producerBlock.length; i++) {
+            producerBlock[i] = (float) Math.sin(i * 0.01);
+        }
+    }
+
+    /**
+     * Frames moved by each side, reported per second.
+     */
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Frames {
+        public long framesWritten;
+        public long framesRead;
+    }
+
+    @Benchmark
+    @Group("spsc")
+    @GroupThreads(1)
+    public int write(Frames frames) {
+        int written = ring.write(producerBlock, 0, blockFrames);
+        frames.framesWritten += written;
+        return written;
+    }
+
+    @Benchmark
+    @Group("spsc")
+    @GroupThreads(1)
+    public float read(Frames frames) {
+        int read = ring.read(consumerBlock, 0, blockFrames);
+        frames.framesRead += read;
+        return consumerBlock[0];
+    }
+}
@@ -1,49 +1,422 @@
 package com.winlabs.controller;
 
 
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.winlabs.model.AudioTrack;
 import com.winlabs.model.Cue;
+import com.winlabs.model.EvictionPolicyType;
+import com.winlabs.model.FadeCurve;
+import com.winlabs.model.OutputDevice;
+import com.winlabs.model.PlaybackBackend;
 import com.winlabs.model.PlaybackState;
+import com.winlabs.model.Playlist;
+import com.winlabs.model.PlaylistSettings;
+import com.winlabs.model.PreloadState;
+import com.winlabs.model.VoiceStealing;
+import com.winlabs.service.AudioPlayerPool;
 import com.winlabs.service.AudioService;
+import com.winlabs.service.GoLatencyMonitor;
 import com.winlabs.service.PlatformIndicatorService;
+import com.winlabs.service.PoolSizeEstimator;
+import com.winlabs.service.ProgressScheduler;
+import com.winlabs.service.VoiceSteal;
+import com.winlabs.service.audio.AudioBackend;
+import com.winlabs.service.audio.PcmCache;
+import com.winlabs.service.eviction.EvictionPolicy;
 
+import javafx.animation.Animation;
 import javafx.animation.PauseTransition;
+import javafx.application.Platform;
 import javafx.util.Duration;
 
 /**
  * Controller for managing audio playback logic.
  * Handles play, pause, stop, and auto-follow functionality.
+ * Also prepares the next few cues in the background so they start without a cold load,
+ * and times every GO through to PLAYING with a {@link GoLatencyMonitor}.
+ * Fade cues and fade-outs on STOP are handed to the playback engine, which times them.
+ * A cue that auto-follows straight into an audio cue pre-rolls that cue as soon as it starts,
+ * and the engine starts it on the sample the first one ends (or crossfades the two).
  */
 public class AudioController {
     
     private static final Logger logger = LoggerFactory.getLogger(AudioController.class);
+    private static final int STANDBY_HEADROOM = 2; // Room for recently played cues on top of the look-ahead
+    private static final FadeCurve CROSSFADE_CURVE = FadeCurve.EQUAL_POWER; // Keeps the level steady through the overlap
+    private static final double BED_MIN_SECONDS = 60.0; // Cues this long count as background beds for voice stealing
     
     private final AudioService audioService;
+    private final ExecutorService preloadExecutor;
+    private final GoLatencyMonitor latencyMonitor;
+    private final ProgressScheduler progressScheduler; // Samples running tracks for the UI
     private Cue currentCue;
     private String currentTrackId; // Track ID for current cue playback
     private Consumer<String> statusUpdateListener;
     private Consumer<PlaybackState> stateChangeListener;
-    private Runnable onCueCompleteListener;
+    private final AtomicReference<PlaybackState> reportedState; // Last state sent to the listener
+    private final AtomicInteger runningPreWaits;
+    private final AtomicInteger runningPostWaits;
+    private final AtomicInteger pausedWaits;
+    private Consumer<Cue> onCueCompleteListener;
+    
+    // Look-ahead state (FX thread only)
+    private Playlist playlist;
+    private int lookAheadCount = PlaylistSettings.DEFAULT_LOOK_AHEAD_COUNT;
+    private Set<Cue> armedCues = new HashSet<>();
+    
+    // Running tracks (FX thread only)
+    private final Map<String, Cue> trackCues = new HashMap<>(); // Track ID -> cue it is playing
+    private final Set<String> fadingOutTracks = new HashSet<>();
+    private final Map<Cue, AudioTrack> chainedCues = new HashMap<>(); // Auto-follow cue -> track the engine starts
     
     private PauseTransition preWaitTimer;
     private PauseTransition postWaitTimer;
     private boolean error = false;
     
     public AudioController() {
-        this.audioService = new AudioService(true); // Enable multi-track mode
-        logger.info("AudioController initialized with multi-track mode enabled");
+        this(PlaybackBackend.JAVAFX);
     }
     
     /**
-     * Plays a cue.
+     * Creates a controller that plays cues through the given backend.
+     */
+    public AudioController(PlaybackBackend backend) {
+        this(AudioBackend.create(backend != null ? backend : PlaybackBackend.JAVAFX));
+    }
+    
+    /**
+     * Creates a controller on a custom backend, for example a
+     * {@link com.winlabs.service.audio.NullBackend} to run GOs without sound or a media framework.
+     */
+    public AudioController(AudioBackend backend) {
+        this.audioService = new AudioService(backend); // Multi-track mode
+        this.latencyMonitor = new GoLatencyMonitor();
+        this.reportedState = new AtomicReference<>(PlaybackState.STOPPED);
+        this.runningPreWaits = new AtomicInteger();
+        this.runningPostWaits = new AtomicInteger();
+        this.pausedWaits = new AtomicInteger();
+        AudioPlayerPool pool = audioService.getPlayerPool();
+        pool.setStealListener(this::onVoiceStolen);
+        pool.setActivityListener(this::publishState);
+        this.progressScheduler = new ProgressScheduler(pool::getActiveTracks, Platform::runLater);
+        this.progressScheduler.setMasterMeter(backend::getMasterMeter);
+        this.preloadExecutor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "AudioController-Preloader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        logger.info("AudioController initialized with multi-track mode enabled, backend={}", backend.getName());
+    }
+    
+    /**
+     * Sets the playlist used to look ahead for upcoming cues.
+     */
+    public void setPlaylist(Playlist playlist) {
+        this.playlist = playlist;
+        updateResidentCues();
+        updatePoolSize();
+    }
+    
+    /**
+     * Sizes the track pool for the busiest moment of the playlist, estimated from the cues'
+     * durations, waits and auto-follows. The pool still grows with bursts of GOs beyond that.
+     * Call this whenever the playlist is edited.
+     */
+    public void updatePoolSize() {
+        AudioPlayerPool pool = audioService.getPlayerPool();
+        if (pool == null || playlist == null) {
+            return;
+        }
+        int peak = PoolSizeEstimator.estimatePeakVoices(playlist.getCues());
+        if (peak != pool.getPlannedPoolSize()) {
+            pool.sizeForPeak(peak);
+        }
+    }
+    
+    /**
+     * Sets how much decoded audio is kept in memory besides "keep resident" cues.
+     * Only applies to backends that decode files (the PCM mixer).
+     * 
+     * @param bytes Budget in bytes (0 keeps only "keep resident" cues)
+     */
+    public void setResidentCacheBudget(long bytes) {
+        PcmCache cache = getPcmCache();
+        if (cache != null) {
+            cache.setBudgetBytes(bytes);
+            logger.debug("Resident cache budget set to {} bytes", bytes);
+        }
+    }
+    
+    /**
+     * Marks whether a cue's decoded audio should stay in memory, and applies it.
+     */
+    public void setKeepResident(Cue cue, boolean keepResident) {
+        cue.setKeepResident(keepResident);
+        updateResidentCues();
+    }
+    
+    /**
+     * Pins the audio of every "keep resident" cue in the playlist and decodes the ones
+     * that are not in memory yet on the preload thread. Loop cues are pinned too, since
+     * only audio in memory can loop without reading the file again on every pass.
+     * Call this whenever the playlist is edited.
+     */
+    public void updateResidentCues() {
+        PcmCache cache = getPcmCache();
+        if (cache == null || playlist == null) {
+            return;
+        }
+        
+        List<Path> paths = new ArrayList<>();
+        for (Cue cue : playlist.getCues()) {
+            String filePath = cue.getFilePath();
+            if ((cue.isKeepResident() || cue.isLoop()) && filePath != null && !filePath.isEmpty()) {
+                paths.add(Paths.get(filePath));
+            }
+        }
+        cache.setPinned(paths);
+        
+        for (Path path : paths) {
+            if (!cache.contains(path)) {
+                preloadExecutor.execute(() -> {
+                    try {
+                        cache.load(path);
+                    } catch (Exception e) {
+                        logger.warn("Failed to load resident audio {}: {}", path, e.getMessage());
+                    }
+                });
+            }
+        }
+    }
+    
+    /**
+     * Sets the rule the track pool uses to free idle players. The cues planned by
+     * {@link #planLookAhead(Cue)} are the ones {@link EvictionPolicyType#PROTECT_UPCOMING} keeps.
+     */
+    public void setEvictionPolicy(EvictionPolicy policy) {
+        AudioPlayerPool pool = audioService.getPlayerPool();
+        if (pool != null) {
+            pool.setEvictionPolicy(policy);
+        }
+    }
+    
+    /**
+     * Gets the cache of decoded audio, or null if the backend plays straight from files.
+     */
+    public PcmCache getPcmCache() {
+        AudioPlayerPool pool = audioService.getPlayerPool();
+        return pool != null ? pool.getPcmCache() : null;
+    }
+    
+    /**
+     * Sets which file the backend reads when a cue's file is opened, such as a render from
+     * the show-prep cache. Voices already prepared keep the file they opened.
+     */
+    public void setSourceResolver(UnaryOperator<Path> resolver) {
+        AudioPlayerPool pool = audioService.getPlayerPool();
+        if (pool != null) {
+            pool.getBackend().setSourceResolver(resolver);
+        }
+    }
+    
+    /**
+     * Sets the level of the master bus that every cue plays through. The playback engine
+     * applies it to the mix, so it costs the same however many cues are loaded.
+     * 
+     * @param level Linear gain from 0.0 to 1.0
+     */
+    public void setMasterLevel(double level) {
+        AudioPlayerPool pool = audioService.getPlayerPool();
+        if (pool != null) {
+            pool.setMasterLevel(level);
+        }
+    }
+    
+    /**
+     * Sets the level of a cue group's bus, between its cues and the master.
+     * 
+     * @param group Name of the group
+     * @param level Linear gain from 0.0 to 1.0
+     */
+    public void setGroupLevel(String group, double level) {
+        AudioPlayerPool pool = audioService.getPlayerPool();
+        if (pool != null) {
+            pool.getBackend().setGroupLevel(group, level);
+        }
+    }
+    
+    /**
+     * Sets the devices cues can be routed to, the first being where unrouted cues play.
+     * Playing cues carry on through the new outputs.
+     * 
+     * @param devices The show's outputs, in order
+     * @throws Exception if the first device cannot be opened; the previous outputs are kept
+     */
+    public void setOutputDevices(List<OutputDevice> devices) throws Exception {
+        AudioPlayerPool pool = audioService.getPlayerPool();
+        if (pool != null) {
+            pool.getBackend().setOutputDevices(devices);
+        }
+    }
+    
+    /**
+     * Sets how many upcoming GOs are prepared in the background.
+     * Cues reached through auto-follow chains are prepared in addition to this count.
+     * 
+     * @param count Number of GOs to look ahead (0 disables look-ahead)
+     */
+    public void setLookAheadCount(int count) {
+        this.lookAheadCount = Math.max(0, count);
+        logger.debug("Look-ahead count set to {}", this.lookAheadCount);
+    }
+    
+    /**
+     * Gets how many upcoming GOs are prepared in the background.
+     */
+    public int getLookAheadCount() {
+        return lookAheadCount;
+    }
+    
+    /**
+     * Re-plans which cues are prepared, starting from the cue that the next GO will fire.
+     * Call this whenever the selection moves or the playlist is edited.
+     * Cues that drop out of the plan go back to {@link PreloadState#NONE};
+     * their players stay in standby until the pool evicts them.
+     * 
+     * @param nextCue The cue that will be fired next, or null if none
+     */
+    public void planLookAhead(Cue nextCue) {
+        int startIndex = (playlist != null && nextCue != null) ? playlist.getCues().indexOf(nextCue) : -1;
+        
+        Set<Cue> plan = new LinkedHashSet<>();
+        if (startIndex >= 0 && lookAheadCount > 0) {
+            for (Cue cue : playlist.getUpcomingCues(startIndex, lookAheadCount)) {
+                String filePath = cue.getFilePath();
+                if (filePath != null && !filePath.isEmpty()) {
+                    plan.add(cue);
+                }
+            }
+        }
+        
+        for (Cue cue : armedCues) {
+            if (!plan.contains(cue)) {
+                cue.setPreloadState(PreloadState.NONE);
+            }
+        }
+        armedCues = plan;
+        
+        AudioPlayerPool pool = audioService.getPlayerPool();
+        if (pool == null) {
+            return;
+        }
+        List<String> upcomingFiles = new ArrayList<>();
+        for (Cue cue : plan) {
+            upcomingFiles.add(cue.getFilePath());
+        }
+        pool.setUpcomingFiles(upcomingFiles);
+        if (plan.isEmpty()) {
+            return;
+        }
+        
+        // Make sure the whole plan fits in standby at once
+        int requiredStandby = plan.size() + STANDBY_HEADROOM;
+        if (pool.getStandbyCapacity() < requiredStandby) {
+            pool.setStandbyCapacity(requiredStandby);
+        }
+        
+        for (Cue cue : plan) {
+            PreloadState state = cue.getPreloadState();
+            boolean stillReady = state == PreloadState.READY && pool.isPrepared(cue.getFilePath());
+            if (stillReady) {
+                recueCue(pool, cue);
+            } else if (state != PreloadState.LOADING) {
+                armCue(pool, cue);
+            }
+        }
+        logger.debug("Look-ahead planned {} cue(s) from cue {}", plan.size(), nextCue.getNumber());
+    }
+    
+    /**
+     * Prepares a cue's audio on the preload thread and tracks its readiness on the cue.
+     */
+    private void armCue(AudioPlayerPool pool, Cue cue) {
+        String filePath = cue.getFilePath();
+        cue.setPreloadState(PreloadState.LOADING);
+        
+        preloadExecutor.execute(() -> {
+            CompletableFuture<Void> ready;
+            try {
+                ready = pool.prepare(filePath, cue.getStartTrim(), cue.getEndTrim());
+            } catch (Exception e) {
+                ready = CompletableFuture.failedFuture(e);
+            }
+            
+            ready.whenComplete((result, error) -> Platform.runLater(() -> {
+                // Ignore results for cues that were re-planned or edited meanwhile
+                if (!armedCues.contains(cue) || !filePath.equals(cue.getFilePath())) {
+                    return;
+                }
+                if (error != null) {
+                    logger.warn("Failed to prepare cue {}: {}", cue.getNumber(), error.getMessage());
+                    cue.setPreloadState(PreloadState.FAILED);
+                } else {
+                    cue.setPreloadState(PreloadState.READY);
+                }
+            }));
+        });
+    }
+    
+    /**
+     * Moves a cue's standby voice to the cue's current trims, which may have changed since it
+     * was armed (a silence scan landing, say). Cheap when they have not.
+     */
+    private void recueCue(AudioPlayerPool pool, Cue cue) {
+        String filePath = cue.getFilePath();
+        double startTrim = cue.getStartTrim();
+        double endTrim = cue.getEndTrim();
+        preloadExecutor.execute(() -> {
+            try {
+                pool.prepare(filePath, startTrim, endTrim);
+            } catch (Exception e) {
+                logger.debug("Failed to re-cue cue {}: {}", cue.getNumber(), e.getMessage());
+            }
+        });
+    }
+    
+    /**
+     * Plays a cue, timing it from now.
      */
     public void playCue(Cue cue) {
+        playCue(cue, System.nanoTime());
+    }
+    
+    /**
+     * Plays a cue.
+     * 
+     * @param cue The cue to play
+     * @param goNanos {@link System#nanoTime()} when the GO was received, for latency tracking
+     */
+    public void playCue(Cue cue, long goNanos) {
         if (cue == null) {
             logger.warn("Attempted to play null cue");
             updateStatus("No cue to play");
@@ -51,6 +424,22 @@ public class AudioController {
         }
         
         logger.info("Playing cue: {} ({})", cue.getNumber(), cue.getName());
+        AudioTrack chained = chainedCues.remove(cue);
+        if (chained != null) {
+            adoptChainedCue(cue, chained);
+            return;
+        }
+        if (cue.isFadeCue()) {
+            double preWait = cue.getPreWait();
+            if (preWait > 0) {
+                updateStatus(String.format("Pre-wait: %.1fs for %s", preWait, cue.getName()));
+                startWaitTimer(true, preWait, () -> runFadeCue(cue));
+            } else {
+                runFadeCue(cue);
+            }
+            return;
+        }
+        
         String filePath = cue.getFilePath();
         logger.debug("Cue file path: {}", filePath);
         
@@ -65,9 +454,10 @@ public class AudioController {
             double preWait = cue.getPreWait();
             if (preWait > 0) {
                 updateStatus(String.format("Pre-wait: %.1fs for %s", preWait, cue.getName()));
-                startWaitTimer(true, preWait, () -> startPlayback(cue, filePath));
+                startWaitTimer(true, preWait, () ->
+                    startPlayback(cue, filePath, latencyMonitor.begin(System.nanoTime(), true)));
             } else {
-                startPlayback(cue, filePath);
+                startPlayback(cue, filePath, latencyMonitor.begin(goNanos, false));
             }
         } catch (Exception e) {
             updateStatus("Error playing cue: " + e.getMessage());
@@ -76,35 +466,29 @@ public class AudioController {
     
     /**
      * Starts the actual audio playback.
+     * 
+     * @param trace Latency trace for this GO, marked as each stage is reached
      */
-    private void startPlayback(Cue cue, String filePath) {
+    private void startPlayback(Cue cue, String filePath, GoLatencyMonitor.Trace trace) {
         
         try {
             // Get the track before playing to set up listeners
             // This avoids a race condition with very short audio files
+            trace.mark(GoLatencyMonitor.Stage.ACQUIRE);
             var track = audioService.getPlayerPool().acquireTrack(filePath);
+            tagTrack(cue, track);
+            track.setOnPlayingListener(() -> trace.mark(GoLatencyMonitor.Stage.PLAYING));
+            track.setOnReadyListener(() -> trace.mark(GoLatencyMonitor.Stage.MEDIA_READY));
             currentTrackId = track.getTrackId();
+            currentCue = cue;
+            trackCues.put(track.getTrackId(), cue);
+            
+            // The standby player (if any) is now in use
+            armedCues.remove(cue);
+            cue.setPreloadState(PreloadState.NONE);
 
             try {
-            // Set up completion listener for this track
-            // Store the pool's original listener to chain them
-            var poolListener = track.getOnEndListener();
-            track.setOnEndListener(audioTrack -> {
-                // Track has finished playing
-                if (stateChangeListener != null) {
-                    stateChangeListener.accept(getState());
-                }
-                handleCueComplete();
-                try{
-                // Call the pool's listener to properly release the track
-                if (poolListener != null) {
-                    poolListener.accept(audioTrack);
-                }}catch(Exception e){
-                    logger.error("Error in pool listener for cue {}: {}", cue.getNumber(), e.getMessage(), e);
-                    updateStatus("Error playing audio: " + e.getMessage());
-                    error = true;
-                }
-            });   
+            listenForEnd(cue, track);
             } catch (Exception e) {
                 logger.error("Failed to set up listner for cue {}: {}",cue.getNumber(),e.getMessage(), e);
                 updateStatus("Error setting up listener: " + e.getMessage());
@@ -114,6 +498,7 @@ public class AudioController {
 
             try{
             // Now start playback
+            trace.mark(GoLatencyMonitor.Stage.PLAY_CALLED);
             track.play();
             }catch(Exception e){
                         logger.error("Error playing cue {}: {}", cue.getNumber(), e.getMessage(), e);
@@ -122,9 +507,8 @@ public class AudioController {
                         return;
             }
 
-            if (stateChangeListener != null) {
-                stateChangeListener.accept(getState());
-            }
+            chainFollower(cue, track);
+            publishState();
             if (!error) {
             updateStatus("Playing: " + cue.getName());    
             error = false;
@@ -156,6 +540,227 @@ public class AudioController {
         }
     }
     
+    /**
+     * Sets up the completion listener for a cue's track, chained in front of the pool's
+     * listener that releases the track.
+     */
+    private void listenForEnd(Cue cue, AudioTrack track) {
+        var poolListener = track.getOnEndListener();
+        track.setOnEndListener(audioTrack -> {
+            // Track has finished playing
+            trackCues.remove(audioTrack.getTrackId());
+            fadingOutTracks.remove(audioTrack.getTrackId());
+            chainedCues.remove(cue, audioTrack);
+            publishState();
+            handleCueComplete(cue);
+            try{
+            // Call the pool's listener to properly release the track
+            if (poolListener != null) {
+                poolListener.accept(audioTrack);
+            }}catch(Exception e){
+                logger.error("Error in pool listener for cue {}: {}", cue.getNumber(), e.getMessage(), e);
+                updateStatus("Error playing audio: " + e.getMessage());
+                error = true;
+            }
+        });
+    }
+    
+    /**
+     * Pre-rolls the cue that auto-follows a playing cue and hands it to the engine, which starts
+     * it on the sample the playing cue ends, or the cue's crossfade time before that.
+     * Only an auto-follow without a post-wait into an audio cue without a pre-wait is chained;
+     * anything else, or any backend that cannot chain voices, follows at the end of media as before.
+     */
+    private void chainFollower(Cue cue, AudioTrack track) {
+        Cue next = getChainableFollower(cue);
+        if (next == null) {
+            return;
+        }
+        
+        AudioPlayerPool pool = audioService.getPlayerPool();
+        AudioTrack nextTrack;
+        try {
+            nextTrack = pool.acquireSpareTrack(next.getFilePath());
+        } catch (Exception e) {
+            logger.warn("Cannot pre-roll cue {} after cue {}: {}", next.getNumber(), cue.getNumber(), e.getMessage());
+            return;
+        }
+        if (!track.chain(nextTrack, cue.getCrossfadeTime(), CROSSFADE_CURVE)) {
+            // Keep the loaded voice in standby for the end-of-media start
+            pool.releaseTrack(nextTrack);
+            return;
+        }
+        logger.debug("Cue {} chained after cue {} with a {}s crossfade", next.getNumber(), cue.getNumber(), cue.getCrossfadeTime());
+        
+        tagTrack(next, nextTrack);
+        chainedCues.put(next, nextTrack);
+        trackCues.put(nextTrack.getTrackId(), next);
+        armedCues.remove(next);
+        next.setPreloadState(PreloadState.NONE);
+        listenForEnd(next, nextTrack);
+        nextTrack.setOnPlayingListener(() -> {
+            publishState();
+            // Now it is playing, it can chain the cue after it in turn
+            chainFollower(next, nextTrack);
+        });
+    }
+    
+    /**
+     * Tells voice stealing how much a cue's track matters (its priority, and whether it is
+     * a background bed) and applies the cue's normalization gain, trims and loop.
+     */
+    private void tagTrack(Cue cue, AudioTrack track) {
+        track.setPriority(cue.getPriority());
+        track.setBed(cue.getDuration() >= BED_MIN_SECONDS || cue.isLoop());
+        track.setTrim(cue.getNormalizationFactor());
+        track.setPlayRange(cue.getStartTrim(), cue.getEndTrim());
+        track.setRouting(cue.getRouting());
+        track.setGroup(cue.getGroup());
+        track.setLoop(cue.getLoopStart(), cue.getLoopEnd(), cue.getLoopCount());
+    }
+    
+    /**
+     * Forgets a cue whose track the pool has stolen for a new cue. The pool fades it out and
+     * releases it; it does not complete or auto-follow. Called on the FX thread during the
+     * new cue's acquireTrack().
+     */
+    private void onVoiceStolen(VoiceSteal steal) {
+        String trackId = steal.getStolenTrackId();
+        Cue cue = trackCues.remove(trackId);
+        fadingOutTracks.remove(trackId);
+        chainedCues.values().removeIf(track -> track.getTrackId().equals(trackId));
+        if (trackId.equals(currentTrackId)) {
+            currentTrackId = null;
+        }
+        if (cue == null) {
+            return;
+        }
+        logger.warn("Cue {} ({}) stopped by voice stealing: {}", cue.getNumber(), cue.getName(), steal);
+        updateStatus(String.format("Too many cues playing: stopped cue %d", cue.getNumber()));
+        releasePendingChains(audioService.getPlayerPool(), cue);
+        publishState();
+    }
+    
+    /**
+     * Sets what happens when a cue is played with every track in use.
+     */
+    public void setVoiceStealing(VoiceStealing strategy) {
+        AudioPlayerPool pool = audioService.getPlayerPool();
+        if (pool != null) {
+            pool.setVoiceStealing(strategy);
+        }
+    }
+    
+    /**
+     * Gets the number of cues stopped by voice stealing so far.
+     */
+    public long getVoiceStealCount() {
+        AudioPlayerPool pool = audioService.getPlayerPool();
+        return pool != null ? pool.getVoiceStealCount() : 0;
+    }
+    
+    /**
+     * Gets the cue that a cue auto-follows into, if it can be chained.
+     */
+    private Cue getChainableFollower(Cue cue) {
+        Cue next = cue.isAutoFollow() && cue.getPostWait() <= 0 ? getFollowingCue(cue) : null;
+        if (next == null) {
+            return null;
+        }
+        String filePath = next.getFilePath();
+        if (next.isFadeCue() || next.getPreWait() > 0 || filePath == null || filePath.isEmpty()
+                || chainedCues.containsKey(next)) {
+            return null;
+        }
+        return next;
+    }
+    
+    /**
+     * Takes over a chained cue when it is played, normally by the auto-follow of the cue
+     * before it, once the engine has already started it.
+     */
+    private void adoptChainedCue(Cue cue, AudioTrack track) {
+        currentCue = cue;
+        currentTrackId = track.getTrackId();
+        if (track.isChainPending()) {
+            // Played by hand before the cue in front of it reached its end
+            logger.debug("Starting chained cue {} early", cue.getNumber());
+            track.play();
+        }
+        publishState();
+        updateStatus("Playing: " + cue.getName());
+    }
+    
+    /**
+     * Releases the tracks of chained cues that the engine has not started yet.
+     * 
+     * @param before Only release the cue chained after this one, or null for all of them
+     */
+    private void releasePendingChains(AudioPlayerPool pool, Cue before) {
+        Iterator<Map.Entry<Cue, AudioTrack>> iterator = chainedCues.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Cue, AudioTrack> entry = iterator.next();
+            AudioTrack track = entry.getValue();
+            boolean follows = before == null || getFollowingCue(before) == entry.getKey();
+            if (follows && track.isChainPending()) {
+                logger.debug("Releasing chained cue {}", entry.getKey().getNumber());
+                iterator.remove();
+                trackCues.remove(track.getTrackId());
+                pool.releaseTrack(track);
+            }
+        }
+    }
+    
+    /**
+     * Gets the cue after a cue in the playlist, or null if it is the last one.
+     */
+    private Cue getFollowingCue(Cue cue) {
+        int index = playlist != null ? playlist.getCues().indexOf(cue) : -1;
+        return index >= 0 && index + 1 < playlist.size() ? playlist.getCue(index + 1) : null;
+    }
+    
+    /**
+     * Runs a fade cue on every running instance of its target cue.
+     * The cue completes (and auto-follows) once all of the fades are done.
+     */
+    private void runFadeCue(Cue cue) {
+        AudioPlayerPool pool = audioService.getPlayerPool();
+        List<AudioTrack> targets = new ArrayList<>();
+        for (Map.Entry<String, Cue> entry : trackCues.entrySet()) {
+            AudioTrack track = pool.getTrack(entry.getKey());
+            if (track != null && entry.getValue().getNumber() == cue.getFadeTarget()) {
+                targets.add(track);
+            }
+        }
+        
+        if (targets.isEmpty()) {
+            logger.info("Fade cue {}: target cue {} is not playing", cue.getNumber(), cue.getFadeTarget());
+            updateStatus(String.format("Fade: cue %d is not playing", cue.getFadeTarget()));
+            handleCueComplete(cue);
+            return;
+        }
+        
+        logger.info("Fade cue {}: fading {} track(s) of cue {} to {} over {}s ({}{})", cue.getNumber(), targets.size(),
+            cue.getFadeTarget(), cue.getFadeLevel(), cue.getFadeTime(), cue.getFadeCurve(), cue.isStopAfterFade() ? ", then stop" : "");
+        updateStatus(String.format("Fading cue %d to %.0f%% over %.1fs", cue.getFadeTarget(), cue.getFadeLevel() * 100, cue.getFadeTime()));
+        
+        int[] remaining = { targets.size() };
+        for (AudioTrack track : targets) {
+            String trackId = track.getTrackId();
+            track.fadeTo(cue.getFadeLevel(), cue.getFadeTime(), cue.getFadeCurve(), cue.isStopAfterFade(), () -> {
+                if (cue.isStopAfterFade()) {
+                    Cue target = trackCues.remove(trackId);
+                    pool.releaseTrack(track);
+                    releasePendingChains(pool, target);
+                }
+                if (--remaining[0] == 0) {
+                    publishState();
+                    handleCueComplete(cue);
+                }
+            });
+        }
+    }
+    
     /**
      * Starts a wait timer (pre-wait or post-wait).
      * 
@@ -171,6 +776,8 @@ public class AudioController {
         }
         
         timer = new PauseTransition(Duration.seconds(seconds));
+        timer.statusProperty().addListener(
+            (observable, from, to) -> onWaitStatusChanged(isPreWait, from, to));
         timer.setOnFinished(e -> onComplete.run());
         timer.play();
         
@@ -183,36 +790,65 @@ public class AudioController {
     
     /**
      * Handles cue completion and post-wait/auto-follow logic.
+     * 
+     * @param cue The cue whose audio finished
      */
-    private void handleCueComplete() {
-        if (currentCue == null) {
+    private void handleCueComplete(Cue cue) {
+        if (cue == null) {
             return;
         }
         
-        logger.info("Cue completed: {} ({})", currentCue.getNumber(), currentCue.getName());
-        updateStatus("Cue complete: " + currentCue.getName());
+        logger.info("Cue completed: {} ({})", cue.getNumber(), cue.getName());
+        updateStatus("Cue complete: " + cue.getName());
         
-        double postWait = currentCue.getPostWait();
-        boolean autoFollow = currentCue.isAutoFollow();
+        double postWait = cue.getPostWait();
+        boolean autoFollow = cue.isAutoFollow();
         
         if (postWait > 0 && autoFollow) {
             // Wait, then trigger next cue
             updateStatus(String.format("Post-wait: %.1fs", postWait));
             startWaitTimer(false, postWait, () -> {
                 if (onCueCompleteListener != null) {
-                    onCueCompleteListener.run();
+                    onCueCompleteListener.accept(cue);
                 }
             });
         } else if (autoFollow) {
             // No post-wait, trigger next cue immediately
             if (onCueCompleteListener != null) {
-                onCueCompleteListener.run();
+                onCueCompleteListener.accept(cue);
             }
         }
         
-        currentCue = null;
+        if (currentCue == cue) {
+            currentCue = null;
+        }
     }
 
+    /**
+     * Lets the running loops of a cue finish their current pass and play on to the end of
+     * the cue instead of looping again.
+     *
+     * @param cue Cue to devamp, or null for every looping cue
+     * @return Number of tracks devamped
+     */
+    public int devamp(Cue cue) {
+        AudioPlayerPool pool = audioService.getPlayerPool();
+        if (pool == null) {
+            return 0;
+        }
+        int count = 0;
+        for (Map.Entry<String, Cue> entry : trackCues.entrySet()) {
+            AudioTrack track = pool.getTrack(entry.getKey());
+            if (track != null && track.isLooping() && (cue == null || entry.getValue() == cue)) {
+                track.devamp();
+                count++;
+            }
+        }
+        logger.info("Devamped {} track(s) of {}", count, cue != null ? "cue " + cue.getNumber() : "all looping cues");
+        updateStatus(count > 0 ? String.format("Devamped %d loop(s)", count) : "No loop is playing");
+        return count;
+    }
+    
     /**
      * Pauses the current playback.
      */
@@ -249,16 +885,7 @@ public class AudioController {
             logger.trace("No post-wait timer to pause");
         }
         
-        logger.trace("Checking for state change listener");
-        if (stateChangeListener != null) {
-            logger.debug("State change listener exists, notifying with new state");
-            PlaybackState currentState = getState();
-            logger.trace("Current playback state: {}", currentState);
-            stateChangeListener.accept(currentState);
-            logger.debug("State change listener notified successfully");
-        } else {
-            logger.warn("No state change listener registered");
-        }
+        publishState();
         
         logger.debug("Updating status to 'Paused'");
         updateStatus("Paused");
@@ -285,7 +912,7 @@ public class AudioController {
         
         // Resume any paused timers
         logger.trace("Checking pre-wait timer for resume");
-        if (preWaitTimer != null && preWaitTimer.getStatus() == javafx.animation.Animation.Status.PAUSED) {
+        if (preWaitTimer != null && preWaitTimer.getStatus() == Animation.Status.PAUSED) {
             logger.debug("Pre-wait timer is paused, resuming it");
             logger.trace("Pre-wait timer status before resume: {}", preWaitTimer.getStatus());
             preWaitTimer.play();
@@ -298,7 +925,7 @@ public class AudioController {
         }
         
         logger.trace("Checking post-wait timer for resume");
-        if (postWaitTimer != null && postWaitTimer.getStatus() == javafx.animation.Animation.Status.PAUSED) {
+        if (postWaitTimer != null && postWaitTimer.getStatus() == Animation.Status.PAUSED) {
             logger.debug("Post-wait timer is paused, resuming it");
             logger.trace("Post-wait timer status before resume: {}", postWaitTimer.getStatus());
             postWaitTimer.play();
@@ -310,16 +937,7 @@ public class AudioController {
             logger.trace("No post-wait timer to resume");
         }
         
-        logger.trace("Checking for state change listener");
-        if (stateChangeListener != null) {
-            logger.debug("State change listener exists, notifying with new state");
-            PlaybackState currentState = getState();
-            logger.trace("Current playback state: {}", currentState);
-            stateChangeListener.accept(currentState);
-            logger.debug("State change listener notified successfully");
-        } else {
-            logger.warn("No state change listener registered");
-        }
+        publishState();
         
         logger.debug("Updating status to 'Resumed'");
         updateStatus("Resumed");
@@ -329,6 +947,8 @@ public class AudioController {
     
     /**
      * Stops the current playback.
+     * Tracks whose cue has a fade time fade out first and are released once silent;
+     * stopping again while they fade cuts them at once.
      */
     public void stop() {
         logger.trace("stop() method entry");
@@ -337,11 +957,19 @@ public class AudioController {
         logger.trace("Current cue before stop: {}", currentCue != null ? currentCue.getName() : "null");
         logger.trace("Current track ID before stop: {}", currentTrackId);
         
-        if (audioService.getPlayerPool() != null) {
+        AudioPlayerPool pool = audioService.getPlayerPool();
+        if (pool != null) {
             logger.debug("AudioPlayerPool is not null, proceeding to stop all tracks");
-            logger.trace("Calling stopAll() on player pool");
-            audioService.getPlayerPool().stopAll();
-            logger.debug("All tracks stopped successfully");
+            // Chained cues must not start while the cues in front of them fade out
+            for (AudioTrack track : pool.getActiveTracks()) {
+                track.chain(null, 0.0, null);
+            }
+            releasePendingChains(pool, null);
+            chainedCues.clear();
+            for (AudioTrack track : pool.getActiveTracks()) {
+                stopTrack(pool, track);
+            }
+            logger.debug("All tracks stopped or fading out");
         } else {
             logger.warn("AudioPlayerPool is null, cannot stop tracks");
         }
@@ -377,16 +1005,7 @@ public class AudioController {
         currentTrackId = null;
         logger.trace("Current track ID set to null");
         
-        logger.trace("Checking for state change listener");
-        if (stateChangeListener != null) {
-            logger.debug("State change listener exists, notifying with new state");
-            PlaybackState currentState = getState();
-            logger.trace("Current playback state: {}", currentState);
-            stateChangeListener.accept(currentState);
-            logger.debug("State change listener notified successfully");
-        } else {
-            logger.warn("No state change listener registered");
-        }
+        publishState();
         
         logger.debug("Updating status to 'Stopped'");
         updateStatus("Stopped");
@@ -395,60 +1014,94 @@ public class AudioController {
     }
     
     /**
-     * Gets the current playback state.
-     * In multi-track mode, this reflects the actual state of active tracks and running timers.
+     * Stops one track, fading it out if its cue has a fade time.
+     */
+    private void stopTrack(AudioPlayerPool pool, AudioTrack track) {
+        String trackId = track.getTrackId();
+        Cue cue = trackCues.get(trackId);
+        double fadeTime = cue != null ? cue.getFadeTime() : 0.0;
+        
+        if (fadeTime <= 0 || !track.isPlaying()) {
+            // A stopped track has nothing left to play: give its slot back to the pool
+            trackCues.remove(trackId);
+            fadingOutTracks.remove(trackId);
+            pool.forceReleaseTrack(trackId);
+        } else if (fadingOutTracks.add(trackId)) {
+            logger.debug("Fading out cue {} over {}s", cue.getNumber(), fadeTime);
+            pool.stopTrack(trackId, fadeTime, cue.getFadeCurve(), () -> {
+                trackCues.remove(trackId);
+                fadingOutTracks.remove(trackId);
+                publishState();
+            });
+        } else {
+            // Second STOP during the fade-out
+            logger.debug("Cutting fade-out of cue {}", cue.getNumber());
+            trackCues.remove(trackId);
+            fadingOutTracks.remove(trackId);
+            pool.forceReleaseTrack(trackId);
+        }
+    }
+    
+    /**
+     * Gets the overall playback state: PLAYING if any track is playing, PAUSED if tracks are
+     * paused, otherwise the running wait, PAUSED for a paused wait, or STOPPED. Read from
+     * counters kept up to date by each track and timer transition, so it is O(1) and
+     * allocation-free.
      */
     public PlaybackState getState() {
-        // Get active tracks and their states
-        List<AudioTrack> activeTracks = audioService.getPlayerPool() != null 
-            ? audioService.getPlayerPool().getActiveTracks() 
-            : List.of();
-        
-        // If we have active tracks, determine state based on them
-        if (!activeTracks.isEmpty()) {
-            // If any track is playing, overall state is PLAYING
-            boolean hasPlaying = activeTracks.stream()
-                .anyMatch(track -> track.getState() == PlaybackState.PLAYING);
-            if (hasPlaying) {
+        AudioPlayerPool pool = audioService.getPlayerPool();
+        if (pool != null) {
+            if (pool.getPlayingTrackCount() > 0) {
                 return PlaybackState.PLAYING;
             }
-            
-            // If all tracks are paused (and at least one exists), state is PAUSED
-            boolean allPaused = activeTracks.stream()
-                .allMatch(track -> track.getState() == PlaybackState.PAUSED);
-            if (allPaused) {
+            if (pool.getPausedTrackCount() > 0) {
                 return PlaybackState.PAUSED;
             }
-            
-            // Otherwise, tracks exist but are in other states (e.g., STOPPED)
-            // Fall through to check timer states
         }
-        
-        // No active tracks or tracks are stopped - check timer states
-        // Store timer statuses to avoid repeated method calls
-        javafx.animation.Animation.Status preWaitStatus = 
-            (preWaitTimer != null) ? preWaitTimer.getStatus() : null;
-        javafx.animation.Animation.Status postWaitStatus = 
-            (postWaitTimer != null) ? postWaitTimer.getStatus() : null;
-        
-        // Check if we're in a wait state (pre-wait or post-wait)
-        if (preWaitStatus == javafx.animation.Animation.Status.RUNNING) {
+        if (runningPreWaits.get() > 0) {
             return PlaybackState.PRE_WAIT;
         }
-        if (postWaitStatus == javafx.animation.Animation.Status.RUNNING) {
+        if (runningPostWaits.get() > 0) {
             return PlaybackState.POST_WAIT;
         }
-        
-        // If timers are paused, we're in a paused state
-        if (preWaitStatus == javafx.animation.Animation.Status.PAUSED ||
-            postWaitStatus == javafx.animation.Animation.Status.PAUSED) {
+        if (pausedWaits.get() > 0) {
             return PlaybackState.PAUSED;
         }
-        
-        // No active tracks and no timers running - state is STOPPED
         return PlaybackState.STOPPED;
     }
     
+    /**
+     * Notifies the state change listener if the overall state differs from the last one
+     * reported. Called after every track and timer transition.
+     */
+    private void publishState() {
+        PlaybackState state = getState();
+        if (reportedState.getAndSet(state) != state) {
+            Consumer<PlaybackState> listener = stateChangeListener;
+            if (listener != null) {
+                listener.accept(state);
+            }
+        }
+    }
+    
+    /**
+     * Counts a pre-wait or post-wait timer's status change.
+     */
+    private void onWaitStatusChanged(boolean isPreWait, Animation.Status from, Animation.Status to) {
+        AtomicInteger running = isPreWait ? runningPreWaits : runningPostWaits;
+        if (from == Animation.Status.RUNNING) {
+            running.decrementAndGet();
+        } else if (from == Animation.Status.PAUSED) {
+            pausedWaits.decrementAndGet();
+        }
+        if (to == Animation.Status.RUNNING) {
+            running.incrementAndGet();
+        } else if (to == Animation.Status.PAUSED) {
+            pausedWaits.incrementAndGet();
+        }
+        publishState();
+    }
+    
     /**
      * Gets the current cue being played.
      */
@@ -463,6 +1116,30 @@ public class AudioController {
         return currentTrackId;
     }
     
+    /**
+     * Gets the cue a running track is playing.
+     *
+     * @return The cue, or null if the track is not playing one
+     */
+    public Cue getCueForTrack(String trackId) {
+        return trackId != null ? trackCues.get(trackId) : null;
+    }
+    
+    /**
+     * Gets the scheduler that samples every running track's position and level at a fixed rate.
+     * Subscribers are called on the FX thread.
+     */
+    public ProgressScheduler getProgressScheduler() {
+        return progressScheduler;
+    }
+    
+    /**
+     * Gets the GO latency monitor.
+     */
+    public GoLatencyMonitor getLatencyMonitor() {
+        return latencyMonitor;
+    }
+    
     /**
      * Gets the audio service (for direct access to pool and other operations).
      */
@@ -486,8 +1163,9 @@ public class AudioController {
     
     /**
      * Sets a listener for when a cue completes (for auto-follow).
+     * The listener receives the cue that completed.
      */
-    public void setOnCueCompleteListener(Runnable listener) {
+    public void setOnCueCompleteListener(Consumer<Cue> listener) {
         this.onCueCompleteListener = listener;
     }
     
@@ -501,10 +1179,24 @@ public class AudioController {
     }
     
     /**
-     * Disposes of resources.
+     * Disposes of resources and logs the session's GO latency summary.
      */
     public void dispose() {
+        latencyMonitor.logSummary();
+        AudioPlayerPool pool = audioService.getPlayerPool();
+        if (pool != null && pool.getVoiceStealCount() > 0) {
+            logger.info("Voice steals this show: {}", pool.getVoiceStealCount());
+            for (VoiceSteal steal : pool.getVoiceSteals()) {
+                logger.info("  {}", steal);
+            }
+        }
+        PcmCache cache = getPcmCache();
+        if (cache != null) {
+            logger.info("Decoded audio cache: {}", cache.formatSummary());
+        }
         stop();
+        progressScheduler.dispose();
+        preloadExecutor.shutdownNow();
         audioService.dispose();
     }
 }
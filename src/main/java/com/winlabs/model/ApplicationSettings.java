@@ -20,6 +20,11 @@ public class ApplicationSettings {
     private final BooleanProperty autoSaveEnabled;
     private final IntegerProperty autoSaveInterval; // in seconds
     
+    // Playback monitoring settings
+    private final IntegerProperty goLatencyWarningMs; // GO-to-playing time that triggers a warning
+    private final ObjectProperty<PlaybackBackend> playbackBackend; // Applied when a playlist window opens
+    private final IntegerProperty progressRateHz; // How often running cues' positions are redrawn
+    
     // Recent files settings
     private final List<String> recentFiles;
     private final Set<String> pinnedPlaylists;
@@ -46,6 +51,9 @@ public class ApplicationSettings {
         this.autoSaveInterval = new SimpleIntegerProperty(300); // 5 minutes
         this.recentFiles = new ArrayList<>();
         this.pinnedPlaylists = new HashSet<>();
+        this.goLatencyWarningMs = new SimpleIntegerProperty(50);
+        this.playbackBackend = new SimpleObjectProperty<>(PlaybackBackend.JAVAFX);
+        this.progressRateHz = new SimpleIntegerProperty(30);
         
         // Initialize logging settings with defaults
         this.loggingEnabled = new SimpleBooleanProperty(true);
@@ -99,6 +107,45 @@ public class ApplicationSettings {
         this.autoSaveInterval.set(Math.max(60, interval)); // Minimum 1 minute
     }
     
+    // GO latency warning threshold property
+    public IntegerProperty goLatencyWarningMsProperty() {
+        return goLatencyWarningMs;
+    }
+    
+    public int getGoLatencyWarningMs() {
+        return goLatencyWarningMs.get();
+    }
+    
+    public void setGoLatencyWarningMs(int milliseconds) {
+        this.goLatencyWarningMs.set(Math.max(1, milliseconds)); // Minimum 1 ms
+    }
+    
+    // Progress display rate property
+    public IntegerProperty progressRateHzProperty() {
+        return progressRateHz;
+    }
+    
+    public int getProgressRateHz() {
+        return progressRateHz.get();
+    }
+    
+    public void setProgressRateHz(int hz) {
+        this.progressRateHz.set(Math.max(1, Math.min(120, hz))); // 1-120 Hz
+    }
+    
+    // Playback backend property
+    public ObjectProperty<PlaybackBackend> playbackBackendProperty() {
+        return playbackBackend;
+    }
+    
+    public PlaybackBackend getPlaybackBackend() {
+        return playbackBackend.get();
+    }
+    
+    public void setPlaybackBackend(PlaybackBackend backend) {
+        this.playbackBackend.set(backend != null ? backend : PlaybackBackend.JAVAFX);
+    }
+    
     // Pre-wait default property
     public DoubleProperty preWaitDefaultProperty() {
         return preWaitDefault;
@@ -341,6 +388,9 @@ public class ApplicationSettings {
         setTheme("dark");
         setAutoSaveEnabled(false);
         setAutoSaveInterval(300);
+        setGoLatencyWarningMs(50);
+        setProgressRateHz(30);
+        setPlaybackBackend(PlaybackBackend.JAVAFX);
         setPreWaitDefault(0.0);
         setPostWaitDefault(0.0);
         setAutoFollowDefault(false);
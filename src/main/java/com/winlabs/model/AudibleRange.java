@@ -0,0 +1,73 @@
+package com.winlabs.model;
+
+/**
+ * Where the audible part of a file starts and ends, found by scanning for the first and
+ * last sample above a silence threshold. Immutable. A silent file has an empty range.
+ */
+public final class AudibleRange {
+
+    private final double start;
+    private final double end;
+    private final double duration;
+
+    /**
+     * @param start Seconds from the start of the file to the first audible sample
+     * @param end Seconds from the start of the file to just after the last audible sample
+     * @param duration Length of the whole file in seconds
+     */
+    public AudibleRange(double start, double end, double duration) {
+        this.start = start;
+        this.end = end;
+        this.duration = duration;
+    }
+
+    /**
+     * Gets the time of the first audible sample in seconds.
+     */
+    public double getStart() {
+        return start;
+    }
+
+    /**
+     * Gets the time just after the last audible sample in seconds.
+     */
+    public double getEnd() {
+        return end;
+    }
+
+    /**
+     * Gets the length of the whole file in seconds.
+     */
+    public double getDuration() {
+        return duration;
+    }
+
+    /**
+     * Checks if nothing in the file rose above the threshold.
+     */
+    public boolean isSilent() {
+        return end <= start;
+    }
+
+    /**
+     * Gets the silence before the audio starts in seconds.
+     */
+    public double getLeadingSilence() {
+        return isSilent() ? 0.0 : start;
+    }
+
+    /**
+     * Gets the silence after the audio ends in seconds.
+     */
+    public double getTrailingSilence() {
+        return isSilent() ? 0.0 : Math.max(0.0, duration - end);
+    }
+
+    @Override
+    public String toString() {
+        if (isSilent()) {
+            return "silent";
+        }
+        return String.format("%.3fs to %.3fs of %.3fs", start, end, duration);
+    }
+}
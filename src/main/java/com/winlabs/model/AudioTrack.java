@@ -1,28 +1,49 @@
 package com.winlabs.model;
 
+import com.winlabs.service.audio.AudioVoice;
+import com.winlabs.service.audio.LevelMeter;
+import com.winlabs.service.audio.MediaPlayerVoice;
 import javafx.scene.media.MediaPlayer;
 import javafx.util.Duration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.UUID;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
 /**
  * Represents a single audio track in a multi-track playback system.
- * Each track has its own MediaPlayer and independent playback state.
+ * Each track drives one {@link AudioVoice} (a JavaFX MediaPlayer or a PCM mixer voice)
+ * and has independent playback state.
  */
 public class AudioTrack {
     
     private static final Logger logger = LoggerFactory.getLogger(AudioTrack.class);
     private final String trackId;
-    private MediaPlayer mediaPlayer;
-    private PlaybackState state;
+    private AudioVoice voice;
+    private volatile PlaybackState state;
     private String filePath;
     private Consumer<AudioTrack> onEndListener;
     private Consumer<Duration> progressListener;
+    private BiConsumer<PlaybackState, PlaybackState> stateTransitionListener; // (from, to), only on a change
+    private Runnable onReadyListener; // One-shot, fired once the media is loaded
+    private Runnable onPlayingListener; // One-shot, fired once audio actually starts
+    private boolean chainPending; // Waiting to be started by the track before it
+    private int priority; // Priority of the cue playing it; voice stealing takes lower ones first
+    private boolean bed; // Long background audio; voice stealing can leave it until last
+    private double trim = 1.0; // Cue gain applied on top of the volume
+    private double playStart; // Seconds into the file where the playing cue starts
+    private double playEnd; // Seconds into the file where the playing cue ends, or 0 for the end
+    private OutputRouting routing; // Outputs of the playing cue, or null for the first output
+    private String group; // Group bus of the playing cue, or null for the master
+    private double loopStart; // Seconds into the file where the playing cue's loop starts
+    private double loopEnd; // Seconds into the file where the loop ends, at or before the start for none
+    private int loopCount; // Times the loop plays in all, or 0 until devamped
+    private boolean loopTaken; // The voice accepted the loop; streaming and MediaPlayer voices refuse one
     private boolean isPooled;
     private long lastUsedTimestamp;
+    private volatile long acquiredNanos; // System.nanoTime() when the pool handed the track out, 0 while idle
     
     public AudioTrack() {
         this.trackId = UUID.randomUUID().toString();
@@ -39,20 +60,74 @@ public class AudioTrack {
     }
     
     /**
-     * Gets the media player for this track.
+     * Gets the voice played by this track.
+     */
+    public AudioVoice getVoice() {
+        return voice;
+    }
+    
+    /**
+     * Gets the meter showing this track's output level, or null if it has no voice or the
+     * engine cannot measure it.
+     */
+    public LevelMeter getMeter() {
+        AudioVoice current = voice;
+        return current != null ? current.getMeter() : null;
+    }
+    
+    /**
+     * Sets the voice played by this track.
+     * Any previously attached voice is detached first (but not disposed).
+     */
+    public void setVoice(AudioVoice voice) {
+        detachVoice();
+        this.voice = voice;
+        if (voice != null) {
+            voice.setTrim(trim);
+            voice.setPlayRange(playStart, playEnd);
+            voice.setRouting(routing);
+            voice.setGroup(group);
+            applyLoop();
+            setupVoiceListeners();
+        }
+    }
+    
+    /**
+     * Detaches the voice from this track without disposing it,
+     * so it can be handed back to a standby cache for reuse.
+     * 
+     * @return The detached voice, or null if none was attached
+     */
+    public AudioVoice detachVoice() {
+        AudioVoice detached = voice;
+        if (detached != null) {
+            detached.setOnEndOfMedia(null);
+            detached.setOnError(null);
+            detached.setOnPlaying(null);
+            detached.setProgressListener(null);
+            detached.setTrim(1.0); // A standby voice must not carry this cue's gain to the next
+            detached.setPlayRange(0.0, 0.0); // ... nor its trims
+            detached.setRouting(null); // ... nor its outputs
+            detached.setGroup(null); // ... nor its group
+            detached.setLoop(0.0, 0.0, 0); // ... nor its loop
+            loopTaken = false;
+            voice = null;
+        }
+        return detached;
+    }
+    
+    /**
+     * Gets the media player for this track, if it is played by the JavaFX backend.
      */
     public MediaPlayer getMediaPlayer() {
-        return mediaPlayer;
+        return voice instanceof MediaPlayerVoice mediaPlayerVoice ? mediaPlayerVoice.getMediaPlayer() : null;
     }
     
     /**
-     * Sets the media player for this track.
+     * Sets a JavaFX media player as the voice for this track.
      */
     public void setMediaPlayer(MediaPlayer mediaPlayer) {
-        this.mediaPlayer = mediaPlayer;
-        if (mediaPlayer != null) {
-            setupMediaPlayerListeners();
-        }
+        setVoice(mediaPlayer != null ? new MediaPlayerVoice(mediaPlayer) : null);
     }
     
     /**
@@ -63,11 +138,27 @@ public class AudioTrack {
     }
     
     /**
-     * Sets the playback state.
+     * Sets the playback state, reporting the transition if the state changed.
      */
     public void setState(PlaybackState state) {
-        this.state = state;
+        PlaybackState previous;
+        synchronized (this) {
+            previous = this.state;
+            this.state = state;
+        }
         this.lastUsedTimestamp = System.currentTimeMillis();
+        BiConsumer<PlaybackState, PlaybackState> listener = stateTransitionListener;
+        if (listener != null && previous != state) {
+            listener.accept(previous, state);
+        }
+    }
+    
+    /**
+     * Sets a listener for state transitions, called with the old and new state each time
+     * the state changes. The pool uses it to count playing and paused tracks.
+     */
+    public void setStateTransitionListener(BiConsumer<PlaybackState, PlaybackState> listener) {
+        this.stateTransitionListener = listener;
     }
     
     /**
@@ -84,6 +175,85 @@ public class AudioTrack {
         this.filePath = filePath;
     }
     
+    /**
+     * Gets the priority of the cue playing this track.
+     */
+    public int getPriority() {
+        return priority;
+    }
+    
+    /**
+     * Sets the priority of the cue playing this track. When the pool is full, voice stealing
+     * by priority takes over lower-priority tracks first. Cleared by {@link #reset()}.
+     */
+    public void setPriority(int priority) {
+        this.priority = priority;
+    }
+    
+    /**
+     * Checks if this track is marked as background audio.
+     */
+    public boolean isBed() {
+        return bed;
+    }
+    
+    /**
+     * Marks this track as background audio that voice stealing should leave until last.
+     * Cleared by {@link #reset()}.
+     */
+    public void setBed(boolean bed) {
+        this.bed = bed;
+    }
+    
+    /**
+     * Gets the gain applied on top of the volume.
+     */
+    public double getTrim() {
+        return trim;
+    }
+    
+    /**
+     * Sets a gain applied on top of the volume and fades, such as the playing cue's loudness
+     * normalization. Cleared by {@link #reset()}.
+     * 
+     * @param gain Linear gain factor (1.0 leaves the audio as it is)
+     */
+    public void setTrim(double gain) {
+        this.trim = Math.max(0.0, gain);
+        if (voice != null) {
+            voice.setTrim(this.trim);
+        }
+    }
+    
+    /**
+     * Gets where the playing cue starts, in seconds into the file.
+     */
+    public double getPlayStart() {
+        return playStart;
+    }
+    
+    /**
+     * Gets where the playing cue ends, in seconds into the file, or 0 for the end of the file.
+     */
+    public double getPlayEnd() {
+        return playEnd;
+    }
+    
+    /**
+     * Limits playback to part of the file, such as the playing cue trimmed to its audible part.
+     * Cleared by {@link #reset()}.
+     * 
+     * @param startSeconds Where playback starts
+     * @param endSeconds Where playback ends, or 0 for the end of the file
+     */
+    public void setPlayRange(double startSeconds, double endSeconds) {
+        this.playStart = Math.max(0.0, startSeconds);
+        this.playEnd = Math.max(0.0, endSeconds);
+        if (voice != null) {
+            voice.setPlayRange(playStart, playEnd);
+        }
+    }
+    
     /**
      * Checks if this track is currently pooled (available for reuse).
      */
@@ -98,6 +268,22 @@ public class AudioTrack {
         this.isPooled = pooled;
     }
     
+    /**
+     * Gets when the pool last handed this track out for a cue, as {@link System#nanoTime()},
+     * or 0 if it is idle. Voice stealing uses it to tell how long a track has been playing,
+     * which its position in the file does not show once it has been trimmed, looped or recued.
+     */
+    public long getAcquiredNanos() {
+        return acquiredNanos;
+    }
+    
+    /**
+     * Records when the pool handed this track out for a cue. Cleared by {@link #reset()}.
+     */
+    public void setAcquiredNanos(long acquiredNanos) {
+        this.acquiredNanos = acquiredNanos;
+    }
+    
     /**
      * Gets the timestamp when this track was last used.
      */
@@ -120,36 +306,101 @@ public class AudioTrack {
     }
     
     /**
-     * Sets a listener for progress updates.
+     * Sets a listener for this track's own progress updates. The voice only reports
+     * progress while a listener is set; displays that follow every running track should
+     * subscribe to the {@link com.winlabs.service.ProgressScheduler} instead.
      */
     public void setProgressListener(Consumer<Duration> listener) {
         this.progressListener = listener;
+        if (voice != null) {
+            attachProgressListener(voice);
+        }
     }
     
-    /**
-     * Sets up event listeners for the media player.
-     */
-    private void setupMediaPlayerListeners() {
-        // Update progress during playback
-        mediaPlayer.currentTimeProperty().addListener((observable, oldValue, newValue) -> {
-            if (progressListener != null) {
-                progressListener.accept(newValue);
+    private void attachProgressListener(AudioVoice current) {
+        if (progressListener == null) {
+            current.setProgressListener(null);
+            return;
+        }
+        current.setProgressListener(seconds -> {
+            Consumer<Duration> listener = progressListener;
+            if (listener != null) {
+                listener.accept(Duration.seconds(seconds));
             }
         });
+    }
+    
+    /**
+     * Sets a one-shot listener for when the media is loaded and ready to play.
+     * Runs immediately if the attached voice is already loaded.
+     */
+    public void setOnReadyListener(Runnable listener) {
+        this.onReadyListener = listener;
+        AudioVoice current = voice;
+        if (listener != null && current != null) {
+            current.whenReady().thenRun(() -> {
+                // Ignore readiness of a voice that was detached meanwhile
+                if (voice == current) {
+                    fireOnReady();
+                }
+            });
+        }
+    }
+    
+    /**
+     * Sets a one-shot listener for when audio actually starts after {@link #play()}.
+     */
+    public void setOnPlayingListener(Runnable listener) {
+        this.onPlayingListener = listener;
+    }
+    
+    private void fireOnReady() {
+        Runnable listener = onReadyListener;
+        onReadyListener = null;
+        if (listener != null) {
+            listener.run();
+        }
+    }
+    
+    private void fireOnPlaying() {
+        // A chained track is started by the engine rather than by play()
+        if (chainPending) {
+            chainPending = false;
+            setState(PlaybackState.PLAYING);
+        }
+        // A voice that is playing has necessarily loaded its media
+        fireOnReady();
+        Runnable listener = onPlayingListener;
+        onPlayingListener = null;
+        if (listener != null) {
+            listener.run();
+        }
+    }
+    
+    /**
+     * Sets up event listeners for the voice.
+     */
+    private void setupVoiceListeners() {
+        AudioVoice current = voice;
+        
+        // Report progress during playback, only if someone listens to this track
+        attachProgressListener(current);
+        
+        // Report actual start for latency tracking
+        current.setOnPlaying(this::fireOnPlaying);
         
         // Handle end of media
-        mediaPlayer.setOnEndOfMedia(() -> {
+        current.setOnEndOfMedia(() -> {
             setState(PlaybackState.STOPPED);
-            mediaPlayer.seek(Duration.ZERO);
+            current.seek(playStart);
             if (onEndListener != null) {
                 onEndListener.accept(this);
             }
         });
         
         // Handle errors
-        mediaPlayer.setOnError(() -> {
-            logger.error("Media error on track {}: {}", trackId, 
-                       mediaPlayer.getError().getMessage());
+        current.setOnError(error -> {
+            logger.error("Media error on track {}: {}", trackId, error.getMessage());
             setState(PlaybackState.STOPPED);
         });
     }
@@ -158,10 +409,11 @@ public class AudioTrack {
      * Starts or resumes audio playback.
      */
     public void play() {
-        if (mediaPlayer == null) {
+        if (voice == null) {
             throw new IllegalStateException("No audio loaded on track " + trackId);
         }
-        mediaPlayer.play();
+        chainPending = false;
+        voice.play();
         setState(PlaybackState.PLAYING);
     }
     
@@ -169,8 +421,8 @@ public class AudioTrack {
      * Pauses audio playback.
      */
     public void pause() {
-        if (mediaPlayer != null) {
-            mediaPlayer.pause();
+        if (voice != null) {
+            voice.pause();
             setState(PlaybackState.PAUSED);
         }
     }
@@ -179,9 +431,9 @@ public class AudioTrack {
      * Stops audio playback and returns to the beginning.
      */
     public void stop() {
-        if (mediaPlayer != null) {
-            mediaPlayer.stop();
-            mediaPlayer.seek(Duration.ZERO);
+        chainPending = false;
+        if (voice != null) {
+            voice.stop();
             setState(PlaybackState.STOPPED);
         }
     }
@@ -190,24 +442,117 @@ public class AudioTrack {
      * Sets the playback volume (0.0 to 1.0).
      */
     public void setVolume(double volume) {
-        if (mediaPlayer != null) {
-            mediaPlayer.setVolume(Math.max(0.0, Math.min(1.0, volume)));
+        if (voice != null) {
+            voice.setVolume(Math.max(0.0, Math.min(1.0, volume)));
         }
     }
     
+    /**
+     * Fades the volume to a level. The fade is timed by the playback engine, so it is
+     * unaffected by load on the FX thread. Does nothing if no audio is loaded.
+     * 
+     * @param volume Volume to fade to (0.0 to 1.0)
+     * @param seconds Length of the fade
+     * @param curve Shape of the fade
+     * @param stopWhenDone Stop once the fade is done, leaving the volume as it was before it
+     * @param onComplete Called when the fade is done, or null
+     */
+    public void fadeTo(double volume, double seconds, FadeCurve curve, boolean stopWhenDone, Runnable onComplete) {
+        AudioVoice current = voice;
+        if (current == null) {
+            return;
+        }
+        current.fadeTo(volume, seconds, curve, stopWhenDone, () -> {
+            // Ignore a fade on a voice that was detached meanwhile (the track was released)
+            if (voice != current) {
+                return;
+            }
+            if (stopWhenDone) {
+                setState(PlaybackState.STOPPED);
+            }
+            if (onComplete != null) {
+                onComplete.run();
+            }
+        });
+    }
+    
+    /**
+     * Fades out and then stops, leaving the volume as it was for the next play.
+     * Stops at once if the fade time is 0 or nothing is playing.
+     * 
+     * @param seconds Length of the fade
+     * @param curve Shape of the fade
+     * @param onStopped Called once the track has stopped, or null
+     */
+    public void fadeOutAndStop(double seconds, FadeCurve curve, Runnable onStopped) {
+        if (voice == null) {
+            setState(PlaybackState.STOPPED);
+            if (onStopped != null) {
+                onStopped.run();
+            }
+            return;
+        }
+        fadeTo(0.0, seconds, curve, true, onStopped);
+    }
+    
+    /**
+     * Starts another track when this one reaches its end, on the exact sample where the
+     * engine supports it, or overlapping the end by a crossfade. The next track reports
+     * PLAYING once the engine has started it.
+     * 
+     * @param next Track to start, or null to cancel a pending start
+     * @param crossfadeSeconds Length of the crossfade, or 0 to start exactly at the end
+     * @param curve Shape of the crossfade
+     * @return false if the engine cannot start the next track itself;
+     *         start it when this one ends instead
+     */
+    public boolean chain(AudioTrack next, double crossfadeSeconds, FadeCurve curve) {
+        if (voice == null) {
+            return false;
+        }
+        if (next == null) {
+            return voice.chain(null, 0.0, curve);
+        }
+        if (next.voice == null || !voice.chain(next.voice, crossfadeSeconds, curve)) {
+            return false;
+        }
+        next.chainPending = true;
+        return true;
+    }
+    
+    /**
+     * Checks if this track is waiting to be started by the track before it.
+     */
+    public boolean isChainPending() {
+        return chainPending;
+    }
+    
     /**
      * Gets the current playback volume (0.0 to 1.0).
      */
     public double getVolume() {
-        return mediaPlayer != null ? mediaPlayer.getVolume() : 0.5;
+        return voice != null ? voice.getVolume() : 0.5;
+    }
+    
+    /**
+     * Gets the level the track is actually playing at: its meter's RMS level if the engine
+     * measures it (after volume, fades and trim), otherwise its volume times its trim.
+     */
+    public double getPlayingLevel() {
+        AudioVoice current = voice;
+        if (current == null) {
+            return 0.0;
+        }
+        LevelMeter meter = current.getMeter();
+        return meter != null ? meter.getRms() : current.getVolume() * current.getTrim();
     }
     
     /**
      * Gets the current playback time in seconds.
      */
     public double getCurrentTime() {
-        if (mediaPlayer != null) {
-            return mediaPlayer.getCurrentTime().toSeconds();
+        if (voice != null) {
+            return voice.getCurrentTime();
         }
         return 0.0;
     }
@@ -216,8 +561,8 @@ public class AudioTrack {
      * Gets the total duration of the current audio in seconds.
      */
     public double getDuration() {
-        if (mediaPlayer != null && mediaPlayer.getTotalDuration() != null) {
-            return mediaPlayer.getTotalDuration().toSeconds();
+        if (voice != null) {
+            return voice.getDuration();
         }
         return 0.0;
     }
@@ -230,26 +575,112 @@ public class AudioTrack {
     }
     
     /**
-     * Disposes of the media player and releases resources.
+     * Disposes of the voice and releases resources.
      */
     public void dispose() {
-        if (mediaPlayer != null) {
-            mediaPlayer.dispose();
-            mediaPlayer = null;
+        AudioVoice detached = detachVoice();
+        if (detached != null) {
+            detached.dispose();
         }
         filePath = null;
         setState(PlaybackState.STOPPED);
     }
     
+    /**
+     * Gets where the playing cue is routed, or null for the first output.
+     */
+    public OutputRouting getRouting() {
+        return routing;
+    }
+    
+    /**
+     * Sets which output channels the playing cue goes to. Cleared by {@link #reset()}.
+     * 
+     * @param routing The cue's routing, or null for the first output
+     */
+    public void setRouting(OutputRouting routing) {
+        this.routing = routing;
+        if (voice != null) {
+            voice.setRouting(routing);
+        }
+    }
+    
+    /**
+     * Gets the group bus the playing cue goes through, or null for the master.
+     */
+    public String getGroup() {
+        return group;
+    }
+    
+    /**
+     * Sets the group bus the playing cue goes through. Cleared by {@link #reset()}.
+     * 
+     * @param group Name of the cue's group, or null or blank for the master
+     */
+    public void setGroup(String group) {
+        this.group = group == null || group.isBlank() ? null : group;
+        if (voice != null) {
+            voice.setGroup(this.group);
+        }
+    }
+    
+    /**
+     * Sets the part of the file the playing cue repeats. Cleared by {@link #reset()}.
+     * 
+     * @param startSeconds Where the loop starts, from the start of the file
+     * @param endSeconds Where the loop ends; at or before the start for no loop
+     * @param count Times the loop plays in all, or 0 to loop until {@link #devamp()}
+     */
+    public void setLoop(double startSeconds, double endSeconds, int count) {
+        this.loopStart = startSeconds;
+        this.loopEnd = endSeconds;
+        this.loopCount = count;
+        applyLoop();
+    }
+    
+    /**
+     * Checks if the playing cue has a loop that its voice is playing. A voice that cannot
+     * loop plays through once, so there is nothing to devamp.
+     */
+    public boolean isLooping() {
+        return loopTaken && loopEnd > loopStart;
+    }
+    
+    /**
+     * Lets the current pass of the loop finish, then plays on to the end of the cue.
+     */
+    public void devamp() {
+        if (voice != null) {
+            voice.devamp();
+        }
+    }
+    
+    private void applyLoop() {
+        loopTaken = voice != null && voice.setLoop(loopStart, loopEnd, loopCount);
+        if (voice != null && !loopTaken) {
+            logger.warn("Track {} cannot loop {}, it will play through once", trackId, filePath);
+        }
+    }
+    
     /**
      * Resets the track for reuse from the pool.
      */
     public void reset() {
-        if (mediaPlayer != null) {
-            mediaPlayer.stop();
-            mediaPlayer.seek(Duration.ZERO);
+        if (voice != null) {
+            voice.stop();
         }
+        onReadyListener = null;
+        onPlayingListener = null;
+        chainPending = false;
+        priority = 0;
+        bed = false;
+        setTrim(1.0);
+        setPlayRange(0.0, 0.0);
+        setRouting(null);
+        setGroup(null);
+        setLoop(0.0, 0.0, 0);
         setState(PlaybackState.STOPPED);
+        acquiredNanos = 0;
         this.lastUsedTimestamp = System.currentTimeMillis();
     }
 }
@@ -5,9 +5,11 @@ import java.util.Objects;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.DoubleProperty;
 import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.property.SimpleDoubleProperty;
 import javafx.beans.property.SimpleIntegerProperty;
+import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
 
@@ -25,7 +27,28 @@ public final class Cue {
     private final DoubleProperty preWait;  // in seconds
     private final DoubleProperty postWait; // in seconds
     private final BooleanProperty autoFollow;
+    private final DoubleProperty crossfadeTime; // in seconds; overlap with the next cue when auto-following (0 is gapless)
+    private final IntegerProperty priority; // voice stealing takes tracks of lower-priority cues first
+    private final DoubleProperty normalizationGain; // in dB; applied at playback (0 leaves the file as it is)
+    private final DoubleProperty startTrim; // in seconds; playback starts this far into the file
+    private final DoubleProperty endTrim;   // in seconds; playback ends this far into the file (0 plays to the end)
+    private final BooleanProperty autoTrim; // the trims follow the file's detected silence
+    private final ObjectProperty<OutputRouting> routing; // null plays to the first output
+    private final StringProperty group; // bus the cue plays through under the master ("" for none)
+    private final BooleanProperty keepResident; // keep decoded audio in memory
+    private final DoubleProperty loopStart; // in seconds into the file; where a loop cue jumps back to
+    private final DoubleProperty loopEnd;   // in seconds into the file; where a loop cue jumps back from (at or before the start: no loop)
+    private final IntegerProperty loopCount; // times the loop plays in all (0 loops until devamped)
+    private final ObjectProperty<CueType> type;
+    private final IntegerProperty fadeTarget;  // number of the cue a fade cue acts on
+    private final DoubleProperty fadeLevel;    // volume a fade cue fades to (0.0 to 1.0)
+    private final DoubleProperty fadeTime;     // in seconds; for audio cues, the fade-out on stop (0 cuts)
+    private final ObjectProperty<FadeCurve> fadeCurve;
+    private final BooleanProperty stopAfterFade; // a fade cue stops its target when done
     private final StringProperty filePath;
+    private final ObjectProperty<PreloadState> preloadState; // runtime only, not saved
+    private final ObjectProperty<MediaInfo> mediaInfo; // runtime only, probed from the file (cached on disk)
+    private final ObjectProperty<LoudnessInfo> loudness; // runtime only, measured from the file (cached on disk)
     
     /**
      * Creates a new Cue with default values.
@@ -37,7 +60,28 @@ public final class Cue {
         this.preWait = new SimpleDoubleProperty(0.0);
         this.postWait = new SimpleDoubleProperty(0.0);
         this.autoFollow = new SimpleBooleanProperty(false);
+        this.crossfadeTime = new SimpleDoubleProperty(0.0);
+        this.priority = new SimpleIntegerProperty(0);
+        this.normalizationGain = new SimpleDoubleProperty(0.0);
+        this.startTrim = new SimpleDoubleProperty(0.0);
+        this.endTrim = new SimpleDoubleProperty(0.0);
+        this.autoTrim = new SimpleBooleanProperty(true);
+        this.routing = new SimpleObjectProperty<>(null);
+        this.group = new SimpleStringProperty("");
+        this.keepResident = new SimpleBooleanProperty(false);
+        this.loopStart = new SimpleDoubleProperty(0.0);
+        this.loopEnd = new SimpleDoubleProperty(0.0);
+        this.loopCount = new SimpleIntegerProperty(0);
+        this.type = new SimpleObjectProperty<>(CueType.AUDIO);
+        this.fadeTarget = new SimpleIntegerProperty(0);
+        this.fadeLevel = new SimpleDoubleProperty(0.0);
+        this.fadeTime = new SimpleDoubleProperty(0.0);
+        this.fadeCurve = new SimpleObjectProperty<>(FadeCurve.LINEAR);
+        this.stopAfterFade = new SimpleBooleanProperty(false);
         this.filePath = new SimpleStringProperty("");
+        this.preloadState = new SimpleObjectProperty<>(PreloadState.NONE);
+        this.mediaInfo = new SimpleObjectProperty<>(null);
+        this.loudness = new SimpleObjectProperty<>(null);
     }
     
     /**
@@ -93,6 +137,29 @@ public final class Cue {
         return new Cue(number, name, filePath, 0.0, preWait, postWait, autoFollow);
     }
     
+    /**
+     * Creates a new fade cue.
+     * 
+     * @param number the cue number
+     * @param name the cue name
+     * @param target the number of the cue to fade
+     * @param level the volume to fade to (0.0 to 1.0)
+     * @param fadeTime the fade length in seconds
+     * @param curve the shape of the fade
+     * @param stopAfterFade whether to stop the target once the fade is done
+     * @return a new fade cue
+     */
+    public static Cue fadeCue(int number, String name, int target, double level, double fadeTime, FadeCurve curve, boolean stopAfterFade) {
+        Cue cue = new Cue(number, name, "");
+        cue.setType(CueType.FADE);
+        cue.setFadeTarget(target);
+        cue.setFadeLevel(level);
+        cue.setFadeTime(fadeTime);
+        cue.setFadeCurve(curve);
+        cue.setStopAfterFade(stopAfterFade);
+        return cue;
+    }
+    
     /**
      * Creates a new Cue with all properties specified.
      * 
@@ -193,6 +260,275 @@ public final class Cue {
         return autoFollow;
     }
     
+    // CrossfadeTime property
+    public double getCrossfadeTime() {
+        return crossfadeTime.get();
+    }
+    
+    public void setCrossfadeTime(double value) {
+        crossfadeTime.set(requireNonNegative(value, "crossfadeTime"));
+    }
+    
+    public DoubleProperty crossfadeTimeProperty() {
+        return crossfadeTime;
+    }
+    
+    // Priority property
+    public int getPriority() {
+        return priority.get();
+    }
+    
+    public void setPriority(int value) {
+        priority.set(value);
+    }
+    
+    public IntegerProperty priorityProperty() {
+        return priority;
+    }
+    
+    // NormalizationGain property (dB)
+    public double getNormalizationGain() {
+        return normalizationGain.get();
+    }
+    
+    public void setNormalizationGain(double value) {
+        normalizationGain.set(Double.isFinite(value) ? value : 0.0);
+    }
+    
+    public DoubleProperty normalizationGainProperty() {
+        return normalizationGain;
+    }
+    
+    /**
+     * Gets the normalization gain as a linear factor to multiply samples by.
+     */
+    public double getNormalizationFactor() {
+        return Math.pow(10.0, getNormalizationGain() / 20.0);
+    }
+    
+    // StartTrim property (seconds)
+    public double getStartTrim() {
+        return startTrim.get();
+    }
+    
+    public void setStartTrim(double value) {
+        startTrim.set(Double.isFinite(value) ? Math.max(0.0, value) : 0.0);
+    }
+    
+    public DoubleProperty startTrimProperty() {
+        return startTrim;
+    }
+    
+    // EndTrim property (seconds, 0 for the end of the file)
+    public double getEndTrim() {
+        return endTrim.get();
+    }
+    
+    public void setEndTrim(double value) {
+        endTrim.set(Double.isFinite(value) ? Math.max(0.0, value) : 0.0);
+    }
+    
+    public DoubleProperty endTrimProperty() {
+        return endTrim;
+    }
+    
+    // AutoTrim property
+    public boolean isAutoTrim() {
+        return autoTrim.get();
+    }
+    
+    public void setAutoTrim(boolean value) {
+        autoTrim.set(value);
+    }
+    
+    public BooleanProperty autoTrimProperty() {
+        return autoTrim;
+    }
+    
+    // Routing property (null plays the cue to the first output)
+    public OutputRouting getRouting() {
+        return routing.get();
+    }
+    
+    public void setRouting(OutputRouting value) {
+        routing.set(value);
+    }
+    
+    public ObjectProperty<OutputRouting> routingProperty() {
+        return routing;
+    }
+    
+    // Group property (empty plays the cue straight into the master bus)
+    public String getGroup() {
+        return group.get();
+    }
+    
+    public void setGroup(String value) {
+        group.set(value != null ? value.trim() : "");
+    }
+    
+    public StringProperty groupProperty() {
+        return group;
+    }
+    
+    /**
+     * Sets the trims to play only the audible part of the file, or clears them if the whole
+     * file is silent.
+     */
+    public void applyAudibleRange(AudibleRange range) {
+        if (range == null || range.isSilent()) {
+            setStartTrim(0.0);
+            setEndTrim(0.0);
+            return;
+        }
+        setStartTrim(range.getStart());
+        setEndTrim(range.getEnd() < range.getDuration() ? range.getEnd() : 0.0);
+    }
+    
+    // KeepResident property
+    public boolean isKeepResident() {
+        return keepResident.get();
+    }
+    
+    public void setKeepResident(boolean value) {
+        keepResident.set(value);
+    }
+    
+    public BooleanProperty keepResidentProperty() {
+        return keepResident;
+    }
+    
+    // LoopStart property (seconds)
+    public double getLoopStart() {
+        return loopStart.get();
+    }
+    
+    public void setLoopStart(double value) {
+        loopStart.set(Double.isFinite(value) ? Math.max(0.0, value) : 0.0);
+    }
+    
+    public DoubleProperty loopStartProperty() {
+        return loopStart;
+    }
+    
+    // LoopEnd property (seconds, at or before the loop start for no loop)
+    public double getLoopEnd() {
+        return loopEnd.get();
+    }
+    
+    public void setLoopEnd(double value) {
+        loopEnd.set(Double.isFinite(value) ? Math.max(0.0, value) : 0.0);
+    }
+    
+    public DoubleProperty loopEndProperty() {
+        return loopEnd;
+    }
+    
+    // LoopCount property (0 loops until devamped)
+    public int getLoopCount() {
+        return loopCount.get();
+    }
+    
+    public void setLoopCount(int value) {
+        loopCount.set(Math.max(0, value));
+    }
+    
+    public IntegerProperty loopCountProperty() {
+        return loopCount;
+    }
+    
+    /**
+     * Checks if this cue repeats part of its file, i.e. its loop end is after its loop start.
+     */
+    public boolean isLoop() {
+        return getLoopEnd() > getLoopStart();
+    }
+    
+    // Type property
+    public CueType getType() {
+        return type.get();
+    }
+    
+    public void setType(CueType value) {
+        type.set(value != null ? value : CueType.AUDIO);
+    }
+    
+    public ObjectProperty<CueType> typeProperty() {
+        return type;
+    }
+    
+    public boolean isFadeCue() {
+        return getType() == CueType.FADE;
+    }
+    
+    // FadeTarget property
+    public int getFadeTarget() {
+        return fadeTarget.get();
+    }
+    
+    public void setFadeTarget(int value) {
+        fadeTarget.set(requireNonNegative(value, "fadeTarget"));
+    }
+    
+    public IntegerProperty fadeTargetProperty() {
+        return fadeTarget;
+    }
+    
+    // FadeLevel property
+    public double getFadeLevel() {
+        return fadeLevel.get();
+    }
+    
+    public void setFadeLevel(double value) {
+        if (value < 0.0 || value > 1.0) {
+            throw new IllegalArgumentException("fadeLevel must be between 0 and 1");
+        }
+        fadeLevel.set(value);
+    }
+    
+    public DoubleProperty fadeLevelProperty() {
+        return fadeLevel;
+    }
+    
+    // FadeTime property
+    public double getFadeTime() {
+        return fadeTime.get();
+    }
+    
+    public void setFadeTime(double value) {
+        fadeTime.set(requireNonNegative(value, "fadeTime"));
+    }
+    
+    public DoubleProperty fadeTimeProperty() {
+        return fadeTime;
+    }
+    
+    // FadeCurve property
+    public FadeCurve getFadeCurve() {
+        return fadeCurve.get();
+    }
+    
+    public void setFadeCurve(FadeCurve value) {
+        fadeCurve.set(value != null ? value : FadeCurve.LINEAR);
+    }
+    
+    public ObjectProperty<FadeCurve> fadeCurveProperty() {
+        return fadeCurve;
+    }
+    
+    // StopAfterFade property
+    public boolean isStopAfterFade() {
+        return stopAfterFade.get();
+    }
+    
+    public void setStopAfterFade(boolean value) {
+        stopAfterFade.set(value);
+    }
+    
+    public BooleanProperty stopAfterFadeProperty() {
+        return stopAfterFade;
+    }
+    
     // FilePath property
     public String getFilePath() {
         return filePath.get();
@@ -206,6 +542,45 @@ public final class Cue {
         return filePath;
     }
     
+    // PreloadState property
+    public PreloadState getPreloadState() {
+        return preloadState.get();
+    }
+    
+    public void setPreloadState(PreloadState value) {
+        preloadState.set(value != null ? value : PreloadState.NONE);
+    }
+    
+    public ObjectProperty<PreloadState> preloadStateProperty() {
+        return preloadState;
+    }
+    
+    // MediaInfo property (null until the file has been probed)
+    public MediaInfo getMediaInfo() {
+        return mediaInfo.get();
+    }
+    
+    public void setMediaInfo(MediaInfo value) {
+        mediaInfo.set(value);
+    }
+    
+    public ObjectProperty<MediaInfo> mediaInfoProperty() {
+        return mediaInfo;
+    }
+    
+    // Loudness property (null until the file has been analysed)
+    public LoudnessInfo getLoudness() {
+        return loudness.get();
+    }
+    
+    public void setLoudness(LoudnessInfo value) {
+        loudness.set(value);
+    }
+    
+    public ObjectProperty<LoudnessInfo> loudnessProperty() {
+        return loudness;
+    }
+    
     @Override
     public String toString() {
         return String.format("Cue #%d: %s (%s)", getNumber(), getName(), getFilePath());
@@ -0,0 +1,24 @@
+package com.winlabs.model;
+
+/**
+ * Enumeration of what a cue does when it is fired.
+ */
+public enum CueType {
+    AUDIO("Audio"),     // Plays its audio file
+    FADE("Fade");       // Fades the running instances of another cue
+    
+    private final String displayName;
+    
+    CueType(String displayName) {
+        this.displayName = displayName;
+    }
+    
+    public String getDisplayName() {
+        return displayName;
+    }
+    
+    @Override
+    public String toString() {
+        return displayName;
+    }
+}
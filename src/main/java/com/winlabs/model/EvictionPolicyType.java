@@ -0,0 +1,26 @@
+package com.winlabs.model;
+
+/**
+ * Enumeration of the rules the track pool uses to free idle players.
+ */
+public enum EvictionPolicyType {
+    IDLE_TIME("Idle time"),                   // Evict players unused for longer than a timeout
+    LEAST_RECENTLY_USED("Least recently used"), // Keep a number of players, evict the oldest beyond it
+    MEMORY_PRESSURE("Memory pressure"),       // Keep players until the heap fills up
+    PROTECT_UPCOMING("Protect upcoming cues"); // Idle time, but never the next cues' players
+    
+    private final String displayName;
+    
+    EvictionPolicyType(String displayName) {
+        this.displayName = displayName;
+    }
+    
+    public String getDisplayName() {
+        return displayName;
+    }
+    
+    @Override
+    public String toString() {
+        return displayName;
+    }
+}
@@ -0,0 +1,46 @@
+package com.winlabs.model;
+
+/**
+ * Enumeration of the shapes a volume fade can follow.
+ */
+public enum FadeCurve {
+    LINEAR("Linear"),            // Constant rate of change in gain
+    EQUAL_POWER("Equal Power"),  // Quarter sine; keeps perceived loudness even across a crossfade
+    S_CURVE("S-Curve");          // Half cosine; eases in and out of the change
+    
+    private final String displayName;
+    
+    FadeCurve(String displayName) {
+        this.displayName = displayName;
+    }
+    
+    public String getDisplayName() {
+        return displayName;
+    }
+    
+    /**
+     * Gets the gain part of the way through a fade.
+     * Does not allocate, so it can be evaluated on the audio thread.
+     * 
+     * @param progress How far through the fade, from 0.0 to 1.0
+     * @param from Gain at the start of the fade
+     * @param to Gain at the end of the fade
+     * @return The gain at that point
+     */
+    public double gainAt(double progress, double from, double to) {
+        double p = Math.max(0.0, Math.min(1.0, progress));
+        return switch (this) {
+            case LINEAR -> from + (to - from) * p;
+            // Rising follows sin, falling follows cos, so a fade-in and fade-out sum to constant power
+            case EQUAL_POWER -> to >= from
+                ? from + (to - from) * Math.sin(p * Math.PI / 2)
+                : to + (from - to) * Math.cos(p * Math.PI / 2);
+            case S_CURVE -> from + (to - from) * (1 - Math.cos(p * Math.PI)) / 2;
+        };
+    }
+    
+    @Override
+    public String toString() {
+        return displayName;
+    }
+}
@@ -0,0 +1,54 @@
+package com.winlabs.model;
+
+/**
+ * Loudness measured from a file's audio, as played on a stereo output. Immutable.
+ * Silent files measure negative infinity.
+ */
+public final class LoudnessInfo {
+
+    private final double integratedLufs;
+    private final double truePeakDbtp;
+    private final double rmsDbfs;
+
+    public LoudnessInfo(double integratedLufs, double truePeakDbtp, double rmsDbfs) {
+        this.integratedLufs = integratedLufs;
+        this.truePeakDbtp = truePeakDbtp;
+        this.rmsDbfs = rmsDbfs;
+    }
+
+    /**
+     * Gets the gated integrated loudness (ITU-R BS.1770) in LUFS.
+     */
+    public double getIntegratedLufs() {
+        return integratedLufs;
+    }
+
+    /**
+     * Gets the highest inter-sample peak in dB relative to full scale.
+     */
+    public double getTruePeakDbtp() {
+        return truePeakDbtp;
+    }
+
+    /**
+     * Gets the RMS level of the whole file in dB relative to full scale.
+     */
+    public double getRmsDbfs() {
+        return rmsDbfs;
+    }
+
+    /**
+     * Checks if the file had any audible content to measure.
+     */
+    public boolean isMeasured() {
+        return Double.isFinite(integratedLufs);
+    }
+
+    @Override
+    public String toString() {
+        if (!isMeasured()) {
+            return "silent";
+        }
+        return String.format("%.1f LUFS, %.1f dBTP, %.1f dBFS RMS", integratedLufs, truePeakDbtp, rmsDbfs);
+    }
+}
@@ -0,0 +1,67 @@
+package com.winlabs.model;
+
+/**
+ * What probing a media file found out about it. Immutable.
+ * Values that could not be determined are 0 (or null for the codec).
+ */
+public final class MediaInfo {
+
+    /** Result for a file whose format could not be read. */
+    public static final MediaInfo UNKNOWN = new MediaInfo(0.0, 0, 0, null);
+
+    private final double durationSeconds;
+    private final int sampleRate;
+    private final int channels;
+    private final String codec;
+
+    public MediaInfo(double durationSeconds, int sampleRate, int channels, String codec) {
+        this.durationSeconds = Math.max(0.0, durationSeconds);
+        this.sampleRate = Math.max(0, sampleRate);
+        this.channels = Math.max(0, channels);
+        this.codec = codec;
+    }
+
+    /**
+     * Gets the length of the audio in seconds, or 0 if it is not known.
+     */
+    public double getDurationSeconds() {
+        return durationSeconds;
+    }
+
+    /**
+     * Gets the sample rate in Hz, or 0 if it is not known.
+     */
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    /**
+     * Gets the number of channels, or 0 if it is not known.
+     */
+    public int getChannels() {
+        return channels;
+    }
+
+    /**
+     * Gets a short description of the encoding, such as "MP3 192 kbps" or "PCM 24-bit",
+     * or null if it is not known.
+     */
+    public String getCodec() {
+        return codec;
+    }
+
+    /**
+     * Checks if the file's format was recognised.
+     */
+    public boolean isKnown() {
+        return codec != null;
+    }
+
+    @Override
+    public String toString() {
+        if (!isKnown()) {
+            return "unknown format";
+        }
+        return String.format("%s, %d Hz, %d ch, %.3fs", codec, sampleRate, channels, durationSeconds);
+    }
+}
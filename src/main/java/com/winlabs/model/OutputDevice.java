@@ -0,0 +1,65 @@
+package com.winlabs.model;
+
+import java.util.Objects;
+
+/**
+ * One speaker system the show plays to (mains, foldback, surround effects): a label, the
+ * sound device it is connected to and how many channels it has. Immutable.
+ */
+public final class OutputDevice {
+
+    public static final int MAX_CHANNELS = 16;
+
+    /** The system's default device in stereo, where every show plays until outputs are set up. */
+    public static final OutputDevice MAINS = new OutputDevice("Mains", "", 2);
+
+    private final String label;
+    private final String deviceName;
+    private final int channels;
+
+    /**
+     * @param label Name shown in the routing grid, such as "Foldback"
+     * @param deviceName Name of the sound device, or empty for the system default
+     * @param channels Number of channels, 1 to {@value #MAX_CHANNELS}
+     */
+    public OutputDevice(String label, String deviceName, int channels) {
+        this.label = label != null && !label.isBlank() ? label.trim() : "Output";
+        this.deviceName = deviceName != null ? deviceName : "";
+        this.channels = Math.max(1, Math.min(MAX_CHANNELS, channels));
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Gets the name of the sound device, or an empty string for the system default.
+     */
+    public String getDeviceName() {
+        return deviceName;
+    }
+
+    public boolean isSystemDefault() {
+        return deviceName.isEmpty();
+    }
+
+    public int getChannels() {
+        return channels;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof OutputDevice device && channels == device.channels
+            && label.equals(device.label) && deviceName.equals(device.deviceName);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(label, deviceName, channels);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s (%s, %d ch)", label, isSystemDefault() ? "system default" : deviceName, channels);
+    }
+}
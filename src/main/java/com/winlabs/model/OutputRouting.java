@@ -0,0 +1,171 @@
+package com.winlabs.model;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Where a cue's channels go: a matrix with a linear gain from each cue channel to each output
+ * channel, the output channels of every {@link OutputDevice} numbered one after another in
+ * the show's order. A gain of 0 means the channel is not routed there. Immutable.
+ *
+ * Cue channels are the channels the cue is played with, which is the mixer's layout (stereo):
+ * a mono file arrives on both.
+ */
+public final class OutputRouting {
+
+    public static final double MAX_GAIN = 4.0; // +12 dB
+
+    private final int inputs;
+    private final int outputs;
+    private final double[] gains; // inputs rows of outputs gains
+
+    private OutputRouting(int inputs, int outputs, double[] gains) {
+        this.inputs = inputs;
+        this.outputs = outputs;
+        this.gains = gains;
+    }
+
+    /**
+     * Creates a routing with nothing routed.
+     *
+     * @param inputs Number of cue channels
+     * @param outputs Number of output channels across all devices
+     */
+    public static OutputRouting silent(int inputs, int outputs) {
+        if (inputs < 1 || outputs < 1) {
+            throw new IllegalArgumentException("A routing needs at least one input and one output");
+        }
+        return new OutputRouting(inputs, outputs, new double[inputs * outputs]);
+    }
+
+    /**
+     * Creates the routing every cue starts with: each cue channel to the same channel of the
+     * first device. A mono first device gets every cue channel at an equal share, and cue
+     * channels beyond the first device's are left out.
+     *
+     * @param inputs Number of cue channels
+     * @param devices The show's outputs, in order
+     */
+    public static OutputRouting defaultFor(int inputs, List<OutputDevice> devices) {
+        int first = devices.isEmpty() ? OutputDevice.MAINS.getChannels() : devices.get(0).getChannels();
+        OutputRouting routing = silent(inputs, Math.max(1, totalChannels(devices)));
+        for (int in = 0; in < inputs; in++) {
+            if (first == 1) {
+                routing.gains[in * routing.outputs] = 1.0 / inputs;
+            } else if (in < first) {
+                routing.gains[in * routing.outputs + in] = 1.0;
+            }
+        }
+        return routing;
+    }
+
+    /**
+     * Gets the number of output channels of a list of devices.
+     */
+    public static int totalChannels(List<OutputDevice> devices) {
+        int total = 0;
+        for (OutputDevice device : devices) {
+            total += device.getChannels();
+        }
+        return total;
+    }
+
+    /**
+     * Creates a routing from saved gains.
+     *
+     * @param inputs Number of cue channels
+     * @param outputs Number of output channels
+     * @param gains Gains row by row, one row of outputs gains per input
+     */
+    public static OutputRouting of(int inputs, int outputs, double[] gains) {
+        OutputRouting routing = silent(inputs, outputs);
+        if (gains.length != inputs * outputs) {
+            throw new IllegalArgumentException("Expected " + inputs * outputs + " gains, got " + gains.length);
+        }
+        for (int i = 0; i < gains.length; i++) {
+            routing.gains[i] = clampGain(gains[i]);
+        }
+        return routing;
+    }
+
+    public int getInputs() {
+        return inputs;
+    }
+
+    public int getOutputs() {
+        return outputs;
+    }
+
+    /**
+     * Gets the gain from a cue channel to an output channel, or 0 if either is out of range.
+     */
+    public double getGain(int input, int output) {
+        if (input < 0 || input >= inputs || output < 0 || output >= outputs) {
+            return 0.0;
+        }
+        return gains[input * outputs + output];
+    }
+
+    /**
+     * Returns a copy with one gain changed.
+     */
+    public OutputRouting withGain(int input, int output, double gain) {
+        if (input < 0 || input >= inputs || output < 0 || output >= outputs) {
+            throw new IndexOutOfBoundsException("No route from " + input + " to " + output);
+        }
+        double[] copy = gains.clone();
+        copy[input * outputs + output] = clampGain(gain);
+        return new OutputRouting(inputs, outputs, copy);
+    }
+
+    /**
+     * Returns a copy sized for another number of output channels, keeping the gains of the
+     * channels both have.
+     */
+    public OutputRouting withOutputs(int outputCount) {
+        OutputRouting resized = silent(inputs, outputCount);
+        for (int in = 0; in < inputs; in++) {
+            System.arraycopy(gains, in * outputs, resized.gains, in * outputCount, Math.min(outputs, outputCount));
+        }
+        return resized;
+    }
+
+    /**
+     * Gets every gain, row by row, for saving.
+     */
+    public double[] toArray() {
+        return gains.clone();
+    }
+
+    private static double clampGain(double gain) {
+        return Double.isFinite(gain) ? Math.max(0.0, Math.min(MAX_GAIN, gain)) : 0.0;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof OutputRouting routing && inputs == routing.inputs && outputs == routing.outputs
+            && Arrays.equals(gains, routing.gains);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * inputs + outputs) + Arrays.hashCode(gains);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        for (int in = 0; in < inputs; in++) {
+            for (int out = 0; out < outputs; out++) {
+                double gain = gains[in * outputs + out];
+                if (gain > 0) {
+                    if (text.length() > 0) {
+                        text.append(", ");
+                    }
+                    text.append(String.format("%d->%d %.1f dB", in + 1, out + 1, 20 * Math.log10(gain)));
+                }
+            }
+        }
+        return text.length() > 0 ? text.toString() : "not routed";
+    }
+}
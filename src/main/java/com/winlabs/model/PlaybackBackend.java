@@ -0,0 +1,24 @@
+package com.winlabs.model;
+
+/**
+ * Enumeration of the engines that can play cue audio.
+ */
+public enum PlaybackBackend {
+    JAVAFX("JavaFX Media"),     // One MediaPlayer (native pipeline) per voice
+    PCM_MIXER("PCM Mixer");     // WAV/AIFF decoded to memory and mixed into one output line
+    
+    private final String displayName;
+    
+    PlaybackBackend(String displayName) {
+        this.displayName = displayName;
+    }
+    
+    public String getDisplayName() {
+        return displayName;
+    }
+    
+    @Override
+    public String toString() {
+        return displayName;
+    }
+}
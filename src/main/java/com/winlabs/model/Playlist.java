@@ -1,5 +1,10 @@
 package com.winlabs.model;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
@@ -86,12 +91,50 @@ public class Playlist {
         cues.clear();
     }
     
+    /**
+     * Gets the cues that will play next, in playlist order.
+     * Starting at the given index, collects up to {@code goCount} cues that need a GO,
+     * plus every cue each of them reaches through an auto-follow chain
+     * (chained cues do not count towards {@code goCount}).
+     * 
+     * @param startIndex Index of the next cue to be fired
+     * @param goCount Number of GO presses to look ahead
+     * @return The upcoming cues in playback order
+     */
+    public List<Cue> getUpcomingCues(int startIndex, int goCount) {
+        List<Cue> upcoming = new ArrayList<>();
+        int index = Math.max(0, startIndex);
+        
+        for (int go = 0; go < goCount && index < cues.size(); go++) {
+            Cue cue = cues.get(index++);
+            upcoming.add(cue);
+            
+            // Cues reached by auto-follow play without another GO
+            while (cue.isAutoFollow() && index < cues.size()) {
+                cue = cues.get(index++);
+                upcoming.add(cue);
+            }
+        }
+        
+        return upcoming;
+    }
+    
     /**
      * Renumbers all cues sequentially starting from 1.
+     * Fade cues are retargeted to their target's new number, so they keep acting on the
+     * same cue; a fade cue whose target is no longer in the playlist is left without one (0).
      */
     public void renumberCues() {
+        Map<Integer, Integer> newNumbers = new HashMap<>();
+        for (int i = 0; i < cues.size(); i++) {
+            newNumbers.putIfAbsent(cues.get(i).getNumber(), i + 1);
+        }
         for (int i = 0; i < cues.size(); i++) {
-            cues.get(i).setNumber(i + 1);
+            Cue cue = cues.get(i);
+            cue.setNumber(i + 1);
+            if (cue.isFadeCue()) {
+                cue.setFadeTarget(newNumbers.getOrDefault(cue.getFadeTarget(), 0));
+            }
         }
     }
     
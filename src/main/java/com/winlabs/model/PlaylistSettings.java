@@ -1,5 +1,9 @@
 package com.winlabs.model;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 import javafx.beans.property.*;
 
 /**
@@ -8,9 +12,36 @@ import javafx.beans.property.*;
  */
 public class PlaylistSettings {
     
+    public static final int DEFAULT_LOOK_AHEAD_COUNT = 3;
+    public static final int MAX_LOOK_AHEAD_COUNT = 16;
+    public static final int DEFAULT_RESIDENT_CACHE_MB = 256;
+    public static final int MAX_RESIDENT_CACHE_MB = 8192;
+    public static final int DEFAULT_EVICTION_IDLE_SECONDS = 30;
+    public static final int MAX_EVICTION_IDLE_SECONDS = 3600;
+    public static final int DEFAULT_EVICTION_KEEP_COUNT = 8;
+    public static final int MAX_EVICTION_KEEP_COUNT = 64;
+    public static final int DEFAULT_EVICTION_MEMORY_PERCENT = 80;
+    public static final double DEFAULT_LOUDNESS_TARGET = -23.0; // EBU R128
+    public static final double MIN_LOUDNESS_TARGET = -40.0;
+    public static final double MAX_LOUDNESS_TARGET = -5.0;
+    public static final double DEFAULT_SILENCE_THRESHOLD = -60.0;
+    public static final double MIN_SILENCE_THRESHOLD = -90.0;
+    public static final double MAX_SILENCE_THRESHOLD = -20.0;
+    
     // Playlist-specific audio settings
     private final DoubleProperty masterVolume;
     private final StringProperty audioFileDirectory;
+    private final IntegerProperty lookAheadCount;
+    private final IntegerProperty residentCacheMb;
+    private final ObjectProperty<EvictionPolicyType> evictionPolicy;
+    private final IntegerProperty evictionIdleSeconds; // idle time and protect upcoming
+    private final IntegerProperty evictionKeepCount;   // least recently used
+    private final IntegerProperty evictionMemoryPercent; // memory pressure: heap use that triggers eviction
+    private final ObjectProperty<VoiceStealing> voiceStealing;
+    private final DoubleProperty loudnessTarget; // LUFS that cues are normalized to
+    private final DoubleProperty silenceThreshold; // dBFS below which leading and trailing audio is trimmed
+    private final ObjectProperty<List<OutputDevice>> outputDevices; // speaker systems cues are routed to, mains first
+    private final ObjectProperty<Map<String, Double>> groupLevels; // level of each cue group's bus, 0.0 to 1.0
     
     // Playlist-specific cue defaults (can override app defaults)
     private final DoubleProperty defaultPreWait;
@@ -25,6 +56,17 @@ public class PlaylistSettings {
     public PlaylistSettings() {
         this.masterVolume = new SimpleDoubleProperty(1.0);
         this.audioFileDirectory = new SimpleStringProperty("");
+        this.lookAheadCount = new SimpleIntegerProperty(DEFAULT_LOOK_AHEAD_COUNT);
+        this.residentCacheMb = new SimpleIntegerProperty(DEFAULT_RESIDENT_CACHE_MB);
+        this.evictionPolicy = new SimpleObjectProperty<>(EvictionPolicyType.IDLE_TIME);
+        this.evictionIdleSeconds = new SimpleIntegerProperty(DEFAULT_EVICTION_IDLE_SECONDS);
+        this.evictionKeepCount = new SimpleIntegerProperty(DEFAULT_EVICTION_KEEP_COUNT);
+        this.evictionMemoryPercent = new SimpleIntegerProperty(DEFAULT_EVICTION_MEMORY_PERCENT);
+        this.voiceStealing = new SimpleObjectProperty<>(VoiceStealing.OLDEST);
+        this.loudnessTarget = new SimpleDoubleProperty(DEFAULT_LOUDNESS_TARGET);
+        this.silenceThreshold = new SimpleDoubleProperty(DEFAULT_SILENCE_THRESHOLD);
+        this.outputDevices = new SimpleObjectProperty<>(List.of(OutputDevice.MAINS));
+        this.groupLevels = new SimpleObjectProperty<>(Map.of());
         this.defaultPreWait = new SimpleDoubleProperty(0.0);
         this.defaultPostWait = new SimpleDoubleProperty(0.0);
         this.defaultAutoFollow = new SimpleBooleanProperty(false);
@@ -59,6 +101,159 @@ public class PlaylistSettings {
         audioFileDirectory.set(directory);
     }
     
+    // Look-ahead (number of upcoming GOs prepared in the background)
+    public IntegerProperty lookAheadCountProperty() {
+        return lookAheadCount;
+    }
+    
+    public int getLookAheadCount() {
+        return lookAheadCount.get();
+    }
+    
+    public void setLookAheadCount(int count) {
+        lookAheadCount.set(Math.max(0, Math.min(MAX_LOOK_AHEAD_COUNT, count)));
+    }
+    
+    // Resident cache budget (MB of decoded audio kept in memory, PCM mixer only)
+    public IntegerProperty residentCacheMbProperty() {
+        return residentCacheMb;
+    }
+    
+    public int getResidentCacheMb() {
+        return residentCacheMb.get();
+    }
+    
+    public void setResidentCacheMb(int megabytes) {
+        residentCacheMb.set(Math.max(0, Math.min(MAX_RESIDENT_CACHE_MB, megabytes)));
+    }
+    
+    // Eviction policy (how idle players are freed)
+    public ObjectProperty<EvictionPolicyType> evictionPolicyProperty() {
+        return evictionPolicy;
+    }
+    
+    public EvictionPolicyType getEvictionPolicy() {
+        return evictionPolicy.get();
+    }
+    
+    public void setEvictionPolicy(EvictionPolicyType policy) {
+        evictionPolicy.set(policy != null ? policy : EvictionPolicyType.IDLE_TIME);
+    }
+    
+    // Eviction idle timeout (in seconds)
+    public IntegerProperty evictionIdleSecondsProperty() {
+        return evictionIdleSeconds;
+    }
+    
+    public int getEvictionIdleSeconds() {
+        return evictionIdleSeconds.get();
+    }
+    
+    public void setEvictionIdleSeconds(int seconds) {
+        evictionIdleSeconds.set(Math.max(1, Math.min(MAX_EVICTION_IDLE_SECONDS, seconds)));
+    }
+    
+    // Eviction keep count (idle players kept by least recently used)
+    public IntegerProperty evictionKeepCountProperty() {
+        return evictionKeepCount;
+    }
+    
+    public int getEvictionKeepCount() {
+        return evictionKeepCount.get();
+    }
+    
+    public void setEvictionKeepCount(int count) {
+        evictionKeepCount.set(Math.max(0, Math.min(MAX_EVICTION_KEEP_COUNT, count)));
+    }
+    
+    // Eviction memory threshold (percent of the maximum heap)
+    public IntegerProperty evictionMemoryPercentProperty() {
+        return evictionMemoryPercent;
+    }
+    
+    public int getEvictionMemoryPercent() {
+        return evictionMemoryPercent.get();
+    }
+    
+    public void setEvictionMemoryPercent(int percent) {
+        evictionMemoryPercent.set(Math.max(10, Math.min(100, percent)));
+    }
+    
+    // Voice stealing (what happens when a cue is played with every track in use)
+    public ObjectProperty<VoiceStealing> voiceStealingProperty() {
+        return voiceStealing;
+    }
+    
+    public VoiceStealing getVoiceStealing() {
+        return voiceStealing.get();
+    }
+    
+    public void setVoiceStealing(VoiceStealing stealing) {
+        voiceStealing.set(stealing != null ? stealing : VoiceStealing.OLDEST);
+    }
+    
+    // Loudness normalization target (LUFS)
+    public DoubleProperty loudnessTargetProperty() {
+        return loudnessTarget;
+    }
+    
+    public double getLoudnessTarget() {
+        return loudnessTarget.get();
+    }
+    
+    public void setLoudnessTarget(double lufs) {
+        loudnessTarget.set(Math.max(MIN_LOUDNESS_TARGET, Math.min(MAX_LOUDNESS_TARGET, lufs)));
+    }
+    
+    // Silence threshold for trimming (dBFS)
+    public DoubleProperty silenceThresholdProperty() {
+        return silenceThreshold;
+    }
+    
+    public double getSilenceThreshold() {
+        return silenceThreshold.get();
+    }
+    
+    public void setSilenceThreshold(double db) {
+        silenceThreshold.set(Math.max(MIN_SILENCE_THRESHOLD, Math.min(MAX_SILENCE_THRESHOLD, db)));
+    }
+    
+    // Output devices (unmodifiable, never empty; the first is the mains and the clock for the others)
+    public ObjectProperty<List<OutputDevice>> outputDevicesProperty() {
+        return outputDevices;
+    }
+    
+    public List<OutputDevice> getOutputDevices() {
+        return outputDevices.get();
+    }
+    
+    public void setOutputDevices(List<OutputDevice> devices) {
+        outputDevices.set(devices == null || devices.isEmpty() ? List.of(OutputDevice.MAINS) : List.copyOf(devices));
+    }
+    
+    // Group levels (unmodifiable; groups not listed play at full level)
+    public ObjectProperty<Map<String, Double>> groupLevelsProperty() {
+        return groupLevels;
+    }
+    
+    public Map<String, Double> getGroupLevels() {
+        return groupLevels.get();
+    }
+    
+    public double getGroupLevel(String group) {
+        return groupLevels.get().getOrDefault(group, 1.0);
+    }
+    
+    public void setGroupLevels(Map<String, Double> levels) {
+        groupLevels.set(levels == null ? Map.of() : Map.copyOf(levels));
+    }
+    
+    public void setGroupLevel(String group, double level) {
+        Map<String, Double> levels = new HashMap<>(groupLevels.get());
+        levels.put(group, Math.max(0.0, Math.min(1.0, level)));
+        groupLevels.set(Map.copyOf(levels));
+    }
+    
     // Default Pre-Wait (in seconds)
     public DoubleProperty defaultPreWaitProperty() {
         return defaultPreWait;
@@ -143,6 +338,17 @@ public class PlaylistSettings {
     public void resetToDefaults() {
         setMasterVolume(1.0);
         setAudioFileDirectory("");
+        setLookAheadCount(DEFAULT_LOOK_AHEAD_COUNT);
+        setResidentCacheMb(DEFAULT_RESIDENT_CACHE_MB);
+        setEvictionPolicy(EvictionPolicyType.IDLE_TIME);
+        setEvictionIdleSeconds(DEFAULT_EVICTION_IDLE_SECONDS);
+        setEvictionKeepCount(DEFAULT_EVICTION_KEEP_COUNT);
+        setEvictionMemoryPercent(DEFAULT_EVICTION_MEMORY_PERCENT);
+        setVoiceStealing(VoiceStealing.OLDEST);
+        setLoudnessTarget(DEFAULT_LOUDNESS_TARGET);
+        setSilenceThreshold(DEFAULT_SILENCE_THRESHOLD);
+        setGroupLevels(Map.of());
+        setOutputDevices(List.of(OutputDevice.MAINS));
         setDefaultPreWait(0.0);
         setDefaultPostWait(0.0);
         setDefaultAutoFollow(false);
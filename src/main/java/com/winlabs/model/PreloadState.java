@@ -0,0 +1,11 @@
+package com.winlabs.model;
+
+/**
+ * Represents how ready a cue's audio is before it is fired.
+ */
+public enum PreloadState {
+    NONE,       // Not prepared ahead of time
+    LOADING,    // Player is being prepared in the background
+    READY,      // A prepared player is waiting in standby
+    FAILED      // The audio could not be prepared
+}
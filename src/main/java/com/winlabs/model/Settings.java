@@ -70,6 +70,30 @@ public class Settings {
         applicationSettings.setAutoSaveInterval(interval);
     }
     
+    public int getGoLatencyWarningMs() {
+        return applicationSettings.getGoLatencyWarningMs();
+    }
+    
+    public void setGoLatencyWarningMs(int milliseconds) {
+        applicationSettings.setGoLatencyWarningMs(milliseconds);
+    }
+    
+    public int getProgressRateHz() {
+        return applicationSettings.getProgressRateHz();
+    }
+    
+    public void setProgressRateHz(int hz) {
+        applicationSettings.setProgressRateHz(hz);
+    }
+    
+    public PlaybackBackend getPlaybackBackend() {
+        return applicationSettings.getPlaybackBackend();
+    }
+    
+    public void setPlaybackBackend(PlaybackBackend backend) {
+        applicationSettings.setPlaybackBackend(backend);
+    }
+    
     public String getLastPlaylistPath() {
         return workspaceSettings.getLastPlaylistPath();
     }
@@ -0,0 +1,27 @@
+package com.winlabs.model;
+
+/**
+ * Enumeration of what the track pool does when a cue is played with every track in use.
+ */
+public enum VoiceStealing {
+    OFF("Off (cue does not play)"),              // Refuse the new cue, as before
+    OLDEST("Oldest"),                             // Take over the track that has played longest
+    QUIETEST("Quietest"),                         // Take over the track with the lowest volume
+    LOWEST_PRIORITY("Lowest cue priority"),       // Take over the track of the least important cue
+    BEDS_LAST("Oldest, looping beds last");       // Oldest, but background beds only when nothing else is left
+    
+    private final String displayName;
+    
+    VoiceStealing(String displayName) {
+        this.displayName = displayName;
+    }
+    
+    public String getDisplayName() {
+        return displayName;
+    }
+    
+    @Override
+    public String toString() {
+        return displayName;
+    }
+}
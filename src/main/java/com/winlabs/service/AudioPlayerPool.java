@@ -1,29 +1,79 @@
 package com.winlabs.service;
 
 import com.winlabs.model.AudioTrack;
+import com.winlabs.model.FadeCurve;
+import com.winlabs.model.PlaybackBackend;
 import com.winlabs.model.PlaybackState;
-import javafx.scene.media.Media;
-import javafx.scene.media.MediaPlayer;
+import com.winlabs.model.VoiceStealing;
+import com.winlabs.service.audio.AudioBackend;
+import com.winlabs.service.audio.AudioVoice;
+import com.winlabs.service.audio.PcmCache;
+import com.winlabs.service.eviction.Eviction;
+import com.winlabs.service.eviction.EvictionCandidate;
+import com.winlabs.service.eviction.EvictionPolicy;
+import com.winlabs.service.eviction.IdleTimePolicy;
+import com.winlabs.service.eviction.ProtectUpcomingPolicy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.Serial;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 /**
- * Manages a pool of MediaPlayer instances for multi-track audio playback.
- * Handles pre-warming, pooling, and automatic culling of unused players
+ * Manages a pool of audio tracks for multi-track audio playback.
+ * Handles pre-warming, pooling, and automatic culling of unused tracks
  * to minimize latency and resource usage.
+ * 
+ * Voices that have already loaded a file are kept in a standby cache keyed by
+ * file path, so a cue that was prepared (or played recently) starts without
+ * loading the file again at GO time.
+ * 
+ * Voices are opened by an {@link AudioBackend}: one JavaFX MediaPlayer per voice,
+ * decoded PCM played through a shared mixer, or a silent virtual-clock backend for tests.
+ * The pool owns its backend and closes it in {@link #dispose()}.
+ * 
+ * The pool is safe to use from several threads. Each active track holds one permit of a
+ * semaphore, so no burst of GOs can take more than the maximum number of tracks at once;
+ * callers either fail straight away when the pool is exhausted or wait up to a timeout.
+ * Idle tracks are kept on a lock-free deque with an atomic count, so acquire and release
+ * are O(1) and never copy the pool.
+ * 
+ * The pool sizes itself for the show. {@link #sizeForPeak(int)} takes the peak estimated from
+ * the playlist (see {@link PoolSizeEstimator}) and keeps that many tracks and standby voices,
+ * raising the maximum if the show needs more. The target then follows the tracks actually in
+ * use: it grows at once when a burst of GOs goes over it, so released tracks are kept rather
+ * than disposed, and only shrinks back after a minute with at least {@value #SHRINK_MARGIN}
+ * tracks to spare, one track per check, never below the playlist's estimate.
+ * 
+ * With voice stealing on, a cue played while every track is in use takes over a running one
+ * instead of failing: the {@link VoiceStealing} strategy picks the track, which is faded out
+ * over {@value #STEAL_FADE_SECONDS}s to avoid a click while the new cue starts on its permit.
+ * Every steal is kept for the post-show report.
+ * 
+ * Every {@value #CULL_INTERVAL_MS} ms a pluggable {@link EvictionPolicy} chooses which idle
+ * players to free: standby voices, and idle tracks above the target. Each eviction is logged
+ * with the policy's reason and passed to the eviction listener.
  */
 public class AudioPlayerPool {
     
@@ -31,61 +81,150 @@ public class AudioPlayerPool {
     
     private static final int DEFAULT_POOL_SIZE = 5;
     private static final int MAX_POOL_SIZE = 20;
-    private static final long CULL_TIMEOUT_MS = 30000; // 30 seconds
+    private static final int DEFAULT_STANDBY_SIZE = 8;
+    private static final long CULL_TIMEOUT_MS = 30000; // 30 seconds; default idle time before eviction
     private static final long CULL_INTERVAL_MS = 10000; // 10 seconds - how often to check
+    private static final int MAX_POOL_CEILING = 64; // Largest maximum a playlist estimate can raise the pool to
+    private static final int SHRINK_MARGIN = 2; // Spare tracks needed before the target shrinks
+    private static final int SHRINK_AFTER_CHECKS = 6; // Quiet checks (one minute) before the target shrinks
+    private static final double STEAL_FADE_SECONDS = 0.03; // Long enough not to click, short enough to go unnoticed
+    private static final int MAX_STEAL_RECORDS = 1000;
     
-    private final CopyOnWriteArrayList<AudioTrack> availableTracks;
+    private final ConcurrentLinkedDeque<AudioTrack> availableTracks;
+    private final AtomicInteger availableCount; // Size of availableTracks, which is O(n) to count
     private final ConcurrentHashMap<String, AudioTrack> activeTracks;
-    private final int initialPoolSize;
-    private final int maxPoolSize;
+    private final PermitSemaphore activePermits; // One per active track
+    private final AtomicInteger waitingCount;
+    private final AtomicInteger playingCount; // Active tracks in PLAYING, kept up to date by their transitions
+    private final AtomicInteger pausedCount; // Active tracks in PAUSED
+    private volatile Runnable activityListener;
+    private final StandbyCache<AudioVoice> standbyPlayers;
+    private final AudioBackend backend;
+    private final int configuredMaxPoolSize;
+    private volatile int maxPoolSize; // Guarded by this for writes
+    private volatile int plannedSize; // Estimated peak of the playlist; the target never shrinks below it
+    private final AtomicInteger targetSize; // Idle tracks kept for reuse
+    private final AtomicInteger peakActive; // Most tracks active since the last check
+    private int quietChecks; // Cull thread only
     private final ScheduledExecutorService cullScheduler;
     private volatile boolean autoCullEnabled;
+    private volatile EvictionPolicy evictionPolicy;
+    private volatile Set<String> upcomingFiles;
+    private volatile Consumer<Eviction> evictionListener;
+    private volatile VoiceStealing voiceStealing;
+    private final Set<String> stolenTracks; // Active tracks claimed by a steal; their permit has been handed on
+    private final Set<AudioTrack> stealFades; // Stolen tracks fading out, no longer active; only the fade releases them
+    private final ConcurrentLinkedQueue<VoiceSteal> voiceSteals; // Most recent MAX_STEAL_RECORDS
+    private final AtomicLong voiceStealCount;
+    private volatile Consumer<VoiceSteal> stealListener;
     private volatile ScheduledFuture<?> cullTask;
     
     public AudioPlayerPool() {
         this(DEFAULT_POOL_SIZE, MAX_POOL_SIZE);
     }
     
+    /**
+     * Creates a pool with default sizes that plays through the given backend.
+     */
+    public AudioPlayerPool(PlaybackBackend backend) {
+        this(DEFAULT_POOL_SIZE, MAX_POOL_SIZE, DEFAULT_STANDBY_SIZE, backend);
+    }
+    
     public AudioPlayerPool(int initialPoolSize, int maxPoolSize) {
-        this.initialPoolSize = Math.max(1, initialPoolSize);
-        this.maxPoolSize = Math.max(this.initialPoolSize, maxPoolSize);
-        this.availableTracks = new CopyOnWriteArrayList<>();
+        this(initialPoolSize, maxPoolSize, DEFAULT_STANDBY_SIZE);
+    }
+    
+    /**
+     * Creates a pool with a custom standby cache size.
+     * 
+     * @param initialPoolSize Number of tracks created by {@link #prewarm()}
+     * @param maxPoolSize Maximum number of active tracks
+     * @param standbySize Maximum number of prepared players kept ready for reuse
+     */
+    public AudioPlayerPool(int initialPoolSize, int maxPoolSize, int standbySize) {
+        this(initialPoolSize, maxPoolSize, standbySize, PlaybackBackend.JAVAFX);
+    }
+    
+    /**
+     * Creates a pool that plays through the given backend.
+     * 
+     * @param initialPoolSize Number of tracks created by {@link #prewarm()}
+     * @param maxPoolSize Maximum number of active tracks
+     * @param standbySize Maximum number of prepared voices kept ready for reuse
+     * @param backend The engine that plays the audio
+     */
+    public AudioPlayerPool(int initialPoolSize, int maxPoolSize, int standbySize, PlaybackBackend backend) {
+        this(initialPoolSize, maxPoolSize, standbySize,
+            AudioBackend.create(backend != null ? backend : PlaybackBackend.JAVAFX));
+    }
+    
+    /**
+     * Creates a pool with default sizes on a custom backend.
+     */
+    public AudioPlayerPool(AudioBackend backend) {
+        this(DEFAULT_POOL_SIZE, MAX_POOL_SIZE, DEFAULT_STANDBY_SIZE, backend);
+    }
+    
+    /**
+     * Creates a pool on a custom backend.
+     * 
+     * @param initialPoolSize Number of tracks created by {@link #prewarm()}
+     * @param maxPoolSize Maximum number of active tracks
+     * @param standbySize Maximum number of prepared voices kept ready for reuse
+     * @param backend The engine that opens voices; the pool takes ownership of it
+     */
+    public AudioPlayerPool(int initialPoolSize, int maxPoolSize, int standbySize, AudioBackend backend) {
+        if (backend == null) {
+            throw new IllegalArgumentException("Audio backend cannot be null");
+        }
+        this.backend = backend;
+        int initialSize = Math.max(1, initialPoolSize);
+        this.maxPoolSize = Math.max(initialSize, maxPoolSize);
+        this.configuredMaxPoolSize = this.maxPoolSize;
+        this.plannedSize = initialSize;
+        this.targetSize = new AtomicInteger(initialSize);
+        this.peakActive = new AtomicInteger();
+        this.availableTracks = new ConcurrentLinkedDeque<>();
+        this.availableCount = new AtomicInteger();
         this.activeTracks = new ConcurrentHashMap<>();
-        logger.info("AudioPlayerPool created: initialSize={}, maxSize={}", this.initialPoolSize, this.maxPoolSize);
+        this.activePermits = new PermitSemaphore(this.maxPoolSize);
+        this.waitingCount = new AtomicInteger();
+        this.playingCount = new AtomicInteger();
+        this.pausedCount = new AtomicInteger();
+        this.standbyPlayers = new StandbyCache<>(standbySize, 
+            AudioVoice::isReusable, AudioVoice::dispose);
+        logger.info("AudioPlayerPool created: initialSize={}, maxSize={}, standbySize={}, backend={}", 
+            initialSize, this.maxPoolSize, standbySize, backend.getName());
         this.cullScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
             Thread thread = new Thread(r, "AudioPlayerPool-Culler");
             thread.setDaemon(true);
             return thread;
         });
         this.autoCullEnabled = false;
+        this.evictionPolicy = new IdleTimePolicy(CULL_TIMEOUT_MS);
+        this.upcomingFiles = Set.of();
+        this.voiceStealing = VoiceStealing.OFF;
+        this.stolenTracks = ConcurrentHashMap.newKeySet();
+        this.stealFades = ConcurrentHashMap.newKeySet();
+        this.voiceSteals = new ConcurrentLinkedQueue<>();
+        this.voiceStealCount = new AtomicLong();
         this.cullTask = null;
     }
     
     /**
-     * Pre-warms the pool by creating initial track instances.
+     * Pre-warms the pool by creating track instances up to the target size.
      * This should be called during initialization to avoid delays on first playback.
      * Also starts automatic culling of unused tracks.
      */
     public void prewarm() {
-        logger.info("Pre-warming audio player pool with {} initial tracks", initialPoolSize);
+        int target = targetSize.get();
+        logger.info("Pre-warming audio player pool with {} initial tracks", target);
 
-        for (int i = 0; i < initialPoolSize; i++) {
-            AudioTrack track = new AudioTrack();
-            track.setPooled(true);
-            availableTracks.add(track);
-
-            if (logger.isDebugEnabled()) {
-                logger.debug("Prewarmed track {} of {} (id={}), availableTracks={}",
-                        i + 1,
-                        initialPoolSize,
-                        track.getTrackId(),
-                        availableTracks.size());
-            }
-        }
+        int created = fillAvailable();
 
         logger.info("Successfully created {} tracks for pool; final available tracks count: {}",
-                initialPoolSize,
-                availableTracks.size());
+                created,
+                availableCount.get());
 
         // Enable automatic culling
         enableAutoCulling();
@@ -94,8 +233,8 @@ public class AudioPlayerPool {
     
     /**
      * Enables automatic periodic culling of unused tracks.
-     * When enabled, the pool will automatically remove tracks that haven't been
-     * used for longer than CULL_TIMEOUT_MS.
+     * When enabled, the pool frees the idle players its eviction policy chooses
+     * every CULL_INTERVAL_MS (by default, those unused for longer than CULL_TIMEOUT_MS).
      */
     public synchronized void enableAutoCulling() {
         logger.trace("enableAutoCulling() method entry (synchronized)");
@@ -109,17 +248,17 @@ public class AudioPlayerPool {
             logger.trace("autoCullEnabled flag set to: {}", autoCullEnabled);
             
             logger.debug("Scheduling periodic cull task with interval: {}ms", CULL_INTERVAL_MS);
-            logger.trace("Timeout threshold: {}ms", CULL_TIMEOUT_MS);
+            logger.trace("Eviction policy: {}", evictionPolicy.getType());
             logger.trace("Calling scheduleWithFixedDelay on cullScheduler");
             cullTask = cullScheduler.scheduleWithFixedDelay(
-                this::cullUnusedTracksInternal,
+                this::runScheduledCheck,
                 CULL_INTERVAL_MS,
                 CULL_INTERVAL_MS,
                 TimeUnit.MILLISECONDS
             );
             logger.trace("Scheduled cull task: {}", cullTask);
             logger.info("Automatic culling enabled successfully");
-            logger.debug("Cull task will run every {}ms with timeout {}ms", CULL_INTERVAL_MS, CULL_TIMEOUT_MS);
+            logger.debug("Cull task will run every {}ms with the {} policy", CULL_INTERVAL_MS, evictionPolicy.getType());
         } else {
             logger.debug("Auto-culling is already enabled, skipping");
             logger.trace("Current cull task: {}", cullTask);
@@ -172,50 +311,360 @@ public class AudioPlayerPool {
     }
     
     /**
-     * Acquires an audio track from the pool for playback.
-     * Creates a new track if the pool is empty and under max size.
+     * Sizes the pool for a playlist's estimated peak of simultaneous tracks.
+     * Creates idle tracks up to the new target and makes room for as many voices in standby;
+     * raises the maximum if the estimate is over it (up to {@value #MAX_POOL_CEILING}), or
+     * lowers it back towards the size the pool was created with.
+     * Observed use since the last playlist no longer counts towards the target.
+     * 
+     * @param peakVoices Estimated peak, usually from {@link PoolSizeEstimator#estimatePeakVoices}
+     */
+    public synchronized void sizeForPeak(int peakVoices) {
+        int planned = Math.max(1, Math.min(MAX_POOL_CEILING, peakVoices));
+        setMaxPoolSize(Math.max(configuredMaxPoolSize, planned));
+        plannedSize = planned;
+        targetSize.set(Math.max(planned, activeTracks.size()));
+        peakActive.set(activeTracks.size());
+        quietChecks = 0;
+        
+        ensureStandbyCapacity(targetSize.get());
+        trimAvailable();
+        fillAvailable();
+        logger.info("Pool sized for a peak of {} tracks: target={}, max={}", peakVoices, targetSize.get(), maxPoolSize);
+    }
+    
+    /**
+     * Changes the maximum number of active tracks. Lowering it below the tracks in use
+     * does not stop them; new acquisitions fail until enough have been released.
+     */
+    private synchronized void setMaxPoolSize(int size) {
+        int change = size - maxPoolSize;
+        if (change > 0) {
+            activePermits.release(change);
+        } else if (change < 0) {
+            activePermits.reducePermits(-change);
+        }
+        maxPoolSize = size;
+    }
+    
+    /**
+     * Moves the target size towards the tracks actually in use. Called on every cull check:
+     * the target shrinks by one track per check once the pool has run with at least
+     * {@value #SHRINK_MARGIN} spare tracks for {@value #SHRINK_AFTER_CHECKS} checks in a row.
+     * Growing happens at once in {@link #acquireTrack(String)}.
+     */
+    void adjustTargetSize() {
+        int peak = peakActive.getAndSet(activeTracks.size());
+        int target = targetSize.get();
+        if (peak + SHRINK_MARGIN > target || target <= plannedSize) {
+            quietChecks = 0;
+            return;
+        }
+        if (++quietChecks >= SHRINK_AFTER_CHECKS
+                && targetSize.compareAndSet(target, Math.max(plannedSize, target - 1))) {
+            logger.debug("Pool target shrunk to {} (peak {} in the last check)", targetSize.get(), peak);
+        }
+    }
+    
+    /**
+     * Creates idle tracks until the target size is reached.
+     * 
+     * @return Number of tracks created
+     */
+    private int fillAvailable() {
+        int created = 0;
+        while (availableCount.get() < targetSize.get()) {
+            AudioTrack track = new AudioTrack();
+            track.setPooled(true);
+            if (!offerAvailable(track)) {
+                break; // Filled by releases meanwhile
+            }
+            created++;
+        }
+        return created;
+    }
+    
+    /**
+     * Disposes idle tracks above the target size, least recently used first.
+     */
+    private void trimAvailable() {
+        AudioTrack track;
+        while (availableCount.get() > targetSize.get() && (track = availableTracks.pollLast()) != null) {
+            availableCount.decrementAndGet();
+            track.dispose();
+        }
+    }
+    
+    private void ensureStandbyCapacity(int capacity) {
+        if (standbyPlayers.getCapacity() < capacity) {
+            standbyPlayers.setCapacity(capacity);
+        }
+    }
+    
+    /**
+     * Prepares a standby player for a file so a later {@link #acquireTrack(String)}
+     * for the same path does not have to construct one.
+     * A player already in standby for the file is kept, cued to play the whole file.
+     * 
+     * Backends that load synchronously (such as the PCM mixer, which decodes the whole file)
+     * do so on the calling thread.
+     * 
+     * @param filePath Path to the audio file to prepare
+     * @return A future that completes when the voice is ready to play
+     */
+    public CompletableFuture<Void> prepare(String filePath) {
+        return prepare(filePath, 0.0, 0.0);
+    }
+    
+    /**
+     * Prepares a standby player for a file, cued to start and end part way into it (a cue's
+     * trims), so that a track playing that range starts without buffering again.
+     * A player already in standby for the file is re-cued.
+     * 
+     * @param filePath Path to the audio file to prepare
+     * @param startSeconds Where playback will start
+     * @param endSeconds Where playback will end, or 0 for the end of the file
+     * @return A future that completes when the voice is ready to play
+     */
+    public CompletableFuture<Void> prepare(String filePath, double startSeconds, double endSeconds) {
+        Path path = validateFilePath(filePath);
+        
+        if (standbyPlayers.update(filePath, standby -> standby.setPlayRange(startSeconds, endSeconds))) {
+            return CompletableFuture.completedFuture(null);
+        }
+        
+        AudioVoice voice;
+        try {
+            voice = backend.open(path);
+        } catch (Exception e) {
+            logger.warn("Failed to prepare standby player for {}: {}", filePath, e.getMessage());
+            return CompletableFuture.failedFuture(e);
+        }
+        voice.setPlayRange(startSeconds, endSeconds);
+        
+        if (!standbyPlayers.put(filePath, voice)) {
+            // Cache disabled, or another thread prepared the same file first
+            return CompletableFuture.completedFuture(null);
+        }
+        logger.debug("Prepared standby player for {}", filePath);
+        // A voice that fails to load leaves standby, unless it has been taken or replaced since
+        return voice.whenReady().whenComplete((result, error) -> {
+            if (error != null) {
+                standbyPlayers.remove(filePath, voice);
+            }
+        });
+    }
+    
+    /**
+     * Checks if a prepared player for the file is waiting in standby.
+     */
+    public boolean isPrepared(String filePath) {
+        return filePath != null && standbyPlayers.contains(filePath);
+    }
+    
+    /**
+     * Acquires an audio track from the pool for playback. If the pool is exhausted it steals
+     * a running track when voice stealing is on, and fails at once otherwise.
+     * Reuses an idle track if there is one and creates a new one otherwise.
+     * Uses a prepared standby player for the file if one is available.
      * 
      * @param filePath Path to the audio file to load
      * @return An AudioTrack ready for playback
+     * @throws IllegalStateException if the maximum number of tracks is already active
+     *         and no track could be stolen
      * @throws Exception if the audio file cannot be loaded
      */
     public AudioTrack acquireTrack(String filePath) throws Exception {
-        if (filePath == null || filePath.isEmpty()) {
-            throw new IllegalArgumentException("File path cannot be null or empty");
+        Path path = validateFilePath(filePath);
+        if (!activePermits.tryAcquire() && !stealVoice(filePath)) {
+            throw exhausted();
+        }
+        return acquirePermitted(filePath, path);
+    }
+    
+    /**
+     * Acquires an audio track only if one is free, never stealing a running one. For tracks
+     * loaded ahead of time, such as a pre-rolled auto-follow, which are not worth cutting
+     * a cue short for.
+     * 
+     * @param filePath Path to the audio file to load
+     * @return An AudioTrack ready for playback
+     * @throws IllegalStateException if the maximum number of tracks is already active
+     * @throws Exception if the audio file cannot be loaded
+     */
+    public AudioTrack acquireSpareTrack(String filePath) throws Exception {
+        Path path = validateFilePath(filePath);
+        if (!activePermits.tryAcquire()) {
+            throw exhausted();
+        }
+        return acquirePermitted(filePath, path);
+    }
+    
+    /**
+     * Acquires an audio track from the pool for playback, waiting for another track to be
+     * released if the pool is exhausted and no track can be stolen. Never call this on the
+     * FX thread, which is the thread that releases tracks at the end of playback.
+     * 
+     * @param filePath Path to the audio file to load
+     * @param timeout Longest time to wait for a track
+     * @param unit Unit of the timeout
+     * @return An AudioTrack ready for playback
+     * @throws IllegalStateException if no track was released within the timeout
+     * @throws InterruptedException if the thread was interrupted while waiting
+     * @throws Exception if the audio file cannot be loaded
+     */
+    public AudioTrack acquireTrack(String filePath, long timeout, TimeUnit unit) throws Exception {
+        Path path = validateFilePath(filePath);
+        if (!activePermits.tryAcquire() && !stealVoice(filePath)) {
+            waitingCount.incrementAndGet();
+            try {
+                if (!activePermits.tryAcquire(timeout, unit)) {
+                    throw exhausted();
+                }
+            } finally {
+                waitingCount.decrementAndGet();
+            }
+        }
+        return acquirePermitted(filePath, path);
+    }
+    
+    /**
+     * Takes over a running track for a caller that found the pool exhausted. The track chosen
+     * by the voice stealing strategy is faded out and released, and its permit passes
+     * straight to the caller instead of going back to the pool.
+     * 
+     * @param forFilePath File the caller is about to play
+     * @return true if the caller now holds a permit; false if stealing is off or nothing can be stolen
+     */
+    private boolean stealVoice(String forFilePath) {
+        VoiceStealing strategy = voiceStealing;
+        if (strategy == VoiceStealing.OFF) {
+            return false;
         }
         
-        Path path = Paths.get(filePath);
-        if (!Files.exists(path)) {
-            throw new IllegalArgumentException("File does not exist: " + filePath);
+        List<StealCandidate> candidates = new ArrayList<>();
+        for (AudioTrack track : activeTracks.values()) {
+            // A pre-rolled chained track is silent, but a cue is waiting on it
+            if (!track.isChainPending() && !stolenTracks.contains(track.getTrackId())) {
+                candidates.add(new StealCandidate(track));
+            }
         }
+        candidates.sort(stealOrder(strategy));
         
-        // Try to get an available track from the pool
-        AudioTrack track = null;
-        if (!availableTracks.isEmpty()) {
-            track = availableTracks.remove(0);
-        } else if (getTotalTrackCount() < maxPoolSize) {
-            // Create a new track if under max size
+        for (StealCandidate candidate : candidates) {
+            AudioTrack victim = candidate.track;
+            String trackId = victim.getTrackId();
+            if (!stolenTracks.add(trackId)) {
+                continue; // Claimed by another caller
+            }
+            if (!activeTracks.remove(trackId, victim)) {
+                // Released meanwhile. If the release has not seen the claim, the permit went
+                // back to the pool (try to take it); if it has, the permit is ours
+                if (stolenTracks.remove(trackId)) {
+                    if (activePermits.tryAcquire()) {
+                        return true;
+                    }
+                    continue;
+                }
+                return true;
+            }
+            // Out of the active tracks, the victim cannot be released and reused for another
+            // cue while it fades: only the end of its fade hands it back
+            stolenTracks.remove(trackId);
+            stealFades.add(victim);
+            
+            VoiceSteal steal = new VoiceSteal(System.currentTimeMillis(), strategy, trackId,
+                victim.getFilePath(), victim.getCurrentTime(), forFilePath);
+            logger.warn("Pool exhausted (max {} tracks): stealing track {}", maxPoolSize, steal);
+            voiceSteals.add(steal);
+            if (voiceStealCount.incrementAndGet() > MAX_STEAL_RECORDS) {
+                voiceSteals.poll();
+            }
+            Consumer<VoiceSteal> listener = stealListener;
+            if (listener != null) {
+                try {
+                    listener.accept(steal);
+                } catch (Exception e) {
+                    logger.warn("Voice steal listener failed: {}", e.getMessage(), e);
+                }
+            }
+            victim.fadeOutAndStop(STEAL_FADE_SECONDS, FadeCurve.LINEAR, () -> {
+                if (stealFades.remove(victim)) {
+                    recycleTrack(victim);
+                }
+            });
+            return true;
+        }
+        return false;
+    }
+    
+    /**
+     * Orders active tracks from the first to steal to the last. Whatever the strategy,
+     * stopped and paused tracks go before any that are sounding; ties go to the track that
+     * was acquired first, however far into its file it is.
+     */
+    private static Comparator<StealCandidate> stealOrder(VoiceStealing strategy) {
+        Comparator<StealCandidate> silentFirst = Comparator.comparing(candidate -> candidate.playing);
+        Comparator<StealCandidate> oldest = Comparator.comparingLong(candidate -> candidate.acquiredNanos);
+        Comparator<StealCandidate> order = switch (strategy) {
+            case QUIETEST -> Comparator.comparingDouble((StealCandidate candidate) -> candidate.level).thenComparing(oldest);
+            case LOWEST_PRIORITY -> Comparator.comparingInt((StealCandidate candidate) -> candidate.priority).thenComparing(oldest);
+            case BEDS_LAST -> Comparator.comparing((StealCandidate candidate) -> candidate.bed).thenComparing(oldest);
+            default -> oldest;
+        };
+        return silentFirst.thenComparing(order);
+    }
+    
+    private IllegalStateException exhausted() {
+        return new IllegalStateException(
+            "Cannot acquire track: pool exhausted (max " + maxPoolSize + " tracks)");
+    }
+    
+    /**
+     * Sets up a track once the caller holds an active permit, which it gives back on failure.
+     */
+    private AudioTrack acquirePermitted(String filePath, Path path) throws Exception {
+        AudioTrack track = pollAvailable();
+        if (track == null) {
             track = new AudioTrack();
-        } else {
-            throw new IllegalStateException(
-                "Cannot acquire track: pool exhausted (max " + maxPoolSize + " tracks)");
         }
         
-        // Load the audio file
-        String mediaUrl = path.toUri().toString();
-        Media media = new Media(mediaUrl);
-        MediaPlayer mediaPlayer = new MediaPlayer(media);
+        // Use a prepared voice if one is in standby, otherwise load the file now
+        AudioVoice voice = standbyPlayers.take(filePath);
+        if (voice == null) {
+            try {
+                voice = backend.open(path);
+            } catch (Exception e) {
+                if (!offerAvailable(track)) {
+                    track.dispose();
+                }
+                activePermits.release();
+                throw e;
+            }
+        } else {
+            logger.debug("Standby hit for {}", filePath);
+        }
         
-        track.setMediaPlayer(mediaPlayer);
+        track.setVoice(voice);
         track.setFilePath(filePath);
         track.setPooled(false);
+        track.setAcquiredNanos(System.nanoTime());
         
         // Set up listener to return track to pool when playback ends
         track.setOnEndListener(this::releaseTrack);
+        track.setStateTransitionListener(this::onTrackStateChanged);
         
         // Add to active tracks
         activeTracks.put(track.getTrackId(), track);
         
+        // Keep every track of a burst for reuse instead of disposing the ones over the target
+        int active = activeTracks.size();
+        peakActive.accumulateAndGet(active, Math::max);
+        if (targetSize.get() < active) {
+            int target = targetSize.accumulateAndGet(active, Math::max);
+            logger.debug("Pool target raised to {} by a burst of GOs", target);
+        }
+        
         return track;
     }
     
@@ -230,23 +679,78 @@ public class AudioPlayerPool {
             return;
         }
         
+        // Remove from active tracks; only the first release of a track gives its permit back
+        if (!activeTracks.remove(track.getTrackId(), track)) {
+            logger.debug("Track {} is not active, nothing to release", track.getTrackId());
+            return;
+        }
         logger.debug("Releasing track: {}", track.getTrackId());
-        // Remove from active tracks
-        activeTracks.remove(track.getTrackId());
+        // A stolen track's permit has already gone to the track that took its place
+        if (!stolenTracks.remove(track.getTrackId())) {
+            activePermits.release();
+        }
+        recycleTrack(track);
+    }
+    
+    /**
+     * Returns a track that is no longer active to the idle tracks, keeping its voice in standby.
+     */
+    private void recycleTrack(AudioTrack track) {
+        // Keep the loaded voice in standby so the same file can start again instantly
+        String filePath = track.getFilePath();
+        AudioVoice voice = track.detachVoice();
+        if (voice != null) {
+            if (filePath != null && voice.isReusable()) {
+                voice.stop();
+                standbyPlayers.put(filePath, voice);
+            } else {
+                voice.dispose();
+            }
+        }
         
-        // Reset the track
+        // Reset the track; stopping it takes it out of the playing and paused counts
         track.reset();
+        track.setStateTransitionListener(null);
+        track.setFilePath(null);
         track.setPooled(true);
         
-        // Return to pool if not over initial size
-        if (availableTracks.size() < initialPoolSize) {
-            availableTracks.add(track);
-        } else {
+        // Return to pool if not over the target size
+        if (!offerAvailable(track)) {
             // Dispose if pool is full
             track.dispose();
         }
     }
     
+    /**
+     * Takes an idle track, most recently used first.
+     * 
+     * @return The track, or null if none is idle
+     */
+    private AudioTrack pollAvailable() {
+        AudioTrack track = availableTracks.pollFirst();
+        if (track != null) {
+            availableCount.decrementAndGet();
+        }
+        return track;
+    }
+    
+    /**
+     * Keeps a track for reuse unless the target number of tracks are already idle.
+     * 
+     * @return false if the track was not kept
+     */
+    private boolean offerAvailable(AudioTrack track) {
+        int count;
+        do {
+            count = availableCount.get();
+            if (count >= targetSize.get()) {
+                return false;
+            }
+        } while (!availableCount.compareAndSet(count, count + 1));
+        availableTracks.offerFirst(track);
+        return true;
+    }
+    
     /**
      * Forces a track to be released back to the pool immediately.
      * Stops playback if active.
@@ -262,6 +766,29 @@ public class AudioPlayerPool {
         }
     }
     
+    /**
+     * Fades a track out, stops it and then releases it back to the pool.
+     * The fade is timed by the playback engine; a fade time of 0 stops at once.
+     * 
+     * @param trackId The ID of the track to stop
+     * @param fadeSeconds Length of the fade-out
+     * @param curve Shape of the fade-out
+     * @param onReleased Called once the track has been released, or null
+     */
+    public void stopTrack(String trackId, double fadeSeconds, FadeCurve curve, Runnable onReleased) {
+        AudioTrack track = activeTracks.get(trackId);
+        if (track == null) {
+            return;
+        }
+        logger.debug("Stopping track {} with a {}s fade-out", trackId, fadeSeconds);
+        track.fadeOutAndStop(fadeSeconds, curve, () -> {
+            releaseTrack(track);
+            if (onReleased != null) {
+                onReleased.run();
+            }
+        });
+    }
+    
     /**
      * Gets a track by its ID.
      * 
@@ -281,6 +808,52 @@ public class AudioPlayerPool {
         return new ArrayList<>(activeTracks.values());
     }
     
+    /**
+     * Counts a state transition of an active track.
+     */
+    private void onTrackStateChanged(PlaybackState from, PlaybackState to) {
+        count(from, -1);
+        count(to, 1);
+        Runnable listener = activityListener;
+        if (listener != null && (isCounted(from) || isCounted(to))) {
+            listener.run();
+        }
+    }
+    
+    private void count(PlaybackState state, int delta) {
+        if (state == PlaybackState.PLAYING) {
+            playingCount.addAndGet(delta);
+        } else if (state == PlaybackState.PAUSED) {
+            pausedCount.addAndGet(delta);
+        }
+    }
+    
+    private static boolean isCounted(PlaybackState state) {
+        return state == PlaybackState.PLAYING || state == PlaybackState.PAUSED;
+    }
+    
+    /**
+     * Gets the number of active tracks that are playing, without scanning them.
+     */
+    public int getPlayingTrackCount() {
+        return playingCount.get();
+    }
+    
+    /**
+     * Gets the number of active tracks that are paused, without scanning them.
+     */
+    public int getPausedTrackCount() {
+        return pausedCount.get();
+    }
+    
+    /**
+     * Sets a listener called whenever the number of playing or paused tracks changes,
+     * on the thread that changed the track's state.
+     */
+    public void setActivityListener(Runnable listener) {
+        this.activityListener = listener;
+    }
+    
     /**
      * Gets the count of active tracks.
      */
@@ -289,51 +862,279 @@ public class AudioPlayerPool {
     }
     
     /**
-     * Gets the count of available (pooled) tracks.
+     * Gets the count of available (pooled, idle) tracks.
      */
     public int getAvailableTrackCount() {
-        return availableTracks.size();
+        return availableCount.get();
     }
     
     /**
      * Gets the total count of all tracks (active + available).
      */
     public int getTotalTrackCount() {
-        return activeTracks.size() + availableTracks.size();
+        return activeTracks.size() + availableCount.get();
+    }
+    
+    /**
+     * Gets the maximum number of active tracks.
+     */
+    public int getMaxPoolSize() {
+        return maxPoolSize;
+    }
+    
+    /**
+     * Gets the number of idle tracks the pool currently keeps for reuse.
+     */
+    public int getTargetPoolSize() {
+        return targetSize.get();
+    }
+    
+    /**
+     * Gets the peak the pool was last sized for with {@link #sizeForPeak(int)}.
+     */
+    public int getPlannedPoolSize() {
+        return plannedSize;
+    }
+    
+    /**
+     * Gets the number of threads waiting in {@link #acquireTrack(String, long, TimeUnit)}
+     * for a track to be released.
+     */
+    public int getWaitingCount() {
+        return waitingCount.get();
+    }
+    
+    /**
+     * Gets the number of prepared players currently in standby.
+     */
+    public int getStandbyCount() {
+        return standbyPlayers.size();
+    }
+    
+    /**
+     * Gets the maximum number of prepared players kept in standby.
+     */
+    public int getStandbyCapacity() {
+        return standbyPlayers.getCapacity();
+    }
+    
+    /**
+     * Sets the maximum number of prepared players kept in standby.
+     * Least recently used players are disposed if the standby cache shrinks.
+     */
+    public void setStandbyCapacity(int capacity) {
+        logger.info("Setting standby capacity to {}", capacity);
+        standbyPlayers.setCapacity(capacity);
+    }
+    
+    /**
+     * Gets the number of acquisitions served by a prepared standby player.
+     */
+    public long getStandbyHitCount() {
+        return standbyPlayers.getHitCount();
     }
     
     /**
-     * Internal method for automatic culling called by the scheduler.
-     * Culls unused tracks from the pool that have exceeded the timeout.
+     * Gets the number of acquisitions that had to construct a new player.
+     */
+    public long getStandbyMissCount() {
+        return standbyPlayers.getMissCount();
+    }
+    
+    /**
+     * Validates that a file path is non-empty and exists.
+     * Files already loaded in standby or in the decoded audio cache are not checked on disk,
+     * so they start without touching the filesystem.
+     */
+    private Path validateFilePath(String filePath) {
+        if (filePath == null || filePath.isEmpty()) {
+            throw new IllegalArgumentException("File path cannot be null or empty");
+        }
+        
+        Path path = Paths.get(filePath);
+        PcmCache cache = backend.getPcmCache();
+        if (standbyPlayers.contains(filePath) || (cache != null && cache.contains(path))) {
+            return path;
+        }
+        if (!Files.exists(path)) {
+            throw new IllegalArgumentException("File does not exist: " + filePath);
+        }
+        return path;
+    }
+    
+    /**
+     * Gets the backend that plays this pool's audio.
+     */
+    public AudioBackend getBackend() {
+        return backend;
+    }
+    
+    /**
+     * Gets the backend's cache of decoded audio, or null if the backend plays straight from files.
+     */
+    public PcmCache getPcmCache() {
+        return backend.getPcmCache();
+    }
+    
+    /**
+     * Periodic check run by the scheduler: adjusts the target size to recent use,
+     * then lets the eviction policy free idle players.
+     */
+    private void runScheduledCheck() {
+        adjustTargetSize();
+        cullUnusedTracks(System.currentTimeMillis());
+    }
+    
+    /**
+     * Frees the standby voices and the idle tracks above the target size that the
+     * eviction policy chooses, logging each one with the policy's reason.
      * 
-     * @return Number of tracks culled
+     * @param now {@link System#currentTimeMillis()} to measure idle time from
+     * @return Number of voices and tracks freed
      */
-    private int cullUnusedTracksInternal() {
-        long now = System.currentTimeMillis();
+    int cullUnusedTracks(long now) {
+        EvictionPolicy policy = evictionPolicy;
+        Set<String> upcoming = upcomingFiles;
         int culled = 0;
         
-        List<AudioTrack> tracksToRemove = availableTracks.stream()
-            .filter(track -> (now - track.getLastUsedTimestamp()) > CULL_TIMEOUT_MS)
-            .collect(Collectors.toList());
+        // Standby voices, least recently used first
+        Map<String, Long> storedTimes = standbyPlayers.getStoredTimes();
+        List<EvictionCandidate> voices = new ArrayList<>();
+        for (Map.Entry<String, Long> entry : storedTimes.entrySet()) {
+            voices.add(new EvictionCandidate(EvictionCandidate.Kind.STANDBY_VOICE, entry.getKey(),
+                now - entry.getValue(), upcoming.contains(entry.getKey())));
+        }
+        for (Eviction eviction : policy.select(voices)) {
+            String filePath = eviction.getCandidate().getKey();
+            // A voice taken by acquireTrack meanwhile is no longer ours to evict
+            if (standbyPlayers.evict(filePath, storedTimes.get(filePath))) {
+                reportEviction(policy, eviction);
+                culled++;
+            }
+        }
         
-        for (AudioTrack track : tracksToRemove) {
-            availableTracks.remove(track);
-            track.dispose();
-            culled++;
+        // Idle tracks above the target, least recently used (the tail of the deque) first
+        int excess = availableCount.get() - targetSize.get();
+        if (excess > 0) {
+            List<AudioTrack> idle = new ArrayList<>(availableTracks);
+            Map<String, AudioTrack> tracksById = new HashMap<>();
+            List<EvictionCandidate> tracks = new ArrayList<>();
+            for (int i = idle.size() - 1; i >= 0 && tracks.size() < excess; i--) {
+                AudioTrack track = idle.get(i);
+                tracksById.put(track.getTrackId(), track);
+                tracks.add(new EvictionCandidate(EvictionCandidate.Kind.IDLE_TRACK, track.getTrackId(),
+                    now - track.getLastUsedTimestamp(), false));
+            }
+            for (Eviction eviction : policy.select(tracks)) {
+                // Keep the tracks the show is expected to need
+                if (availableCount.get() <= targetSize.get()) {
+                    break;
+                }
+                AudioTrack track = tracksById.get(eviction.getCandidate().getKey());
+                if (track != null && availableTracks.removeFirstOccurrence(track)) {
+                    availableCount.decrementAndGet();
+                    track.dispose();
+                    reportEviction(policy, eviction);
+                    culled++;
+                }
+            }
         }
         
         return culled;
     }
     
+    private void reportEviction(EvictionPolicy policy, Eviction eviction) {
+        logger.info("Evicted {} ({} policy): {}", eviction.getCandidate(), policy.getType().getDisplayName(), eviction.getReason());
+        Consumer<Eviction> listener = evictionListener;
+        if (listener != null) {
+            try {
+                listener.accept(eviction);
+            } catch (Exception e) {
+                logger.warn("Eviction listener failed: {}", e.getMessage(), e);
+            }
+        }
+    }
+    
     /**
-     * Culls unused tracks from the pool that have exceeded the timeout.
-     * This helps manage memory by disposing of tracks that haven't been used recently.
-     * This method can be called manually to trigger culling on demand.
+     * Lets the eviction policy free idle players now instead of waiting for the next check.
+     * Only idle tracks above the target size are considered, besides the standby voices.
      * 
-     * @return Number of tracks culled
+     * @return Number of voices and tracks freed
      */
     public int cullUnusedTracks() {
-        return cullUnusedTracksInternal();
+        return cullUnusedTracks(System.currentTimeMillis());
+    }
+    
+    /**
+     * Sets what happens when a track is acquired with every track in use:
+     * {@link VoiceStealing#OFF} fails the acquisition, any other strategy steals a running track.
+     */
+    public void setVoiceStealing(VoiceStealing strategy) {
+        logger.info("Voice stealing set to {}", strategy);
+        this.voiceStealing = strategy != null ? strategy : VoiceStealing.OFF;
+    }
+    
+    /**
+     * Gets what happens when a track is acquired with every track in use.
+     */
+    public VoiceStealing getVoiceStealing() {
+        return voiceStealing;
+    }
+    
+    /**
+     * Sets a listener told about every stolen track, called on the acquiring thread
+     * before the track starts fading out.
+     */
+    public void setStealListener(Consumer<VoiceSteal> listener) {
+        this.stealListener = listener;
+    }
+    
+    /**
+     * Gets the most recent voice steals, oldest first.
+     */
+    public List<VoiceSteal> getVoiceSteals() {
+        return new ArrayList<>(voiceSteals);
+    }
+    
+    /**
+     * Gets the number of tracks stolen since the pool was created.
+     */
+    public long getVoiceStealCount() {
+        return voiceStealCount.get();
+    }
+    
+    /**
+     * Sets the rule used to free idle players on each check.
+     */
+    public void setEvictionPolicy(EvictionPolicy policy) {
+        if (policy == null) {
+            throw new IllegalArgumentException("Eviction policy cannot be null");
+        }
+        logger.info("Eviction policy set to {}", policy.getType().getDisplayName());
+        this.evictionPolicy = policy;
+    }
+    
+    /**
+     * Gets the rule used to free idle players on each check.
+     */
+    public EvictionPolicy getEvictionPolicy() {
+        return evictionPolicy;
+    }
+    
+    /**
+     * Sets the files of the cues coming up from the playlist cursor, which
+     * {@link ProtectUpcomingPolicy} never evicts from standby.
+     */
+    public void setUpcomingFiles(Collection<String> filePaths) {
+        this.upcomingFiles = Set.copyOf(filePaths);
+    }
+    
+    /**
+     * Sets a listener told about every player the eviction policy frees, with the reason.
+     * Called on the culler thread.
+     */
+    public void setEvictionListener(Consumer<Eviction> listener) {
+        this.evictionListener = listener;
     }
     
     /**
@@ -368,20 +1169,13 @@ public class AudioPlayerPool {
     }
     
     /**
-     * Sets the volume for all tracks.
+     * Sets the level of the backend's master bus, which every track plays through.
+     * Tracks keep their own volumes and fades; nothing is done per track.
      * 
-     * @param volume Volume level (0.0 to 1.0)
+     * @param level Linear gain from 0.0 to 1.0
      */
-    public void setVolumeAll(double volume) {
-        double clampedVolume = Math.max(0.0, Math.min(1.0, volume));
-        
-        for (AudioTrack track : activeTracks.values()) {
-            track.setVolume(clampedVolume);
-        }
-        
-        for (AudioTrack track : availableTracks) {
-            track.setVolume(clampedVolume);
-        }
+    public void setMasterLevel(double level) {
+        backend.setMasterLevel(Math.max(0.0, Math.min(1.0, level)));
     }
     
     /**
@@ -391,6 +1185,7 @@ public class AudioPlayerPool {
     public void dispose() {
         // Disable auto-culling and cancel the scheduled task
         disableAutoCulling();
+        activityListener = null;
         
         // Shutdown the cull scheduler
         cullScheduler.shutdown();
@@ -408,11 +1203,61 @@ public class AudioPlayerPool {
             track.dispose();
         }
         activeTracks.clear();
+        stolenTracks.clear();
+        for (AudioTrack stolen : stealFades) {
+            stolen.dispose();
+        }
+        stealFades.clear();
         
         // Dispose available tracks
-        for (AudioTrack track : availableTracks) {
+        AudioTrack track;
+        while ((track = pollAvailable()) != null) {
             track.dispose();
         }
-        availableTracks.clear();
+        
+        // Dispose standby players
+        standbyPlayers.clear();
+        
+        backend.close();
+    }
+    
+    /**
+     * Fair semaphore whose number of permits can be lowered as well as raised.
+     */
+    private static final class PermitSemaphore extends Semaphore {
+        
+        @Serial
+        private static final long serialVersionUID = 1L;
+        
+        PermitSemaphore(int permits) {
+            super(permits, true);
+        }
+        
+        @Override
+        protected void reducePermits(int reduction) {
+            super.reducePermits(reduction);
+        }
+    }
+    
+    /**
+     * An active track with what the steal order looks at, read once so the track playing on
+     * while the candidates are sorted cannot reorder them.
+     */
+    private static final class StealCandidate {
+        final AudioTrack track;
+        final boolean playing;
+        final long acquiredNanos;
+        final double level;
+        final int priority;
+        final boolean bed;
+        
+        StealCandidate(AudioTrack track) {
+            this.track = track;
+            this.playing = track.isPlaying();
+            this.acquiredNanos = track.getAcquiredNanos();
+            this.level = track.getPlayingLevel();
+            this.priority = track.getPriority();
+            this.bed = track.isBed();
+        }
     }
 }
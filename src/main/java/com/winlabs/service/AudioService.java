@@ -8,15 +8,17 @@ import java.util.function.Consumer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.winlabs.model.PlaybackBackend;
+import com.winlabs.service.audio.AudioBackend;
+import com.winlabs.service.audio.JavaFxBackend;
 import com.winlabs.model.PlaybackState;
 
+import javafx.beans.value.ChangeListener;
 import javafx.scene.media.Media;
 import javafx.scene.media.MediaPlayer;
 import javafx.util.Duration;
 
-// TODO: gap less playback,
 // TODO: equalizer settings, 
-// TODO: Cross fade between tracks
 
 
 /**
@@ -36,6 +38,7 @@ public class AudioService {
     private String currentFilePath;
     private Consumer<PlaybackState> stateChangeListener;
     private Consumer<Duration> progressListener;
+    private final ChangeListener<Duration> currentTimeListener;
     
     // Multi-track mode fields
     private AudioPlayerPool playerPool;
@@ -54,12 +57,40 @@ public class AudioService {
      * @param multiTrackMode If true, enables multi-track playback support
      */
     public AudioService(boolean multiTrackMode) {
+        this(multiTrackMode, new JavaFxBackend());
+    }
+    
+    /**
+     * Creates a new AudioService in multi-track mode using the given playback backend.
+     * 
+     * @param backend The engine that plays multi-track audio
+     */
+    public AudioService(PlaybackBackend backend) {
+        this(true, AudioBackend.create(backend != null ? backend : PlaybackBackend.JAVAFX));
+    }
+    
+    /**
+     * Creates a new AudioService in multi-track mode on a custom backend,
+     * for example a {@link com.winlabs.service.audio.NullBackend} to run without sound.
+     * 
+     * @param backend The engine that plays multi-track audio; the service's pool takes ownership of it
+     */
+    public AudioService(AudioBackend backend) {
+        this(true, backend);
+    }
+    
+    private AudioService(boolean multiTrackMode, AudioBackend backend) {
+        this.currentTimeListener = (observable, oldValue, newValue) -> {
+            if (progressListener != null) {
+                progressListener.accept(newValue);
+            }
+        };
         this.state = PlaybackState.STOPPED;
         this.currentFilePath = null;
         this.multiTrackMode = multiTrackMode;
         
         if (multiTrackMode) {
-            this.playerPool = new AudioPlayerPool();
+            this.playerPool = new AudioPlayerPool(backend);
             this.playerPool.prewarm();
         }
     }
@@ -99,12 +130,10 @@ public class AudioService {
      * Sets up event listeners for the media player.
      */
     private void setupMediaPlayerListeners() {
-        // Update progress during playback
-        mediaPlayer.currentTimeProperty().addListener((observable, oldValue, newValue) -> {
-            if (progressListener != null) {
-                progressListener.accept(newValue);
-            }
-        });
+        // Update progress during playback, only while someone listens
+        if (progressListener != null) {
+            mediaPlayer.currentTimeProperty().addListener(currentTimeListener);
+        }
         
         // Handle end of media
         mediaPlayer.setOnEndOfMedia(() -> {
@@ -292,9 +321,17 @@ public class AudioService {
     }
     
     /**
-     * Sets a listener for progress updates.
+     * Sets a listener for progress updates of the single-track player. The player's
+     * current time is only observed while a listener is set. Multi-track playback reports
+     * progress through a {@link ProgressScheduler} instead.
      */
     public void setProgressListener(Consumer<Duration> listener) {
+        if (mediaPlayer != null) {
+            mediaPlayer.currentTimeProperty().removeListener(currentTimeListener);
+            if (listener != null) {
+                mediaPlayer.currentTimeProperty().addListener(currentTimeListener);
+            }
+        }
         this.progressListener = listener;
     }
     
@@ -0,0 +1,229 @@
+package com.winlabs.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import javax.sound.sampled.UnsupportedAudioFileException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.JsonObject;
+import com.winlabs.model.Cue;
+
+/**
+ * Base for services that work something out from each cue's file in the background (its
+ * format, loudness, silence) and keep the results in a {@link FileResultCache}, so a file is
+ * only read again once it changes. Subclasses only say how to read one file and how a result
+ * is stored; this class runs that work on its executor with at most a few files read at once,
+ * answers from the cache, runs the work for a file only once at a time however many cues ask,
+ * applies results to cues, and saves the cache once the work for a batch of cues is done.
+ *
+ * @param <V> The result worked out from a file
+ */
+public abstract class FileAnalysisService<V> {
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+    private final String name;
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    private final FileResultCache<V> cache;
+    private final SingleFlight<String, V> inFlight;
+    private final AtomicInteger analysisCount;
+    private final AtomicInteger cacheHitCount;
+
+    /**
+     * Creates the service and starts reading its cache in the background.
+     *
+     * @param name What the service does, for the log ("Media probe")
+     * @param executor Runs the work; shut down by {@link #dispose()}
+     * @param maxConcurrent How many files may be read at once
+     * @param cacheFile Where results are cached
+     * @param reader Reads a result back from its cache item
+     * @param writer Adds a result's fields to its cache item
+     */
+    protected FileAnalysisService(String name, ExecutorService executor, int maxConcurrent, Path cacheFile,
+            Function<JsonObject, V> reader, BiConsumer<V, JsonObject> writer) {
+        this.name = name;
+        this.executor = executor;
+        this.permits = new Semaphore(Math.max(1, maxConcurrent));
+        this.cache = new FileResultCache<>(cacheFile, name.toLowerCase() + " cache", reader, writer);
+        this.inFlight = new SingleFlight<>();
+        this.analysisCount = new AtomicInteger();
+        this.cacheHitCount = new AtomicInteger();
+        executor.execute(cache::load);
+    }
+
+    /**
+     * Gets the result to cache for a file whose format cannot be read, or null to cache
+     * nothing and try the file again next time.
+     */
+    protected V unsupported(Path path, UnsupportedAudioFileException e) {
+        logger.debug("Cannot read {}: {}", path.getFileName(), e.getMessage());
+        return null;
+    }
+
+    /**
+     * Works out a file's result in the background. Asking again while the same work is running
+     * returns the same future.
+     *
+     * @param filePath The file
+     * @param variant Tells apart work on the same file that gives different results, or ""
+     * @param usable Whether a cached result still answers this request
+     * @param work Reads the file
+     * @param fallback Result when the file cannot be read
+     * @return Completes with the result
+     */
+    protected final CompletableFuture<V> analyze(String filePath, String variant, Predicate<V> usable, FileWork<V> work,
+            V fallback) {
+        if (filePath == null || filePath.isEmpty()) {
+            return CompletableFuture.completedFuture(fallback);
+        }
+        Path path = Paths.get(filePath).toAbsolutePath().normalize();
+        String key = path.toString();
+        return inFlight.run(key + variant, executor, () -> analyzeNow(path, key, usable, work, fallback), fallback);
+    }
+
+    private V analyzeNow(Path path, String key, Predicate<V> usable, FileWork<V> work, V fallback)
+            throws InterruptedException {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            logger.debug("Skipping missing file {}", path);
+            return fallback;
+        } catch (IOException e) {
+            logger.warn("Cannot read attributes of {}: {}", path, e.getMessage());
+            return fallback;
+        }
+        V cached = cache.get(key, attributes);
+        if (cached != null && usable.test(cached)) {
+            cacheHitCount.incrementAndGet();
+            return cached;
+        }
+
+        V result;
+        permits.acquire();
+        try {
+            long start = System.nanoTime();
+            result = work.read(path);
+            logger.debug("Read {} in {} ms: {}", path.getFileName(), (System.nanoTime() - start) / 1_000_000, result);
+        } catch (UnsupportedAudioFileException e) {
+            result = unsupported(path, e);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Failed to read {}: {}", path.getFileName(), e.getMessage());
+            return fallback;
+        } finally {
+            permits.release();
+        }
+        if (result == null) {
+            return fallback;
+        }
+        analysisCount.incrementAndGet();
+        cache.put(key, attributes, result);
+        return result;
+    }
+
+    /**
+     * Starts work for every audio cue with a file and applies each result on the apply
+     * executor (the FX thread in the app). A cue whose file changes before its result
+     * arrives, or whose result is null, is left alone. The cache is saved once no work is
+     * left running, as a playlist load asks for its cues one at a time.
+     *
+     * @param cues The cues
+     * @param wanted Picks the cues to work on, besides skipping fade cues and cues without a file
+     * @param work Starts the work for a cue's file
+     * @param apply Applies a result to its cue, returning false if it did not
+     * @param applyExecutor Executor the cues are updated on
+     * @return Completes with the number of cues updated
+     */
+    protected final <R> CompletableFuture<Integer> applyToCues(Collection<Cue> cues, Predicate<Cue> wanted,
+            Function<String, CompletableFuture<R>> work, BiPredicate<Cue, R> apply, Executor applyExecutor) {
+        AtomicInteger updated = new AtomicInteger();
+        List<CompletableFuture<R>> started = new ArrayList<>();
+        List<CompletableFuture<Void>> applied = new ArrayList<>();
+        for (Cue cue : cues) {
+            String filePath = cue.getFilePath();
+            if (cue.isFadeCue() || filePath == null || filePath.isEmpty() || !wanted.test(cue)) {
+                continue;
+            }
+            CompletableFuture<R> result = work.apply(filePath);
+            started.add(result);
+            applied.add(result.thenAcceptAsync(value -> {
+                if (value != null && filePath.equals(cue.getFilePath()) && apply.test(cue, value)) {
+                    updated.incrementAndGet();
+                }
+            }, applyExecutor));
+        }
+        if (!started.isEmpty()) {
+            CompletableFuture.allOf(started.toArray(CompletableFuture[]::new))
+                .thenRunAsync(() -> {
+                    if (inFlight.isIdle()) {
+                        flush();
+                    }
+                }, executor);
+        }
+        return CompletableFuture.allOf(applied.toArray(CompletableFuture[]::new)).thenApply(done -> updated.get());
+    }
+
+    /**
+     * Saves the cache if anything was worked out since it was last saved.
+     */
+    public void flush() {
+        cache.flush();
+    }
+
+    /**
+     * Gets how many files have actually been read, not counting cache hits.
+     */
+    public int getAnalysisCount() {
+        return analysisCount.get();
+    }
+
+    /**
+     * Gets how many requests were answered from the cache.
+     */
+    public int getCacheHitCount() {
+        return cacheHitCount.get();
+    }
+
+    /**
+     * Saves the cache and stops accepting work. Work already running is abandoned.
+     */
+    public void dispose() {
+        executor.shutdownNow();
+        flush();
+        logger.info("{}: {} files read, {} cache hits", name, analysisCount.get(), cacheHitCount.get());
+    }
+
+    /**
+     * Reads one file. Runs on the executor, holding one of the permits.
+     *
+     * @param <V> The result type
+     */
+    @FunctionalInterface
+    protected interface FileWork<V> {
+
+        /**
+         * @return The result, or null if the file cannot be used and nothing should be cached
+         * @throws UnsupportedAudioFileException if the file's format cannot be read
+         */
+        V read(Path path) throws IOException, UnsupportedAudioFileException;
+    }
+}
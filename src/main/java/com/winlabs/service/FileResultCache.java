@@ -0,0 +1,215 @@
+package com.winlabs.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.winlabs.util.PathUtil;
+
+/**
+ * Results worked out from audio files (probes, measurements, renders), kept in a JSON file
+ * keyed by path. Each result is stored with the size and modification time of the file it
+ * came from and is only handed out while both still match, so an edited file is worked out
+ * again.
+ *
+ * The JSON file is read on first use; a missing or broken file starts the cache empty, which
+ * only costs working the results out again. {@link #flush()} writes it to a temporary file
+ * that is then moved over the old one, so a crash never leaves half a cache behind.
+ *
+ * @param <V> The cached result type
+ */
+public class FileResultCache<V> {
+
+    private static final Logger logger = LoggerFactory.getLogger(FileResultCache.class);
+
+    private final Gson gson;
+    private final Path file;
+    private final String name;
+    private final Function<JsonObject, V> reader;
+    private final BiConsumer<V, JsonObject> writer;
+    private final Map<String, Entry<V>> entries;
+    private volatile boolean loaded;
+    private volatile boolean dirty;
+
+    /**
+     * Creates a cache.
+     *
+     * @param file Where the cache is kept
+     * @param name What the cache holds, for the log ("probe cache")
+     * @param reader Reads a result back from its JSON item
+     * @param writer Adds a result's fields to its JSON item
+     */
+    public FileResultCache(Path file, String name, Function<JsonObject, V> reader, BiConsumer<V, JsonObject> writer) {
+        this.gson = new GsonBuilder().setPrettyPrinting().create();
+        this.file = file;
+        this.name = name;
+        this.reader = reader;
+        this.writer = writer;
+        this.entries = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Reads the cache file if it has not been read yet. Called by every other method, so it
+     * only needs calling directly to read the file ahead of time.
+     */
+    public void load() {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (loaded) {
+                return;
+            }
+            if (Files.exists(file)) {
+                read();
+            }
+            loaded = true;
+        }
+    }
+
+    private void read() {
+        try {
+            JsonObject json = gson.fromJson(Files.readString(file), JsonObject.class);
+            if (json == null) {
+                return;
+            }
+            for (Map.Entry<String, JsonElement> entry : json.entrySet()) {
+                JsonObject item = entry.getValue().getAsJsonObject();
+                entries.put(entry.getKey(), new Entry<>(
+                    item.get("size").getAsLong(), item.get("modified").getAsLong(), reader.apply(item)));
+            }
+            logger.info("Loaded {} {} entries", entries.size(), name);
+        } catch (JsonParseException | IllegalStateException | NullPointerException | IOException e) {
+            logger.warn("Failed to load {}, starting empty: {}", name, e.getMessage());
+            entries.clear();
+        }
+    }
+
+    /**
+     * Gets the result for a file, if the file has not changed since it was worked out.
+     *
+     * @param key The file's absolute path
+     * @param attributes The file's current attributes
+     * @return The result, or null if there is none or the file has changed
+     */
+    public V get(String key, BasicFileAttributes attributes) {
+        load();
+        Entry<V> entry = entries.get(key);
+        if (entry == null || entry.size != attributes.size()
+                || entry.modified != attributes.lastModifiedTime().toMillis()) {
+            return null;
+        }
+        return entry.value;
+    }
+
+    /**
+     * Stores the result worked out from a file.
+     *
+     * @param key The file's absolute path
+     * @param attributes The file's attributes when it was read
+     * @param value The result
+     */
+    public void put(String key, BasicFileAttributes attributes, V value) {
+        load();
+        entries.put(key, new Entry<>(attributes.size(), attributes.lastModifiedTime().toMillis(), value));
+        dirty = true;
+    }
+
+    /**
+     * Forgets a file's result.
+     *
+     * @return true if there was one
+     */
+    public boolean remove(String key) {
+        load();
+        if (entries.remove(key) == null) {
+            return false;
+        }
+        dirty = true;
+        return true;
+    }
+
+    /**
+     * Checks if a file has a result, changed or not.
+     */
+    public boolean contains(String key) {
+        load();
+        return entries.containsKey(key);
+    }
+
+    /**
+     * Gets every result held, changed files included.
+     */
+    public Collection<V> values() {
+        load();
+        List<V> values = new ArrayList<>();
+        entries.values().forEach(entry -> values.add(entry.value));
+        return values;
+    }
+
+    /**
+     * Gets the number of files with a result.
+     */
+    public int size() {
+        load();
+        return entries.size();
+    }
+
+    /**
+     * Saves the cache if anything was stored or removed since it was last saved.
+     */
+    public synchronized void flush() {
+        if (!dirty) {
+            return;
+        }
+        dirty = false;
+        JsonObject json = new JsonObject();
+        entries.forEach((key, entry) -> {
+            JsonObject item = new JsonObject();
+            item.addProperty("size", entry.size);
+            item.addProperty("modified", entry.modified);
+            writer.accept(entry.value, item);
+            json.add(key, item);
+        });
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            Files.writeString(temp, gson.toJson(json));
+            PathUtil.replaceAtomically(temp, file);
+        } catch (IOException e) {
+            dirty = true;
+            logger.warn("Failed to save {}: {}", name, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * A cached result and the file state it was worked out from.
+     */
+    private static final class Entry<V> {
+        final long size;
+        final long modified;
+        final V value;
+
+        Entry(long size, long modified, V value) {
+            this.size = size;
+            this.modified = modified;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.winlabs.service;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongConsumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Measures how long a GO takes to become audible.
+ * Each GO is followed by a {@link Trace} that timestamps the stages of starting a cue.
+ * Every stage is recorded as time since the GO (or since the pre-wait expired) into a
+ * per-stage {@link LatencyHistogram}, so stages that complete out of order on a cold
+ * load are still measured consistently.
+ */
+public class GoLatencyMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(GoLatencyMonitor.class);
+    public static final int DEFAULT_WARNING_THRESHOLD_MS = 50;
+
+    /**
+     * Stages of starting a cue after the GO is received.
+     */
+    public enum Stage {
+        ACQUIRE("acquireTrack"),   // Track requested from the pool
+        MEDIA_READY("media ready"), // Media player reported READY
+        PLAY_CALLED("play()"),     // play() called on the track
+        PLAYING("PLAYING");        // Media player reported PLAYING
+
+        private final String label;
+
+        Stage(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    private final Map<Stage, LatencyHistogram> stageHistograms;
+    private final LatencyHistogram goToPlaying;
+    private final LatencyHistogram preWaitToPlaying;
+    private final AtomicLong slowGoCount;
+    private volatile long warningThresholdNanos;
+    private volatile LongConsumer onGoMeasured;
+    private volatile LongConsumer onSlowGo;
+
+    public GoLatencyMonitor() {
+        this.stageHistograms = new EnumMap<>(Stage.class);
+        for (Stage stage : Stage.values()) {
+            stageHistograms.put(stage, new LatencyHistogram());
+        }
+        this.goToPlaying = new LatencyHistogram();
+        this.preWaitToPlaying = new LatencyHistogram();
+        this.slowGoCount = new AtomicLong();
+        setWarningThresholdMillis(DEFAULT_WARNING_THRESHOLD_MS);
+    }
+
+    /**
+     * Starts timing a GO.
+     *
+     * @param originNanos {@link System#nanoTime()} when the GO was received, or when the pre-wait expired
+     * @param afterPreWait Whether the origin is a pre-wait expiring rather than the GO itself
+     * @return The trace to mark as the cue starts
+     */
+    public Trace begin(long originNanos, boolean afterPreWait) {
+        return new Trace(originNanos, afterPreWait);
+    }
+
+    /**
+     * Sets how long a GO may take to reach PLAYING before the operator is warned.
+     */
+    public void setWarningThresholdMillis(long milliseconds) {
+        this.warningThresholdNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, milliseconds));
+    }
+
+    /**
+     * Gets the warning threshold in milliseconds.
+     */
+    public long getWarningThresholdMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(warningThresholdNanos);
+    }
+
+    /**
+     * Sets a listener called with the total latency (in nanoseconds) of every GO that reaches PLAYING.
+     * Called on the thread that observed PLAYING, normally the FX thread.
+     */
+    public void setOnGoMeasured(LongConsumer listener) {
+        this.onGoMeasured = listener;
+    }
+
+    /**
+     * Sets a listener called with the total latency (in nanoseconds) of every GO over the warning threshold.
+     */
+    public void setOnSlowGo(LongConsumer listener) {
+        this.onSlowGo = listener;
+    }
+
+    /**
+     * Gets the histogram for a stage, measured from the trace origin.
+     */
+    public LatencyHistogram getStageHistogram(Stage stage) {
+        return stageHistograms.get(stage);
+    }
+
+    /**
+     * Gets the GO-to-PLAYING histogram for cues without a pre-wait.
+     */
+    public LatencyHistogram getGoToPlaying() {
+        return goToPlaying;
+    }
+
+    /**
+     * Gets the pre-wait-expired-to-PLAYING histogram.
+     */
+    public LatencyHistogram getPreWaitToPlaying() {
+        return preWaitToPlaying;
+    }
+
+    /**
+     * Gets the number of GOs that exceeded the warning threshold.
+     */
+    public long getSlowGoCount() {
+        return slowGoCount.get();
+    }
+
+    /**
+     * Formats a multi-line summary of all histograms for the session log.
+     */
+    public String formatSummary() {
+        StringBuilder summary = new StringBuilder("GO latency summary (warning threshold ")
+            .append(getWarningThresholdMillis()).append(" ms, ")
+            .append(slowGoCount.get()).append(" slow GO(s))");
+        appendLine(summary, "GO -> PLAYING", goToPlaying);
+        appendLine(summary, "pre-wait -> PLAYING", preWaitToPlaying);
+        for (Stage stage : Stage.values()) {
+            appendLine(summary, "origin -> " + stage.getLabel(), stageHistograms.get(stage));
+        }
+        return summary.toString();
+    }
+
+    /**
+     * Writes the summary to the log, if any GO was measured.
+     */
+    public void logSummary() {
+        if (goToPlaying.getCount() == 0 && preWaitToPlaying.getCount() == 0) {
+            logger.info("GO latency summary: no GOs measured this session");
+            return;
+        }
+        logger.info(formatSummary());
+    }
+
+    /**
+     * Clears all histograms and the slow GO count.
+     */
+    public void reset() {
+        stageHistograms.values().forEach(LatencyHistogram::reset);
+        goToPlaying.reset();
+        preWaitToPlaying.reset();
+        slowGoCount.set(0);
+    }
+
+    private static void appendLine(StringBuilder summary, String name, LatencyHistogram histogram) {
+        summary.append(System.lineSeparator()).append(String.format(
+            "  %-24s n=%-6d p50=%8.2f ms  p99=%8.2f ms  max=%8.2f ms",
+            name, histogram.getCount(),
+            histogram.getPercentileMillis(50), histogram.getPercentileMillis(99),
+            histogram.getMax() / 1_000_000.0));
+    }
+
+    private void complete(Trace trace, long latencyNanos) {
+        (trace.afterPreWait ? preWaitToPlaying : goToPlaying).record(latencyNanos);
+
+        LongConsumer measured = onGoMeasured;
+        if (measured != null) {
+            measured.accept(latencyNanos);
+        }
+
+        if (latencyNanos > warningThresholdNanos) {
+            slowGoCount.incrementAndGet();
+            logger.warn("Slow GO: {} ms to PLAYING (threshold {} ms){}",
+                String.format("%.1f", latencyNanos / 1_000_000.0), getWarningThresholdMillis(),
+                trace.afterPreWait ? " after pre-wait" : "");
+            LongConsumer slow = onSlowGo;
+            if (slow != null) {
+                slow.accept(latencyNanos);
+            }
+        }
+    }
+
+    /**
+     * Timestamps for a single GO. Each stage is recorded once; later marks are ignored.
+     * Marks may come from any thread.
+     */
+    public final class Trace {
+
+        private final long originNanos;
+        private final boolean afterPreWait;
+        private final AtomicLongArray stageNanos;
+
+        private Trace(long originNanos, boolean afterPreWait) {
+            this.originNanos = originNanos;
+            this.afterPreWait = afterPreWait;
+            this.stageNanos = new AtomicLongArray(Stage.values().length);
+        }
+
+        /**
+         * Marks a stage as reached now.
+         */
+        public void mark(Stage stage) {
+            mark(stage, System.nanoTime());
+        }
+
+        /**
+         * Marks a stage as reached at the given {@link System#nanoTime()}.
+         *
+         * @return true if this was the first mark for the stage
+         */
+        public boolean mark(Stage stage, long nanos) {
+            // Zero means "not reached", so never store it as a timestamp
+            long stamp = nanos == 0 ? 1 : nanos;
+            if (!stageNanos.compareAndSet(stage.ordinal(), 0L, stamp)) {
+                return false;
+            }
+            long latency = nanos - originNanos;
+            stageHistograms.get(stage).record(latency);
+            if (stage == Stage.PLAYING) {
+                complete(this, latency);
+            }
+            return true;
+        }
+
+        /**
+         * Checks if a stage has been marked.
+         */
+        public boolean isMarked(Stage stage) {
+            return stageNanos.get(stage.ordinal()) != 0L;
+        }
+
+        /**
+         * Checks if this trace is timed from a pre-wait expiring.
+         */
+        public boolean isAfterPreWait() {
+            return afterPreWait;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.winlabs.service;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.JsonObject;
+import com.winlabs.model.Cue;
+import com.winlabs.model.LoudnessInfo;
+import com.winlabs.service.audio.LoudnessMeter;
+import com.winlabs.service.audio.PcmDecoder;
+
+/**
+ * Measures the loudness of cue files and works out the gain that brings each cue to a
+ * target level, so files delivered at different levels play back evenly.
+ *
+ * Files are measured in parallel on a fork/join pool with one worker per core. Results are
+ * cached in ~/.winlabs/loudness-cache.json, keyed by path and checked against the file's
+ * size and modification time, so re-running a normalization only measures files that changed.
+ */
+public class LoudnessService extends FileAnalysisService<LoudnessInfo> {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoudnessService.class);
+    private static final String SETTINGS_DIR = ".winlabs";
+    private static final String CACHE_FILE = "loudness-cache.json";
+    public static final double DEFAULT_TRUE_PEAK_CEILING = -1.0; // dBTP; gain never pushes peaks above this
+
+    /**
+     * Creates a loudness service with the cache in the user's home directory and one worker per core.
+     */
+    public LoudnessService() {
+        this(Paths.get(System.getProperty("user.home"), SETTINGS_DIR, CACHE_FILE),
+            Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a loudness service.
+     *
+     * @param cacheFile Where measurements are cached
+     * @param parallelism Number of files measured at once
+     */
+    public LoudnessService(Path cacheFile, int parallelism) {
+        super("Loudness", newPool(parallelism), parallelism, cacheFile, LoudnessService::readLoudness,
+            LoudnessService::writeLoudness);
+    }
+
+    private static ForkJoinPool newPool(int parallelism) {
+        return new ForkJoinPool(Math.max(1, parallelism), forkJoinPool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            thread.setName("Loudness-" + thread.getPoolIndex());
+            thread.setPriority(Thread.MIN_PRIORITY); // Never compete with playback
+            return thread;
+        }, null, false);
+    }
+
+    /**
+     * Works out the gain that brings a file to the target loudness, reduced if needed so its
+     * true peak stays under the ceiling.
+     *
+     * @param loudness The file's measured loudness
+     * @param targetLufs Loudness to normalize to
+     * @param ceilingDbtp Highest true peak allowed after the gain
+     * @return The gain in dB, or 0 if the file is silent
+     */
+    public static double normalizationGain(LoudnessInfo loudness, double targetLufs, double ceilingDbtp) {
+        if (loudness == null || !loudness.isMeasured()) {
+            return 0.0;
+        }
+        double gain = targetLufs - loudness.getIntegratedLufs();
+        if (Double.isFinite(loudness.getTruePeakDbtp())) {
+            gain = Math.min(gain, ceilingDbtp - loudness.getTruePeakDbtp());
+        }
+        return Math.round(gain * 10.0) / 10.0;
+    }
+
+    /**
+     * Measures a file in the background.
+     *
+     * @param filePath The audio file
+     * @return Completes with the file's loudness, or with null if it cannot be read
+     */
+    public CompletableFuture<LoudnessInfo> analyze(String filePath) {
+        return analyze(filePath, "", loudness -> true, path -> LoudnessMeter.measure(PcmDecoder.openForAnalysis(path)),
+            null);
+    }
+
+    /**
+     * Measures every audio cue's file and sets each cue's loudness and normalization gain on
+     * the apply executor (the FX thread in the app). Cues whose files cannot be read, or whose
+     * file changes before the result arrives, are left alone.
+     *
+     * @param cues The cues to normalize
+     * @param targetLufs Loudness to normalize to
+     * @param ceilingDbtp Highest true peak allowed after the gain
+     * @param applyExecutor Executor the cues are updated on
+     * @return Completes with the number of cues that were normalized
+     */
+    public CompletableFuture<Integer> normalizeCues(Collection<Cue> cues, double targetLufs, double ceilingDbtp,
+            Executor applyExecutor) {
+        long start = System.nanoTime();
+        return applyToCues(cues, cue -> true, this::analyze, (cue, loudness) -> {
+            cue.setLoudness(loudness);
+            cue.setNormalizationGain(normalizationGain(loudness, targetLufs, ceilingDbtp));
+            return true;
+        }, applyExecutor).thenApply(normalized -> {
+            logger.info("Normalized {} cues to {} LUFS in {} ms", normalized, targetLufs,
+                (System.nanoTime() - start) / 1_000_000);
+            return normalized;
+        });
+    }
+
+    private static LoudnessInfo readLoudness(JsonObject item) {
+        return new LoudnessInfo(
+            item.has("integratedLufs") ? item.get("integratedLufs").getAsDouble() : Double.NEGATIVE_INFINITY,
+            item.has("truePeakDbtp") ? item.get("truePeakDbtp").getAsDouble() : Double.NEGATIVE_INFINITY,
+            item.has("rmsDbfs") ? item.get("rmsDbfs").getAsDouble() : Double.NEGATIVE_INFINITY);
+    }
+
+    private static void writeLoudness(LoudnessInfo loudness, JsonObject item) {
+        // Silence is stored by leaving the levels out; JSON has no infinity
+        addFinite(item, "integratedLufs", loudness.getIntegratedLufs());
+        addFinite(item, "truePeakDbtp", loudness.getTruePeakDbtp());
+        addFinite(item, "rmsDbfs", loudness.getRmsDbfs());
+    }
+
+    private static void addFinite(JsonObject item, String name, double value) {
+        if (Double.isFinite(value)) {
+            item.addProperty(name, value);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.winlabs.service;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+import javax.sound.sampled.UnsupportedAudioFileException;
+
+import com.google.gson.JsonObject;
+import com.winlabs.model.Cue;
+import com.winlabs.model.MediaInfo;
+import com.winlabs.service.audio.AudioFileProber;
+import com.winlabs.service.audio.MediaProber;
+
+/**
+ * Works out the duration and format of cue files in the background, so loading a playlist
+ * or adding files never waits on disk. Each probe runs on its own virtual thread.
+ *
+ * Results are cached in ~/.winlabs/probe-cache.json, so reopening a show only probes files
+ * that changed. The cache is read in the background too; probes wait for it before looking.
+ */
+public class MediaProbeService extends FileAnalysisService<MediaInfo> {
+
+    private static final String SETTINGS_DIR = ".winlabs";
+    private static final String CACHE_FILE = "probe-cache.json";
+    public static final int DEFAULT_MAX_CONCURRENT_PROBES = 4;
+
+    private final MediaProber prober;
+
+    /**
+     * Creates a probe service with the cache in the user's home directory.
+     */
+    public MediaProbeService() {
+        this(Paths.get(System.getProperty("user.home"), SETTINGS_DIR, CACHE_FILE),
+            new AudioFileProber(), DEFAULT_MAX_CONCURRENT_PROBES);
+    }
+
+    /**
+     * Creates a probe service.
+     *
+     * @param cacheFile Where the probe cache is kept
+     * @param prober Reads the files
+     * @param maxConcurrentProbes How many files may be read at once
+     */
+    public MediaProbeService(Path cacheFile, MediaProber prober, int maxConcurrentProbes) {
+        super("Media probe", Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("MediaProbe-", 0).factory()),
+            maxConcurrentProbes, cacheFile, MediaProbeService::readInfo, MediaProbeService::writeInfo);
+        this.prober = prober;
+    }
+
+    /**
+     * Probes a file in the background. Asking again while a probe of the same file is
+     * running returns the same future.
+     *
+     * @param filePath The file to probe
+     * @return Completes with the file's info; {@link MediaInfo#UNKNOWN} if it could not be read
+     */
+    public CompletableFuture<MediaInfo> probe(String filePath) {
+        return analyze(filePath, "", info -> true, prober::probe, MediaInfo.UNKNOWN);
+    }
+
+    /**
+     * Probes every audio cue's file in the background and fills in its duration and media
+     * info on the apply executor (the FX thread in the app).
+     *
+     * @param cues The cues to probe
+     * @param applyExecutor Executor the cues are updated on
+     * @return Completes once every cue has been updated
+     */
+    public CompletableFuture<Void> probeCues(Collection<Cue> cues, Executor applyExecutor) {
+        return applyToCues(cues, cue -> true, this::probe, (cue, info) -> {
+            cue.setMediaInfo(info);
+            if (info.getDurationSeconds() > 0) {
+                cue.setDuration(info.getDurationSeconds());
+            }
+            return true;
+        }, applyExecutor).thenApply(probed -> null);
+    }
+
+    @Override
+    protected MediaInfo unsupported(Path path, UnsupportedAudioFileException e) {
+        // Cached too, so unreadable formats are not retried every time the show opens
+        super.unsupported(path, e);
+        return MediaInfo.UNKNOWN;
+    }
+
+    private static MediaInfo readInfo(JsonObject item) {
+        String codec = item.has("codec") ? item.get("codec").getAsString() : null;
+        return codec == null ? MediaInfo.UNKNOWN : new MediaInfo(
+            item.has("duration") ? item.get("duration").getAsDouble() : 0.0,
+            item.has("sampleRate") ? item.get("sampleRate").getAsInt() : 0,
+            item.has("channels") ? item.get("channels").getAsInt() : 0,
+            codec);
+    }
+
+    private static void writeInfo(MediaInfo info, JsonObject item) {
+        if (info.isKnown()) {
+            item.addProperty("duration", info.getDurationSeconds());
+            item.addProperty("sampleRate", info.getSampleRate());
+            item.addProperty("channels", info.getChannels());
+            item.addProperty("codec", info.getCodec());
+        }
+    }
+
+    /**
+     * Gets how many files have actually been read, not counting cache hits.
+     */
+    public int getProbeCount() {
+        return getAnalysisCount();
+    }
+}
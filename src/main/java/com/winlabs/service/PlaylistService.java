@@ -3,8 +3,12 @@ package com.winlabs.service;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.winlabs.model.Cue;
+import com.winlabs.model.CueType;
+import com.winlabs.model.FadeCurve;
+import com.winlabs.model.OutputRouting;
 import com.winlabs.model.Playlist;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -91,6 +95,45 @@ public class PlaylistService {
             cueObj.addProperty("postWait", cue.getPostWait());
             logger.trace("Adding property 'autoFollow': {}", cue.isAutoFollow());
             cueObj.addProperty("autoFollow", cue.isAutoFollow());
+            logger.trace("Adding property 'crossfadeTime': {}", cue.getCrossfadeTime());
+            cueObj.addProperty("crossfadeTime", cue.getCrossfadeTime());
+            logger.trace("Adding property 'priority': {}", cue.getPriority());
+            cueObj.addProperty("priority", cue.getPriority());
+            logger.trace("Adding property 'normalizationGain': {}", cue.getNormalizationGain());
+            cueObj.addProperty("normalizationGain", cue.getNormalizationGain());
+            logger.trace("Adding trim properties: start={}, end={}, auto={}", cue.getStartTrim(), cue.getEndTrim(), cue.isAutoTrim());
+            cueObj.addProperty("startTrim", cue.getStartTrim());
+            cueObj.addProperty("endTrim", cue.getEndTrim());
+            cueObj.addProperty("autoTrim", cue.isAutoTrim());
+            OutputRouting routing = cue.getRouting();
+            if (routing != null) {
+                logger.trace("Adding routing: {}", routing);
+                JsonObject routingObj = new JsonObject();
+                routingObj.addProperty("inputs", routing.getInputs());
+                routingObj.addProperty("outputs", routing.getOutputs());
+                JsonArray gains = new JsonArray();
+                for (double gain : routing.toArray()) {
+                    gains.add(gain);
+                }
+                routingObj.add("gains", gains);
+                cueObj.add("routing", routingObj);
+            }
+            logger.trace("Adding property 'group': {}", cue.getGroup());
+            cueObj.addProperty("group", cue.getGroup());
+            logger.trace("Adding property 'keepResident': {}", cue.isKeepResident());
+            cueObj.addProperty("keepResident", cue.isKeepResident());
+            logger.trace("Adding loop properties: start={}, end={}, count={}", cue.getLoopStart(), cue.getLoopEnd(), cue.getLoopCount());
+            cueObj.addProperty("loopStart", cue.getLoopStart());
+            cueObj.addProperty("loopEnd", cue.getLoopEnd());
+            cueObj.addProperty("loopCount", cue.getLoopCount());
+            logger.trace("Adding fade properties: type={}, target={}, level={}, time={}, curve={}, stopAfterFade={}",
+                cue.getType(), cue.getFadeTarget(), cue.getFadeLevel(), cue.getFadeTime(), cue.getFadeCurve(), cue.isStopAfterFade());
+            cueObj.addProperty("type", cue.getType().name());
+            cueObj.addProperty("fadeTarget", cue.getFadeTarget());
+            cueObj.addProperty("fadeLevel", cue.getFadeLevel());
+            cueObj.addProperty("fadeTime", cue.getFadeTime());
+            cueObj.addProperty("fadeCurve", cue.getFadeCurve().name());
+            cueObj.addProperty("stopAfterFade", cue.isStopAfterFade());
             logger.trace("Adding property 'filePath': {}", cue.getFilePath());
             cueObj.addProperty("filePath", cue.getFilePath());
             logger.debug("All properties added for cue {}", cueIndex);
@@ -166,7 +209,50 @@ public class PlaylistService {
                 cue.setPreWait(cueObj.has("preWait") ? cueObj.get("preWait").getAsDouble() : 0.0);
                 cue.setPostWait(cueObj.has("postWait") ? cueObj.get("postWait").getAsDouble() : 0.0);
                 cue.setAutoFollow(cueObj.has("autoFollow") ? cueObj.get("autoFollow").getAsBoolean() : false);
+                cue.setCrossfadeTime(cueObj.has("crossfadeTime") ? cueObj.get("crossfadeTime").getAsDouble() : 0.0);
+                cue.setPriority(cueObj.has("priority") ? cueObj.get("priority").getAsInt() : 0);
+                cue.setNormalizationGain(cueObj.has("normalizationGain") ? cueObj.get("normalizationGain").getAsDouble() : 0.0);
+                cue.setStartTrim(cueObj.has("startTrim") ? cueObj.get("startTrim").getAsDouble() : 0.0);
+                cue.setEndTrim(cueObj.has("endTrim") ? cueObj.get("endTrim").getAsDouble() : 0.0);
+                cue.setAutoTrim(!cueObj.has("autoTrim") || cueObj.get("autoTrim").getAsBoolean());
+                if (cueObj.has("routing")) {
+                    JsonObject routingObj = cueObj.getAsJsonObject("routing");
+                    JsonArray gains = routingObj.getAsJsonArray("gains");
+                    double[] values = new double[gains.size()];
+                    int g = 0;
+                    for (JsonElement gain : gains) {
+                        values[g++] = gain.getAsDouble();
+                    }
+                    try {
+                        cue.setRouting(OutputRouting.of(routingObj.get("inputs").getAsInt(), routingObj.get("outputs").getAsInt(), values));
+                    } catch (IllegalArgumentException e) {
+                        logger.warn("Ignoring invalid routing on cue {}: {}", cue.getNumber(), e.getMessage());
+                    }
+                }
+                cue.setGroup(cueObj.has("group") ? cueObj.get("group").getAsString() : "");
+                cue.setKeepResident(cueObj.has("keepResident") && cueObj.get("keepResident").getAsBoolean());
+                cue.setLoopStart(cueObj.has("loopStart") ? cueObj.get("loopStart").getAsDouble() : 0.0);
+                cue.setLoopEnd(cueObj.has("loopEnd") ? cueObj.get("loopEnd").getAsDouble() : 0.0);
+                cue.setLoopCount(cueObj.has("loopCount") ? cueObj.get("loopCount").getAsInt() : 0);
                 cue.setFilePath(cueObj.has("filePath") ? cueObj.get("filePath").getAsString() : "");
+                if (cueObj.has("type")) {
+                    try {
+                        cue.setType(CueType.valueOf(cueObj.get("type").getAsString()));
+                    } catch (IllegalArgumentException e) {
+                        logger.warn("Unknown cue type '{}' on cue {}, treating it as audio", cueObj.get("type").getAsString(), cue.getNumber());
+                    }
+                }
+                cue.setFadeTarget(cueObj.has("fadeTarget") ? cueObj.get("fadeTarget").getAsInt() : 0);
+                cue.setFadeLevel(cueObj.has("fadeLevel") ? cueObj.get("fadeLevel").getAsDouble() : 0.0);
+                cue.setFadeTime(cueObj.has("fadeTime") ? cueObj.get("fadeTime").getAsDouble() : 0.0);
+                if (cueObj.has("fadeCurve")) {
+                    try {
+                        cue.setFadeCurve(FadeCurve.valueOf(cueObj.get("fadeCurve").getAsString()));
+                    } catch (IllegalArgumentException e) {
+                        logger.warn("Unknown fade curve '{}' on cue {}, using linear", cueObj.get("fadeCurve").getAsString(), cue.getNumber());
+                    }
+                }
+                cue.setStopAfterFade(cueObj.has("stopAfterFade") && cueObj.get("stopAfterFade").getAsBoolean());
                 
                 playlist.addCue(cue);
             }
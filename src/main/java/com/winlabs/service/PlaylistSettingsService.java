@@ -4,16 +4,25 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import com.google.gson.JsonSyntaxException;
+import com.winlabs.model.EvictionPolicyType;
+import com.winlabs.model.OutputDevice;
 import com.winlabs.model.PlaylistSettings;
+import com.winlabs.model.VoiceStealing;
 
 /**
  * Service for saving and loading playlist-specific settings from .wlp files.
@@ -46,6 +55,27 @@ public class PlaylistSettingsService {
         JsonObject json = new JsonObject();
         json.addProperty("masterVolume", settings.getMasterVolume());
         json.addProperty("audioFileDirectory", settings.getAudioFileDirectory());
+        json.addProperty("lookAheadCount", settings.getLookAheadCount());
+        json.addProperty("residentCacheMb", settings.getResidentCacheMb());
+        json.addProperty("evictionPolicy", settings.getEvictionPolicy().name());
+        json.addProperty("evictionIdleSeconds", settings.getEvictionIdleSeconds());
+        json.addProperty("evictionKeepCount", settings.getEvictionKeepCount());
+        json.addProperty("evictionMemoryPercent", settings.getEvictionMemoryPercent());
+        json.addProperty("voiceStealing", settings.getVoiceStealing().name());
+        json.addProperty("loudnessTarget", settings.getLoudnessTarget());
+        json.addProperty("silenceThreshold", settings.getSilenceThreshold());
+        JsonArray outputs = new JsonArray();
+        for (OutputDevice device : settings.getOutputDevices()) {
+            JsonObject output = new JsonObject();
+            output.addProperty("label", device.getLabel());
+            output.addProperty("deviceName", device.getDeviceName());
+            output.addProperty("channels", device.getChannels());
+            outputs.add(output);
+        }
+        json.add("outputDevices", outputs);
+        JsonObject groupLevels = new JsonObject();
+        settings.getGroupLevels().forEach(groupLevels::addProperty);
+        json.add("groupLevels", groupLevels);
         json.addProperty("defaultPreWait", settings.getDefaultPreWait());
         json.addProperty("defaultPostWait", settings.getDefaultPostWait());
         json.addProperty("defaultAutoFollow", settings.isDefaultAutoFollow());
@@ -87,6 +117,59 @@ public class PlaylistSettingsService {
             if (json.has("audioFileDirectory")) {
                 settings.setAudioFileDirectory(json.get("audioFileDirectory").getAsString());
             }
+            if (json.has("lookAheadCount")) {
+                settings.setLookAheadCount(json.get("lookAheadCount").getAsInt());
+            }
+            if (json.has("residentCacheMb")) {
+                settings.setResidentCacheMb(json.get("residentCacheMb").getAsInt());
+            }
+            if (json.has("evictionPolicy")) {
+                try {
+                    settings.setEvictionPolicy(EvictionPolicyType.valueOf(json.get("evictionPolicy").getAsString()));
+                } catch (IllegalArgumentException e) {
+                    logger.warn("Unknown eviction policy '{}', using idle time", json.get("evictionPolicy").getAsString());
+                }
+            }
+            if (json.has("evictionIdleSeconds")) {
+                settings.setEvictionIdleSeconds(json.get("evictionIdleSeconds").getAsInt());
+            }
+            if (json.has("evictionKeepCount")) {
+                settings.setEvictionKeepCount(json.get("evictionKeepCount").getAsInt());
+            }
+            if (json.has("evictionMemoryPercent")) {
+                settings.setEvictionMemoryPercent(json.get("evictionMemoryPercent").getAsInt());
+            }
+            if (json.has("voiceStealing")) {
+                try {
+                    settings.setVoiceStealing(VoiceStealing.valueOf(json.get("voiceStealing").getAsString()));
+                } catch (IllegalArgumentException e) {
+                    logger.warn("Unknown voice stealing mode '{}', stealing the oldest", json.get("voiceStealing").getAsString());
+                }
+            }
+            if (json.has("loudnessTarget")) {
+                settings.setLoudnessTarget(json.get("loudnessTarget").getAsDouble());
+            }
+            if (json.has("silenceThreshold")) {
+                settings.setSilenceThreshold(json.get("silenceThreshold").getAsDouble());
+            }
+            if (json.has("outputDevices")) {
+                List<OutputDevice> devices = new ArrayList<>();
+                for (JsonElement element : json.getAsJsonArray("outputDevices")) {
+                    JsonObject output = element.getAsJsonObject();
+                    devices.add(new OutputDevice(
+                        output.has("label") ? output.get("label").getAsString() : null,
+                        output.has("deviceName") ? output.get("deviceName").getAsString() : "",
+                        output.has("channels") ? output.get("channels").getAsInt() : 2));
+                }
+                settings.setOutputDevices(devices);
+            }
+            if (json.has("groupLevels")) {
+                Map<String, Double> groupLevels = new HashMap<>();
+                for (Map.Entry<String, JsonElement> entry : json.getAsJsonObject("groupLevels").entrySet()) {
+                    groupLevels.put(entry.getKey(), Math.max(0.0, Math.min(1.0, entry.getValue().getAsDouble())));
+                }
+                settings.setGroupLevels(groupLevels);
+            }
             if (json.has("defaultPreWait")) {
                 settings.setDefaultPreWait(json.get("defaultPreWait").getAsDouble());
             }
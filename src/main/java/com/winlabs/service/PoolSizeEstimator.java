@@ -0,0 +1,112 @@
+package com.winlabs.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.winlabs.model.Cue;
+
+/**
+ * Estimates how many tracks a playlist holds at its busiest moment, so the
+ * {@link AudioPlayerPool} can be sized for the show before the first GO.
+ *
+ * The playlist is run on paper: every cue that is not reached by an auto-follow is a GO,
+ * and GOs are assumed to come {@link #GO_INTERVAL_SECONDS} apart, as an operator firing a
+ * sequence of effects would. Each GO starts its cue after the pre-wait; an auto-follow starts
+ * the next cue once the cue ends and the post-wait has run, or its crossfade time before the
+ * end. A track is counted from the moment the pool hands it out, so a cue that is pre-rolled
+ * for a gapless auto-follow counts from the start of the cue in front of it.
+ */
+public class PoolSizeEstimator {
+
+    /** Assumed time between GOs, in seconds: a fast operator going through a sequence. */
+    public static final double GO_INTERVAL_SECONDS = 1.0;
+
+    /**
+     * Estimates the largest number of tracks playing (or pre-rolled) at once.
+     * Cues without a known duration are assumed to last until the next GO.
+     *
+     * @param cues The cues in playlist order
+     * @return The estimated peak, at least 1
+     */
+    public static int estimatePeakVoices(List<Cue> cues) {
+        List<double[]> intervals = new ArrayList<>();
+        double goTime = -GO_INTERVAL_SECONDS;
+        double followTime = 0.0; // When the auto-follow of the previous cue fires
+        double preRollFrom = Double.NaN; // When the track was pre-rolled, if it was chained
+        boolean followed = false;
+
+        for (int i = 0; i < cues.size(); i++) {
+            Cue cue = cues.get(i);
+            double fireTime;
+            if (followed) {
+                fireTime = followTime;
+            } else {
+                goTime += GO_INTERVAL_SECONDS;
+                fireTime = goTime;
+                preRollFrom = Double.NaN;
+            }
+
+            double start = fireTime + Math.max(0.0, cue.getPreWait());
+            double end;
+            if (cue.isFadeCue()) {
+                end = start + Math.max(0.0, cue.getFadeTime());
+            } else {
+                end = start + (cue.getDuration() > 0 ? cue.getDuration() : GO_INTERVAL_SECONDS);
+                if (hasAudio(cue)) {
+                    intervals.add(new double[] { Double.isNaN(preRollFrom) ? start : preRollFrom, end });
+                }
+            }
+
+            // Same rule as the controller: only an audio cue auto-following without a post-wait
+            // into an audio cue without a pre-wait is chained, and only then do they crossfade
+            Cue next = i + 1 < cues.size() ? cues.get(i + 1) : null;
+            boolean chained = cue.isAutoFollow() && !cue.isFadeCue() && hasAudio(cue) && cue.getPostWait() <= 0
+                && next != null && !next.isFadeCue() && next.getPreWait() <= 0 && hasAudio(next);
+            if (chained) {
+                followTime = end - Math.min(Math.max(0.0, cue.getCrossfadeTime()), end - start);
+                preRollFrom = start;
+            } else {
+                followTime = end + Math.max(0.0, cue.getPostWait());
+                preRollFrom = Double.NaN;
+            }
+            followed = cue.isAutoFollow();
+        }
+
+        return Math.max(1, peakOverlap(intervals));
+    }
+
+    private static boolean hasAudio(Cue cue) {
+        String filePath = cue.getFilePath();
+        return filePath != null && !filePath.isEmpty();
+    }
+
+    /**
+     * Finds the largest number of intervals that overlap. An interval ending at the moment
+     * another starts does not overlap it, as the pool releases the track before the next GO.
+     */
+    private static int peakOverlap(List<double[]> intervals) {
+        int count = intervals.size();
+        double[] starts = new double[count];
+        double[] ends = new double[count];
+        for (int i = 0; i < count; i++) {
+            starts[i] = intervals.get(i)[0];
+            ends[i] = intervals.get(i)[1];
+        }
+        Arrays.sort(starts);
+        Arrays.sort(ends);
+
+        int peak = 0;
+        int open = 0;
+        int endIndex = 0;
+        for (double start : starts) {
+            while (endIndex < count && ends[endIndex] <= start) {
+                open--;
+                endIndex++;
+            }
+            open++;
+            peak = Math.max(peak, open);
+        }
+        return peak;
+    }
+}
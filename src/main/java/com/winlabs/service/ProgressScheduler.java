@@ -0,0 +1,211 @@
+package com.winlabs.service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.winlabs.model.AudioTrack;
+import com.winlabs.service.audio.LevelMeter;
+
+/**
+ * Samples the position and level of every running track at a fixed rate and publishes one
+ * {@link ProgressSnapshot} per tick, instead of each player reporting its own progress.
+ * The UI's cost is one callback per tick however many cues are running.
+ *
+ * Ticks run on a daemon thread and only while someone is subscribed. Snapshots are handed
+ * to subscribers on the delivery executor (the FX thread in the app); if it falls behind,
+ * older snapshots are dropped and only the newest is delivered. Once every track has
+ * stopped, one empty snapshot is published and the scheduler stays quiet until a track
+ * starts again.
+ */
+public class ProgressScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProgressScheduler.class);
+
+    public static final int DEFAULT_RATE_HZ = 30;
+    public static final int MIN_RATE_HZ = 1;
+    public static final int MAX_RATE_HZ = 120;
+
+    private final Supplier<? extends Collection<AudioTrack>> tracks;
+    private final Executor deliveryExecutor;
+    private final List<Consumer<ProgressSnapshot>> subscribers;
+    private final AtomicReference<ProgressSnapshot> pending; // Published, waiting for delivery
+    private volatile Supplier<LevelMeter> masterMeter;
+    private volatile ProgressSnapshot latest;
+    private ScheduledExecutorService tickScheduler; // Guarded by this
+    private ScheduledFuture<?> tickTask; // Guarded by this
+    private int rateHz; // Guarded by this
+    private boolean disposed; // Guarded by this
+
+    /**
+     * Creates a scheduler that ticks at {@value #DEFAULT_RATE_HZ} Hz.
+     *
+     * @param tracks Supplies the tracks to sample, usually the pool's active tracks
+     * @param deliveryExecutor Executor that subscribers are called on
+     */
+    public ProgressScheduler(Supplier<? extends Collection<AudioTrack>> tracks, Executor deliveryExecutor) {
+        this.tracks = tracks;
+        this.deliveryExecutor = deliveryExecutor != null ? deliveryExecutor : Runnable::run;
+        this.subscribers = new CopyOnWriteArrayList<>();
+        this.pending = new AtomicReference<>();
+        this.latest = ProgressSnapshot.EMPTY;
+        this.rateHz = DEFAULT_RATE_HZ;
+        this.masterMeter = () -> null;
+    }
+
+    /**
+     * Sets where the master level is read from on each tick.
+     *
+     * @param masterMeter Supplies the engine's master meter, or null when it has none;
+     *                    the master is then estimated from the tracks
+     */
+    public void setMasterMeter(Supplier<LevelMeter> masterMeter) {
+        this.masterMeter = masterMeter != null ? masterMeter : () -> null;
+    }
+
+    /**
+     * Adds a subscriber, starting the ticks if it is the first.
+     */
+    public synchronized void subscribe(Consumer<ProgressSnapshot> subscriber) {
+        if (subscriber == null || disposed) {
+            return;
+        }
+        subscribers.add(subscriber);
+        if (tickTask == null) {
+            startTicking();
+        }
+    }
+
+    /**
+     * Removes a subscriber, stopping the ticks if none are left.
+     */
+    public synchronized void unsubscribe(Consumer<ProgressSnapshot> subscriber) {
+        subscribers.remove(subscriber);
+        if (subscribers.isEmpty()) {
+            stopTicking();
+        }
+    }
+
+    /**
+     * Sets how often running tracks are sampled.
+     *
+     * @param hz Ticks per second, clamped to {@value #MIN_RATE_HZ}-{@value #MAX_RATE_HZ}
+     */
+    public synchronized void setRate(int hz) {
+        int clamped = Math.max(MIN_RATE_HZ, Math.min(MAX_RATE_HZ, hz));
+        if (clamped == rateHz) {
+            return;
+        }
+        rateHz = clamped;
+        if (tickTask != null) {
+            stopTicking();
+            startTicking();
+        }
+        logger.debug("Progress tick rate set to {} Hz", clamped);
+    }
+
+    /**
+     * Gets the tick rate in Hz.
+     */
+    public synchronized int getRate() {
+        return rateHz;
+    }
+
+    /**
+     * Checks if the scheduler is ticking.
+     */
+    public synchronized boolean isRunning() {
+        return tickTask != null;
+    }
+
+    /**
+     * Gets the most recently published snapshot.
+     */
+    public ProgressSnapshot getLatest() {
+        return latest;
+    }
+
+    /**
+     * Samples every running track now and publishes the snapshot, unless nothing is
+     * running and nothing was running at the last tick either. Called by the tick thread;
+     * tests call it directly.
+     *
+     * @return The snapshot taken
+     */
+    public ProgressSnapshot tick() {
+        ProgressSnapshot snapshot = ProgressSnapshot.sample(tracks.get(), masterMeter.get(), System.nanoTime());
+        if (snapshot.size() == 0 && latest.size() == 0) {
+            return snapshot;
+        }
+        latest = snapshot;
+        // Only schedule a delivery if the last one has run; otherwise it picks this one up
+        if (pending.getAndSet(snapshot) == null) {
+            deliveryExecutor.execute(this::deliver);
+        }
+        return snapshot;
+    }
+
+    private void deliver() {
+        ProgressSnapshot snapshot = pending.getAndSet(null);
+        if (snapshot == null) {
+            return;
+        }
+        for (Consumer<ProgressSnapshot> subscriber : subscribers) {
+            try {
+                subscriber.accept(snapshot);
+            } catch (Exception e) {
+                logger.warn("Progress subscriber failed: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    private void startTicking() {
+        if (tickScheduler == null) {
+            tickScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "Progress-Tick");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        long periodNanos = TimeUnit.SECONDS.toNanos(1) / rateHz;
+        tickTask = tickScheduler.scheduleAtFixedRate(() -> {
+            try {
+                tick();
+            } catch (Exception e) {
+                // An exception would cancel the schedule
+                logger.warn("Progress tick failed: {}", e.getMessage(), e);
+            }
+        }, 0, periodNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void stopTicking() {
+        if (tickTask != null) {
+            tickTask.cancel(false);
+            tickTask = null;
+        }
+    }
+
+    /**
+     * Stops the ticks and the tick thread and drops every subscriber.
+     */
+    public synchronized void dispose() {
+        disposed = true;
+        stopTicking();
+        subscribers.clear();
+        if (tickScheduler != null) {
+            tickScheduler.shutdownNow();
+            tickScheduler = null;
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.winlabs.service;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import com.winlabs.model.AudioTrack;
+import com.winlabs.model.PlaybackState;
+import com.winlabs.service.audio.LevelMeter;
+
+/**
+ * Positions and output levels of every running track at one instant, published by the
+ * {@link ProgressScheduler}. Held as parallel arrays (track ID, position, duration, peak,
+ * RMS) so a tick allocates one small object per pass instead of one per track. Immutable.
+ *
+ * Levels are linear, read from each track's {@link LevelMeter}, and 0 for tracks that are
+ * not metered. The master level is read from the engine's mix when it has one; otherwise
+ * it is estimated from the tracks as if they were uncorrelated.
+ */
+public final class ProgressSnapshot {
+
+    /** Snapshot with no tracks running. */
+    public static final ProgressSnapshot EMPTY = new ProgressSnapshot(0L, new String[0], new double[0], new double[0],
+        new float[0], new float[0], new float[1], new float[1]);
+
+    private final long timeNanos;
+    private final String[] trackIds;
+    private final double[] positions;
+    private final double[] durations;
+    private final float[] peaks;
+    private final float[] rms;
+    private final float[] masterPeaks; // One per master channel
+    private final float[] masterRms;
+
+    private ProgressSnapshot(long timeNanos, String[] trackIds, double[] positions, double[] durations,
+            float[] peaks, float[] rms, float[] masterPeaks, float[] masterRms) {
+        this.timeNanos = timeNanos;
+        this.trackIds = trackIds;
+        this.positions = positions;
+        this.durations = durations;
+        this.peaks = peaks;
+        this.rms = rms;
+        this.masterPeaks = masterPeaks;
+        this.masterRms = masterRms;
+    }
+
+    /**
+     * Samples the tracks that are playing or paused, in one pass.
+     *
+     * @param tracks The pool's active tracks
+     * @param timeNanos When the sample is taken, from {@link System#nanoTime()}
+     */
+    public static ProgressSnapshot sample(Collection<AudioTrack> tracks, long timeNanos) {
+        return sample(tracks, null, timeNanos);
+    }
+
+    /**
+     * Samples the tracks that are playing or paused, and the master level, in one pass.
+     *
+     * @param tracks The pool's active tracks
+     * @param master Meter on the engine's mix, or null to estimate the master from the tracks
+     * @param timeNanos When the sample is taken, from {@link System#nanoTime()}
+     */
+    public static ProgressSnapshot sample(Collection<AudioTrack> tracks, LevelMeter master, long timeNanos) {
+        String[] ids = new String[tracks.size()];
+        double[] positions = new double[ids.length];
+        double[] durations = new double[ids.length];
+        float[] peaks = new float[ids.length];
+        float[] rms = new float[ids.length];
+        double peakPower = 0;
+        double rmsPower = 0;
+        int count = 0;
+        for (AudioTrack track : tracks) {
+            // A pre-rolled chained track is active but has not started yet
+            if (count == ids.length || track.getState() == PlaybackState.STOPPED) {
+                continue;
+            }
+            ids[count] = track.getTrackId();
+            positions[count] = track.getCurrentTime();
+            durations[count] = track.getDuration();
+            LevelMeter meter = track.getMeter();
+            if (meter != null) {
+                peaks[count] = meter.getPeak();
+                rms[count] = meter.getRms();
+                peakPower += peaks[count] * peaks[count];
+                rmsPower += rms[count] * rms[count];
+            }
+            count++;
+        }
+        if (count == 0) {
+            return EMPTY;
+        }
+        if (count < ids.length) {
+            ids = Arrays.copyOf(ids, count);
+            positions = Arrays.copyOf(positions, count);
+            durations = Arrays.copyOf(durations, count);
+            peaks = Arrays.copyOf(peaks, count);
+            rms = Arrays.copyOf(rms, count);
+        }
+        float[] masterPeaks;
+        float[] masterRms;
+        if (master != null) {
+            masterPeaks = new float[master.getChannels()];
+            masterRms = new float[master.getChannels()];
+            master.read(masterPeaks, masterRms);
+        } else {
+            masterPeaks = new float[] { (float) Math.min(1.0, Math.sqrt(peakPower)) };
+            masterRms = new float[] { (float) Math.min(1.0, Math.sqrt(rmsPower)) };
+        }
+        return new ProgressSnapshot(timeNanos, ids, positions, durations, peaks, rms, masterPeaks, masterRms);
+    }
+
+    /**
+     * Gets when the snapshot was taken, from {@link System#nanoTime()}.
+     */
+    public long getTimeNanos() {
+        return timeNanos;
+    }
+
+    /**
+     * Gets the number of running tracks.
+     */
+    public int size() {
+        return trackIds.length;
+    }
+
+    /**
+     * Gets the ID of the track at an index.
+     */
+    public String getTrackId(int index) {
+        return trackIds[index];
+    }
+
+    /**
+     * Gets a track's playback position in seconds.
+     */
+    public double getPosition(int index) {
+        return positions[index];
+    }
+
+    /**
+     * Gets a track's duration in seconds, or 0 if it is not known yet.
+     */
+    public double getDuration(int index) {
+        return durations[index];
+    }
+
+    /**
+     * Gets the time left on a track in seconds, or 0 if its duration is not known.
+     */
+    public double getRemaining(int index) {
+        return Math.max(0.0, durations[index] - positions[index]);
+    }
+
+    /**
+     * Gets a track's peak level, linear, or 0 if it is not metered.
+     */
+    public float getPeak(int index) {
+        return peaks[index];
+    }
+
+    /**
+     * Gets a track's RMS level, linear, or 0 if it is not metered.
+     */
+    public float getRms(int index) {
+        return rms[index];
+    }
+
+    /**
+     * Gets the number of master channels metered.
+     */
+    public int getMasterChannels() {
+        return masterPeaks.length;
+    }
+
+    /**
+     * Gets the peak level of a master channel, linear.
+     */
+    public float getMasterPeak(int channel) {
+        return masterPeaks[channel];
+    }
+
+    /**
+     * Gets the RMS level of a master channel, linear.
+     */
+    public float getMasterRms(int channel) {
+        return masterRms[channel];
+    }
+
+    /**
+     * Finds a track in the snapshot.
+     *
+     * @return The track's index, or -1 if it is not running
+     */
+    public int indexOf(String trackId) {
+        if (trackId == null) {
+            return -1;
+        }
+        for (int i = 0; i < trackIds.length; i++) {
+            if (trackIds[i].equals(trackId)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,322 @@
+package com.winlabs.service;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import javax.sound.sampled.UnsupportedAudioFileException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.winlabs.model.Cue;
+import com.winlabs.service.audio.ConvertingSource;
+import com.winlabs.service.audio.MappedPcmReader;
+import com.winlabs.service.audio.PcmDecoder;
+import com.winlabs.service.audio.PcmMixer;
+import com.winlabs.service.audio.PcmSource;
+import com.winlabs.service.audio.WavWriter;
+import com.winlabs.util.PathUtil;
+
+/**
+ * Transcodes cue files ahead of the show ("prepare show") into 16-bit PCM WAV files in the
+ * output format, so that at GO they are mapped and played without decoding or resampling.
+ *
+ * Rendered files are kept in ~/.winlabs/render-cache, named after a fingerprint of the
+ * source's contents and the output format, so a renamed or copied file reuses its render.
+ * An index maps each source path to its render along with the source's size and modification
+ * time; {@link #resolve(Path)} only hands out a render while both still match, so an edited
+ * file is played from the original until the show is prepared again.
+ *
+ * Files are transcoded on a pool of low-priority workers, one file per worker. Files that are
+ * already PCM in the output format are left alone, and files nothing can decode are reported
+ * and keep playing from the original. Long uncompressed files are converted while they are
+ * read; other files are decoded in memory first, at most {@value #MAX_CONCURRENT_DECODES} at once.
+ */
+public class RenderCacheService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RenderCacheService.class);
+    private static final String SETTINGS_DIR = ".winlabs";
+    private static final String CACHE_DIR = "render-cache";
+    private static final String INDEX_FILE = "index.json";
+    private static final String RENDER_EXTENSION = ".wav";
+    static final int MAX_CONCURRENT_DECODES = 2; // Decoded files are held whole in memory
+
+    private final Path cacheDir;
+    private final int channels;
+    private final float sampleRate;
+    private final String formatSuffix;
+    private final ExecutorService workers;
+    private final Semaphore decodePermits;
+    private final FileResultCache<String> index; // Source path to the name of its render
+    private final AtomicInteger renderCount;
+
+    /**
+     * Creates a render cache in the user's home directory for the PCM mixer's output format,
+     * with one worker per core.
+     */
+    public RenderCacheService() {
+        this(Paths.get(System.getProperty("user.home"), SETTINGS_DIR, CACHE_DIR),
+            Runtime.getRuntime().availableProcessors(), PcmMixer.DEFAULT_CHANNELS, PcmMixer.DEFAULT_SAMPLE_RATE);
+    }
+
+    /**
+     * Creates a render cache.
+     *
+     * @param cacheDir Directory the rendered files and the index are kept in
+     * @param workerCount Number of files transcoded at once
+     * @param channels Channel count of the rendered files
+     * @param sampleRate Sample rate of the rendered files
+     */
+    public RenderCacheService(Path cacheDir, int workerCount, int channels, float sampleRate) {
+        if (channels < 1 || sampleRate <= 0) {
+            throw new IllegalArgumentException("Invalid render format");
+        }
+        this.cacheDir = cacheDir;
+        this.channels = channels;
+        this.sampleRate = sampleRate;
+        this.formatSuffix = "-" + channels + "ch-" + Math.round(sampleRate) + RENDER_EXTENSION;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(Math.max(1, workerCount), runnable -> {
+            Thread thread = new Thread(runnable, "Render-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY); // Never compete with playback
+            return thread;
+        });
+        this.decodePermits = new Semaphore(MAX_CONCURRENT_DECODES);
+        this.index = new FileResultCache<>(cacheDir.resolve(INDEX_FILE), "render cache index",
+            item -> item.get("file").getAsString(), (file, item) -> item.addProperty("file", file));
+        this.renderCount = new AtomicInteger();
+        workers.execute(index::load); // Ready before the first voice asks for it
+    }
+
+    /**
+     * Gets the file to play in place of a cue file: its render if the show has been prepared
+     * and the file has not changed since, otherwise the file itself. Cheap enough to call
+     * whenever a voice is opened.
+     *
+     * @param path The cue's audio file
+     * @return The file to play
+     */
+    public Path resolve(Path path) {
+        if (index.size() == 0) {
+            return path;
+        }
+        Path source = path.toAbsolutePath().normalize();
+        String key = source.toString();
+        if (!index.contains(key)) {
+            return path;
+        }
+        try {
+            String file = index.get(key, Files.readAttributes(source, BasicFileAttributes.class));
+            if (file != null && file.endsWith(formatSuffix)) {
+                Path rendered = cacheDir.resolve(file);
+                if (Files.isRegularFile(rendered)) {
+                    return rendered;
+                }
+            }
+            logger.debug("Render of {} is out of date, playing the original", source.getFileName());
+        } catch (IOException e) {
+            // Missing source: let the backend report it
+        }
+        return path;
+    }
+
+    /**
+     * Renders every audio cue's file that does not already play without decoding, in the
+     * background. Each file is prepared once however many cues use it. When the run finishes
+     * without being cancelled, the index is saved and renders no longer used are deleted.
+     *
+     * @param cues The show's cues
+     * @param progressListener Called on a worker after each file, may be null
+     * @return The running job, for progress and cancellation
+     */
+    public RenderJob prepareShow(Collection<Cue> cues, Consumer<RenderJob> progressListener) {
+        Set<Path> files = new LinkedHashSet<>();
+        for (Cue cue : cues) {
+            String filePath = cue.getFilePath();
+            if (!cue.isFadeCue() && filePath != null && !filePath.isEmpty()) {
+                files.add(Paths.get(filePath).toAbsolutePath().normalize());
+            }
+        }
+
+        long start = System.nanoTime();
+        long startMillis = System.currentTimeMillis();
+        RenderJob job = new RenderJob(files.size(), progressListener);
+        Runnable finish = () -> {
+            flush();
+            if (!job.isCancelled()) {
+                prune(startMillis);
+            }
+            logger.info("Prepared show in {} ms: {}", (System.nanoTime() - start) / 1_000_000, job);
+            job.finish();
+        };
+        if (files.isEmpty()) {
+            finish.run();
+            return job;
+        }
+        for (Path file : files) {
+            Runnable task = () -> {
+                RenderJob.Outcome outcome = prepareFile(file, job);
+                if (job.record(outcome, file)) {
+                    finish.run();
+                }
+            };
+            try {
+                workers.execute(task);
+            } catch (RejectedExecutionException e) {
+                // Disposed
+                if (job.record(RenderJob.Outcome.CANCELLED, file)) {
+                    job.finish();
+                }
+            }
+        }
+        return job;
+    }
+
+    private RenderJob.Outcome prepareFile(Path source, RenderJob job) {
+        if (job.isCancelled()) {
+            return RenderJob.Outcome.CANCELLED;
+        }
+        String key = source.toString();
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(source, BasicFileAttributes.class);
+            String file = index.get(key, attributes);
+            if (file != null && file.endsWith(formatSuffix) && Files.isRegularFile(cacheDir.resolve(file))) {
+                return RenderJob.Outcome.REUSED;
+            }
+            if (isPlayableAsIs(source)) {
+                index.remove(key);
+                return RenderJob.Outcome.SKIPPED;
+            }
+
+            String fileName = WaveformService.fingerprint(source) + formatSuffix;
+            Path rendered = cacheDir.resolve(fileName);
+            RenderJob.Outcome outcome = RenderJob.Outcome.REUSED; // Same contents rendered under another name
+            if (!Files.isRegularFile(rendered)) {
+                render(source, rendered, job);
+                outcome = RenderJob.Outcome.RENDERED;
+            }
+            index.put(key, attributes, fileName);
+            return outcome;
+        } catch (CancellationException e) {
+            return RenderJob.Outcome.CANCELLED;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return RenderJob.Outcome.CANCELLED;
+        } catch (NoSuchFileException e) {
+            logger.debug("Not rendering missing file {}", source);
+        } catch (UnsupportedAudioFileException e) {
+            logger.info("Cannot render {}, it will be decoded at GO: {}", source.getFileName(), e.getMessage());
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Failed to render {}: {}", source.getFileName(), e.getMessage());
+        }
+        return RenderJob.Outcome.FAILED;
+    }
+
+    /**
+     * Checks if a file is already uncompressed in the output format, so the mixer maps it as is.
+     */
+    private boolean isPlayableAsIs(Path source) throws IOException {
+        try {
+            MappedPcmReader reader = MappedPcmReader.open(source);
+            return reader.getChannels() == channels && Float.compare(reader.getSampleRate(), sampleRate) == 0;
+        } catch (UnsupportedAudioFileException e) {
+            return false;
+        }
+    }
+
+    private void render(Path source, Path rendered, RenderJob job)
+            throws IOException, UnsupportedAudioFileException, InterruptedException {
+        long start = System.nanoTime();
+        PcmSource audio = null;
+        try {
+            audio = ConvertingSource.adapt(MappedPcmReader.open(source), channels, sampleRate);
+        } catch (UnsupportedAudioFileException e) {
+            // Compressed: decoded whole below
+        }
+
+        Files.createDirectories(cacheDir);
+        Path temp = Files.createTempFile(cacheDir, rendered.getFileName().toString(), ".tmp");
+        boolean decoding = audio == null;
+        try {
+            if (decoding) {
+                decodePermits.acquire();
+                audio = PcmDecoder.decode(source, channels, sampleRate);
+            }
+            long frames = WavWriter.write(audio, temp, job::isCancelled);
+            PathUtil.replaceAtomically(temp, rendered);
+            renderCount.incrementAndGet();
+            logger.debug("Rendered {} ({} frames) in {} ms", source.getFileName(), frames,
+                (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            if (decoding) {
+                decodePermits.release();
+            }
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Deletes renders no source in the index points to any more (their source was edited or
+     * re-rendered), leaving anything written since the given time.
+     */
+    private void prune(long olderThanMillis) {
+        Set<String> referenced = new HashSet<>(index.values());
+        int deleted = 0;
+        try (DirectoryStream<Path> renders = Files.newDirectoryStream(cacheDir, "*" + RENDER_EXTENSION)) {
+            for (Path render : renders) {
+                if (!referenced.contains(render.getFileName().toString())
+                        && Files.getLastModifiedTime(render).toMillis() < olderThanMillis) {
+                    Files.deleteIfExists(render);
+                    deleted++;
+                }
+            }
+        } catch (NoSuchFileException e) {
+            // Nothing rendered yet
+        } catch (IOException e) {
+            logger.warn("Failed to prune render cache: {}", e.getMessage());
+        }
+        if (deleted > 0) {
+            logger.info("Deleted {} unused renders", deleted);
+        }
+    }
+
+    /**
+     * Saves the index if anything was rendered since it was last saved.
+     */
+    public void flush() {
+        index.flush();
+    }
+
+    /**
+     * Gets how many files have actually been transcoded, not counting ones already cached.
+     */
+    public int getRenderCount() {
+        return renderCount.get();
+    }
+
+    /**
+     * Saves the index and stops the workers. Renders still running are abandoned.
+     */
+    public void dispose() {
+        workers.shutdownNow();
+        flush();
+        logger.info("Render cache: {} files rendered", renderCount.get());
+    }
+}
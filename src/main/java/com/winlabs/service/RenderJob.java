@@ -0,0 +1,165 @@
+package com.winlabs.service;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Progress of one "prepare show" run of the {@link RenderCacheService}: how many of the
+ * show's files have been dealt with and what happened to each, plus a way to cancel.
+ *
+ * Counts are updated by the render workers and can be read from any thread.
+ */
+public final class RenderJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(RenderJob.class);
+
+    /**
+     * What preparing one file came to.
+     */
+    enum Outcome {
+        RENDERED, // Transcoded into the cache
+        REUSED, // Already in the cache and up to date
+        SKIPPED, // Already PCM in the output format, played as is
+        FAILED, // Missing or in a format nothing can decode
+        CANCELLED
+    }
+
+    private final int total;
+    private final Consumer<RenderJob> progressListener;
+    private final AtomicInteger completed;
+    private final AtomicInteger rendered;
+    private final AtomicInteger reused;
+    private final AtomicInteger skipped;
+    private final AtomicInteger failed;
+    private final Queue<String> failedFiles;
+    private final CompletableFuture<RenderJob> done;
+    private volatile boolean cancelled;
+
+    /**
+     * @param total Number of files in the run
+     * @param progressListener Called on a render worker after each file, may be null
+     */
+    RenderJob(int total, Consumer<RenderJob> progressListener) {
+        this.total = total;
+        this.progressListener = progressListener;
+        this.completed = new AtomicInteger();
+        this.rendered = new AtomicInteger();
+        this.reused = new AtomicInteger();
+        this.skipped = new AtomicInteger();
+        this.failed = new AtomicInteger();
+        this.failedFiles = new ConcurrentLinkedQueue<>();
+        this.done = new CompletableFuture<>();
+    }
+
+    /**
+     * Counts a finished file and reports progress.
+     *
+     * @return True if it was the last file of the run
+     */
+    boolean record(Outcome outcome, Path file) {
+        switch (outcome) {
+            case RENDERED -> rendered.incrementAndGet();
+            case REUSED -> reused.incrementAndGet();
+            case SKIPPED -> skipped.incrementAndGet();
+            case FAILED -> {
+                failed.incrementAndGet();
+                failedFiles.add(file.getFileName().toString());
+            }
+            case CANCELLED -> {
+                // Only counted as completed
+            }
+        }
+        boolean last = completed.incrementAndGet() == total;
+        if (progressListener != null) {
+            try {
+                progressListener.accept(this);
+            } catch (RuntimeException e) {
+                logger.warn("Render progress listener failed: {}", e.getMessage(), e);
+            }
+        }
+        return last;
+    }
+
+    void finish() {
+        done.complete(this);
+    }
+
+    /**
+     * Stops the run. Files being transcoded stop at their next block and are not cached;
+     * files not started yet are left alone.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Completes with this job once every file has been dealt with or abandoned.
+     */
+    public CompletableFuture<RenderJob> whenDone() {
+        return done;
+    }
+
+    public boolean isDone() {
+        return done.isDone();
+    }
+
+    /**
+     * Gets the number of distinct files in the run.
+     */
+    public int getTotal() {
+        return total;
+    }
+
+    /**
+     * Gets the number of files dealt with so far, whatever the outcome.
+     */
+    public int getCompleted() {
+        return completed.get();
+    }
+
+    public int getRenderedCount() {
+        return rendered.get();
+    }
+
+    public int getReusedCount() {
+        return reused.get();
+    }
+
+    /**
+     * Gets the number of files that needed no rendering because they already play without decoding.
+     */
+    public int getSkippedCount() {
+        return skipped.get();
+    }
+
+    public int getFailedCount() {
+        return failed.get();
+    }
+
+    /**
+     * Gets the names of the files that could not be prepared; they are still played from the original.
+     */
+    public List<String> getFailedFiles() {
+        return new ArrayList<>(failedFiles);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d/%d files: %d rendered, %d cached, %d already PCM, %d failed%s",
+            completed.get(), total, rendered.get(), reused.get(), skipped.get(), failed.get(),
+            cancelled ? " (cancelled)" : "");
+    }
+}
@@ -14,6 +14,7 @@ import com.google.gson.GsonBuilder;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonSyntaxException;
 import com.winlabs.model.ApplicationSettings;
+import com.winlabs.model.PlaybackBackend;
 import com.winlabs.model.Settings;
 import com.winlabs.model.WorkspaceSettings;
 
@@ -74,6 +75,9 @@ public class SettingsService {
         // General
         json.addProperty("autoSaveEnabled", settings.isAutoSaveEnabled());
         json.addProperty("autoSaveInterval", settings.getAutoSaveInterval());
+        json.addProperty("goLatencyWarningMs", settings.getGoLatencyWarningMs());
+        json.addProperty("progressRateHz", settings.getProgressRateHz());
+        json.addProperty("playbackBackend", settings.getPlaybackBackend().name());
         
         // Default cue properties
         json.addProperty("preWaitDefault", settings.getPreWaitDefault());
@@ -158,6 +162,19 @@ public class SettingsService {
         if (json.has("autoSaveInterval")) {
             settings.setAutoSaveInterval(json.get("autoSaveInterval").getAsInt());
         }
+        if (json.has("goLatencyWarningMs")) {
+            settings.setGoLatencyWarningMs(json.get("goLatencyWarningMs").getAsInt());
+        }
+        if (json.has("progressRateHz")) {
+            settings.setProgressRateHz(json.get("progressRateHz").getAsInt());
+        }
+        if (json.has("playbackBackend")) {
+            try {
+                settings.setPlaybackBackend(PlaybackBackend.valueOf(json.get("playbackBackend").getAsString()));
+            } catch (IllegalArgumentException e) {
+                logger.warn("Unknown playback backend '{}', using default", json.get("playbackBackend").getAsString());
+            }
+        }
         
         // Load default cue properties
         if (json.has("preWaitDefault")) {
@@ -0,0 +1,118 @@
+package com.winlabs.service;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+import com.google.gson.JsonObject;
+import com.winlabs.model.AudibleRange;
+import com.winlabs.model.Cue;
+import com.winlabs.service.audio.PcmDecoder;
+import com.winlabs.service.audio.SilenceDetector;
+
+/**
+ * Finds the leading and trailing silence of cue files in the background and trims cues to
+ * their audible part, so GO is heard at once and auto-follow is not held up by a silent tail.
+ * Each scan runs on its own virtual thread.
+ *
+ * Results are cached in ~/.winlabs/silence-cache.json with the threshold they were found
+ * with; a scan at another threshold reads the file again.
+ */
+public class SilenceScanService extends FileAnalysisService<SilenceScanService.Scan> {
+
+    private static final String SETTINGS_DIR = ".winlabs";
+    private static final String CACHE_FILE = "silence-cache.json";
+    public static final int DEFAULT_MAX_CONCURRENT_SCANS = 2;
+
+    /**
+     * Creates a scan service with the cache in the user's home directory.
+     */
+    public SilenceScanService() {
+        this(Paths.get(System.getProperty("user.home"), SETTINGS_DIR, CACHE_FILE), DEFAULT_MAX_CONCURRENT_SCANS);
+    }
+
+    /**
+     * Creates a scan service.
+     *
+     * @param cacheFile Where scan results are cached
+     * @param maxConcurrentScans How many files may be read at once
+     */
+    public SilenceScanService(Path cacheFile, int maxConcurrentScans) {
+        super("Silence scan", Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("SilenceScan-", 0).factory()),
+            maxConcurrentScans, cacheFile, SilenceScanService::readScan, SilenceScanService::writeScan);
+    }
+
+    /**
+     * Scans a file in the background. Asking again while a scan of the same file at the same
+     * threshold is running returns the same future.
+     *
+     * @param filePath The audio file
+     * @param thresholdDb Level in dBFS at or below which audio counts as silence
+     * @return Completes with the file's audible range, or with null if it cannot be read
+     */
+    public CompletableFuture<AudibleRange> scan(String filePath, double thresholdDb) {
+        return analyze(filePath, "@" + thresholdDb, cached -> cached.thresholdDb == thresholdDb,
+            path -> new Scan(thresholdDb, SilenceDetector.scan(PcmDecoder.openForAnalysis(path), thresholdDb)), null)
+            .thenApply(scan -> scan != null ? scan.range : null);
+    }
+
+    /**
+     * Scans every audio cue's file that follows its detected silence and sets the cue's trims
+     * on the apply executor (the FX thread in the app). Cues that stop following the silence
+     * before the result arrives are left alone.
+     *
+     * @param cues The cues to trim
+     * @param thresholdDb Level in dBFS at or below which audio counts as silence
+     * @param applyExecutor Executor the cues are updated on
+     * @return Completes with the number of cues that were trimmed
+     */
+    public CompletableFuture<Integer> scanCues(Collection<Cue> cues, double thresholdDb, Executor applyExecutor) {
+        return applyToCues(cues, Cue::isAutoTrim, filePath -> scan(filePath, thresholdDb), (cue, range) -> {
+            if (!cue.isAutoTrim()) {
+                return false;
+            }
+            cue.applyAudibleRange(range);
+            return true;
+        }, applyExecutor);
+    }
+
+    private static Scan readScan(JsonObject item) {
+        return new Scan(item.get("threshold").getAsDouble(), new AudibleRange(
+            item.get("start").getAsDouble(), item.get("end").getAsDouble(), item.get("duration").getAsDouble()));
+    }
+
+    private static void writeScan(Scan scan, JsonObject item) {
+        item.addProperty("threshold", scan.thresholdDb);
+        item.addProperty("start", scan.range.getStart());
+        item.addProperty("end", scan.range.getEnd());
+        item.addProperty("duration", scan.range.getDuration());
+    }
+
+    /**
+     * Gets how many files have actually been scanned, not counting cache hits.
+     */
+    public int getScanCount() {
+        return getAnalysisCount();
+    }
+
+    /**
+     * A file's audible range and the threshold it was found with.
+     */
+    static final class Scan {
+        final double thresholdDb;
+        final AudibleRange range;
+
+        Scan(double thresholdDb, AudibleRange range) {
+            this.thresholdDb = thresholdDb;
+            this.range = range;
+        }
+
+        @Override
+        public String toString() {
+            return range + " at " + thresholdDb + " dB";
+        }
+    }
+}
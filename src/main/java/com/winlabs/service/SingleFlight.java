@@ -0,0 +1,75 @@
+package com.winlabs.service;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs background work at most once per key at a time: asking for a key whose work is still
+ * running gets the running work's future instead of starting it again, so a file added to
+ * several cues is only read once.
+ *
+ * @param <K> The key type, usually a file path
+ * @param <V> The result type
+ */
+public class SingleFlight<K, V> {
+
+    private static final Logger logger = LoggerFactory.getLogger(SingleFlight.class);
+
+    private final Map<K, CompletableFuture<V>> inFlight;
+
+    public SingleFlight() {
+        this.inFlight = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Starts work on the executor unless work for the same key is already running.
+     *
+     * @param key Identifies the work
+     * @param executor Runs the work
+     * @param work Works out the result
+     * @param fallback Result if the work fails or the executor has been shut down
+     * @return Completes with the work's result
+     */
+    public CompletableFuture<V> run(K key, Executor executor, Callable<V> work, V fallback) {
+        CompletableFuture<V> created = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, created);
+        if (running != null) {
+            return running;
+        }
+        try {
+            executor.execute(() -> {
+                V result;
+                try {
+                    result = work.call();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    result = fallback;
+                } catch (Exception e) {
+                    logger.warn("Background work on {} failed: {}", key, e.getMessage(), e);
+                    result = fallback;
+                }
+                // Out of the in-flight map before anyone waiting on it runs
+                inFlight.remove(key, created);
+                created.complete(result);
+            });
+        } catch (Exception e) {
+            // Shut down
+            inFlight.remove(key, created);
+            created.complete(fallback);
+        }
+        return created;
+    }
+
+    /**
+     * Checks if no work is running.
+     */
+    public boolean isIdle() {
+        return inFlight.isEmpty();
+    }
+}
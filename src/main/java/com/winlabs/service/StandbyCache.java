@@ -0,0 +1,305 @@
+package com.winlabs.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * LRU cache of prepared (standby) players keyed by file path.
+ * A player handed out by {@link #take(String)} is removed from the cache, so each
+ * cached player is used by at most one track at a time. Entries evicted to make
+ * room, or rejected by the validator, are passed to the eviction handler for disposal.
+ * Each entry remembers when it was stored, so a culler can free players that have
+ * waited too long with {@link #getStoredTimes()} and {@link #evict(String, long)}.
+ *
+ * @param <T> The prepared player type
+ */
+public class StandbyCache<T> {
+
+    private static final Logger logger = LoggerFactory.getLogger(StandbyCache.class);
+
+    private final LinkedHashMap<String, Entry<T>> entries;
+    private final Predicate<T> validator;
+    private final Consumer<T> evictionHandler;
+    private final AtomicLong hitCount;
+    private final AtomicLong missCount;
+    private final AtomicLong evictionCount;
+    private int capacity;
+
+    /**
+     * Creates a standby cache.
+     *
+     * @param capacity Maximum number of prepared players to hold (0 disables caching)
+     * @param validator Returns false for players that can no longer be used
+     * @param evictionHandler Called for every player removed without being handed out
+     */
+    public StandbyCache(int capacity, Predicate<T> validator, Consumer<T> evictionHandler) {
+        this.capacity = Math.max(0, capacity);
+        this.validator = validator != null ? validator : value -> true;
+        this.evictionHandler = evictionHandler != null ? evictionHandler : value -> { };
+        // Access-ordered so iteration starts at the least recently used entry
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+        this.hitCount = new AtomicLong();
+        this.missCount = new AtomicLong();
+        this.evictionCount = new AtomicLong();
+    }
+
+    /**
+     * Takes the prepared player for a file path out of the cache.
+     *
+     * @param key The file path
+     * @return The prepared player, or null on a miss
+     */
+    public T take(String key) {
+        T value;
+        synchronized (this) {
+            Entry<T> entry = entries.remove(key);
+            value = entry != null ? entry.value : null;
+        }
+
+        if (value != null && !validator.test(value)) {
+            logger.debug("Standby player for {} is no longer usable, discarding", key);
+            evictionHandler.accept(value);
+            value = null;
+        }
+
+        if (value != null) {
+            hitCount.incrementAndGet();
+        } else {
+            missCount.incrementAndGet();
+        }
+        return value;
+    }
+
+    /**
+     * Puts a prepared player into the cache, evicting the least recently used
+     * entries if the cache is full. If a player is already cached for the key,
+     * the new one is handed to the eviction handler instead.
+     *
+     * @param key The file path
+     * @param value The prepared player
+     * @return true if the player was cached
+     */
+    public boolean put(String key, T value) {
+        if (key == null || value == null) {
+            return false;
+        }
+
+        List<T> evicted = new ArrayList<>();
+        boolean cached;
+        synchronized (this) {
+            if (capacity == 0 || entries.containsKey(key)) {
+                cached = false;
+            } else {
+                entries.put(key, new Entry<>(value, System.currentTimeMillis()));
+                trimToCapacity(evicted);
+                cached = true;
+            }
+        }
+
+        if (!cached) {
+            evictionHandler.accept(value);
+        }
+        disposeAll(evicted);
+        return cached;
+    }
+
+    /**
+     * Checks if a prepared player is cached for a file path.
+     * Does not affect LRU order or hit/miss counts.
+     */
+    public synchronized boolean contains(String key) {
+        return entries.containsKey(key);
+    }
+
+    /**
+     * Applies an action to the prepared player for a file path without taking it out, under
+     * the cache lock so it cannot be taken part way through. The action must not block.
+     * Does not affect LRU order or hit/miss counts.
+     *
+     * @return true if a player was cached for the key
+     */
+    public synchronized boolean update(String key, Consumer<T> action) {
+        Entry<T> entry = entries.get(key);
+        if (entry == null) {
+            return false;
+        }
+        action.accept(entry.value);
+        return true;
+    }
+
+    /**
+     * Removes and disposes the prepared player for a file path, if any.
+     */
+    public void remove(String key) {
+        Entry<T> entry;
+        synchronized (this) {
+            entry = entries.remove(key);
+        }
+        if (entry != null) {
+            evictionHandler.accept(entry.value);
+        }
+    }
+
+    /**
+     * Removes and disposes the prepared player for a file path, but only if it is the given
+     * player: it may have been taken and replaced, or another player cached for the key first.
+     *
+     * @return true if the player was removed
+     */
+    public boolean remove(String key, T value) {
+        synchronized (this) {
+            Entry<T> entry = entries.get(key);
+            if (entry == null || entry.value != value) {
+                return false;
+            }
+            entries.remove(key);
+        }
+        evictionHandler.accept(value);
+        return true;
+    }
+    
+    /**
+     * Gets when each cached player was stored, least recently used first.
+     * Does not affect LRU order.
+     * 
+     * @return File path to {@link System#currentTimeMillis()} at the time it was stored
+     */
+    public synchronized Map<String, Long> getStoredTimes() {
+        Map<String, Long> times = new LinkedHashMap<>();
+        for (Map.Entry<String, Entry<T>> entry : entries.entrySet()) {
+            times.put(entry.getKey(), entry.getValue().storedAtMillis);
+        }
+        return times;
+    }
+    
+    /**
+     * Evicts and disposes the player for a file path, counting it as an eviction, but only
+     * if it is still the one stored at the given time (it may have been taken and replaced).
+     * 
+     * @param key The file path
+     * @param storedAtMillis When the player was stored, from {@link #getStoredTimes()}
+     * @return true if the player was evicted
+     */
+    public boolean evict(String key, long storedAtMillis) {
+        Entry<T> entry;
+        synchronized (this) {
+            entry = entries.get(key);
+            if (entry == null || entry.storedAtMillis != storedAtMillis) {
+                return false;
+            }
+            entries.remove(key);
+            evictionCount.incrementAndGet();
+        }
+        disposeAll(List.of(entry.value));
+        return true;
+    }
+
+    /**
+     * Gets the number of cached players.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Gets the maximum number of cached players.
+     */
+    public synchronized int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Sets the maximum number of cached players, evicting entries if needed.
+     */
+    public void setCapacity(int capacity) {
+        List<T> evicted = new ArrayList<>();
+        synchronized (this) {
+            this.capacity = Math.max(0, capacity);
+            trimToCapacity(evicted);
+        }
+        disposeAll(evicted);
+    }
+
+    /**
+     * Gets the number of lookups that returned a prepared player.
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * Gets the number of lookups that found no usable prepared player.
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * Gets the number of players evicted to stay within capacity.
+     */
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    /**
+     * Removes and disposes all cached players.
+     */
+    public void clear() {
+        List<T> evicted;
+        synchronized (this) {
+            evicted = new ArrayList<>();
+            for (Entry<T> entry : entries.values()) {
+                evicted.add(entry.value);
+            }
+            entries.clear();
+        }
+        disposeAll(evicted);
+    }
+
+    /**
+     * Removes least recently used entries until the cache fits its capacity.
+     * Must be called while holding the cache lock.
+     */
+    private void trimToCapacity(List<T> evicted) {
+        Iterator<Map.Entry<String, Entry<T>>> iterator = entries.entrySet().iterator();
+        while (entries.size() > capacity && iterator.hasNext()) {
+            Map.Entry<String, Entry<T>> eldest = iterator.next();
+            logger.debug("Evicting standby player for {}", eldest.getKey());
+            evicted.add(eldest.getValue().value);
+            iterator.remove();
+            evictionCount.incrementAndGet();
+        }
+    }
+
+    private void disposeAll(List<T> values) {
+        for (T value : values) {
+            try {
+                evictionHandler.accept(value);
+            } catch (Exception e) {
+                logger.warn("Failed to dispose standby player: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * A cached player and when it was stored.
+     */
+    private static final class Entry<T> {
+        final T value;
+        final long storedAtMillis;
+
+        Entry(T value, long storedAtMillis) {
+            this.value = value;
+            this.storedAtMillis = storedAtMillis;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.winlabs.service;
+
+import java.nio.file.Paths;
+
+import com.winlabs.model.VoiceStealing;
+
+/**
+ * Record of one track taken over by voice stealing, kept for the post-show report.
+ */
+public class VoiceSteal {
+
+    private final long timeMillis;
+    private final VoiceStealing strategy;
+    private final String stolenTrackId;
+    private final String stolenFilePath;
+    private final double stolenAtSeconds;
+    private final String forFilePath;
+
+    public VoiceSteal(long timeMillis, VoiceStealing strategy, String stolenTrackId,
+                      String stolenFilePath, double stolenAtSeconds, String forFilePath) {
+        this.timeMillis = timeMillis;
+        this.strategy = strategy;
+        this.stolenTrackId = stolenTrackId;
+        this.stolenFilePath = stolenFilePath;
+        this.stolenAtSeconds = stolenAtSeconds;
+        this.forFilePath = forFilePath;
+    }
+
+    /**
+     * Gets {@link System#currentTimeMillis()} when the track was stolen.
+     */
+    public long getTimeMillis() {
+        return timeMillis;
+    }
+
+    /**
+     * Gets the strategy that chose the track.
+     */
+    public VoiceStealing getStrategy() {
+        return strategy;
+    }
+
+    /**
+     * Gets the ID of the track that was faded out.
+     */
+    public String getStolenTrackId() {
+        return stolenTrackId;
+    }
+
+    /**
+     * Gets the file the stolen track was playing.
+     */
+    public String getStolenFilePath() {
+        return stolenFilePath;
+    }
+
+    /**
+     * Gets how far into its file the stolen track was, in seconds.
+     */
+    public double getStolenAtSeconds() {
+        return stolenAtSeconds;
+    }
+
+    /**
+     * Gets the file of the cue that took the track.
+     */
+    public String getForFilePath() {
+        return forFilePath;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s stopped at %.1fs for %s (%s)",
+            fileName(stolenFilePath), stolenAtSeconds, fileName(forFilePath), strategy.getDisplayName());
+    }
+
+    private static String fileName(String filePath) {
+        return filePath != null ? Paths.get(filePath).getFileName().toString() : "?";
+    }
+}
@@ -0,0 +1,222 @@
+package com.winlabs.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sound.sampled.UnsupportedAudioFileException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.winlabs.service.audio.PcmDecoder;
+import com.winlabs.service.audio.WaveformAnalyzer;
+import com.winlabs.service.audio.WaveformPeaks;
+import com.winlabs.util.PathUtil;
+
+/**
+ * Provides {@link WaveformPeaks} for cue files without blocking the caller.
+ *
+ * The first request for a file looks for a cache file in ~/.winlabs/waveforms named after a
+ * fingerprint of the file's contents, so a renamed or copied file still hits. On a hit the
+ * summary is memory-mapped; on a miss the file is analysed on a pool of worker threads (one
+ * file at a time, each spread across every worker) and the result is written to the cache.
+ * Summaries stay loaded for the rest of the session, so redrawing never waits.
+ */
+public class WaveformService {
+
+    private static final Logger logger = LoggerFactory.getLogger(WaveformService.class);
+    private static final String SETTINGS_DIR = ".winlabs";
+    private static final String CACHE_DIR = "waveforms";
+    private static final String CACHE_EXTENSION = ".wlwf";
+    private static final int FINGERPRINT_SAMPLE_BYTES = 64 * 1024; // Read from the start, middle and end
+
+    private final Path cacheDir;
+    private final int workerCount;
+    private final ExecutorService loader;
+    private final ExecutorService workers;
+    private final Semaphore analysisPermit;
+    private final Map<String, CompletableFuture<WaveformPeaks>> loaded;
+    private final AtomicInteger analysisCount;
+    private final AtomicInteger cacheHitCount;
+
+    /**
+     * Creates a waveform service caching in the user's home directory, with one worker per core.
+     */
+    public WaveformService() {
+        this(Paths.get(System.getProperty("user.home"), SETTINGS_DIR, CACHE_DIR),
+            Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a waveform service.
+     *
+     * @param cacheDir Directory the cache files are kept in
+     * @param workerCount Number of threads analysing audio
+     */
+    public WaveformService(Path cacheDir, int workerCount) {
+        this.cacheDir = cacheDir;
+        this.workerCount = Math.max(1, workerCount);
+        this.loader = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("Waveform-Load-", 0).factory());
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(this.workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "Waveform-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY); // Never compete with playback
+            return thread;
+        });
+        this.analysisPermit = new Semaphore(1);
+        this.loaded = new ConcurrentHashMap<>();
+        this.analysisCount = new AtomicInteger();
+        this.cacheHitCount = new AtomicInteger();
+    }
+
+    /**
+     * Gets a file's waveform, loading or analysing it in the background the first time.
+     *
+     * @param filePath The audio file
+     * @return Completes with the waveform, or with null if the file cannot be analysed
+     */
+    public CompletableFuture<WaveformPeaks> request(String filePath) {
+        if (filePath == null || filePath.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        Path path = Paths.get(filePath).toAbsolutePath().normalize();
+        return loaded.computeIfAbsent(path.toString(), key -> {
+            try {
+                return CompletableFuture.supplyAsync(() -> load(path), loader);
+            } catch (Exception e) {
+                // Disposed
+                return CompletableFuture.completedFuture(null);
+            }
+        });
+    }
+
+    /**
+     * Gets a file's waveform if it has already been loaded, without starting anything.
+     *
+     * @param filePath The audio file
+     * @return The waveform, or null if it is not ready
+     */
+    public WaveformPeaks getIfReady(String filePath) {
+        if (filePath == null || filePath.isEmpty()) {
+            return null;
+        }
+        CompletableFuture<WaveformPeaks> future = loaded.get(Paths.get(filePath).toAbsolutePath().normalize().toString());
+        return future != null && future.isDone() && !future.isCompletedExceptionally() ? future.join() : null;
+    }
+
+    private WaveformPeaks load(Path path) {
+        try {
+            Path cacheFile = cacheDir.resolve(fingerprint(path) + CACHE_EXTENSION);
+            if (Files.exists(cacheFile)) {
+                try {
+                    WaveformPeaks peaks = WaveformPeaks.map(cacheFile);
+                    cacheHitCount.incrementAndGet();
+                    return peaks;
+                } catch (IOException e) {
+                    logger.warn("Discarding unreadable waveform cache {}: {}", cacheFile.getFileName(), e.getMessage());
+                }
+            }
+
+            WaveformPeaks peaks;
+            analysisPermit.acquire();
+            try {
+                peaks = WaveformAnalyzer.analyze(PcmDecoder.openForAnalysis(path),
+                    WaveformPeaks.DEFAULT_BASE_FRAMES_PER_BIN, workers, workerCount);
+            } finally {
+                analysisPermit.release();
+            }
+            analysisCount.incrementAndGet();
+            save(peaks, cacheFile);
+            logger.debug("Analysed waveform of {}", path.getFileName());
+            return peaks;
+        } catch (UnsupportedAudioFileException e) {
+            logger.debug("No waveform for {}: {}", path.getFileName(), e.getMessage());
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (Exception e) {
+            logger.warn("Failed to build waveform for {}: {}", path.getFileName(), e.getMessage());
+            return null;
+        }
+    }
+
+    private void save(WaveformPeaks peaks, Path cacheFile) {
+        try {
+            Files.createDirectories(cacheDir);
+            Path temp = cacheFile.resolveSibling(cacheFile.getFileName() + ".tmp");
+            peaks.write(temp);
+            PathUtil.replaceAtomically(temp, cacheFile);
+        } catch (IOException e) {
+            logger.warn("Failed to save waveform cache {}: {}", cacheFile.getFileName(), e.getMessage());
+        }
+    }
+
+    /**
+     * Fingerprints a file's contents from its size and samples of its start, middle and end,
+     * which is enough to tell edited audio apart without reading a long file end to end.
+     */
+    static String fingerprint(Path path) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            digest.update(ByteBuffer.allocate(Long.BYTES).putLong(0, size));
+            ByteBuffer buffer = ByteBuffer.allocate(FINGERPRINT_SAMPLE_BYTES);
+            long[] offsets = { 0, Math.max(0, size / 2 - FINGERPRINT_SAMPLE_BYTES / 2), Math.max(0, size - FINGERPRINT_SAMPLE_BYTES) };
+            for (long offset : offsets) {
+                buffer.clear();
+                int read;
+                do {
+                    read = channel.read(buffer, offset + buffer.position());
+                } while (read > 0 && buffer.hasRemaining());
+                buffer.flip();
+                digest.update(buffer);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest(), 0, 16);
+    }
+
+    /**
+     * Gets how many files have been analysed, not counting cache hits.
+     */
+    public int getAnalysisCount() {
+        return analysisCount.get();
+    }
+
+    /**
+     * Gets how many waveforms were loaded from the cache.
+     */
+    public int getCacheHitCount() {
+        return cacheHitCount.get();
+    }
+
+    /**
+     * Stops the loader and worker threads. Loads still running are abandoned.
+     */
+    public void dispose() {
+        loader.shutdownNow();
+        workers.shutdownNow();
+        logger.info("Waveforms: {} analysed, {} loaded from cache", analysisCount.get(), cacheHitCount.get());
+    }
+}
@@ -0,0 +1,107 @@
+package com.winlabs.service.audio;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+import com.winlabs.model.OutputDevice;
+import com.winlabs.model.PlaybackBackend;
+
+import javafx.application.Platform;
+
+/**
+ * Playback engine that opens files as {@link AudioVoice}s.
+ *
+ * The backend only creates voices; playing, pausing, stopping, seeking, volume and the
+ * end-of-media callback are controlled per voice. {@link com.winlabs.service.AudioPlayerPool}
+ * and everything above it only talk to these two interfaces, so the engine can be swapped
+ * without touching the playback path (for example {@link NullBackend} for headless tests
+ * and benchmarks).
+ */
+public interface AudioBackend extends AutoCloseable {
+
+    /**
+     * Gets a short name for logging.
+     */
+    String getName();
+
+    /**
+     * Opens a file as a new voice. Loading may continue in the background;
+     * {@link AudioVoice#whenReady()} completes once the voice can start without delay.
+     *
+     * @param path The audio file
+     * @return A stopped voice positioned at the start of the file
+     * @throws Exception if the file cannot be opened
+     */
+    AudioVoice open(Path path) throws Exception;
+
+    /**
+     * Sets which file is actually read when a path is opened: the resolver returns a file to
+     * play in its place (a render from the show-prep cache) or the path itself. Decoded audio
+     * stays cached and pinned under the path that was opened. Ignored by default.
+     *
+     * @param resolver Maps an opened path to the file to read
+     */
+    default void setSourceResolver(UnaryOperator<Path> resolver) {
+    }
+
+    /**
+     * Sets the devices voices can be routed to, the first being where unrouted voices play.
+     * Ignored by engines that play through the system's default output only.
+     *
+     * @param devices The show's outputs, in order
+     * @throws Exception if the outputs are in use and the first one cannot be opened
+     */
+    default void setOutputDevices(List<OutputDevice> devices) throws Exception {
+    }
+
+    /**
+     * Sets the level of the master bus every voice plays through. Ignored by default.
+     *
+     * @param level Linear gain from 0.0 to 1.0
+     */
+    default void setMasterLevel(double level) {
+    }
+
+    /**
+     * Sets the level of a group bus (see {@link AudioVoice#setGroup(String)}). Ignored by default.
+     *
+     * @param group Name of the group
+     * @param level Linear gain from 0.0 to 1.0
+     */
+    default void setGroupLevel(String group, double level) {
+    }
+
+    /**
+     * Releases engine-wide resources (output lines, threads). Voices already opened
+     * should be disposed first. Does nothing by default.
+     */
+    @Override
+    default void close() {
+    }
+
+    /**
+     * Gets the cache of decoded audio, or null if this backend plays straight from files.
+     */
+    default PcmCache getPcmCache() {
+        return null;
+    }
+
+    /**
+     * Gets the meter showing the level of everything this backend is playing, or null if
+     * the engine has no mix of its own to measure.
+     */
+    default LevelMeter getMasterMeter() {
+        return null;
+    }
+
+    /**
+     * Creates the backend selected in the settings. Callbacks are delivered on the FX thread.
+     */
+    static AudioBackend create(PlaybackBackend type) {
+        if (type == PlaybackBackend.PCM_MIXER) {
+            return new PcmMixerBackend(Platform::runLater);
+        }
+        return new JavaFxBackend();
+    }
+}
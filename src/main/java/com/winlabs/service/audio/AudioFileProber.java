@@ -0,0 +1,230 @@
+package com.winlabs.service.audio;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+
+import javax.sound.sampled.AudioFileFormat;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+
+import com.winlabs.model.MediaInfo;
+
+/**
+ * {@link MediaProber} that reads file headers only:
+ * <ul>
+ *   <li>WAV, AIFF and AU through Java Sound, falling back to {@link MappedPcmReader}'s chunk
+ *       parser for the float and extensible WAV files Java Sound rejects</li>
+ *   <li>MP3 (and MP1/MP2) from the first frame header, using the Xing/Info or VBRI frame
+ *       count for VBR files and the bitrate for CBR files</li>
+ *   <li>FLAC from the STREAMINFO block</li>
+ * </ul>
+ * Other formats (AAC, M4A, Ogg, WMA) are reported as unsupported.
+ */
+public class AudioFileProber implements MediaProber {
+
+    private static final int MPEG_SCAN_BYTES = 64 * 1024; // How far past the ID3 tag to look for a frame
+
+    // Bitrates in kbps by [version is MPEG-1 ? 0 : 1][layer - 1][index]
+    private static final int[][][] MPEG_BITRATES = {
+        {
+            { 0, 32, 64, 96, 128, 160, 192, 224, 256, 288, 320, 352, 384, 416, 448 },
+            { 0, 32, 48, 56, 64, 80, 96, 112, 128, 160, 192, 224, 256, 320, 384 },
+            { 0, 32, 40, 48, 56, 64, 80, 96, 112, 128, 160, 192, 224, 256, 320 },
+        },
+        {
+            { 0, 32, 48, 56, 64, 80, 96, 112, 128, 144, 160, 176, 192, 224, 256 },
+            { 0, 8, 16, 24, 32, 40, 48, 56, 64, 80, 96, 112, 128, 144, 160 },
+            { 0, 8, 16, 24, 32, 40, 48, 56, 64, 80, 96, 112, 128, 144, 160 },
+        },
+    };
+    private static final int[] MPEG1_SAMPLE_RATES = { 44100, 48000, 32000 };
+
+    @Override
+    public MediaInfo probe(Path path) throws UnsupportedAudioFileException, IOException {
+        String name = path.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".mp3") || name.endsWith(".mp2") || name.endsWith(".mpga")) {
+            return probeMpeg(path);
+        }
+        if (name.endsWith(".flac")) {
+            return probeFlac(path);
+        }
+        return probePcm(path);
+    }
+
+    private MediaInfo probePcm(Path path) throws UnsupportedAudioFileException, IOException {
+        try {
+            AudioFileFormat fileFormat = AudioSystem.getAudioFileFormat(path.toFile());
+            AudioFormat format = fileFormat.getFormat();
+            long frames = fileFormat.getFrameLength();
+            double duration = frames != AudioSystem.NOT_SPECIFIED && format.getFrameRate() > 0
+                ? frames / (double) format.getFrameRate()
+                : 0.0;
+            return new MediaInfo(duration, Math.round(format.getSampleRate()), format.getChannels(),
+                describePcm(format.getEncoding(), format.getSampleSizeInBits()));
+        } catch (UnsupportedAudioFileException e) {
+            // Java Sound does not read float or extensible WAV headers; the mapped reader does
+            MappedPcmReader reader = MappedPcmReader.open(path);
+            return new MediaInfo(reader.getFrameCount() / (double) reader.getSampleRate(),
+                Math.round(reader.getSampleRate()), reader.getChannels(), "PCM");
+        }
+    }
+
+    private static String describePcm(AudioFormat.Encoding encoding, int bits) {
+        String kind = AudioFormat.Encoding.PCM_FLOAT.equals(encoding) ? "PCM float"
+            : AudioFormat.Encoding.ULAW.equals(encoding) ? "u-law"
+            : AudioFormat.Encoding.ALAW.equals(encoding) ? "A-law"
+            : "PCM";
+        return bits > 0 ? kind + " " + bits + "-bit" : kind;
+    }
+
+    private MediaInfo probeMpeg(Path path) throws UnsupportedAudioFileException, IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            long audioStart = id3v2Size(channel);
+            ByteBuffer buffer = readAt(channel, audioStart, MPEG_SCAN_BYTES);
+
+            for (int i = 0; i + 4 <= buffer.limit(); i++) {
+                int header = buffer.getInt(i);
+                MpegFrame frame = MpegFrame.parse(header);
+                if (frame == null) {
+                    continue;
+                }
+                // A VBR file says how many frames it has in its first frame
+                long frames = vbrFrameCount(buffer, i, frame);
+                double duration;
+                if (frames > 0) {
+                    duration = frames * (double) frame.samplesPerFrame / frame.sampleRate;
+                } else {
+                    long audioBytes = fileSize - (audioStart + i) - id3v1Size(channel, fileSize);
+                    duration = audioBytes * 8.0 / (frame.bitrateKbps * 1000.0);
+                }
+                String codec = "MP" + frame.layer + " " + frame.bitrateKbps + " kbps" + (frames > 0 ? " VBR" : "");
+                return new MediaInfo(duration, frame.sampleRate, frame.channels, codec);
+            }
+        }
+        throw new UnsupportedAudioFileException("No MPEG audio frame found in " + path.getFileName());
+    }
+
+    /**
+     * Reads the frame count from a Xing/Info or VBRI header in the first frame, or returns 0.
+     */
+    private static long vbrFrameCount(ByteBuffer buffer, int frameStart, MpegFrame frame) {
+        int xing = frameStart + 4 + frame.sideInfoBytes;
+        if (xing + 12 <= buffer.limit()) {
+            String tag = ascii(buffer, xing, 4);
+            if (("Xing".equals(tag) || "Info".equals(tag)) && (buffer.getInt(xing + 4) & 0x1) != 0) {
+                return Integer.toUnsignedLong(buffer.getInt(xing + 8));
+            }
+        }
+        int vbri = frameStart + 4 + 32;
+        if (vbri + 18 <= buffer.limit() && "VBRI".equals(ascii(buffer, vbri, 4))) {
+            return Integer.toUnsignedLong(buffer.getInt(vbri + 14));
+        }
+        return 0;
+    }
+
+    private static long id3v2Size(FileChannel channel) throws IOException {
+        ByteBuffer header = readAt(channel, 0, 10);
+        if (header.limit() < 10 || !"ID3".equals(ascii(header, 0, 3))) {
+            return 0;
+        }
+        // Sync-safe size: 7 bits per byte, not counting the 10-byte header or the footer
+        int size = (header.get(6) & 0x7F) << 21 | (header.get(7) & 0x7F) << 14
+            | (header.get(8) & 0x7F) << 7 | (header.get(9) & 0x7F);
+        boolean footer = (header.get(5) & 0x10) != 0;
+        return 10L + size + (footer ? 10 : 0);
+    }
+
+    private static long id3v1Size(FileChannel channel, long fileSize) throws IOException {
+        if (fileSize < 128) {
+            return 0;
+        }
+        ByteBuffer tag = readAt(channel, fileSize - 128, 3);
+        return tag.limit() == 3 && "TAG".equals(ascii(tag, 0, 3)) ? 128 : 0;
+    }
+
+    private MediaInfo probeFlac(Path path) throws UnsupportedAudioFileException, IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // "fLaC", then the STREAMINFO block: a 4-byte block header and 34 bytes of data
+            ByteBuffer header = readAt(channel, 0, 42);
+            if (header.limit() < 42 || !"fLaC".equals(ascii(header, 0, 4)) || (header.get(4) & 0x7F) != 0) {
+                throw new UnsupportedAudioFileException("Not a FLAC file: " + path.getFileName());
+            }
+            long packed = header.getLong(18); // sample rate (20), channels - 1 (3), bits - 1 (5), samples (36)
+            int sampleRate = (int) (packed >>> 44);
+            int channels = (int) ((packed >>> 41) & 0x7) + 1;
+            int bits = (int) ((packed >>> 36) & 0x1F) + 1;
+            long samples = packed & 0xFFFFFFFFFL;
+            double duration = sampleRate > 0 ? samples / (double) sampleRate : 0.0;
+            return new MediaInfo(duration, sampleRate, channels, "FLAC " + bits + "-bit");
+        }
+    }
+
+    private static ByteBuffer readAt(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.max(0, Math.min(length, channel.size() - position)));
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                break;
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private static String ascii(ByteBuffer buffer, int offset, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(offset, bytes);
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * The fields of an MPEG audio frame header that probing needs.
+     */
+    private static final class MpegFrame {
+        final int layer;
+        final int bitrateKbps;
+        final int sampleRate;
+        final int channels;
+        final int samplesPerFrame;
+        final int sideInfoBytes; // Between the header and a Xing/Info tag
+
+        private MpegFrame(int layer, int bitrateKbps, int sampleRate, int channels, int samplesPerFrame, int sideInfoBytes) {
+            this.layer = layer;
+            this.bitrateKbps = bitrateKbps;
+            this.sampleRate = sampleRate;
+            this.channels = channels;
+            this.samplesPerFrame = samplesPerFrame;
+            this.sideInfoBytes = sideInfoBytes;
+        }
+
+        /**
+         * Parses a frame header, or returns null if the bits are not a valid one.
+         */
+        static MpegFrame parse(int header) {
+            if ((header >>> 21) != 0x7FF) {
+                return null; // No frame sync
+            }
+            int versionBits = (header >>> 19) & 0x3; // 0 = MPEG-2.5, 2 = MPEG-2, 3 = MPEG-1
+            int layerBits = (header >>> 17) & 0x3; // 1 = layer III, 2 = layer II, 3 = layer I
+            int bitrateIndex = (header >>> 12) & 0xF;
+            int sampleRateIndex = (header >>> 10) & 0x3;
+            if (versionBits == 1 || layerBits == 0 || bitrateIndex == 0 || bitrateIndex == 15 || sampleRateIndex == 3) {
+                return null; // Reserved values, or free format
+            }
+            boolean mpeg1 = versionBits == 3;
+            int layer = 4 - layerBits;
+            int bitrate = MPEG_BITRATES[mpeg1 ? 0 : 1][layer - 1][bitrateIndex];
+            int sampleRate = MPEG1_SAMPLE_RATES[sampleRateIndex] >> (mpeg1 ? 0 : versionBits == 2 ? 1 : 2);
+            boolean mono = ((header >>> 6) & 0x3) == 3;
+            int samplesPerFrame = layer == 1 ? 384 : layer == 2 || mpeg1 ? 1152 : 576;
+            int sideInfo = mpeg1 ? (mono ? 17 : 32) : (mono ? 9 : 17);
+            return new MpegFrame(layer, bitrate, sampleRate, mono ? 1 : 2, samplesPerFrame, sideInfo);
+        }
+    }
+}
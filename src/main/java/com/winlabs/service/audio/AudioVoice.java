@@ -0,0 +1,190 @@
+package com.winlabs.service.audio;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+
+import com.winlabs.model.FadeCurve;
+import com.winlabs.model.OutputRouting;
+
+/**
+ * A single playable sound loaded from one file, as driven by an {@link com.winlabs.model.AudioTrack}.
+ * Implementations wrap a playback engine (a JavaFX MediaPlayer, a voice in the PCM mixer, ...).
+ *
+ * Callbacks are delivered on the engine's event thread (the FX thread in the application).
+ * Each callback slot holds one handler; setting null removes it.
+ */
+public interface AudioVoice {
+
+    /**
+     * Gets a future that completes once the media is loaded and can start without delay,
+     * or fails if it cannot be loaded.
+     */
+    CompletableFuture<Void> whenReady();
+
+    /**
+     * Starts or resumes playback.
+     */
+    void play();
+
+    /**
+     * Pauses playback, keeping the position.
+     */
+    void pause();
+
+    /**
+     * Stops playback and returns to the beginning (the start of the play range).
+     */
+    void stop();
+
+    /**
+     * Moves the playback position.
+     */
+    void seek(double seconds);
+
+    /**
+     * Sets the playback volume (0.0 to 1.0).
+     */
+    void setVolume(double volume);
+
+    /**
+     * Gets the playback volume (0.0 to 1.0).
+     */
+    double getVolume();
+
+    /**
+     * Sets a gain applied on top of the volume and any fade, such as a cue's loudness
+     * normalization. Engines that cannot amplify limit it to 1.0.
+     *
+     * @param gain Linear gain factor (1.0 leaves the audio as it is)
+     */
+    void setTrim(double gain);
+
+    /**
+     * Gets the gain applied on top of the volume.
+     */
+    double getTrim();
+
+    /**
+     * Limits playback to part of the media, such as a cue trimmed to its audible part.
+     * Playing, replaying after the end and stopping start from the range start; the end of
+     * media is reached at the range end. A stopped voice moves to the new start at once, so
+     * engines that buffer ahead can be ready before the next play.
+     *
+     * @param startSeconds Where playback starts, from the start of the media
+     * @param endSeconds Where playback ends, or 0 for the end of the media
+     */
+    void setPlayRange(double startSeconds, double endSeconds);
+
+    /**
+     * Sets which output channels this voice plays to, or null for the first output.
+     * Ignored by engines with a single output of their own.
+     */
+    default void setRouting(OutputRouting routing) {
+    }
+
+    /**
+     * Sets the group bus this voice plays through, under the engine's master bus.
+     *
+     * @param group Name of the group, or null or blank to play straight into the master
+     */
+    default void setGroup(String group) {
+    }
+
+    /**
+     * Repeats part of the media: on reaching the loop end, playback jumps back to the loop
+     * start until the loop has played {@code count} times, then carries on to the end.
+     * Takes effect at once and restarts the count; stopping restarts it too.
+     *
+     * @param startSeconds Where the loop starts, from the start of the media
+     * @param endSeconds Where the loop ends; at or before the start to clear the loop
+     * @param count Times the loop plays in all, or 0 to loop until {@link #devamp()}
+     * @return false if this voice cannot loop, in which case it plays through once
+     */
+    default boolean setLoop(double startSeconds, double endSeconds, int count) {
+        return endSeconds <= startSeconds;
+    }
+
+    /**
+     * Lets the current pass of the loop finish, then carries on to the end of the media
+     * instead of jumping back. Does nothing if the voice is not looping.
+     */
+    default void devamp() {
+    }
+
+    /**
+     * Gets the meter showing this voice's output level, after volume, fades and trim.
+     *
+     * @return The meter, or null if this engine cannot measure the voice
+     */
+    LevelMeter getMeter();
+
+    /**
+     * Fades the volume to a level, timed by the playback engine rather than the FX thread.
+     * Setting the volume, stopping or starting another fade cancels a running fade without
+     * calling its completion handler. If the voice is not playing, the fade completes at once.
+     *
+     * @param volume Volume to fade to (0.0 to 1.0)
+     * @param seconds Length of the fade
+     * @param curve Shape of the fade
+     * @param stopWhenDone Stop once the fade is done, restoring the volume from before it
+     * @param onComplete Called on the event thread when the fade is done, or null
+     */
+    void fadeTo(double volume, double seconds, FadeCurve curve, boolean stopWhenDone, Runnable onComplete);
+
+    /**
+     * Starts another voice of the same engine when this one reaches its end, timed by the
+     * engine so nothing is lost or added between them. With an overlap the next voice starts
+     * that much before the end, and the two crossfade: this voice fades out over its last
+     * {@code overlapSeconds} while the next fades in to its volume. Stopping this voice or
+     * chaining another cancels the start; stopping or playing the next voice overrides it.
+     *
+     * @param next Voice to start, or null to cancel a pending start
+     * @param overlapSeconds Length of the crossfade, or 0 to start exactly at the end
+     * @param curve Shape of the crossfade
+     * @return false if this voice is not playing or the engine cannot start the next voice
+     *         itself, in which case the caller should start it at the end of media
+     */
+    boolean chain(AudioVoice next, double overlapSeconds, FadeCurve curve);
+
+    /**
+     * Gets the current playback position in seconds.
+     */
+    double getCurrentTime();
+
+    /**
+     * Gets the time in seconds at which playback ends (the end of the play range, or of the
+     * media), or 0 if not known yet.
+     */
+    double getDuration();
+
+    /**
+     * Checks if this voice can still be played, i.e. it has not failed or been disposed.
+     */
+    boolean isReusable();
+
+    /**
+     * Sets the handler called when playback reaches the end of the media.
+     */
+    void setOnEndOfMedia(Runnable handler);
+
+    /**
+     * Sets the handler called when audio actually starts after {@link #play()}.
+     */
+    void setOnPlaying(Runnable handler);
+
+    /**
+     * Sets the handler called when playback fails.
+     */
+    void setOnError(Consumer<Throwable> handler);
+
+    /**
+     * Sets the listener for playback position updates, in seconds.
+     */
+    void setProgressListener(DoubleConsumer listener);
+
+    /**
+     * Releases all resources. The voice cannot be used afterwards.
+     */
+    void dispose();
+}
@@ -0,0 +1,118 @@
+package com.winlabs.service.audio;
+
+/**
+ * Adapts a {@link PcmSource} to another channel count and sample rate while it is read,
+ * using the same channel mapping and linear interpolation as {@link PcmDecoder}.
+ *
+ * Each instance keeps a scratch buffer for the source frames of one read, so an instance
+ * must only be read by one thread (one voice on the render thread). The buffer grows to
+ * the largest block read and is then reused without further allocation.
+ */
+public final class ConvertingSource implements PcmSource {
+
+    private final PcmSource source;
+    private final int channels;
+    private final float sampleRate;
+    private final double step; // Source frames per output frame
+    private final long frameCount;
+    private float[] scratch;
+
+    private ConvertingSource(PcmSource source, int channels, float sampleRate) {
+        this.source = source;
+        this.channels = channels;
+        this.sampleRate = sampleRate;
+        this.step = source.getSampleRate() / (double) sampleRate;
+        this.frameCount = (long) Math.floor(source.getFrameCount() / step);
+        this.scratch = new float[0];
+    }
+
+    /**
+     * Returns a source with the given format, or the source itself if it already has it.
+     */
+    public static PcmSource adapt(PcmSource source, int channels, float sampleRate) {
+        if (source.getChannels() == channels && Float.compare(source.getSampleRate(), sampleRate) == 0) {
+            return source;
+        }
+        if (channels < 1 || sampleRate <= 0) {
+            throw new IllegalArgumentException("Invalid target format");
+        }
+        return new ConvertingSource(source, channels, sampleRate);
+    }
+
+    @Override
+    public int getChannels() {
+        return channels;
+    }
+
+    @Override
+    public float getSampleRate() {
+        return sampleRate;
+    }
+
+    @Override
+    public long getFrameCount() {
+        return frameCount;
+    }
+
+    @Override
+    public int read(long frame, float[] dest, int destOffset, int frames) {
+        int count = (int) Math.max(0, Math.min(frames, frameCount - frame));
+        if (count == 0) {
+            return 0;
+        }
+
+        // Source span covering every output frame plus the next frame for interpolation
+        double startPosition = frame * step;
+        long first = (long) startPosition;
+        int span = (int) ((long) ((frame + count - 1) * step) - first) + 2;
+        int sourceChannels = source.getChannels();
+        if (scratch.length < span * sourceChannels) {
+            scratch = new float[span * sourceChannels];
+        }
+        int available = source.read(first, scratch, 0, span);
+        if (available == 0) {
+            return 0;
+        }
+
+        boolean resample = step != 1.0;
+        for (int i = 0; i < count; i++) {
+            double position = (frame + i) * step - first;
+            int index = (int) position;
+            if (index >= available) {
+                return i;
+            }
+            int next = Math.min(index + 1, available - 1);
+            float fraction = resample ? (float) (position - index) : 0f;
+            writeFrame(index, next, fraction, sourceChannels, dest, destOffset + i * channels);
+        }
+        return count;
+    }
+
+    /**
+     * Interpolates one source frame and maps it to the output channels.
+     * Mono is copied to every channel and everything is averaged when downmixing to mono;
+     * otherwise extra source channels are dropped and missing ones are silent.
+     */
+    private void writeFrame(int index, int next, float fraction, int sourceChannels, float[] dest, int out) {
+        int a = index * sourceChannels;
+        int b = next * sourceChannels;
+        if (sourceChannels == 1) {
+            float value = scratch[a] + (scratch[b] - scratch[a]) * fraction;
+            for (int c = 0; c < channels; c++) {
+                dest[out + c] = value;
+            }
+        } else if (channels == 1) {
+            float sum = 0f;
+            for (int c = 0; c < sourceChannels; c++) {
+                sum += scratch[a + c] + (scratch[b + c] - scratch[a + c]) * fraction;
+            }
+            dest[out] = sum / sourceChannels;
+        } else {
+            for (int c = 0; c < channels; c++) {
+                dest[out + c] = c < sourceChannels
+                    ? scratch[a + c] + (scratch[b + c] - scratch[a + c]) * fraction
+                    : 0f;
+            }
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.winlabs.service.audio;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.DataLine;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.Mixer;
+import javax.sound.sampled.SourceDataLine;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.winlabs.model.OutputDevice;
+
+/**
+ * The output line of one {@link OutputDevice} of a {@link PcmMixer}.
+ *
+ * The first device is the mixer's clock: the render thread writes to its line directly and
+ * is paced by it. Every other device has a render thread of its own that plays blocks handed
+ * over through a {@link PcmRingBuffer}, so a slow or stalled device never holds up the mains.
+ * Each device runs on its own crystal, so a follower drifts from the clock; its
+ * {@link Follower} makes that up by playing it a fraction faster or slower, and drops or pads
+ * a block only when it stalls.
+ */
+final class DeviceOutput {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeviceOutput.class);
+
+    private final OutputDevice device;
+    private final SourceDataLine line;
+    private final long blockNanos;
+    private final byte[] out; // Writer of the line only
+    private final Follower follower; // Followers only
+    private volatile boolean running;
+    private Thread thread;
+
+    private DeviceOutput(OutputDevice device, SourceDataLine line, float sampleRate, int blockFrames, boolean clock) {
+        this.device = device;
+        this.line = line;
+        this.blockNanos = (long) (blockFrames * 1_000_000_000L / sampleRate);
+        this.out = new byte[blockFrames * device.getChannels() * 2];
+        int lineFrames = line.getBufferSize() / line.getFormat().getFrameSize();
+        this.follower = clock ? null : new Follower(device.getChannels(), sampleRate, blockFrames, lineFrames);
+    }
+
+    /**
+     * Opens and starts a device's line; a follower also starts its thread.
+     *
+     * @param clock True for the first device, which the render thread writes to itself
+     * @throws LineUnavailableException if the device is missing or does not support the format
+     */
+    static DeviceOutput open(OutputDevice device, float sampleRate, int blockFrames, int bufferBlocks, boolean clock)
+            throws LineUnavailableException {
+        AudioFormat format = new AudioFormat(sampleRate, 16, device.getChannels(), true, false);
+        SourceDataLine line = findLine(device, format);
+        line.open(format, blockFrames * bufferBlocks * format.getFrameSize());
+        line.start();
+        DeviceOutput output = new DeviceOutput(device, line, sampleRate, blockFrames, clock);
+        if (!clock) {
+            output.running = true;
+            output.thread = new Thread(output::followLoop, "PcmMixer-Output-" + device.getLabel());
+            output.thread.setDaemon(true);
+            output.thread.setPriority(Thread.MAX_PRIORITY);
+            output.thread.start();
+        }
+        return output;
+    }
+
+    private static SourceDataLine findLine(OutputDevice device, AudioFormat format) throws LineUnavailableException {
+        if (device.isSystemDefault()) {
+            return AudioSystem.getSourceDataLine(format);
+        }
+        for (Mixer.Info info : AudioSystem.getMixerInfo()) {
+            if (info.getName().equals(device.getDeviceName())) {
+                return AudioSystem.getSourceDataLine(format, info);
+            }
+        }
+        throw new LineUnavailableException("Output device not found: " + device.getDeviceName());
+    }
+
+    /**
+     * Gets the names of the sound devices that can play audio, for choosing outputs.
+     */
+    static List<String> listDeviceNames() {
+        List<String> names = new ArrayList<>();
+        DataLine.Info wanted = new DataLine.Info(SourceDataLine.class, null);
+        for (Mixer.Info info : AudioSystem.getMixerInfo()) {
+            try {
+                if (AudioSystem.getMixer(info).isLineSupported(wanted)) {
+                    names.add(info.getName());
+                }
+            } catch (RuntimeException e) {
+                logger.debug("Skipping sound device {}: {}", info.getName(), e.getMessage());
+            }
+        }
+        return names;
+    }
+
+    OutputDevice getDevice() {
+        return device;
+    }
+
+    boolean isClock() {
+        return follower == null;
+    }
+
+    /**
+     * Plays a block on the clock device, blocking until the line has room. Render thread only.
+     *
+     * @return True if the line had run dry before this block (an underrun)
+     */
+    boolean writeClock(float[] deviceMix, boolean primed) {
+        boolean underrun = primed && line.available() >= line.getBufferSize();
+        PcmMixer.toPcm16(deviceMix, out);
+        line.write(out, 0, out.length);
+        return underrun;
+    }
+
+    /**
+     * Hands a block to a follower's thread without waiting. Render thread only.
+     */
+    void offer(float[] deviceMix, int frames) {
+        follower.offer(deviceMix, frames);
+    }
+
+    private void followLoop() {
+        int frameBytes = line.getFormat().getFrameSize();
+        while (running) {
+            try {
+                float[] block = follower.next((line.getBufferSize() - line.available()) / frameBytes);
+                if (block == null) {
+                    LockSupport.parkNanos(blockNanos / 4);
+                    continue;
+                }
+                PcmMixer.toPcm16(block, out);
+                line.write(out, 0, out.length);
+            } catch (Exception e) {
+                logger.error("Error writing to output {}: {}", device.getLabel(), e.getMessage(), e);
+                LockSupport.parkNanos(blockNanos);
+            }
+        }
+    }
+
+    /**
+     * Gets how many blocks were dropped or padded to keep this follower in step with the clock.
+     */
+    long getCorrectionCount() {
+        return follower != null ? follower.getCorrectionCount() : 0;
+    }
+
+    /**
+     * Stops the follower thread, if any, and closes the line.
+     */
+    void close() {
+        running = false;
+        Thread follower = thread;
+        if (follower != null) {
+            try {
+                follower.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        line.stop();
+        line.close();
+    }
+}
@@ -0,0 +1,106 @@
+package com.winlabs.service.audio;
+
+/**
+ * Keeps a follower {@link DeviceOutput} in step with the clock device by playing it very
+ * slightly faster or slower. Each block, the audio buffered for the device is compared with
+ * its target; the smoothed difference sets the ratio of frames read to frames played, within
+ * {@value #MAX_ADJUST} either side of one, and the block is resampled to that ratio by linear
+ * interpolation. Crystals differ by well under that, so the buffer holds steady without the
+ * pitch change being heard.
+ *
+ * Only the follower's thread uses an instance.
+ */
+final class DriftCorrector {
+
+    /** Largest change of speed, as a fraction (0.1%, under 2 cents). */
+    static final double MAX_ADJUST = 0.001;
+    /** Time over which a difference from the target is made up, in seconds. */
+    private static final double CORRECTION_SECONDS = 2.0;
+    /** Weight of each block's measurement in the smoothed buffer level. */
+    private static final double SMOOTHING = 0.02;
+
+    private final int channels;
+    private final double targetFrames;
+    private final double framesPerAdjust; // Frames of difference that make a ratio change of 1
+    private final float[] previous; // The frame before the next one read
+    private final float[] next; // The next frame read
+    private double smoothedFrames;
+    private double ratio;
+    private double phase; // Position of the next frame played, from previous towards next
+
+    /**
+     * @param channels Channels of the audio
+     * @param sampleRate Sample rate of the audio
+     * @param targetFrames Frames that should be buffered for the device
+     */
+    DriftCorrector(int channels, float sampleRate, int targetFrames) {
+        this.channels = channels;
+        this.targetFrames = targetFrames;
+        this.framesPerAdjust = CORRECTION_SECONDS * sampleRate;
+        this.previous = new float[channels];
+        this.next = new float[channels];
+        this.smoothedFrames = targetFrames;
+        this.ratio = 1.0;
+        this.phase = 1.0; // Read a frame before the first is played
+    }
+
+    /**
+     * Measures the audio buffered for the device and sets the ratio for the next block.
+     *
+     * @param bufferedFrames Frames waiting to be played, in the hand-over buffer and the line
+     */
+    void update(int bufferedFrames) {
+        smoothedFrames += SMOOTHING * (bufferedFrames - smoothedFrames);
+        double adjust = (smoothedFrames - targetFrames) / framesPerAdjust;
+        ratio = 1.0 + Math.max(-MAX_ADJUST, Math.min(MAX_ADJUST, adjust));
+    }
+
+    /**
+     * Gets the number of frames read for each frame played: above one when the device plays
+     * slower than the clock.
+     */
+    double getRatio() {
+        return ratio;
+    }
+
+    /**
+     * Gets the number of frames {@link #resample} reads to play a block at the current ratio.
+     */
+    int framesNeeded(int frames) {
+        double position = phase;
+        int needed = 0;
+        for (int f = 0; f < frames; f++) {
+            while (position >= 1.0) {
+                position -= 1.0;
+                needed++;
+            }
+            position += ratio;
+        }
+        return needed;
+    }
+
+    /**
+     * Plays a block at the current ratio. The audio comes out one frame late, which is the
+     * same for every block.
+     *
+     * @param in Interleaved frames, {@link #framesNeeded} of them
+     * @param out Interleaved block to fill
+     * @param frames Frames in the block
+     */
+    void resample(float[] in, float[] out, int frames) {
+        int read = 0;
+        for (int f = 0, o = 0; f < frames; f++) {
+            while (phase >= 1.0) {
+                phase -= 1.0;
+                System.arraycopy(next, 0, previous, 0, channels);
+                System.arraycopy(in, read * channels, next, 0, channels);
+                read++;
+            }
+            float weight = (float) phase;
+            for (int c = 0; c < channels; c++, o++) {
+                out[o] = previous[c] + weight * (next[c] - previous[c]);
+            }
+            phase += ratio;
+        }
+    }
+}
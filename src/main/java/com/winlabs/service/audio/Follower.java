@@ -0,0 +1,145 @@
+package com.winlabs.service.audio;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Works out the blocks a follower {@link DeviceOutput} plays from the blocks the clock hands
+ * over through a {@link PcmRingBuffer}. A {@link DriftCorrector} plays them a fraction faster
+ * or slower to keep the audio buffered for the device steady. Only a stall is corrected by a
+ * whole block: more than {@value #MAX_LAG_BLOCKS} blocks behind, one block is crossfaded into
+ * the next to drop it, and about to run dry, a block of silence is played and the next block
+ * fades back in. Both are counted as corrections.
+ *
+ * The render thread only calls {@link #offer}; everything else is the follower thread's.
+ */
+final class Follower {
+
+    static final int RING_BLOCKS = 8;
+    static final int MAX_LAG_BLOCKS = 3;
+
+    private final int channels;
+    private final int blockFrames;
+    private final PcmRingBuffer ring;
+    private final float[] block;
+    private final float[] dropped;
+    private final float[] input;
+    private final DriftCorrector corrector;
+    private final AtomicLong corrections;
+    private boolean fed;
+    private boolean resumed; // The next block follows a block of silence
+
+    /**
+     * @param channels Channels of the device
+     * @param sampleRate Sample rate of the mixer
+     * @param blockFrames Frames in a block
+     * @param lineFrames Frames the device's line holds
+     */
+    Follower(int channels, float sampleRate, int blockFrames, int lineFrames) {
+        this.channels = channels;
+        this.blockFrames = blockFrames;
+        this.ring = new PcmRingBuffer(blockFrames * RING_BLOCKS, channels);
+        this.block = new float[blockFrames * channels];
+        this.dropped = new float[blockFrames * channels];
+        this.input = new float[(blockFrames + 2) * channels];
+        // Aim for the line full and the clock's next block waiting, as when both run at the same speed
+        this.corrector = new DriftCorrector(channels, sampleRate, lineFrames + blockFrames);
+        this.corrections = new AtomicLong();
+    }
+
+    /**
+     * Hands over a block without waiting. Render thread only.
+     */
+    void offer(float[] deviceMix, int frames) {
+        if (ring.availableToWrite() >= frames) {
+            ring.write(deviceMix, 0, frames);
+        }
+        // Otherwise the follower is stalled; it drops its backlog when it recovers
+    }
+
+    /**
+     * Works out the next block to play.
+     *
+     * @param lineFrames Frames still queued in the device's line
+     * @return The block, valid until the next call, or null if the line has more than a block
+     *         queued and the clock's next block has not arrived yet
+     */
+    float[] next(int lineFrames) {
+        int buffered = ring.availableToRead();
+        if (buffered > blockFrames * MAX_LAG_BLOCKS) {
+            // Stalled: drop a block by crossfading it into the next. The backlog is not drift,
+            // so the ratio is left alone
+            resampleBlock(dropped);
+            resampleBlock(block);
+            crossfade(dropped, block);
+            corrections.incrementAndGet();
+        } else if (buffered >= corrector.framesNeeded(blockFrames)) {
+            resampleBlock(block);
+            corrector.update(buffered + lineFrames); // Sets the ratio for the next block
+            if (resumed) {
+                fadeIn(block);
+                resumed = false;
+            }
+            fed = true;
+        } else if (lineFrames > blockFrames) {
+            return null; // Still playing; wait for the clock's next block
+        } else {
+            Arrays.fill(block, 0f); // About to run dry: the clock has stalled
+            if (fed) {
+                corrections.incrementAndGet();
+                resumed = true;
+            }
+        }
+        return block;
+    }
+
+    /**
+     * Reads the frames for one block at the corrector's ratio and resamples them into dest.
+     * The caller has checked they are buffered.
+     */
+    private void resampleBlock(float[] dest) {
+        int needed = corrector.framesNeeded(blockFrames);
+        ring.read(input, 0, needed);
+        corrector.resample(input, dest, blockFrames);
+    }
+
+    /**
+     * Crossfades one block into another with equal power, leaving the result in the second.
+     */
+    private void crossfade(float[] from, float[] to) {
+        double quarterTurn = Math.PI / 2 / blockFrames;
+        for (int f = 0, i = 0; f < blockFrames; f++) {
+            float out = (float) Math.cos((f + 0.5) * quarterTurn);
+            float in = (float) Math.sin((f + 0.5) * quarterTurn);
+            for (int c = 0; c < channels; c++, i++) {
+                to[i] = from[i] * out + to[i] * in;
+            }
+        }
+    }
+
+    /**
+     * Fades a block in from silence.
+     */
+    private void fadeIn(float[] samples) {
+        for (int f = 0, i = 0; f < blockFrames; f++) {
+            float gain = (f + 0.5f) / blockFrames;
+            for (int c = 0; c < channels; c++, i++) {
+                samples[i] *= gain;
+            }
+        }
+    }
+
+    /**
+     * Gets the number of frames read for each frame played.
+     */
+    double getRatio() {
+        return corrector.getRatio();
+    }
+
+    /**
+     * Gets how many blocks were dropped or padded to keep in step with the clock.
+     */
+    long getCorrectionCount() {
+        return corrections.get();
+    }
+}
@@ -0,0 +1,135 @@
+package com.winlabs.service.audio;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A gain stage that voices play through: the master bus of an engine, or a group bus under
+ * it. A voice's level is its own volume and trim times the effective level of its bus, which
+ * is the bus's level times that of every bus above it.
+ *
+ * Setting a level is a single volatile write, however many voices play through the bus.
+ * The {@link PcmMixer} evaluates each bus at most once per block, on the render thread, and
+ * moves its level towards the one set with a one-pole smoother of about
+ * {@value #SMOOTHING_SECONDS} s, so a fader move neither clicks nor zippers. Voices ramp
+ * across each block from the bus gain at its start to the gain at its end.
+ */
+public final class GainBus {
+
+    static final double SMOOTHING_SECONDS = 0.02;
+    private static final float SNAP = 1e-4f; // Close enough to the level to stop smoothing
+
+    private final String name;
+    private final GainBus parent;
+    private final Map<String, GainBus> children;
+    private volatile float level;
+
+    // Render thread only
+    private long evaluatedBlock;
+    private float smoothed;
+    private float blockStartGain;
+    private float blockEndGain;
+
+    /**
+     * Creates a master bus at full level.
+     */
+    public GainBus(String name) {
+        this(name, null);
+    }
+
+    private GainBus(String name, GainBus parent) {
+        this.name = name;
+        this.parent = parent;
+        this.children = new ConcurrentHashMap<>();
+        this.level = 1f;
+        this.evaluatedBlock = Long.MIN_VALUE;
+    }
+
+    /**
+     * Gets the bus under this one with the given name, creating it at full level if need be.
+     */
+    public GainBus child(String childName) {
+        return children.computeIfAbsent(childName, key -> new GainBus(key, this));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the bus this one feeds, or null for a master bus.
+     */
+    public GainBus getParent() {
+        return parent;
+    }
+
+    /**
+     * Sets the level of this bus. Voices reach it smoothly over the next few blocks.
+     *
+     * @param level Linear gain from 0.0 to 1.0
+     */
+    public void setLevel(double level) {
+        this.level = (float) Math.max(0.0, Math.min(1.0, level));
+    }
+
+    public double getLevel() {
+        return level;
+    }
+
+    /**
+     * Gets the level set on this bus times the levels of the buses above it, ignoring smoothing.
+     */
+    public double getEffectiveLevel() {
+        return parent != null ? level * parent.getEffectiveLevel() : level;
+    }
+
+    /**
+     * Moves this bus and the buses above it on to a block, unless already there.
+     * A bus that sat out the previous block starts at its level rather than smoothing
+     * from where it was left. Called by the render thread only.
+     *
+     * @param block Index of the block being rendered
+     * @param coefficient Fraction of the way to the set level to move in one block
+     */
+    void advance(long block, float coefficient) {
+        if (evaluatedBlock == block) {
+            return;
+        }
+        float parentStart = 1f;
+        float parentEnd = 1f;
+        if (parent != null) {
+            parent.advance(block, coefficient);
+            parentStart = parent.blockStartGain;
+            parentEnd = parent.blockEndGain;
+        }
+        float target = level;
+        float from = evaluatedBlock == block - 1 ? smoothed : target;
+        float to = from + (target - from) * coefficient;
+        if (Math.abs(target - to) < SNAP) {
+            to = target;
+        }
+        smoothed = to;
+        blockStartGain = from * parentStart;
+        blockEndGain = to * parentEnd;
+        evaluatedBlock = block;
+    }
+
+    /**
+     * Gets the effective gain at the start of the block last advanced to. Render thread only.
+     */
+    float getBlockStartGain() {
+        return blockStartGain;
+    }
+
+    /**
+     * Gets the effective gain at the end of the block last advanced to. Render thread only.
+     */
+    float getBlockEndGain() {
+        return blockEndGain;
+    }
+
+    @Override
+    public String toString() {
+        return parent != null ? parent + "/" + name : name;
+    }
+}
@@ -0,0 +1,69 @@
+package com.winlabs.service.audio;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.function.UnaryOperator;
+
+import javafx.scene.media.Media;
+import javafx.scene.media.MediaPlayer;
+
+/**
+ * {@link AudioBackend} that gives every voice its own JavaFX {@link MediaPlayer}.
+ *
+ * The players share no mix, so a master or group level change is applied to each open
+ * voice in turn; the PCM mixer applies it once per block instead.
+ */
+public class JavaFxBackend implements AudioBackend {
+
+    private final GainBus masterBus = new GainBus("Master");
+    private final Set<MediaPlayerVoice> voices = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+    private volatile UnaryOperator<Path> sourceResolver = UnaryOperator.identity();
+
+    @Override
+    public String getName() {
+        return "JavaFX Media";
+    }
+
+    @Override
+    public AudioVoice open(Path path) {
+        Media media = new Media(sourceResolver.apply(path).toUri().toString());
+        MediaPlayerVoice voice = new MediaPlayerVoice(new MediaPlayer(media), masterBus);
+        voices.add(voice);
+        return voice;
+    }
+
+    @Override
+    public void setSourceResolver(UnaryOperator<Path> resolver) {
+        this.sourceResolver = resolver != null ? resolver : UnaryOperator.identity();
+    }
+
+    @Override
+    public void setMasterLevel(double level) {
+        masterBus.setLevel(level);
+        refreshLevels();
+    }
+
+    @Override
+    public void setGroupLevel(String group, double level) {
+        masterBus.child(group).setLevel(level);
+        refreshLevels();
+    }
+
+    private void refreshLevels() {
+        List<MediaPlayerVoice> open;
+        synchronized (voices) {
+            open = new ArrayList<>(voices);
+        }
+        for (MediaPlayerVoice voice : open) {
+            if (voice.isReusable()) {
+                voice.refreshLevel();
+            } else {
+                voices.remove(voice);
+            }
+        }
+    }
+}
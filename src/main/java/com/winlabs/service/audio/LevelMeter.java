@@ -0,0 +1,190 @@
+package com.winlabs.service.audio;
+
+import java.lang.invoke.VarHandle;
+
+/**
+ * Peak and RMS level of a voice or mix, per channel, written by the audio thread and read
+ * by any thread without locks.
+ *
+ * The writer measures each block as it is rendered and publishes the levels under a
+ * sequence counter (a seqlock): the counter is odd while the levels are being written, and
+ * a reader retries if the counter was odd or changed while it read. The writer never waits
+ * and nothing is allocated after construction, so the render thread can meter every block.
+ *
+ * Levels are linear (1.0 is full scale) with meter ballistics applied by the writer, so a
+ * reader sampling at screen rate sees every peak: peaks jump up at once and fall back at
+ * {@value #PEAK_RELEASE_DB_PER_SECOND} dB/s, and RMS is averaged over about
+ * {@value #RMS_WINDOW_SECONDS} seconds.
+ *
+ * Only one thread may call the writer methods ({@link #process}, {@link #set},
+ * {@link #clear}); any number may read.
+ */
+public final class LevelMeter {
+
+    public static final double PEAK_RELEASE_DB_PER_SECOND = 20.0;
+    public static final double RMS_WINDOW_SECONDS = 0.3;
+
+    private final int channels;
+    private final float sampleRate;
+    private final float[] peaks; // Published under sequence
+    private final float[] rms; // Published under sequence, as mean square until read
+    private volatile int sequence; // Odd while the writer is publishing
+
+    // Writer only
+    private final float[] blockPeaks;
+    private final double[] blockSquares;
+
+    /**
+     * Creates a meter reading zero on every channel.
+     *
+     * @param channels Number of channels measured
+     * @param sampleRate Sample rate of the measured audio, for the ballistics
+     */
+    public LevelMeter(int channels, float sampleRate) {
+        if (channels < 1 || sampleRate <= 0) {
+            throw new IllegalArgumentException("Invalid meter format");
+        }
+        this.channels = channels;
+        this.sampleRate = sampleRate;
+        this.peaks = new float[channels];
+        this.rms = new float[channels];
+        this.blockPeaks = new float[channels];
+        this.blockSquares = new double[channels];
+    }
+
+    public int getChannels() {
+        return channels;
+    }
+
+    /**
+     * Measures one block of interleaved audio and publishes the new levels. Writer only.
+     *
+     * @param samples Interleaved audio with this meter's channel count
+     * @param offset Index of the block's first sample
+     * @param frames Number of frames in the block
+     * @param gain Gain applied to the first frame, as it was mixed
+     * @param gainStep Change in gain from one frame to the next
+     */
+    public void process(float[] samples, int offset, int frames, float gain, float gainStep) {
+        if (frames <= 0) {
+            return;
+        }
+        for (int c = 0; c < channels; c++) {
+            blockPeaks[c] = 0f;
+            blockSquares[c] = 0.0;
+        }
+        float g = gain;
+        for (int frame = 0, i = offset; frame < frames; frame++) {
+            for (int c = 0; c < channels; c++, i++) {
+                float value = samples[i] * g;
+                blockPeaks[c] = Math.max(blockPeaks[c], Math.abs(value));
+                blockSquares[c] += value * value;
+            }
+            g += gainStep;
+        }
+
+        double seconds = frames / (double) sampleRate;
+        float peakDecay = (float) Math.pow(10, -PEAK_RELEASE_DB_PER_SECOND * seconds / 20);
+        float rmsWeight = (float) (1 - Math.exp(-seconds / RMS_WINDOW_SECONDS));
+        beginWrite();
+        for (int c = 0; c < channels; c++) {
+            peaks[c] = Math.max(blockPeaks[c], peaks[c] * peakDecay);
+            float meanSquare = (float) (blockSquares[c] / frames);
+            rms[c] += (meanSquare - rms[c]) * rmsWeight;
+        }
+        endWrite();
+    }
+
+    /**
+     * Publishes levels measured elsewhere, the same on every channel. Writer only.
+     *
+     * @param peak Peak level, linear
+     * @param rmsLevel RMS level, linear
+     */
+    public void set(float peak, float rmsLevel) {
+        beginWrite();
+        for (int c = 0; c < channels; c++) {
+            peaks[c] = peak;
+            rms[c] = rmsLevel * rmsLevel;
+        }
+        endWrite();
+    }
+
+    /**
+     * Drops every channel to silence at once, for a voice leaving the mix. Writer only.
+     */
+    public void clear() {
+        set(0f, 0f);
+    }
+
+    private void beginWrite() {
+        sequence = sequence + 1;
+        VarHandle.storeStoreFence(); // The odd count is visible before any level changes
+    }
+
+    private void endWrite() {
+        sequence = sequence + 1; // Volatile write publishes the levels
+    }
+
+    /**
+     * Reads a consistent set of levels.
+     *
+     * @param peaksOut Receives each channel's peak level; at least {@link #getChannels()} long
+     * @param rmsOut Receives each channel's RMS level; at least {@link #getChannels()} long
+     */
+    public void read(float[] peaksOut, float[] rmsOut) {
+        int before;
+        do {
+            before = sequence;
+            for (int c = 0; c < channels; c++) {
+                peaksOut[c] = peaks[c];
+                rmsOut[c] = rms[c];
+            }
+            VarHandle.loadLoadFence(); // The levels are read before the count is checked again
+        } while ((before & 1) != 0 || before != sequence);
+        for (int c = 0; c < channels; c++) {
+            rmsOut[c] = (float) Math.sqrt(rmsOut[c]);
+        }
+    }
+
+    /**
+     * Gets the highest peak level across the channels.
+     */
+    public float getPeak() {
+        int before;
+        float peak;
+        do {
+            before = sequence;
+            peak = 0f;
+            for (int c = 0; c < channels; c++) {
+                peak = Math.max(peak, peaks[c]);
+            }
+            VarHandle.loadLoadFence();
+        } while ((before & 1) != 0 || before != sequence);
+        return peak;
+    }
+
+    /**
+     * Gets the highest RMS level across the channels.
+     */
+    public float getRms() {
+        int before;
+        float meanSquare;
+        do {
+            before = sequence;
+            meanSquare = 0f;
+            for (int c = 0; c < channels; c++) {
+                meanSquare = Math.max(meanSquare, rms[c]);
+            }
+            VarHandle.loadLoadFence();
+        } while ((before & 1) != 0 || before != sequence);
+        return (float) Math.sqrt(meanSquare);
+    }
+
+    /**
+     * Converts a linear level to dBFS, or negative infinity for silence.
+     */
+    public static double toDb(double level) {
+        return level > 0 ? 20 * Math.log10(level) : Double.NEGATIVE_INFINITY;
+    }
+}
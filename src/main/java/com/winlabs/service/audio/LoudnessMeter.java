@@ -0,0 +1,283 @@
+package com.winlabs.service.audio;
+
+import java.util.Arrays;
+
+import com.winlabs.model.LoudnessInfo;
+
+/**
+ * Measures a file's loudness following ITU-R BS.1770-4 / EBU R128:
+ * <ul>
+ *   <li>Integrated loudness: K-weighted mean square over 400 ms blocks overlapping by 75%,
+ *       gated at -70 LUFS and then 10 LU below the mean of the blocks that passed</li>
+ *   <li>True peak: the highest sample after oversampling (4x below 96 kHz, 2x below 192 kHz)
+ *       with a windowed-sinc interpolator, so peaks between samples are caught</li>
+ *   <li>RMS: the unweighted level of every sample</li>
+ * </ul>
+ * Levels are measured as the file is played: a mono file counts as the same signal in both
+ * speakers. Audio shorter than one block is measured as a single block rather than as silence.
+ */
+public final class LoudnessMeter {
+
+    private static final int READ_FRAMES = 4096;
+    private static final double SUB_BLOCK_SECONDS = 0.1;
+    private static final int SUB_BLOCKS_PER_BLOCK = 4; // 400 ms blocks, stepped by 100 ms
+    private static final double ABSOLUTE_GATE_LUFS = -70.0;
+    private static final double RELATIVE_GATE_LU = -10.0;
+    private static final int TRUE_PEAK_TAPS_PER_PHASE = 12;
+
+    private LoudnessMeter() {
+        // Utility class
+    }
+
+    /**
+     * Measures audio from start to end.
+     *
+     * @param source The audio to measure
+     * @return The measured loudness
+     */
+    public static LoudnessInfo measure(PcmSource source) {
+        int channels = source.getChannels();
+        double sampleRate = source.getSampleRate();
+        double[] weights = channelWeights(channels);
+        KWeighting[] filters = new KWeighting[channels];
+        TruePeakDetector[] peakDetectors = new TruePeakDetector[channels];
+        int oversampling = sampleRate < 96000 ? 4 : sampleRate < 192000 ? 2 : 1;
+        double[] interpolator = TruePeakDetector.design(oversampling);
+        for (int c = 0; c < channels; c++) {
+            filters[c] = new KWeighting(sampleRate);
+            peakDetectors[c] = new TruePeakDetector(interpolator, oversampling);
+        }
+
+        int subBlockFrames = (int) Math.max(1, Math.round(sampleRate * SUB_BLOCK_SECONDS));
+        double[] recentSubBlocks = new double[SUB_BLOCKS_PER_BLOCK];
+        int subBlocksSeen = 0;
+        double subBlockSum = 0;
+        int subBlockFill = 0;
+        double[] blockPowers = new double[64];
+        int blockCount = 0;
+        double weightedSum = 0; // Whole file, for audio shorter than a block
+        double rawSumSquares = 0;
+        long frameTotal = 0;
+
+        float[] buffer = new float[READ_FRAMES * channels];
+        long frame = 0;
+        int read;
+        while ((read = source.read(frame, buffer, 0, READ_FRAMES)) > 0) {
+            frame += read;
+            for (int f = 0, i = 0; f < read; f++) {
+                double framePower = 0;
+                for (int c = 0; c < channels; c++, i++) {
+                    double sample = buffer[i];
+                    rawSumSquares += sample * sample;
+                    peakDetectors[c].process(sample);
+                    double weighted = filters[c].process(sample);
+                    framePower += weights[c] * weighted * weighted;
+                }
+                subBlockSum += framePower;
+                weightedSum += framePower;
+                if (++subBlockFill == subBlockFrames) {
+                    recentSubBlocks[subBlocksSeen % SUB_BLOCKS_PER_BLOCK] = subBlockSum / subBlockFrames;
+                    subBlocksSeen++;
+                    subBlockSum = 0;
+                    subBlockFill = 0;
+                    if (subBlocksSeen >= SUB_BLOCKS_PER_BLOCK) {
+                        if (blockCount == blockPowers.length) {
+                            blockPowers = Arrays.copyOf(blockPowers, blockCount * 2);
+                        }
+                        blockPowers[blockCount++] = mean(recentSubBlocks);
+                    }
+                }
+            }
+            frameTotal += read;
+        }
+        if (blockCount == 0 && frameTotal > 0) {
+            blockPowers[blockCount++] = weightedSum / frameTotal;
+        }
+
+        double truePeak = 0;
+        for (TruePeakDetector detector : peakDetectors) {
+            truePeak = Math.max(truePeak, detector.getPeak());
+        }
+        double rms = frameTotal > 0 ? Math.sqrt(rawSumSquares / (frameTotal * channels)) : 0;
+        return new LoudnessInfo(integrate(blockPowers, blockCount), toDb(truePeak), toDb(rms));
+    }
+
+    /**
+     * Applies the absolute and relative gates and returns the loudness of what passes.
+     */
+    static double integrate(double[] blockPowers, int blockCount) {
+        double absoluteGate = toPower(ABSOLUTE_GATE_LUFS);
+        double sum = 0;
+        int count = 0;
+        for (int i = 0; i < blockCount; i++) {
+            if (blockPowers[i] > absoluteGate) {
+                sum += blockPowers[i];
+                count++;
+            }
+        }
+        if (count == 0) {
+            return Double.NEGATIVE_INFINITY;
+        }
+        double relativeGate = toPower(toLufs(sum / count) + RELATIVE_GATE_LU);
+        double gatedSum = 0;
+        int gatedCount = 0;
+        for (int i = 0; i < blockCount; i++) {
+            if (blockPowers[i] > absoluteGate && blockPowers[i] > relativeGate) {
+                gatedSum += blockPowers[i];
+                gatedCount++;
+            }
+        }
+        return toLufs(gatedSum / gatedCount);
+    }
+
+    /**
+     * Gets each channel's weight in the loudness sum. Surround channels of 5.0 and 5.1 count
+     * for +1.5 dB and the LFE channel not at all.
+     */
+    private static double[] channelWeights(int channels) {
+        double[] weights = new double[channels];
+        Arrays.fill(weights, 1.0);
+        if (channels == 1) {
+            weights[0] = 2.0; // Played in both speakers
+        } else if (channels == 5) {
+            weights[3] = 1.41;
+            weights[4] = 1.41;
+        } else if (channels == 6) {
+            weights[3] = 0.0;
+            weights[4] = 1.41;
+            weights[5] = 1.41;
+        }
+        return weights;
+    }
+
+    private static double mean(double[] values) {
+        double sum = 0;
+        for (double value : values) {
+            sum += value;
+        }
+        return sum / values.length;
+    }
+
+    private static double toLufs(double power) {
+        return -0.691 + 10 * Math.log10(power);
+    }
+
+    private static double toPower(double lufs) {
+        return Math.pow(10, (lufs + 0.691) / 10);
+    }
+
+    private static double toDb(double amplitude) {
+        return amplitude > 0 ? 20 * Math.log10(amplitude) : Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * The BS.1770 K-weighting filter for one channel: a high shelf modelling the head,
+     * then a high pass, with coefficients derived for the sample rate.
+     */
+    private static final class KWeighting {
+        private final double sb0, sb1, sb2, sa1, sa2; // Shelf
+        private final double hb0, hb1, hb2, ha1, ha2; // High pass
+        private double sx1, sx2, sy1, sy2;
+        private double hx1, hx2, hy1, hy2;
+
+        KWeighting(double sampleRate) {
+            double k = Math.tan(Math.PI * 1681.974450955533 / sampleRate);
+            double q = 0.7071752369554196;
+            double vh = Math.pow(10, 3.999843853973347 / 20);
+            double vb = Math.pow(vh, 0.4996667741545416);
+            double a0 = 1 + k / q + k * k;
+            sb0 = (vh + vb * k / q + k * k) / a0;
+            sb1 = 2 * (k * k - vh) / a0;
+            sb2 = (vh - vb * k / q + k * k) / a0;
+            sa1 = 2 * (k * k - 1) / a0;
+            sa2 = (1 - k / q + k * k) / a0;
+
+            k = Math.tan(Math.PI * 38.13547087602444 / sampleRate);
+            q = 0.5003270373238773;
+            a0 = 1 + k / q + k * k;
+            hb0 = 1;
+            hb1 = -2;
+            hb2 = 1;
+            ha1 = 2 * (k * k - 1) / a0;
+            ha2 = (1 - k / q + k * k) / a0;
+        }
+
+        double process(double x) {
+            double s = sb0 * x + sb1 * sx1 + sb2 * sx2 - sa1 * sy1 - sa2 * sy2;
+            sx2 = sx1;
+            sx1 = x;
+            sy2 = sy1;
+            sy1 = s;
+            double h = hb0 * s + hb1 * hx1 + hb2 * hx2 - ha1 * hy1 - ha2 * hy2;
+            hx2 = hx1;
+            hx1 = s;
+            hy2 = hy1;
+            hy1 = h;
+            return h;
+        }
+    }
+
+    /**
+     * Tracks the highest absolute value of one channel after polyphase oversampling.
+     */
+    private static final class TruePeakDetector {
+        private final double[] taps; // Phase p uses taps[p], taps[p + factor], ...
+        private final int factor;
+        private final double[] history;
+        private int newest;
+        private double peak;
+
+        TruePeakDetector(double[] taps, int factor) {
+            this.taps = taps;
+            this.factor = factor;
+            this.history = new double[TRUE_PEAK_TAPS_PER_PHASE];
+        }
+
+        /**
+         * Designs a Hann-windowed sinc interpolator, each phase scaled to unity gain at DC.
+         */
+        static double[] design(int factor) {
+            int length = factor * TRUE_PEAK_TAPS_PER_PHASE;
+            double[] taps = new double[length];
+            double center = (length - 1) / 2.0;
+            for (int n = 0; n < length; n++) {
+                double t = (n - center) / factor;
+                double sinc = t == 0 ? 1 : Math.sin(Math.PI * t) / (Math.PI * t);
+                double window = 0.5 - 0.5 * Math.cos(2 * Math.PI * (n + 0.5) / length);
+                taps[n] = sinc * window;
+            }
+            for (int phase = 0; phase < factor; phase++) {
+                double sum = 0;
+                for (int n = phase; n < length; n += factor) {
+                    sum += taps[n];
+                }
+                for (int n = phase; n < length; n += factor) {
+                    taps[n] /= sum;
+                }
+            }
+            return taps;
+        }
+
+        void process(double x) {
+            peak = Math.max(peak, Math.abs(x));
+            if (factor == 1) {
+                return;
+            }
+            newest = (newest + 1) % history.length;
+            history[newest] = x;
+            for (int phase = 0; phase < factor; phase++) {
+                double y = 0;
+                int index = newest;
+                for (int n = phase; n < taps.length; n += factor) {
+                    y += taps[n] * history[index];
+                    index = index == 0 ? history.length - 1 : index - 1;
+                }
+                peak = Math.max(peak, Math.abs(y));
+            }
+        }
+
+        double getPeak() {
+            return peak;
+        }
+    }
+}
@@ -0,0 +1,364 @@
+package com.winlabs.service.audio;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import javax.sound.sampled.UnsupportedAudioFileException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reads uncompressed WAV and AIFF/AIFC files straight from a memory-mapped file.
+ *
+ * Only the chunk headers are parsed when the reader opens; samples are converted to floats
+ * as they are read, so long files (ambience beds, music) never occupy the Java heap and a
+ * seek is just a different frame index. The data chunk is mapped in segments of up to
+ * 1 GiB, aligned to whole frames, so files larger than 2 GiB work too.
+ *
+ * Reads are absolute and allocation-free, so one reader can be shared by any number of
+ * voices. The file is closed once mapped; the mapping lives until the reader is collected.
+ */
+public final class MappedPcmReader implements PcmSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(MappedPcmReader.class);
+
+    static final long DEFAULT_SEGMENT_BYTES = 1L << 30;
+
+    private static final int WAVE_FORMAT_PCM = 0x0001;
+    private static final int WAVE_FORMAT_IEEE_FLOAT = 0x0003;
+    private static final int WAVE_FORMAT_EXTENSIBLE = 0xFFFE;
+
+    private final MappedByteBuffer[] segments;
+    private final long framesPerSegment;
+    private final int channels;
+    private final float sampleRate;
+    private final long frameCount;
+    private final int bytesPerSample;
+    private final int frameSize;
+    private final boolean isFloat;
+    private final boolean unsigned8;
+    private final boolean bigEndian;
+
+    private MappedPcmReader(MappedByteBuffer[] segments, long framesPerSegment, Format format, long frameCount) {
+        this.segments = segments;
+        this.framesPerSegment = framesPerSegment;
+        this.channels = format.channels;
+        this.sampleRate = format.sampleRate;
+        this.frameCount = frameCount;
+        this.bytesPerSample = format.bits / 8;
+        this.frameSize = bytesPerSample * channels;
+        this.isFloat = format.isFloat;
+        this.unsigned8 = format.unsigned8;
+        this.bigEndian = format.bigEndian;
+    }
+
+    /**
+     * Opens a WAV or AIFF file for reading.
+     *
+     * @param path The audio file
+     * @return A reader over the file's sample data
+     * @throws UnsupportedAudioFileException if the file is not uncompressed WAV or AIFF
+     * @throws IOException if the file cannot be read
+     */
+    public static MappedPcmReader open(Path path) throws UnsupportedAudioFileException, IOException {
+        return open(path, DEFAULT_SEGMENT_BYTES);
+    }
+
+    /**
+     * Opens a file with a custom segment size, so tests can cross segment boundaries with small files.
+     */
+    static MappedPcmReader open(Path path, long segmentBytes) throws UnsupportedAudioFileException, IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            Format format = parseHeader(channel);
+
+            long dataLength = Math.min(format.dataLength, channel.size() - format.dataOffset);
+            int frameSize = format.bits / 8 * format.channels;
+            long frameCount = Math.max(0, dataLength / frameSize);
+            long framesPerSegment = Math.max(1, segmentBytes / frameSize);
+
+            int segmentCount = (int) Math.max(1, (frameCount + framesPerSegment - 1) / framesPerSegment);
+            MappedByteBuffer[] segments = new MappedByteBuffer[segmentCount];
+            ByteOrder order = format.bigEndian ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN;
+            for (int i = 0; i < segmentCount; i++) {
+                long firstFrame = i * framesPerSegment;
+                long frames = Math.min(framesPerSegment, frameCount - firstFrame);
+                MappedByteBuffer segment = channel.map(FileChannel.MapMode.READ_ONLY,
+                    format.dataOffset + firstFrame * frameSize, Math.max(0, frames) * frameSize);
+                segment.order(order);
+                segments[i] = segment;
+            }
+
+            MappedPcmReader reader = new MappedPcmReader(segments, framesPerSegment, format, frameCount);
+            logger.debug("Mapped {} ({} ch, {} Hz, {}-bit{}, {} frames)", path.getFileName(), format.channels,
+                format.sampleRate, format.bits, format.isFloat ? " float" : "", frameCount);
+            return reader;
+        }
+    }
+
+    @Override
+    public int getChannels() {
+        return channels;
+    }
+
+    @Override
+    public float getSampleRate() {
+        return sampleRate;
+    }
+
+    @Override
+    public long getFrameCount() {
+        return frameCount;
+    }
+
+    @Override
+    public int read(long frame, float[] dest, int destOffset, int frames) {
+        int count = (int) Math.max(0, Math.min(frames, frameCount - frame));
+        int out = destOffset;
+        long current = frame;
+        int remaining = count;
+        while (remaining > 0) {
+            int segmentIndex = (int) (current / framesPerSegment);
+            long frameInSegment = current % framesPerSegment;
+            int run = (int) Math.min(remaining, framesPerSegment - frameInSegment);
+            out = convert(segments[segmentIndex], (int) (frameInSegment * frameSize), run * channels, dest, out);
+            current += run;
+            remaining -= run;
+        }
+        return count;
+    }
+
+    /**
+     * Converts samples from one segment to floats.
+     *
+     * @return The index in dest after the last sample written
+     */
+    private int convert(MappedByteBuffer segment, int offset, int samples, float[] dest, int out) {
+        int position = offset;
+        switch (bytesPerSample) {
+            case 1:
+                for (int i = 0; i < samples; i++, position++) {
+                    int value = unsigned8 ? (segment.get(position) & 0xFF) - 128 : segment.get(position);
+                    dest[out++] = value / 128f;
+                }
+                break;
+            case 2:
+                for (int i = 0; i < samples; i++, position += 2) {
+                    dest[out++] = segment.getShort(position) / 32768f;
+                }
+                break;
+            case 3:
+                int high = bigEndian ? 0 : 2;
+                int low = bigEndian ? 2 : 0;
+                for (int i = 0; i < samples; i++, position += 3) {
+                    // The most significant byte is read signed, which sign-extends the sample
+                    int value = (segment.get(position + high) << 16)
+                        | ((segment.get(position + 1) & 0xFF) << 8)
+                        | (segment.get(position + low) & 0xFF);
+                    dest[out++] = value / 8388608f;
+                }
+                break;
+            case 4:
+                for (int i = 0; i < samples; i++, position += 4) {
+                    dest[out++] = isFloat
+                        ? segment.getFloat(position)
+                        : (float) (segment.getInt(position) / 2147483648.0);
+                }
+                break;
+            default: // 8-byte float
+                for (int i = 0; i < samples; i++, position += 8) {
+                    dest[out++] = (float) segment.getDouble(position);
+                }
+                break;
+        }
+        return out;
+    }
+
+    /**
+     * Sample layout and data location parsed from the file header.
+     */
+    private static final class Format {
+        int channels;
+        float sampleRate;
+        int bits;
+        boolean isFloat;
+        boolean unsigned8;
+        boolean bigEndian;
+        long dataOffset = -1;
+        long dataLength;
+    }
+
+    private static Format parseHeader(FileChannel channel) throws UnsupportedAudioFileException, IOException {
+        ByteBuffer header = readAt(channel, 0, 12, ByteOrder.BIG_ENDIAN);
+        String form = fourCc(header, 0);
+        String type = fourCc(header, 8);
+
+        Format format;
+        if (form.equals("RIFF") && type.equals("WAVE")) {
+            format = parseWave(channel);
+        } else if (form.equals("FORM") && (type.equals("AIFF") || type.equals("AIFC"))) {
+            format = parseAiff(channel, type.equals("AIFC"));
+        } else {
+            throw new UnsupportedAudioFileException("Not a WAV or AIFF file");
+        }
+
+        if (format.dataOffset < 0) {
+            throw new UnsupportedAudioFileException("No sample data chunk found");
+        }
+        if (format.channels < 1 || format.sampleRate <= 0) {
+            throw new UnsupportedAudioFileException("Invalid audio format in header");
+        }
+        boolean supportedBits = format.isFloat
+            ? format.bits == 32 || format.bits == 64
+            : format.bits == 8 || format.bits == 16 || format.bits == 24 || format.bits == 32;
+        if (!supportedBits) {
+            throw new UnsupportedAudioFileException("Unsupported sample size: " + format.bits + " bits");
+        }
+        return format;
+    }
+
+    private static Format parseWave(FileChannel channel) throws UnsupportedAudioFileException, IOException {
+        Format format = null;
+        long dataOffset = -1;
+        long dataLength = 0;
+        long position = 12;
+        long size = channel.size();
+
+        while (position + 8 <= size && (format == null || dataOffset < 0)) {
+            ByteBuffer chunk = readAt(channel, position, 8, ByteOrder.LITTLE_ENDIAN);
+            String id = fourCc(chunk, 0);
+            long length = chunk.getInt(4) & 0xFFFFFFFFL;
+            long body = position + 8;
+
+            if (id.equals("fmt ")) {
+                ByteBuffer fmt = readAt(channel, body, (int) Math.min(length, 40), ByteOrder.LITTLE_ENDIAN);
+                int tag = fmt.getShort(0) & 0xFFFF;
+                if (tag == WAVE_FORMAT_EXTENSIBLE && length >= 26) {
+                    tag = fmt.getShort(24) & 0xFFFF; // First two bytes of the sub-format GUID
+                }
+                if (tag != WAVE_FORMAT_PCM && tag != WAVE_FORMAT_IEEE_FLOAT) {
+                    throw new UnsupportedAudioFileException("Compressed WAV format: 0x" + Integer.toHexString(tag));
+                }
+                format = new Format();
+                format.channels = fmt.getShort(2) & 0xFFFF;
+                format.sampleRate = fmt.getInt(4) & 0xFFFFFFFFL;
+                format.bits = fmt.getShort(14) & 0xFFFF;
+                format.isFloat = tag == WAVE_FORMAT_IEEE_FLOAT;
+                format.unsigned8 = format.bits == 8;
+                format.bigEndian = false;
+            } else if (id.equals("data")) {
+                dataOffset = body;
+                // Streaming writers leave the length unset; the data then runs to the end of the file
+                dataLength = length == 0 || length == 0xFFFFFFFFL ? size - body : length;
+            }
+            position = body + length + (length & 1);
+        }
+
+        if (format == null) {
+            throw new UnsupportedAudioFileException("No fmt chunk found");
+        }
+        format.dataOffset = dataOffset;
+        format.dataLength = dataLength;
+        return format;
+    }
+
+    private static Format parseAiff(FileChannel channel, boolean aifc) throws UnsupportedAudioFileException, IOException {
+        Format format = null;
+        long dataOffset = -1;
+        long dataLength = 0;
+        long position = 12;
+        long size = channel.size();
+
+        while (position + 8 <= size && (format == null || dataOffset < 0)) {
+            ByteBuffer chunk = readAt(channel, position, 8, ByteOrder.BIG_ENDIAN);
+            String id = fourCc(chunk, 0);
+            long length = chunk.getInt(4) & 0xFFFFFFFFL;
+            long body = position + 8;
+
+            if (id.equals("COMM")) {
+                ByteBuffer comm = readAt(channel, body, (int) Math.min(length, 22), ByteOrder.BIG_ENDIAN);
+                format = new Format();
+                format.channels = comm.getShort(0) & 0xFFFF;
+                format.bits = comm.getShort(6) & 0xFFFF;
+                format.sampleRate = (float) readExtended(comm, 8);
+                format.bigEndian = true;
+                if (aifc && length >= 22) {
+                    String compression = fourCc(comm, 18);
+                    switch (compression) {
+                        case "NONE":
+                            break;
+                        case "sowt":
+                            format.bigEndian = false;
+                            break;
+                        case "fl32":
+                        case "FL32":
+                            format.isFloat = true;
+                            format.bits = 32;
+                            break;
+                        case "fl64":
+                        case "FL64":
+                            format.isFloat = true;
+                            format.bits = 64;
+                            break;
+                        default:
+                            throw new UnsupportedAudioFileException("Compressed AIFC format: " + compression);
+                    }
+                }
+                // AIFF sample sizes that are not whole bytes are stored left-justified
+                format.bits = (format.bits + 7) / 8 * 8;
+            } else if (id.equals("SSND")) {
+                ByteBuffer ssnd = readAt(channel, body, 8, ByteOrder.BIG_ENDIAN);
+                long offset = ssnd.getInt(0) & 0xFFFFFFFFL;
+                dataOffset = body + 8 + offset;
+                dataLength = length - 8 - offset;
+            }
+            position = body + length + (length & 1);
+        }
+
+        if (format == null) {
+            throw new UnsupportedAudioFileException("No COMM chunk found");
+        }
+        format.dataOffset = dataOffset;
+        format.dataLength = dataLength;
+        return format;
+    }
+
+    /**
+     * Reads an 80-bit IEEE 754 extended-precision number (AIFF sample rate).
+     */
+    static double readExtended(ByteBuffer buffer, int offset) {
+        int exponent = buffer.getShort(offset) & 0x7FFF;
+        boolean negative = (buffer.getShort(offset) & 0x8000) != 0;
+        long mantissa = buffer.getLong(offset + 2);
+        if (exponent == 0 && mantissa == 0) {
+            return 0.0;
+        }
+        // The mantissa has an explicit integer bit, so it is an unsigned 64-bit fraction scaled by 2^63
+        double value = (mantissa >>> 1) * Math.pow(2, exponent - 16383 - 62);
+        return negative ? -value : value;
+    }
+
+    private static ByteBuffer readAt(FileChannel channel, long position, int length, ByteOrder order) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(order);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Unexpected end of audio file header");
+            }
+        }
+        return buffer;
+    }
+
+    private static String fourCc(ByteBuffer buffer, int offset) {
+        char[] chars = new char[4];
+        for (int i = 0; i < 4; i++) {
+            chars[i] = (char) (buffer.get(offset + i) & 0xFF);
+        }
+        return new String(chars);
+    }
+}
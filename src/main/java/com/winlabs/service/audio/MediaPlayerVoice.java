@@ -0,0 +1,388 @@
+package com.winlabs.service.audio;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+
+import com.winlabs.model.FadeCurve;
+
+import javafx.application.Platform;
+import javafx.beans.value.ChangeListener;
+import javafx.scene.media.MediaPlayer;
+import javafx.util.Duration;
+
+/**
+ * {@link AudioVoice} backed by a JavaFX {@link MediaPlayer}.
+ * Each voice owns its own native media pipeline.
+ *
+ * MediaPlayer gives no access to its samples, so fades are stepped through
+ * {@link MediaPlayer#setVolume(double)} every {@value #FADE_STEP_MILLIS} ms by a shared
+ * timer thread. Each step is computed from the elapsed wall-clock time, so the fade keeps
+ * its length when the FX thread is busy, but it is not sample-accurate like the PCM mixer.
+ *
+ * Levels are estimated from the player's audio spectrum, which JavaFX reports on the FX
+ * thread every {@value #SPECTRUM_INTERVAL_SECONDS} s while playing: the band powers are summed
+ * into an RMS level and the peak is taken as that of a sine at the same level. This is close
+ * for tonal material and reads low on transients; the PCM mixer measures the samples.
+ *
+ * A play range maps onto the player's start and stop times, which the native pipeline
+ * honours itself: a stopped player starts from the start time without a separate seek.
+ *
+ * MediaPlayers share no mix, so a {@link GainBus} level is folded into each player's volume
+ * along with the trim, and a bus move reaches a player through {@link #refreshLevel()}.
+ */
+public class MediaPlayerVoice implements AudioVoice {
+
+    static final long FADE_STEP_MILLIS = 10;
+    private static final double MIN_SCALE = 0.001; // -60 dB; keeps the volume recoverable from the player
+    static final double SPECTRUM_INTERVAL_SECONDS = 0.05;
+    private static final int SPECTRUM_BANDS = 16;
+    private static final int SPECTRUM_THRESHOLD_DB = -70; // Bands at or below this are silent
+    private static final ScheduledExecutorService fadeScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "MediaPlayer-Fade");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final MediaPlayer mediaPlayer;
+    private final CompletableFuture<Void> ready;
+    private final ChangeListener<MediaPlayer.Status> statusListener;
+    private final ChangeListener<Duration> currentTimeListener;
+    private final LevelMeter meter; // Written on the FX thread
+    private Runnable onPlaying;
+    private Consumer<Throwable> onError;
+    private DoubleConsumer progressListener;
+    private ScheduledFuture<?> fadeTask; // Guarded by this
+    private double fadeFrom; // Guarded by this; volume before the running fade
+    private volatile double trim = 1.0;
+    private final GainBus masterBus;
+    private volatile GainBus bus;
+    private volatile double scale = 1.0; // Player volume is volume * scale, the trim times the bus level
+    private volatile boolean stopTimeSet; // A play range end has moved the stop time from the end of media
+
+    public MediaPlayerVoice(MediaPlayer mediaPlayer) {
+        this(mediaPlayer, new GainBus("Master"));
+    }
+
+    /**
+     * @param masterBus The backend's master bus, which the voice plays through until given a group
+     */
+    MediaPlayerVoice(MediaPlayer mediaPlayer, GainBus masterBus) {
+        this.mediaPlayer = mediaPlayer;
+        this.masterBus = masterBus;
+        this.bus = masterBus;
+        this.ready = new CompletableFuture<>();
+        this.meter = new LevelMeter(1, 48000f); // Only set() is used, so the rate does not matter
+        this.statusListener = (observable, oldValue, newValue) -> {
+            if (newValue != MediaPlayer.Status.PLAYING) {
+                meter.clear(); // No more spectrum updates until it plays again
+            }
+            if (newValue == MediaPlayer.Status.READY || newValue == MediaPlayer.Status.PLAYING) {
+                ready.complete(null);
+            }
+            if (newValue == MediaPlayer.Status.PLAYING && onPlaying != null) {
+                onPlaying.run();
+            }
+        };
+        this.currentTimeListener = (observable, oldValue, newValue) -> {
+            if (progressListener != null && newValue != null) {
+                progressListener.accept(newValue.toSeconds());
+            }
+        };
+
+        mediaPlayer.statusProperty().addListener(statusListener);
+        mediaPlayer.setAudioSpectrumNumBands(SPECTRUM_BANDS);
+        mediaPlayer.setAudioSpectrumInterval(SPECTRUM_INTERVAL_SECONDS);
+        mediaPlayer.setAudioSpectrumThreshold(SPECTRUM_THRESHOLD_DB);
+        mediaPlayer.setAudioSpectrumListener((timestamp, duration, magnitudes, phases) ->
+            publishLevel(magnitudes, currentVolume() * trim));
+        mediaPlayer.setOnError(() -> {
+            Throwable error = mediaPlayer.getError() != null
+                ? mediaPlayer.getError()
+                : new IllegalStateException("Media playback failed");
+            ready.completeExceptionally(error);
+            if (onError != null) {
+                onError.accept(error);
+            }
+        });
+        if (isLoaded(mediaPlayer.getStatus())) {
+            ready.complete(null);
+        }
+    }
+
+    /**
+     * Gets the wrapped media player.
+     */
+    public MediaPlayer getMediaPlayer() {
+        return mediaPlayer;
+    }
+
+    @Override
+    public CompletableFuture<Void> whenReady() {
+        return ready;
+    }
+
+    @Override
+    public void play() {
+        mediaPlayer.play();
+    }
+
+    @Override
+    public void pause() {
+        mediaPlayer.pause();
+    }
+
+    @Override
+    public void stop() {
+        synchronized (this) {
+            if (fadeTask != null) {
+                cancelFade();
+                applyVolume(fadeFrom); // Leave the volume as it was before the fade
+            }
+        }
+        mediaPlayer.stop();
+        rewind();
+    }
+
+    @Override
+    public void seek(double seconds) {
+        mediaPlayer.seek(Duration.seconds(seconds));
+    }
+
+    @Override
+    public void setPlayRange(double startSeconds, double endSeconds) {
+        double start = Math.max(0.0, startSeconds);
+        if (endSeconds > 0 && endSeconds <= start) {
+            start = 0.0;
+            endSeconds = 0.0;
+        }
+        mediaPlayer.setStartTime(Duration.seconds(start));
+        if (endSeconds > 0) {
+            mediaPlayer.setStopTime(Duration.seconds(endSeconds));
+            stopTimeSet = true;
+        } else if (stopTimeSet) {
+            Duration mediaDuration = mediaPlayer.getMedia().getDuration();
+            if (mediaDuration != null && !mediaDuration.isUnknown()) {
+                mediaPlayer.setStopTime(mediaDuration);
+                stopTimeSet = false;
+            }
+        }
+    }
+
+    /**
+     * Moves a stopped player back to its start time.
+     */
+    private void rewind() {
+        Duration startTime = mediaPlayer.getStartTime();
+        mediaPlayer.seek(startTime != null ? startTime : Duration.ZERO);
+    }
+
+    @Override
+    public void setVolume(double volume) {
+        cancelFade();
+        applyVolume(Math.max(0.0, Math.min(1.0, volume)));
+    }
+
+    @Override
+    public synchronized void fadeTo(double volume, double seconds, FadeCurve curve, boolean stopWhenDone, Runnable onComplete) {
+        cancelFade();
+        double target = Math.max(0.0, Math.min(1.0, volume));
+        double from = currentVolume();
+        fadeFrom = from;
+        FadeCurve shape = curve != null ? curve : FadeCurve.LINEAR;
+        long lengthNanos = (long) (Math.max(0.0, seconds) * 1e9);
+        if (mediaPlayer.getStatus() != MediaPlayer.Status.PLAYING || lengthNanos == 0) {
+            finishFade(target, from, stopWhenDone, onComplete);
+            return;
+        }
+
+        long start = System.nanoTime();
+        ScheduledFuture<?>[] task = new ScheduledFuture<?>[1];
+        task[0] = fadeScheduler.scheduleAtFixedRate(() -> {
+            double progress = (System.nanoTime() - start) / (double) lengthNanos;
+            if (progress < 1.0) {
+                applyVolume(shape.gainAt(progress, from, target));
+                return;
+            }
+            synchronized (this) {
+                if (fadeTask != task[0]) {
+                    return; // Cancelled or replaced
+                }
+                fadeTask.cancel(false);
+                fadeTask = null;
+            }
+            finishFade(target, from, stopWhenDone, onComplete);
+        }, 0, FADE_STEP_MILLIS, TimeUnit.MILLISECONDS);
+        fadeTask = task[0];
+    }
+
+    private void finishFade(double target, double from, boolean stopWhenDone, Runnable onComplete) {
+        if (stopWhenDone) {
+            mediaPlayer.stop();
+            rewind();
+            applyVolume(from);
+        } else {
+            applyVolume(target);
+        }
+        if (onComplete != null) {
+            Platform.runLater(onComplete);
+        }
+    }
+
+    private synchronized void cancelFade() {
+        if (fadeTask != null) {
+            fadeTask.cancel(false);
+            fadeTask = null;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * Not supported: a MediaPlayer cannot be started on another player's sample, so the
+     * caller falls back to starting the next voice on end of media.
+     */
+    @Override
+    public boolean chain(AudioVoice next, double overlapSeconds, FadeCurve curve) {
+        return false;
+    }
+
+    @Override
+    public double getVolume() {
+        return currentVolume();
+    }
+
+    /**
+     * {@inheritDoc}
+     * MediaPlayer volume cannot go above 1.0, so gains above 1.0 are limited to 1.0.
+     */
+    @Override
+    public synchronized void setTrim(double gain) {
+        double volume = currentVolume();
+        trim = Math.min(1.0, Math.max(0.0, gain));
+        applyVolume(volume);
+    }
+
+    @Override
+    public double getTrim() {
+        return trim;
+    }
+
+    @Override
+    public synchronized void setGroup(String group) {
+        double volume = currentVolume();
+        bus = group == null || group.isBlank() ? masterBus : masterBus.child(group.trim());
+        applyVolume(volume);
+    }
+
+    /**
+     * Applies the current level of the voice's bus to the player, keeping its volume.
+     */
+    synchronized void refreshLevel() {
+        applyVolume(currentVolume());
+    }
+
+    private void applyVolume(double volume) {
+        double current = Math.max(MIN_SCALE, trim * bus.getEffectiveLevel());
+        scale = current;
+        mediaPlayer.setVolume(volume * current);
+    }
+
+    private double currentVolume() {
+        return Math.min(1.0, mediaPlayer.getVolume() / scale);
+    }
+
+    @Override
+    public LevelMeter getMeter() {
+        return meter;
+    }
+
+    /**
+     * Estimates the output level from one spectrum update and publishes it. Called on the FX thread.
+     *
+     * @param magnitudes Band levels in dB, as reported by the player
+     * @param playerVolume The player's volume; the spectrum is taken before it is applied
+     */
+    void publishLevel(float[] magnitudes, double playerVolume) {
+        double power = 0;
+        for (float magnitude : magnitudes) {
+            if (magnitude > SPECTRUM_THRESHOLD_DB) {
+                power += Math.pow(10, magnitude / 10.0);
+            }
+        }
+        // A full-scale sine reads 0 dB in its band, and has an RMS of 1/sqrt(2)
+        double peak = Math.min(1.0, Math.sqrt(power) * playerVolume);
+        meter.set((float) peak, (float) (peak / Math.sqrt(2)));
+    }
+
+    @Override
+    public double getCurrentTime() {
+        Duration currentTime = mediaPlayer.getCurrentTime();
+        return currentTime != null ? currentTime.toSeconds() : 0.0;
+    }
+
+    @Override
+    public double getDuration() {
+        Duration stopTime = mediaPlayer.getStopTime(); // The end of media unless a range moved it
+        if (stopTime != null && !stopTime.isUnknown() && !stopTime.isIndefinite()) {
+            return stopTime.toSeconds();
+        }
+        Duration totalDuration = mediaPlayer.getTotalDuration();
+        return totalDuration != null ? totalDuration.toSeconds() : 0.0;
+    }
+
+    @Override
+    public boolean isReusable() {
+        MediaPlayer.Status status = mediaPlayer.getStatus();
+        return status != MediaPlayer.Status.HALTED && status != MediaPlayer.Status.DISPOSED;
+    }
+
+    @Override
+    public void setOnEndOfMedia(Runnable handler) {
+        mediaPlayer.setOnEndOfMedia(handler);
+    }
+
+    @Override
+    public void setOnPlaying(Runnable handler) {
+        this.onPlaying = handler;
+    }
+
+    @Override
+    public void setOnError(Consumer<Throwable> handler) {
+        this.onError = handler;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The current time listener is only registered while a listener is set, so an unwatched
+     * player costs the FX thread nothing as it plays.
+     */
+    @Override
+    public void setProgressListener(DoubleConsumer listener) {
+        if (listener != null && progressListener == null) {
+            mediaPlayer.currentTimeProperty().addListener(currentTimeListener);
+        } else if (listener == null && progressListener != null) {
+            mediaPlayer.currentTimeProperty().removeListener(currentTimeListener);
+        }
+        this.progressListener = listener;
+    }
+
+    @Override
+    public void dispose() {
+        cancelFade();
+        mediaPlayer.statusProperty().removeListener(statusListener);
+        mediaPlayer.currentTimeProperty().removeListener(currentTimeListener);
+        mediaPlayer.setAudioSpectrumListener(null);
+        mediaPlayer.dispose();
+    }
+
+    private static boolean isLoaded(MediaPlayer.Status status) {
+        return status == MediaPlayer.Status.READY
+            || status == MediaPlayer.Status.PAUSED
+            || status == MediaPlayer.Status.PLAYING
+            || status == MediaPlayer.Status.STOPPED;
+    }
+}
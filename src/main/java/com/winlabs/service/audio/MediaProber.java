@@ -0,0 +1,26 @@
+package com.winlabs.service.audio;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import javax.sound.sampled.UnsupportedAudioFileException;
+
+import com.winlabs.model.MediaInfo;
+
+/**
+ * Reads the duration and format of a media file from its headers, without decoding it.
+ * Called on background threads; implementations must be thread-safe.
+ */
+@FunctionalInterface
+public interface MediaProber {
+
+    /**
+     * Probes a file.
+     *
+     * @param path The file to probe
+     * @return What was found out about the file
+     * @throws UnsupportedAudioFileException if the format is not one the prober understands
+     * @throws IOException if the file cannot be read
+     */
+    MediaInfo probe(Path path) throws UnsupportedAudioFileException, IOException;
+}
@@ -0,0 +1,950 @@
+package com.winlabs.service.audio;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.winlabs.model.FadeCurve;
+import com.winlabs.model.OutputRouting;
+
+/**
+ * {@link AudioVoice} played by a {@link PcmMixer}.
+ *
+ * Control methods may be called from any thread; they only update volatile state that the
+ * render thread picks up at the next block. The playback position is owned by the render
+ * thread, and seeks are handed over through a single pending-seek slot.
+ *
+ * A streaming voice reads through a {@link PcmRingBuffer} that the mixer's prefetch thread
+ * keeps topped up from the source, so the render thread never waits on disk. A seek on a
+ * streaming voice is forwarded to the prefetch thread with an epoch counter; until it has
+ * refilled the buffer from the new position the voice renders silence. Seeks on a voice that
+ * is not playing (including the rewind on stop and a new play range) are forwarded at once,
+ * and a seek to where the buffer already starts is free, so a cued voice starts without that
+ * gap.
+ *
+ * Fades are handed to the render thread as an immutable request. The render thread evaluates
+ * the curve once per block, from the frames it has actually rendered, and ramps the gain
+ * linearly within the block, so fades neither step nor drift when the FX thread is busy.
+ *
+ * A voice can be chained to start another voice of the same mixer when it reaches its end
+ * (or a crossfade length before it). The render thread starts the next voice on that exact
+ * frame, part way through the block if need be, so back-to-back audio plays without a gap.
+ *
+ * A routing sends the voice's channels to the mixer's output channels. The render thread
+ * compiles it into a {@link RouteMap} when it or the outputs change, never per block.
+ *
+ * The voice plays through a {@link GainBus}: the mixer's master, or a group bus under it.
+ * Its gain in the mix ramps across each block from the bus gain at the start of the block to
+ * the gain at its end; its meter shows the level before the bus.
+ *
+ * A voice reading from memory can loop part of its source. The render thread jumps back to
+ * the loop start on the exact frame of the loop end, part way through a block if need be,
+ * reading the source again in place rather than reopening it. The last moments of each pass
+ * that jumps back are crossfaded into the audio just before the loop start, which the loop
+ * start follows on from, so the jump does not click. A loop starting too near the top of the
+ * file for that crossfades into its own first moments instead and carries on after them.
+ * Streaming voices do not loop.
+ */
+public class MixerVoice implements AudioVoice {
+
+    private static final Logger logger = LoggerFactory.getLogger(MixerVoice.class);
+
+    private static final int STOPPED = 0;
+    private static final int PLAYING = 1;
+    private static final int PAUSED = 2;
+    private static final int DISPOSED = 3;
+    private static final int CHAINED = 4; // Waiting to be started by the voice before it
+    private static final double PROGRESS_INTERVAL_SECONDS = 0.1;
+    private static final double LOOP_CROSSFADE_SECONDS = 0.01;
+
+    private final PcmMixer mixer;
+    private final PcmSource source;
+    private final CompletableFuture<Void> ready;
+    private final AtomicInteger state;
+    private final AtomicLong pendingSeek; // Frame to seek to, or -1
+    private final AtomicReference<Fade> fadeRequest; // Fade to run, or null
+    private final AtomicReference<Chain> chainRequest; // Voice to start at the end, or null
+    private final long progressIntervalFrames;
+    private final LevelMeter meter; // Written by the render thread
+    private volatile long publishedPosition;
+    private volatile float volume;
+    private volatile float trim; // Gain on top of the volume and fades
+    private volatile boolean startRequested;
+    private volatile long rangeStart; // Frame playback starts from
+    private volatile long rangeEnd; // Frame playback ends at
+    private volatile Runnable onEndOfMedia;
+    private volatile Runnable onPlaying;
+    private volatile Consumer<Throwable> onError;
+    private volatile DoubleConsumer progressListener;
+    private volatile OutputRouting routing; // Null for the first output
+    private volatile GainBus bus;
+    private volatile Loop loop; // Loop to play, or null
+    private volatile boolean devampRequested;
+
+    // Streaming only: render thread to prefetch thread seek handoff
+    private final PcmRingBuffer ring;
+    private volatile long feedSeek;
+    private final AtomicInteger seekEpoch; // Bumped by the render thread, or a control thread for a voice not playing
+    private volatile int feedEpoch;
+    private volatile StreamOrigin origin; // Where the ring's data from the last handled seek begins
+
+    // Render thread only
+    boolean inMix;
+    private long position;
+    private float currentGain;
+    private long lastProgressPosition;
+    private float[] scratch;
+    private Fade fade;
+    private long fadeFrame;
+    private float fadeFrom;
+    private int startOffset; // Frames into the first block at which a chained start begins
+    private OutputRouting compiledRouting;
+    private OutputLayout compiledLayout;
+    private RouteMap route;
+    private Loop activeLoop;
+    private int passesLeft; // Passes of the active loop left, counting the current one (-1 for no limit)
+    private boolean devamped;
+    private float[] loopScratch;
+
+    // Prefetch thread only
+    private long feedPosition;
+    private float[] feedScratch;
+
+    MixerVoice(PcmMixer mixer, PcmSource source) {
+        this(mixer, source, null);
+    }
+
+    /**
+     * @param ring Buffer to stream the source through, or null to read the source on the render thread
+     */
+    MixerVoice(PcmMixer mixer, PcmSource source, PcmRingBuffer ring) {
+        this.mixer = mixer;
+        this.source = source;
+        this.ring = ring;
+        this.ready = CompletableFuture.completedFuture(null); // Decoded or mapped up front
+        this.state = new AtomicInteger(STOPPED);
+        this.pendingSeek = new AtomicLong(-1);
+        this.fadeRequest = new AtomicReference<>();
+        this.chainRequest = new AtomicReference<>();
+        this.progressIntervalFrames = (long) (PROGRESS_INTERVAL_SECONDS * source.getSampleRate());
+        this.scratch = new float[mixer.getBlockFrames() * source.getChannels()];
+        this.meter = new LevelMeter(source.getChannels(), source.getSampleRate());
+        this.volume = 1.0f;
+        this.trim = 1.0f;
+        this.currentGain = 1.0f;
+        this.rangeEnd = source.getFrameCount();
+        this.bus = mixer.getMasterBus();
+        this.seekEpoch = new AtomicInteger();
+        this.origin = new StreamOrigin(0, 0);
+        if (ring != null) {
+            this.feedScratch = new float[mixer.getBlockFrames() * source.getChannels()];
+        }
+    }
+
+    /**
+     * Gets the audio played by this voice.
+     */
+    public PcmSource getSource() {
+        return source;
+    }
+
+    /**
+     * Checks if this voice streams its source through a ring buffer.
+     */
+    public boolean isStreaming() {
+        return ring != null;
+    }
+
+    /**
+     * Gets the number of blocks that found the stream buffer short, or 0 if not streaming.
+     */
+    public long getBufferUnderrunCount() {
+        return ring != null ? ring.getUnderrunCount() : 0;
+    }
+
+    @Override
+    public CompletableFuture<Void> whenReady() {
+        return ready;
+    }
+
+    @Override
+    public void play() {
+        if (prepareStart()) {
+            mixer.schedule(this);
+        }
+    }
+
+    /**
+     * Marks the voice as playing without scheduling it.
+     *
+     * @return true if the voice needs to join the mix
+     */
+    boolean prepareStart() {
+        int current = state.get();
+        if (current == DISPOSED) {
+            throw new IllegalStateException("Voice has been disposed");
+        }
+        if (current == PLAYING) {
+            return false;
+        }
+        // Replaying after the end starts over, like a stopped MediaPlayer
+        if (pendingSeek.get() < 0 && publishedPosition >= rangeEnd) {
+            pendingSeek.set(rangeStart);
+            restartLoop();
+        }
+        startRequested = true;
+        state.set(PLAYING);
+        return true;
+    }
+
+    @Override
+    public void pause() {
+        state.compareAndSet(PLAYING, PAUSED);
+    }
+
+    @Override
+    public void stop() {
+        fadeRequest.set(null);
+        chainRequest.set(null);
+        if (state.get() != DISPOSED) {
+            state.set(STOPPED);
+            restartLoop();
+            long start = rangeStart;
+            pendingSeek.set(start);
+            cue(start);
+        }
+    }
+
+    @Override
+    public void seek(double seconds) {
+        long frame = Math.min((long) (Math.max(0.0, seconds) * source.getSampleRate()), rangeEnd);
+        pendingSeek.set(frame);
+        if (state.get() != PLAYING) {
+            cue(frame);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * A range end takes effect at once, even while playing; a new start is used from the
+     * next play, or at once if the voice is stopped.
+     */
+    @Override
+    public void setPlayRange(double startSeconds, double endSeconds) {
+        long frameCount = source.getFrameCount();
+        float sampleRate = source.getSampleRate();
+        long start = Math.min(frameCount, (long) (Math.max(0.0, startSeconds) * sampleRate));
+        long end = endSeconds > 0 ? Math.min(frameCount, (long) (endSeconds * sampleRate)) : frameCount;
+        if (end <= start) {
+            start = 0;
+            end = frameCount;
+        }
+        rangeStart = start;
+        rangeEnd = end;
+        if (state.get() == STOPPED) {
+            pendingSeek.set(start);
+            cue(start);
+        }
+    }
+
+    @Override
+    public void setVolume(double volume) {
+        fadeRequest.set(null);
+        this.volume = (float) Math.max(0.0, Math.min(1.0, volume));
+    }
+
+    /**
+     * {@inheritDoc}
+     * While fading, {@link #getVolume()} returns the volume from before the fade.
+     */
+    @Override
+    public void fadeTo(double volume, double seconds, FadeCurve curve, boolean stopWhenDone, Runnable onComplete) {
+        float target = (float) Math.max(0.0, Math.min(1.0, volume));
+        long frames = (long) (Math.max(0.0, seconds) * source.getSampleRate());
+        if (state.get() != PLAYING || frames == 0) {
+            if (stopWhenDone) {
+                stop();
+            } else {
+                setVolume(target);
+            }
+            notify(onComplete);
+            return;
+        }
+        fadeRequest.set(new Fade(target, frames, curve, stopWhenDone, this.volume, false, false, onComplete));
+    }
+
+    /**
+     * {@inheritDoc}
+     * Only voices of the same mixer can be chained. The next voice must be stopped; it is
+     * started by the render thread on the frame this voice reaches its end, or the crossfade
+     * length before it.
+     */
+    @Override
+    public boolean chain(AudioVoice next, double overlapSeconds, FadeCurve curve) {
+        if (next == null) {
+            chainRequest.set(null);
+            return true;
+        }
+        if (!(next instanceof MixerVoice voice) || voice.mixer != mixer || voice == this || state.get() != PLAYING) {
+            return false;
+        }
+        long end = rangeEnd;
+        long overlap = Math.min(end, (long) (Math.max(0.0, overlapSeconds) * source.getSampleRate()));
+        if (!voice.arm(overlap, curve)) {
+            return false;
+        }
+        Fade fadeOut = overlap > 0 ? new Fade(0f, overlap, curve, false, volume, true, false, null) : null;
+        chainRequest.set(new Chain(voice, end - overlap, fadeOut));
+        return true;
+    }
+
+    /**
+     * Makes a stopped voice wait for the voice before it to start it.
+     *
+     * @param fadeInFrames Length of the fade in from silence, or 0 to start at full volume
+     * @return false if the voice is not stopped
+     */
+    private boolean arm(long fadeInFrames, FadeCurve curve) {
+        if (!state.compareAndSet(STOPPED, CHAINED)) {
+            return false;
+        }
+        if (pendingSeek.get() < 0 && publishedPosition >= rangeEnd) {
+            long start = rangeStart;
+            pendingSeek.set(start);
+            cue(start);
+            restartLoop();
+        }
+        startRequested = true;
+        fadeRequest.set(fadeInFrames > 0 ? new Fade(volume, fadeInFrames, curve, false, volume, false, true, null) : null);
+        return true;
+    }
+
+    /**
+     * Starts a chained voice part way through the current block. Called by the render thread only.
+     *
+     * @return false if the voice was stopped, played or disposed since it was chained
+     */
+    boolean startChained(int offset) {
+        if (!state.compareAndSet(CHAINED, PLAYING)) {
+            return false;
+        }
+        startOffset = offset;
+        return true;
+    }
+
+    @Override
+    public double getVolume() {
+        return volume;
+    }
+
+    @Override
+    public void setTrim(double gain) {
+        this.trim = (float) Math.max(0.0, gain);
+    }
+
+    @Override
+    public double getTrim() {
+        return trim;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Takes effect at the next block. Output channels the mixer does not have are ignored.
+     */
+    @Override
+    public void setRouting(OutputRouting routing) {
+        this.routing = routing;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Takes effect at the next block.
+     */
+    @Override
+    public void setGroup(String group) {
+        GainBus master = mixer.getMasterBus();
+        this.bus = group == null || group.isBlank() ? master : master.child(group.trim());
+    }
+
+    /**
+     * Gets the bus this voice plays through.
+     */
+    public GainBus getBus() {
+        return bus;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The loop points are rounded to the nearest frame. A loop end past the play range is
+     * not reached, so the voice plays through once.
+     */
+    @Override
+    public boolean setLoop(double startSeconds, double endSeconds, int count) {
+        float sampleRate = source.getSampleRate();
+        long start = Math.round(Math.max(0.0, startSeconds) * sampleRate);
+        long end = Math.min(source.getFrameCount(), Math.round(Math.max(0.0, endSeconds) * sampleRate));
+        devampRequested = false;
+        if (end <= start) {
+            loop = null;
+            return true;
+        }
+        if (ring != null) {
+            loop = null;
+            return false;
+        }
+        long crossfade = Math.min((long) (LOOP_CROSSFADE_SECONDS * sampleRate), (end - start) / 2);
+        // Without that much audio before the loop start, blend into the loop's head and resume after it
+        long resume = start >= crossfade ? start : start + crossfade;
+        loop = new Loop(start, end, resume, count > 0 ? count : -1, (int) crossfade);
+        return true;
+    }
+
+    @Override
+    public void devamp() {
+        devampRequested = true;
+    }
+
+    /**
+     * Makes the render thread count the loop's passes from the start again.
+     */
+    private void restartLoop() {
+        devampRequested = false;
+        Loop current = loop;
+        if (current != null) {
+            loop = current.restart();
+        }
+    }
+
+    @Override
+    public LevelMeter getMeter() {
+        return meter;
+    }
+
+    @Override
+    public double getCurrentTime() {
+        long seek = pendingSeek.get();
+        long frame = seek >= 0 ? seek : publishedPosition;
+        return frame / (double) source.getSampleRate();
+    }
+
+    @Override
+    public double getDuration() {
+        return rangeEnd / (double) source.getSampleRate();
+    }
+
+    @Override
+    public boolean isReusable() {
+        return state.get() != DISPOSED;
+    }
+
+    /**
+     * Checks if the voice is currently playing.
+     */
+    public boolean isPlaying() {
+        return state.get() == PLAYING;
+    }
+
+    @Override
+    public void setOnEndOfMedia(Runnable handler) {
+        this.onEndOfMedia = handler;
+    }
+
+    @Override
+    public void setOnPlaying(Runnable handler) {
+        this.onPlaying = handler;
+    }
+
+    @Override
+    public void setOnError(Consumer<Throwable> handler) {
+        this.onError = handler;
+    }
+
+    @Override
+    public void setProgressListener(DoubleConsumer listener) {
+        this.progressListener = listener;
+    }
+
+    @Override
+    public void dispose() {
+        if (ring != null && ring.getUnderrunCount() > 0 && state.get() != DISPOSED) {
+            logger.warn("Stream buffer ran short {} time(s) while playing", ring.getUnderrunCount());
+        }
+        state.set(DISPOSED);
+        fadeRequest.set(null);
+        chainRequest.set(null);
+        onEndOfMedia = null;
+        onPlaying = null;
+        onError = null;
+        progressListener = null;
+    }
+
+    /**
+     * Stops the voice after its audio could not be mixed and reports the error on the event
+     * executor. Called by the render thread only, which has already taken the voice out of the mix.
+     */
+    void fail(Throwable error) {
+        int current = state.get();
+        if (current == DISPOSED || current == STOPPED || !state.compareAndSet(current, STOPPED)) {
+            return;
+        }
+        Consumer<Throwable> handler = onError;
+        if (handler != null) {
+            mixer.dispatch(() -> handler.accept(error));
+        }
+    }
+
+    /**
+     * Adds this voice's next block to the mix. Called by the render thread only.
+     *
+     * @param mix The mixer's bus, as wide as the layout's channels
+     * @return false if the voice should leave the mix (paused, stopped, finished or disposed)
+     */
+    boolean mixInto(float[] mix, int frames, OutputLayout layout) {
+        if (state.get() != PLAYING) {
+            return false;
+        }
+        int offset = startOffset;
+        if (offset >= frames) {
+            startOffset = offset - frames; // Chained to start in a later block
+            return true;
+        }
+        startOffset = 0;
+        int blockFrames = frames - offset;
+
+        long seek = pendingSeek.getAndSet(-1);
+        if (seek >= 0) {
+            position = seek;
+            if (ring != null && !isFedFrom(seek)) {
+                requestFeed(seek);
+            }
+        }
+        Loop requestedLoop = loop;
+        if (requestedLoop != activeLoop) {
+            activeLoop = requestedLoop;
+            passesLeft = requestedLoop != null ? requestedLoop.passes : 0;
+            devamped = false;
+        }
+        float target = volume;
+        if (startRequested) {
+            startRequested = false;
+            currentGain = target; // Start at the set volume rather than ramping from the last one
+            notify(onPlaying);
+        }
+
+        // Pick up a new or cancelled fade, then evaluate the curve at the end of this block
+        Fade requested = fadeRequest.get();
+        if (requested != fade) {
+            fade = requested;
+            fadeFrame = 0;
+            if (requested != null && requested.fromSilence) {
+                currentGain = 0f;
+            }
+            fadeFrom = currentGain;
+        }
+        boolean fadeDone = false;
+        if (fade != null) {
+            fadeFrame += blockFrames;
+            double progress = Math.min(1.0, fadeFrame / (double) fade.frames);
+            target = (float) fade.curve.gainAt(progress, fadeFrom, fade.volume);
+            fadeDone = progress >= 1.0;
+        }
+
+        int channels = source.getChannels();
+        if (scratch.length < frames * channels) {
+            scratch = new float[frames * channels]; // Only if a block is larger than the mixer's
+        }
+        long end = rangeEnd;
+        int count;
+        if (activeLoop != null && ring == null) {
+            count = readLooped(blockFrames, end);
+        } else {
+            int wanted = (int) Math.max(0, Math.min(blockFrames, end - position));
+            count = ring != null ? readBuffered(wanted) : source.read(position, scratch, 0, wanted);
+            position += count;
+        }
+        float[] samples = scratch;
+        int in = 0;
+
+        // Ramp the gain across the block to avoid zipper noise on volume and bus changes
+        float blockTrim = trim;
+        GainBus blockBus = bus;
+        mixer.advanceBus(blockBus);
+        float voiceGain = currentGain * blockTrim;
+        float voiceStep = (target - currentGain) * blockTrim / blockFrames;
+        float startGain = voiceGain * blockBus.getBlockStartGain();
+        float step = (target * blockTrim * blockBus.getBlockEndGain() - startGain) / blockFrames;
+        float gain = startGain;
+        RouteMap map = routeFor(layout);
+        if (map.direct) {
+            for (int frame = 0, out = offset * channels; frame < count; frame++) {
+                for (int c = 0; c < channels; c++) {
+                    mix[out++] += samples[in++] * gain;
+                }
+                gain += step;
+            }
+        } else {
+            int[] inputs = map.inputs;
+            int[] outputs = map.outputs;
+            float[] gains = map.gains;
+            int busChannels = layout.busChannels;
+            for (int frame = 0, out = offset * busChannels; frame < count; frame++) {
+                for (int k = 0; k < gains.length; k++) {
+                    mix[out + outputs[k]] += samples[in + inputs[k]] * gains[k] * gain;
+                }
+                in += channels;
+                out += busChannels;
+                gain += step;
+            }
+        }
+        meter.process(samples, 0, count, voiceGain, voiceStep);
+        currentGain = target;
+        publishedPosition = position;
+
+        DoubleConsumer progress = progressListener;
+        if (progress != null && Math.abs(position - lastProgressPosition) >= progressIntervalFrames) {
+            lastProgressPosition = position;
+            double seconds = position / (double) source.getSampleRate();
+            mixer.dispatch(() -> progress.accept(seconds));
+        }
+
+        // A short stream buffer is a dropout, not the end; only a short in-memory source ends early
+        boolean ended = position >= end || (count == 0 && ring == null);
+        Chain chained = chainRequest.get();
+        if (chained != null && !loopRepeats() && (position >= chained.startFrame || ended)) {
+            startNext(chained, offset, position - count);
+        }
+        if ((fadeDone || ended) && fade != null && finishFade()) {
+            return false;
+        }
+        if (ended) {
+            if (state.compareAndSet(PLAYING, STOPPED)) {
+                notify(onEndOfMedia);
+            }
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Gets the compiled routing for the current outputs, compiling it if the routing or the
+     * outputs changed since the last block. Called by the render thread only.
+     */
+    private RouteMap routeFor(OutputLayout layout) {
+        OutputRouting wanted = routing;
+        if (wanted == null) {
+            return layout.defaultRoute;
+        }
+        if (wanted != compiledRouting || layout != compiledLayout) {
+            route = RouteMap.compile(wanted, source.getChannels(), layout.busChannels);
+            compiledRouting = wanted;
+            compiledLayout = layout;
+        }
+        return route;
+    }
+
+    /**
+     * Completes the running fade, unless it was cancelled or replaced meanwhile.
+     * Called by the render thread only.
+     *
+     * @return true if the fade stopped the voice
+     */
+    private boolean finishFade() {
+        Fade done = fade;
+        fade = null;
+        if (!fadeRequest.compareAndSet(done, null)) {
+            return false;
+        }
+        if (done.stopWhenDone && state.compareAndSet(PLAYING, STOPPED)) {
+            volume = done.restoreVolume;
+            currentGain = done.restoreVolume;
+            restartLoop();
+            long start = rangeStart;
+            pendingSeek.set(start);
+            cue(start);
+            notify(done.onComplete);
+            return true;
+        }
+        if (!done.keepVolume) {
+            volume = done.volume;
+        }
+        notify(done.onComplete);
+        return false;
+    }
+
+    /**
+     * Starts the chained voice on its frame in this block and begins the crossfade, if any.
+     * Called by the render thread only.
+     *
+     * @param offset Frame in the block where this voice's audio began
+     * @param blockStart Playback position at the start of this voice's audio in the block
+     */
+    private void startNext(Chain chained, int offset, long blockStart) {
+        if (!chainRequest.compareAndSet(chained, null)) {
+            return;
+        }
+        long into = Math.max(0, Math.min(position - blockStart, chained.startFrame - blockStart));
+        if (!chained.voice.startChained(offset + (int) into)) {
+            return;
+        }
+        mixer.startChained(chained.voice);
+        // Run the fade-out from the start frame, unless something else is fading this voice
+        if (chained.fadeOut != null && fadeRequest.compareAndSet(null, chained.fadeOut)) {
+            fade = chained.fadeOut;
+            fadeFrame = position - chained.startFrame;
+            fadeFrom = currentGain;
+        }
+    }
+
+    /**
+     * Reads the next frames of a looping voice from its in-memory source, jumping back to
+     * the loop start on reaching the loop end for as long as the loop repeats, and moves the
+     * position on. A devamp is taken up between passes, or before the crossfade of a pass
+     * begins. Called by the render thread only.
+     *
+     * @return Frames read, fewer than asked for only at the end of the play range
+     */
+    private int readLooped(int frames, long end) {
+        Loop current = activeLoop;
+        int channels = source.getChannels();
+        int filled = 0;
+        while (filled < frames) {
+            long crossfadeStart = current.endFrame - current.crossfadeFrames;
+            if (devampRequested && (position <= crossfadeStart || position >= current.endFrame)) {
+                devampRequested = false;
+                devamped = true;
+            }
+            boolean repeats = loopRepeats() && current.endFrame <= end;
+            long limit = repeats ? current.endFrame : end;
+            int wanted = (int) Math.max(0, Math.min(frames - filled, limit - position));
+            if (wanted == 0) {
+                break;
+            }
+            int count = source.read(position, scratch, filled * channels, wanted);
+            if (repeats && position + count > crossfadeStart) {
+                crossfadeToLoopStart(current, filled, count);
+            }
+            filled += count;
+            position += count;
+            if (count < wanted) {
+                break; // The source is shorter than its frame count
+            }
+            if (repeats && position == current.endFrame) {
+                position = current.resumeFrame;
+                if (passesLeft > 0) {
+                    passesLeft--;
+                }
+            }
+        }
+        return filled;
+    }
+
+    /**
+     * Checks if the active loop jumps back at the end of the current pass, assuming the
+     * position has not gone past the loop end. Called by the render thread only.
+     */
+    private boolean loopRepeats() {
+        Loop current = activeLoop;
+        return current != null && ring == null && !devamped && (passesLeft < 0 || passesLeft > 1)
+            && position < current.endFrame;
+    }
+
+    /**
+     * Crossfades the frames of a pass just read that lie in its crossfade into the frames as
+     * far before the frame the next pass resumes from as they are before the loop end, with
+     * equal power, reaching them fully on the last frame of the pass. Called by the render
+     * thread only.
+     *
+     * @param offset Frame in scratch where the frames just read begin
+     * @param count Number of frames just read, ending at or before the loop end
+     */
+    private void crossfadeToLoopStart(Loop current, int offset, int count) {
+        int channels = source.getChannels();
+        long crossfadeStart = current.endFrame - current.crossfadeFrames;
+        long from = Math.max(position, crossfadeStart);
+        int skip = (int) (from - position);
+        int frames = count - skip;
+        if (loopScratch == null || loopScratch.length < frames * channels) {
+            loopScratch = new float[Math.max(frames, mixer.getBlockFrames()) * channels];
+        }
+        int read = source.read(from - current.endFrame + current.resumeFrame, loopScratch, 0, frames);
+        double quarterTurn = Math.PI / 2 / current.crossfadeFrames;
+        for (int frame = 0, i = (offset + skip) * channels, j = 0; frame < read; frame++) {
+            double angle = (from + frame - crossfadeStart + 1) * quarterTurn;
+            float out = (float) Math.cos(angle);
+            float in = (float) Math.sin(angle);
+            for (int c = 0; c < channels; c++, i++, j++) {
+                scratch[i] = scratch[i] * out + loopScratch[j] * in;
+            }
+        }
+    }
+
+    /**
+     * Reads the next frames from the stream buffer, discarding any left from before the last seek.
+     * Called by the render thread only.
+     */
+    private int readBuffered(int frames) {
+        if (feedEpoch != seekEpoch.get()) {
+            return 0; // The prefetch thread has not refilled from the new position yet
+        }
+        long stale = origin.writeCount - ring.getReadCount();
+        if (stale > 0) {
+            ring.skip((int) stale);
+        }
+        return ring.read(scratch, 0, frames);
+    }
+
+    /**
+     * Tops up the stream buffer from the source. Called by the prefetch thread only
+     * (or by the creating thread before the voice is handed to it).
+     */
+    void fill() {
+        if (ring == null || state.get() == DISPOSED) {
+            return;
+        }
+        int epoch = seekEpoch.get();
+        if (epoch != feedEpoch) {
+            feedPosition = feedSeek; // Read after the epoch, so it is at least as new
+            origin = new StreamOrigin(feedPosition, ring.getWriteCount());
+            feedEpoch = epoch; // Published after the origin
+        }
+
+        int channels = source.getChannels();
+        int blockFrames = feedScratch.length / channels;
+        long frameCount = source.getFrameCount();
+        int free;
+        while ((free = ring.availableToWrite()) > 0 && feedPosition < frameCount && seekEpoch.get() == epoch) {
+            int frames = (int) Math.min(Math.min(free, blockFrames), frameCount - feedPosition);
+            int count = source.read(feedPosition, feedScratch, 0, frames);
+            if (count == 0) {
+                // Source is shorter than its frame count; pad so the voice still reaches the end
+                Arrays.fill(feedScratch, 0, frames * channels, 0f);
+                count = frames;
+            }
+            ring.write(feedScratch, 0, count);
+            feedPosition += count;
+        }
+    }
+
+    /**
+     * Moves the stream buffer of a voice that is not playing to a frame, so it is refilled
+     * before the voice starts. Does nothing if the buffer already starts there.
+     */
+    private void cue(long frame) {
+        if (ring != null && !isFedFrom(frame)) {
+            requestFeed(frame);
+        }
+    }
+
+    /**
+     * Checks if the next frames read from the stream buffer will be from a frame, or a refill
+     * from it is already on its way.
+     */
+    private boolean isFedFrom(long frame) {
+        if (feedEpoch != seekEpoch.get()) {
+            return feedSeek == frame;
+        }
+        StreamOrigin current = origin;
+        return current.frame + Math.max(0, ring.getReadCount() - current.writeCount) == frame;
+    }
+
+    /**
+     * Asks the prefetch thread to refill the stream buffer from a frame.
+     */
+    private void requestFeed(long frame) {
+        feedSeek = frame;
+        seekEpoch.incrementAndGet(); // Published after feedSeek
+        mixer.wakePrefetch();
+    }
+
+    private void notify(Runnable handler) {
+        if (handler != null) {
+            mixer.dispatch(handler);
+        }
+    }
+
+    /**
+     * A fade requested by a control thread and run by the render thread.
+     */
+    private static final class Fade {
+        final float volume;
+        final long frames;
+        final FadeCurve curve;
+        final boolean stopWhenDone;
+        final float restoreVolume;
+        final boolean keepVolume; // Leave the volume as it was once done (a crossfade out to the end)
+        final boolean fromSilence; // Start from silence (a crossfade in)
+        final Runnable onComplete;
+
+        Fade(float volume, long frames, FadeCurve curve, boolean stopWhenDone, float restoreVolume,
+                boolean keepVolume, boolean fromSilence, Runnable onComplete) {
+            this.volume = volume;
+            this.frames = frames;
+            this.curve = curve != null ? curve : FadeCurve.LINEAR;
+            this.stopWhenDone = stopWhenDone;
+            this.restoreVolume = restoreVolume;
+            this.keepVolume = keepVolume;
+            this.fromSilence = fromSilence;
+            this.onComplete = onComplete;
+        }
+    }
+
+    /**
+     * A loop requested by a control thread. A new instance with the same points restarts the
+     * count of passes.
+     */
+    private static final class Loop {
+        final long startFrame;
+        final long endFrame;
+        final long resumeFrame; // Where a pass that jumps back carries on: the loop start, or just after its head
+        final int passes; // -1 for no limit
+        final int crossfadeFrames; // Length of the crossfade into the frames before resumeFrame, at most half the loop
+
+        Loop(long startFrame, long endFrame, long resumeFrame, int passes, int crossfadeFrames) {
+            this.startFrame = startFrame;
+            this.endFrame = endFrame;
+            this.resumeFrame = resumeFrame;
+            this.passes = passes;
+            this.crossfadeFrames = crossfadeFrames;
+        }
+
+        Loop restart() {
+            return new Loop(startFrame, endFrame, resumeFrame, passes, crossfadeFrames);
+        }
+    }
+
+    /**
+     * The source frame the stream buffer was refilled from, and the ring's write count when
+     * the refill began; everything written before it is stale.
+     */
+    private static final class StreamOrigin {
+        final long frame;
+        final long writeCount;
+
+        StreamOrigin(long frame, long writeCount) {
+            this.frame = frame;
+            this.writeCount = writeCount;
+        }
+    }
+
+    /**
+     * A voice to start when this one reaches a frame, requested by a control thread.
+     */
+    private static final class Chain {
+        final MixerVoice voice;
+        final long startFrame;
+        final Fade fadeOut; // Crossfade for this voice from startFrame to the end, or null
+
+        Chain(MixerVoice voice, long startFrame, Fade fadeOut) {
+            this.voice = voice;
+            this.startFrame = startFrame;
+            this.fadeOut = fadeOut;
+        }
+    }
+}
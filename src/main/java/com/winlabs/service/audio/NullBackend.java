@@ -0,0 +1,155 @@
+package com.winlabs.service.audio;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToDoubleFunction;
+
+import javax.sound.sampled.AudioFileFormat;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+
+/**
+ * {@link AudioBackend} that produces no sound and plays on a virtual clock.
+ *
+ * Voices are ready as soon as they are opened and only move forward when the clock is
+ * {@link #advance(double) advanced}, which also delivers progress and end-of-media callbacks
+ * on the advancing thread. Nothing touches an audio device or a media framework, so the pool
+ * and controller can be load-tested and profiled headless (thousands of GOs per second in CI).
+ */
+public class NullBackend implements AudioBackend {
+
+    public static final double DEFAULT_DURATION_SECONDS = 5.0;
+
+    private final ToDoubleFunction<Path> durationResolver;
+    private final Set<NullVoice> playingVoices;
+    private final AtomicLong clockNanos;
+    private final LongAdder voicesOpened;
+    private final LongAdder playsStarted;
+    private final Object advanceLock;
+
+    /**
+     * Creates a backend that reads durations from the file headers where
+     * {@code javax.sound.sampled} understands them, and uses {@link #DEFAULT_DURATION_SECONDS} otherwise.
+     */
+    public NullBackend() {
+        this(NullBackend::readDuration);
+    }
+
+    /**
+     * Creates a backend where every file has the same duration.
+     */
+    public NullBackend(double durationSeconds) {
+        this(path -> durationSeconds);
+    }
+
+    /**
+     * Creates a backend with custom durations.
+     *
+     * @param durationResolver Gives the simulated duration of a file, in seconds
+     */
+    public NullBackend(ToDoubleFunction<Path> durationResolver) {
+        this.durationResolver = durationResolver;
+        this.playingVoices = ConcurrentHashMap.newKeySet();
+        this.clockNanos = new AtomicLong();
+        this.voicesOpened = new LongAdder();
+        this.playsStarted = new LongAdder();
+        this.advanceLock = new Object();
+    }
+
+    @Override
+    public String getName() {
+        return "Null";
+    }
+
+    @Override
+    public NullVoice open(Path path) {
+        double duration = Math.max(0.0, durationResolver.applyAsDouble(path));
+        voicesOpened.increment();
+        return new NullVoice(this, duration);
+    }
+
+    /**
+     * Moves the virtual clock forward and updates every playing voice.
+     */
+    public void advance(double seconds) {
+        advanceNanos((long) (seconds * 1_000_000_000L));
+    }
+
+    /**
+     * Moves the virtual clock forward and updates every playing voice.
+     * Callbacks run on the calling thread before this method returns.
+     */
+    public void advanceNanos(long nanos) {
+        if (nanos < 0) {
+            throw new IllegalArgumentException("The clock cannot go backwards: " + nanos);
+        }
+        synchronized (advanceLock) {
+            long now = clockNanos.addAndGet(nanos);
+            for (NullVoice voice : playingVoices) {
+                voice.tick(now);
+            }
+        }
+    }
+
+    /**
+     * Gets the virtual clock in nanoseconds since the backend was created.
+     */
+    public long getTimeNanos() {
+        return clockNanos.get();
+    }
+
+    /**
+     * Gets the virtual clock in seconds since the backend was created.
+     */
+    public double getTime() {
+        return clockNanos.get() / 1e9;
+    }
+
+    /**
+     * Gets the number of voices currently playing.
+     */
+    public int getPlayingVoiceCount() {
+        return playingVoices.size();
+    }
+
+    /**
+     * Gets the number of voices opened since creation.
+     */
+    public long getVoicesOpened() {
+        return voicesOpened.sum();
+    }
+
+    /**
+     * Gets the number of times a voice started playing since creation.
+     */
+    public long getPlaysStarted() {
+        return playsStarted.sum();
+    }
+
+    void started(NullVoice voice) {
+        playingVoices.add(voice);
+        playsStarted.increment();
+    }
+
+    void stopped(NullVoice voice) {
+        playingVoices.remove(voice);
+    }
+
+    private static double readDuration(Path path) {
+        try {
+            AudioFileFormat format = AudioSystem.getAudioFileFormat(path.toFile());
+            long frames = format.getFrameLength();
+            float frameRate = format.getFormat().getFrameRate();
+            if (frames > 0 && frameRate > 0) {
+                return frames / frameRate;
+            }
+        } catch (UnsupportedAudioFileException | IOException e) {
+            // Not a format we can read the length of; fall back to the default
+        }
+        return DEFAULT_DURATION_SECONDS;
+    }
+}
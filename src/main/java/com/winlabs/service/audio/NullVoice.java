@@ -0,0 +1,400 @@
+package com.winlabs.service.audio;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+
+import com.winlabs.model.FadeCurve;
+
+/**
+ * Silent {@link AudioVoice} created by a {@link NullBackend}.
+ * The position is derived from the backend's virtual clock; {@link #play()} reports PLAYING
+ * immediately on the calling thread, and the end of media is reached when the clock passes it.
+ * Fades follow the playback position, so they advance with the clock and hold while paused.
+ * A chained voice is started with its clock set to the exact time this voice reached its
+ * start point, however coarsely the clock is advanced.
+ */
+public class NullVoice implements AudioVoice {
+
+    private static final int STOPPED = 0;
+    private static final int PLAYING = 1;
+    private static final int PAUSED = 2;
+    private static final int DISPOSED = 3;
+
+    private final NullBackend backend;
+    private final double duration;
+    private final CompletableFuture<Void> ready;
+    private volatile double volume;
+    private volatile double trim;
+    private volatile Runnable onEndOfMedia;
+    private volatile Runnable onPlaying;
+    private volatile DoubleConsumer progressListener;
+
+    // Guarded by this
+    private int state;
+    private double position; // Seconds, as of startedAt while playing
+    private double rangeStart; // Seconds where playback starts
+    private double rangeEnd; // Seconds where playback ends
+    private long startedAt;
+    private FadeCurve fadeCurve; // Null when not fading
+    private double fadeFrom;
+    private double fadeTo;
+    private double fadeStart; // Playback position when the fade started
+    private double fadeLength;
+    private boolean fadeStops;
+    private boolean fadeKeepsVolume;
+    private Runnable fadeComplete;
+    private NullVoice chainNext; // Voice to start at chainAt, or null
+    private double chainAt;
+    private FadeCurve chainCurve;
+    private boolean chained; // Waiting to be started by the voice before it
+
+    NullVoice(NullBackend backend, double duration) {
+        this.backend = backend;
+        this.duration = duration;
+        this.ready = CompletableFuture.completedFuture(null);
+        this.volume = 1.0;
+        this.trim = 1.0;
+        this.state = STOPPED;
+        this.rangeEnd = duration;
+    }
+
+    @Override
+    public CompletableFuture<Void> whenReady() {
+        return ready;
+    }
+
+    @Override
+    public void play() {
+        synchronized (this) {
+            if (state == DISPOSED) {
+                throw new IllegalStateException("Voice has been disposed");
+            }
+            if (state == PLAYING) {
+                return;
+            }
+            // Replaying after the end starts over, like a stopped MediaPlayer
+            if (position >= rangeEnd) {
+                position = rangeStart;
+            }
+            state = PLAYING;
+            startedAt = backend.getTimeNanos();
+            chained = false;
+        }
+        backend.started(this);
+        Runnable handler = onPlaying;
+        if (handler != null) {
+            handler.run();
+        }
+    }
+
+    @Override
+    public void pause() {
+        synchronized (this) {
+            if (state != PLAYING) {
+                return;
+            }
+            position = positionAt(backend.getTimeNanos());
+            state = PAUSED;
+        }
+        backend.stopped(this);
+    }
+
+    @Override
+    public void stop() {
+        synchronized (this) {
+            if (state == DISPOSED) {
+                return;
+            }
+            state = STOPPED;
+            position = rangeStart;
+            fadeCurve = null;
+            chainNext = null;
+            chained = false;
+        }
+        backend.stopped(this);
+    }
+
+    @Override
+    public synchronized void seek(double seconds) {
+        position = Math.max(0.0, Math.min(rangeEnd, seconds));
+        startedAt = backend.getTimeNanos();
+    }
+
+    @Override
+    public synchronized void setPlayRange(double startSeconds, double endSeconds) {
+        double start = Math.max(0.0, Math.min(duration, startSeconds));
+        double end = endSeconds > 0 ? Math.min(duration, endSeconds) : duration;
+        if (end <= start) {
+            start = 0.0;
+            end = duration;
+        }
+        rangeStart = start;
+        rangeEnd = end;
+        if (state == STOPPED && !chained) {
+            position = start;
+        }
+    }
+
+    @Override
+    public void setVolume(double volume) {
+        synchronized (this) {
+            fadeCurve = null;
+        }
+        this.volume = Math.max(0.0, Math.min(1.0, volume));
+    }
+
+    @Override
+    public void setTrim(double gain) {
+        this.trim = Math.max(0.0, gain);
+    }
+
+    @Override
+    public double getTrim() {
+        return trim;
+    }
+
+    @Override
+    public LevelMeter getMeter() {
+        return null; // Silent
+    }
+
+    /**
+     * Gets the volume, part way along the curve while fading.
+     */
+    @Override
+    public synchronized double getVolume() {
+        if (fadeCurve == null) {
+            return volume;
+        }
+        double elapsed = getCurrentTime() - fadeStart;
+        return fadeCurve.gainAt(elapsed / fadeLength, fadeFrom, fadeTo);
+    }
+
+    @Override
+    public void fadeTo(double volume, double seconds, FadeCurve curve, boolean stopWhenDone, Runnable onComplete) {
+        double target = Math.max(0.0, Math.min(1.0, volume));
+        synchronized (this) {
+            if (state == PLAYING && seconds > 0) {
+                fadeFrom = getVolume();
+                fadeCurve = curve != null ? curve : FadeCurve.LINEAR;
+                fadeTo = target;
+                fadeStart = positionAt(backend.getTimeNanos());
+                fadeLength = seconds;
+                fadeStops = stopWhenDone;
+                fadeKeepsVolume = false;
+                fadeComplete = onComplete;
+                return;
+            }
+        }
+        if (stopWhenDone) {
+            stop();
+        } else {
+            setVolume(target);
+        }
+        if (onComplete != null) {
+            onComplete.run();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * Only voices of the same backend can be chained, and the next voice must be stopped.
+     */
+    @Override
+    public boolean chain(AudioVoice next, double overlapSeconds, FadeCurve curve) {
+        if (next == null) {
+            synchronized (this) {
+                chainNext = null;
+            }
+            return true;
+        }
+        if (!(next instanceof NullVoice voice) || voice.backend != backend || voice == this || !isPlaying()) {
+            return false;
+        }
+        synchronized (voice) {
+            if (voice.state != STOPPED) {
+                return false;
+            }
+            voice.chained = true;
+        }
+        synchronized (this) {
+            chainNext = voice;
+            chainAt = Math.max(rangeStart, rangeEnd - Math.max(0.0, overlapSeconds));
+            chainCurve = curve != null ? curve : FadeCurve.LINEAR;
+        }
+        return true;
+    }
+
+    /**
+     * Starts this voice as if it had been played at the given clock time, fading in if
+     * it overlaps the voice before it.
+     */
+    private void startChained(long at, double fadeInSeconds, FadeCurve curve) {
+        synchronized (this) {
+            if (!chained || state != STOPPED) {
+                return;
+            }
+            chained = false;
+            if (position >= rangeEnd) {
+                position = rangeStart;
+            }
+            state = PLAYING;
+            startedAt = at;
+            if (fadeInSeconds > 0) {
+                fadeFrom = 0.0;
+                fadeTo = volume;
+                fadeCurve = curve;
+                fadeStart = position;
+                fadeLength = fadeInSeconds;
+                fadeStops = false;
+                fadeKeepsVolume = false;
+                fadeComplete = null;
+            }
+        }
+        backend.started(this);
+        Runnable handler = onPlaying;
+        if (handler != null) {
+            handler.run();
+        }
+    }
+
+    @Override
+    public synchronized double getCurrentTime() {
+        return state == PLAYING ? positionAt(backend.getTimeNanos()) : position;
+    }
+
+    @Override
+    public synchronized double getDuration() {
+        return rangeEnd;
+    }
+
+    @Override
+    public synchronized boolean isReusable() {
+        return state != DISPOSED;
+    }
+
+    /**
+     * Checks if the voice is currently playing.
+     */
+    public synchronized boolean isPlaying() {
+        return state == PLAYING;
+    }
+
+    @Override
+    public void setOnEndOfMedia(Runnable handler) {
+        this.onEndOfMedia = handler;
+    }
+
+    @Override
+    public void setOnPlaying(Runnable handler) {
+        this.onPlaying = handler;
+    }
+
+    @Override
+    public void setOnError(Consumer<Throwable> handler) {
+        // Nothing is decoded or played, so playback cannot fail
+    }
+
+    @Override
+    public void setProgressListener(DoubleConsumer listener) {
+        this.progressListener = listener;
+    }
+
+    @Override
+    public void dispose() {
+        synchronized (this) {
+            state = DISPOSED;
+            fadeCurve = null;
+            chainNext = null;
+            chained = false;
+        }
+        onEndOfMedia = null;
+        onPlaying = null;
+        progressListener = null;
+        backend.stopped(this);
+    }
+
+    /**
+     * Updates the voice to the given clock time. Called by the backend while the voice is playing.
+     */
+    void tick(long now) {
+        double time;
+        boolean ended;
+        boolean fadeStopped = false;
+        Runnable fadeDone = null;
+        NullVoice next = null;
+        long nextAt = 0;
+        double overlap = 0.0;
+        FadeCurve nextCurve = null;
+        synchronized (this) {
+            if (state != PLAYING) {
+                return;
+            }
+            time = positionAt(now);
+            ended = time >= rangeEnd;
+            if (chainNext != null && time >= chainAt) {
+                // Start the next voice at the clock time this one reached chainAt
+                next = chainNext;
+                nextAt = startedAt + (long) ((chainAt - position) * 1e9);
+                overlap = rangeEnd - chainAt;
+                nextCurve = chainCurve;
+                chainNext = null;
+                if (overlap > 0 && fadeCurve == null) {
+                    fadeFrom = volume;
+                    fadeTo = 0.0;
+                    fadeCurve = chainCurve;
+                    fadeStart = chainAt;
+                    fadeLength = overlap;
+                    fadeStops = false;
+                    fadeKeepsVolume = true;
+                    fadeComplete = null;
+                }
+            }
+            if (fadeCurve != null && (ended || time - fadeStart >= fadeLength)) {
+                fadeDone = fadeComplete;
+                fadeStopped = fadeStops;
+                if (!fadeStops && !fadeKeepsVolume) {
+                    volume = fadeTo; // Stopping fades and crossfades leave the volume from before them
+                }
+                fadeCurve = null;
+                fadeComplete = null;
+            }
+            if (fadeStopped) {
+                state = STOPPED;
+                position = rangeStart;
+            } else if (ended) {
+                state = STOPPED;
+                position = rangeEnd;
+            }
+        }
+
+        if (next != null) {
+            next.startChained(nextAt, overlap, nextCurve);
+        }
+        if (fadeStopped || ended) {
+            backend.stopped(this);
+        }
+        if (fadeDone != null) {
+            fadeDone.run();
+        }
+        if (fadeStopped) {
+            return;
+        }
+        if (ended) {
+            Runnable handler = onEndOfMedia;
+            if (handler != null) {
+                handler.run();
+            }
+        } else {
+            DoubleConsumer listener = progressListener;
+            if (listener != null) {
+                listener.accept(time);
+            }
+        }
+    }
+
+    private double positionAt(long now) {
+        return Math.min(rangeEnd, position + (now - startedAt) / 1e9);
+    }
+}
@@ -0,0 +1,81 @@
+package com.winlabs.service.audio;
+
+import java.util.List;
+
+import com.winlabs.model.OutputDevice;
+import com.winlabs.model.OutputRouting;
+
+/**
+ * The output devices of a {@link PcmMixer} laid side by side as one wide bus: the mixer mixes
+ * every voice once into the bus, then hands each device its own channels. Also holds each
+ * device's level meter and the route voices without a routing of their own take (the first
+ * device). Replaced as a whole when the outputs change.
+ */
+final class OutputLayout {
+
+    final List<OutputDevice> devices;
+    final int[] offsets; // First bus channel of each device
+    final int busChannels;
+    final LevelMeter[] meters;
+    final RouteMap defaultRoute;
+    private final float[][] deviceMixes; // Render thread only; null for a single device, which uses the bus itself
+
+    OutputLayout(List<OutputDevice> devices, int voiceChannels, float sampleRate, int blockFrames) {
+        if (devices.isEmpty()) {
+            throw new IllegalArgumentException("A mixer needs at least one output");
+        }
+        this.devices = List.copyOf(devices);
+        this.offsets = new int[devices.size()];
+        this.meters = new LevelMeter[devices.size()];
+        int total = 0;
+        for (int d = 0; d < devices.size(); d++) {
+            offsets[d] = total;
+            total += devices.get(d).getChannels();
+            meters[d] = new LevelMeter(devices.get(d).getChannels(), sampleRate);
+        }
+        this.busChannels = total;
+        this.defaultRoute = RouteMap.compile(OutputRouting.defaultFor(voiceChannels, devices), voiceChannels, total);
+        if (devices.size() > 1) {
+            deviceMixes = new float[devices.size()][];
+            for (int d = 0; d < devices.size(); d++) {
+                deviceMixes[d] = new float[blockFrames * devices.get(d).getChannels()];
+            }
+        } else {
+            deviceMixes = null;
+        }
+    }
+
+    /**
+     * Copies each device's channels out of the mixed bus and meters them. Called by the render thread only.
+     *
+     * @param bus The mixed block, busChannels wide
+     * @param frames Number of frames in the block
+     */
+    void split(float[] bus, int frames) {
+        if (deviceMixes == null) {
+            meters[0].process(bus, 0, frames, 1f, 0f);
+            return;
+        }
+        for (int d = 0; d < deviceMixes.length; d++) {
+            float[] deviceMix = deviceMixes[d];
+            int channels = devices.get(d).getChannels();
+            if (deviceMix.length < frames * channels) {
+                deviceMix = new float[frames * channels]; // Only if a block is larger than the mixer's
+                deviceMixes[d] = deviceMix;
+            }
+            for (int frame = 0, in = offsets[d], out = 0; frame < frames; frame++, in += busChannels) {
+                for (int c = 0; c < channels; c++) {
+                    deviceMix[out++] = bus[in + c];
+                }
+            }
+            meters[d].process(deviceMix, 0, frames, 1f, 0f);
+        }
+    }
+
+    /**
+     * Gets a device's block after {@link #split}. Called by the render thread only.
+     */
+    float[] deviceMix(int device, float[] bus) {
+        return deviceMixes == null ? bus : deviceMixes[device];
+    }
+}
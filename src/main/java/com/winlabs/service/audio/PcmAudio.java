@@ -0,0 +1,111 @@
+package com.winlabs.service.audio;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+
+/**
+ * Decoded audio held in memory as interleaved float samples in the range -1.0 to 1.0.
+ * Instances are immutable once decoded and can be shared by any number of mixer voices.
+ *
+ * Samples live either on the Java heap (as decoded) or off-heap in a direct buffer
+ * ({@link #toDirect()}), which keeps large resident caches out of the garbage collector's way.
+ */
+public final class PcmAudio implements PcmSource {
+
+    private final FloatBuffer samples;
+    private final int channels;
+    private final float sampleRate;
+    private final long frameCount;
+
+    /**
+     * Creates decoded audio.
+     *
+     * @param samples Interleaved samples; the array is not copied and must not be modified afterwards
+     * @param channels Number of interleaved channels
+     * @param sampleRate Frames per second
+     */
+    public PcmAudio(float[] samples, int channels, float sampleRate) {
+        this(FloatBuffer.wrap(samples), channels, sampleRate);
+    }
+
+    private PcmAudio(FloatBuffer samples, int channels, float sampleRate) {
+        if (channels < 1) {
+            throw new IllegalArgumentException("Channel count must be positive: " + channels);
+        }
+        if (sampleRate <= 0) {
+            throw new IllegalArgumentException("Sample rate must be positive: " + sampleRate);
+        }
+        this.samples = samples.asReadOnlyBuffer();
+        this.channels = channels;
+        this.sampleRate = sampleRate;
+        this.frameCount = samples.capacity() / channels;
+    }
+
+    /**
+     * Returns a copy of this audio held off-heap in a direct buffer, or this instance if it already is.
+     */
+    public PcmAudio toDirect() {
+        if (samples.isDirect()) {
+            return this;
+        }
+        FloatBuffer direct = ByteBuffer.allocateDirect(samples.capacity() * Float.BYTES)
+            .order(ByteOrder.nativeOrder())
+            .asFloatBuffer();
+        direct.put(samples.duplicate().clear());
+        return new PcmAudio(direct, channels, sampleRate);
+    }
+
+    /**
+     * Checks if the samples are held off-heap.
+     */
+    public boolean isDirect() {
+        return samples.isDirect();
+    }
+
+    /**
+     * Gets a read-only view of the interleaved samples. Use absolute gets;
+     * the view's position is shared by everyone reading through it.
+     */
+    public FloatBuffer getSamples() {
+        return samples;
+    }
+
+    /**
+     * Gets one sample by interleaved index.
+     */
+    public float getSample(int index) {
+        return samples.get(index);
+    }
+
+    @Override
+    public int getChannels() {
+        return channels;
+    }
+
+    @Override
+    public float getSampleRate() {
+        return sampleRate;
+    }
+
+    @Override
+    public long getFrameCount() {
+        return frameCount;
+    }
+
+    @Override
+    public int read(long frame, float[] dest, int destOffset, int frames) {
+        int count = (int) Math.max(0, Math.min(frames, frameCount - frame));
+        if (count > 0) {
+            samples.get((int) (frame * channels), dest, destOffset, count * channels);
+        }
+        return count;
+    }
+
+    /**
+     * Gets the memory used by the samples, in bytes.
+     */
+    public long getSizeInBytes() {
+        return (long) samples.capacity() * Float.BYTES;
+    }
+}
@@ -0,0 +1,243 @@
+package com.winlabs.service.audio;
+
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Cache of decoded audio held off-heap, keyed by file path, so short cues fired over and
+ * over are decoded once and then start without touching the filesystem.
+ *
+ * The cache is bounded by a byte budget and evicts the least recently used entries first,
+ * sized by their decoded bytes. Pinned files ("keep resident" cues) are never evicted and are
+ * admitted even when they exceed the budget; only unpinned entries compete for what is left.
+ * Decoding happens outside the cache lock, so a slow decode never blocks hits on other files.
+ * Evicted audio stays valid for voices still playing it; its memory is freed once they are gone.
+ */
+public class PcmCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(PcmCache.class);
+
+    public static final long DEFAULT_BUDGET_BYTES = 256L * 1024 * 1024;
+
+    /**
+     * Decodes a file for the cache.
+     */
+    @FunctionalInterface
+    public interface Loader {
+        PcmAudio load(Path path) throws Exception;
+    }
+
+    private final Loader loader;
+    private final LinkedHashMap<String, PcmAudio> entries;
+    private final Set<String> pinned;
+    private final AtomicLong hitCount;
+    private final AtomicLong missCount;
+    private final AtomicLong evictionCount;
+    private long budgetBytes;
+    private long residentBytes;
+
+    /**
+     * Creates a cache.
+     *
+     * @param budgetBytes Maximum bytes of unpinned decoded audio to keep (0 keeps only pinned files)
+     * @param loader Decodes a file on a miss
+     */
+    public PcmCache(long budgetBytes, Loader loader) {
+        this.loader = loader;
+        this.budgetBytes = Math.max(0, budgetBytes);
+        // Access-ordered so iteration starts at the least recently used entry
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+        this.pinned = new HashSet<>();
+        this.hitCount = new AtomicLong();
+        this.missCount = new AtomicLong();
+        this.evictionCount = new AtomicLong();
+    }
+
+    /**
+     * Gets the decoded audio for a file, decoding it on a miss.
+     * The result is cached if it is pinned or fits within the budget.
+     *
+     * @param path The audio file
+     * @return The decoded audio (off-heap if it was cached)
+     * @throws Exception if the file cannot be decoded
+     */
+    public PcmAudio load(Path path) throws Exception {
+        String key = keyOf(path);
+        synchronized (this) {
+            PcmAudio cached = entries.get(key);
+            if (cached != null) {
+                hitCount.incrementAndGet();
+                return cached;
+            }
+        }
+        missCount.incrementAndGet();
+
+        PcmAudio decoded = loader.load(path);
+        synchronized (this) {
+            if (!pinned.contains(key) && decoded.getSizeInBytes() > budgetBytes) {
+                logger.debug("{} ({} bytes) does not fit the cache budget, not caching", key, decoded.getSizeInBytes());
+                return decoded;
+            }
+        }
+
+        // Copy off-heap outside the lock; it costs about as much as a memcpy of the file
+        PcmAudio direct = decoded.toDirect();
+        synchronized (this) {
+            PcmAudio existing = entries.get(key);
+            if (existing != null) {
+                return existing; // Another thread decoded the same file meanwhile
+            }
+            entries.put(key, direct);
+            residentBytes += direct.getSizeInBytes();
+            trimToBudget();
+        }
+        return direct;
+    }
+
+    /**
+     * Checks if a file is cached. Does not affect LRU order or hit/miss counts.
+     */
+    public synchronized boolean contains(Path path) {
+        return entries.containsKey(keyOf(path));
+    }
+
+    /**
+     * Replaces the set of pinned files. Pinned files are never evicted; files that are
+     * no longer pinned become eligible for eviction again.
+     */
+    public void setPinned(Collection<Path> paths) {
+        synchronized (this) {
+            pinned.clear();
+            for (Path path : paths) {
+                pinned.add(keyOf(path));
+            }
+            trimToBudget();
+        }
+        logger.debug("{} file(s) pinned in the decoded audio cache", paths.size());
+    }
+
+    /**
+     * Checks if a file is pinned.
+     */
+    public synchronized boolean isPinned(Path path) {
+        return pinned.contains(keyOf(path));
+    }
+
+    /**
+     * Gets the byte budget for unpinned entries.
+     */
+    public synchronized long getBudgetBytes() {
+        return budgetBytes;
+    }
+
+    /**
+     * Sets the byte budget for unpinned entries, evicting if needed.
+     */
+    public synchronized void setBudgetBytes(long budgetBytes) {
+        this.budgetBytes = Math.max(0, budgetBytes);
+        trimToBudget();
+    }
+
+    /**
+     * Gets the total size of all cached audio, in bytes.
+     */
+    public synchronized long getResidentBytes() {
+        return residentBytes;
+    }
+
+    /**
+     * Gets the number of cached files.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Gets the number of loads served from the cache.
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * Gets the number of loads that had to decode the file.
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * Gets the fraction of loads served from the cache (0.0 to 1.0), or 0 before the first load.
+     */
+    public double getHitRate() {
+        long hits = hitCount.get();
+        long total = hits + missCount.get();
+        return total == 0 ? 0.0 : hits / (double) total;
+    }
+
+    /**
+     * Gets the number of entries evicted to stay within the budget.
+     */
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    /**
+     * Formats the cache statistics for display or logging.
+     */
+    public String formatSummary() {
+        synchronized (this) {
+            return String.format("%d file(s), %.1f of %.1f MB resident, %.0f%% hit rate, %d eviction(s)",
+                entries.size(), residentBytes / (1024.0 * 1024.0), budgetBytes / (1024.0 * 1024.0),
+                getHitRate() * 100, evictionCount.get());
+        }
+    }
+
+    /**
+     * Removes all cached audio. Pins are kept.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        residentBytes = 0;
+    }
+
+    /**
+     * Evicts least recently used unpinned entries until the unpinned bytes fit the budget.
+     * Must be called while holding the cache lock.
+     */
+    private void trimToBudget() {
+        long unpinnedBytes = 0;
+        for (Map.Entry<String, PcmAudio> entry : entries.entrySet()) {
+            if (!pinned.contains(entry.getKey())) {
+                unpinnedBytes += entry.getValue().getSizeInBytes();
+            }
+        }
+
+        Iterator<Map.Entry<String, PcmAudio>> iterator = entries.entrySet().iterator();
+        while (unpinnedBytes > budgetBytes && iterator.hasNext()) {
+            Map.Entry<String, PcmAudio> eldest = iterator.next();
+            if (pinned.contains(eldest.getKey())) {
+                continue;
+            }
+            long size = eldest.getValue().getSizeInBytes();
+            logger.debug("Evicting decoded audio for {} ({} bytes)", eldest.getKey(), size);
+            iterator.remove();
+            unpinnedBytes -= size;
+            residentBytes -= size;
+            evictionCount.incrementAndGet();
+        }
+    }
+
+    private static String keyOf(Path path) {
+        return path.toAbsolutePath().normalize().toString();
+    }
+}
@@ -0,0 +1,250 @@
+package com.winlabs.service.audio;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Decodes audio files into {@link PcmAudio} in the mixer's output format.
+ * Uses {@code javax.sound.sampled}, so WAV, AIFF and AU files are supported out of the box, and
+ * MP3 and AAC/M4A through the mp3spi and javasound-aac providers on the runtime classpath
+ * (plus anything another installed AudioFileReader provides). Integer PCM of 8 to 32 bits and
+ * 32/64-bit float PCM are converted directly; other encodings go through AudioSystem first.
+ * Channels are mapped to the target layout and the sample rate is converted with linear
+ * interpolation.
+ */
+public final class PcmDecoder {
+
+    private static final Logger logger = LoggerFactory.getLogger(PcmDecoder.class);
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    private PcmDecoder() {
+        // Utility class
+    }
+
+    /**
+     * Decodes an audio file.
+     *
+     * @param path The file to decode
+     * @param targetChannels Channel count of the result
+     * @param targetSampleRate Sample rate of the result
+     * @return The decoded audio
+     * @throws UnsupportedAudioFileException if the file format is not supported
+     * @throws IOException if the file cannot be read
+     */
+    public static PcmAudio decode(Path path, int targetChannels, float targetSampleRate)
+            throws UnsupportedAudioFileException, IOException {
+        long start = System.nanoTime();
+        try (InputStream input = new BufferedInputStream(Files.newInputStream(path));
+             AudioInputStream encoded = AudioSystem.getAudioInputStream(input);
+             AudioInputStream pcm = toDecodablePcm(encoded)) {
+
+            AudioFormat format = pcm.getFormat();
+            float[] samples = readSamples(pcm, format);
+            samples = mapChannels(samples, format.getChannels(), targetChannels);
+            samples = resample(samples, targetChannels, format.getSampleRate(), targetSampleRate);
+
+            PcmAudio audio = new PcmAudio(samples, targetChannels, targetSampleRate);
+            if (logger.isDebugEnabled()) {
+                logger.debug("Decoded {} ({}, {} frames) in {} ms", path.getFileName(), format,
+                    audio.getFrameCount(), (System.nanoTime() - start) / 1_000_000);
+            }
+            return audio;
+        }
+    }
+
+    /**
+     * Opens a file for one pass over its samples in its own channel layout and sample rate,
+     * as analysis wants: memory-mapped if it is uncompressed WAV or AIFF, decoded otherwise.
+     *
+     * @param path The file to open
+     * @return The file's audio
+     * @throws UnsupportedAudioFileException if the file format is not supported
+     * @throws IOException if the file cannot be read
+     */
+    public static PcmSource openForAnalysis(Path path) throws UnsupportedAudioFileException, IOException {
+        try {
+            return MappedPcmReader.open(path);
+        } catch (UnsupportedAudioFileException e) {
+            AudioFormat format = AudioSystem.getAudioFileFormat(path.toFile()).getFormat();
+            return decode(path, Math.max(1, format.getChannels()), format.getSampleRate());
+        }
+    }
+
+    /**
+     * Returns a stream in a PCM encoding that {@link #readSamples} understands,
+     * converting through AudioSystem if needed.
+     */
+    private static AudioInputStream toDecodablePcm(AudioInputStream stream) throws UnsupportedAudioFileException {
+        AudioFormat format = stream.getFormat();
+        if (isDirectlyDecodable(format)) {
+            return stream;
+        }
+
+        AudioFormat target = new AudioFormat(AudioFormat.Encoding.PCM_SIGNED, format.getSampleRate(), 16,
+            format.getChannels(), format.getChannels() * 2, format.getSampleRate(), false);
+        if (!AudioSystem.isConversionSupported(target, format)) {
+            throw new UnsupportedAudioFileException("Unsupported audio encoding: " + format);
+        }
+        return AudioSystem.getAudioInputStream(target, stream);
+    }
+
+    private static boolean isDirectlyDecodable(AudioFormat format) {
+        AudioFormat.Encoding encoding = format.getEncoding();
+        int bits = format.getSampleSizeInBits();
+        if (encoding.equals(AudioFormat.Encoding.PCM_SIGNED) || encoding.equals(AudioFormat.Encoding.PCM_UNSIGNED)) {
+            return bits == 8 || bits == 16 || bits == 24 || bits == 32;
+        }
+        if (encoding.equals(AudioFormat.Encoding.PCM_FLOAT)) {
+            return bits == 32 || bits == 64;
+        }
+        return false;
+    }
+
+    /**
+     * Reads all samples of a PCM stream into interleaved floats.
+     */
+    private static float[] readSamples(AudioInputStream stream, AudioFormat format) throws IOException {
+        int bytesPerSample = format.getSampleSizeInBits() / 8;
+        int channels = format.getChannels();
+        int frameSize = bytesPerSample * channels;
+
+        long frameLength = stream.getFrameLength();
+        int capacity = frameLength > 0 && frameLength * channels <= Integer.MAX_VALUE - 8
+            ? (int) (frameLength * channels)
+            : 1 << 20;
+        float[] samples = new float[capacity];
+        int sampleCount = 0;
+
+        byte[] buffer = new byte[Math.max(frameSize, READ_BUFFER_SIZE / frameSize * frameSize)];
+        int pending = 0;
+        int read;
+        while ((read = stream.read(buffer, pending, buffer.length - pending)) != -1) {
+            int available = pending + read;
+            int whole = available / bytesPerSample * bytesPerSample;
+            int count = whole / bytesPerSample;
+            if (sampleCount + count > samples.length) {
+                long grown = Math.max((long) samples.length * 2, (long) sampleCount + count);
+                if (grown > Integer.MAX_VALUE - 8) {
+                    throw new IOException("Audio file is too large to decode into memory");
+                }
+                samples = Arrays.copyOf(samples, (int) grown);
+            }
+            convert(buffer, whole, format, samples, sampleCount);
+            sampleCount += count;
+
+            // Keep any partial sample for the next read
+            pending = available - whole;
+            System.arraycopy(buffer, whole, buffer, 0, pending);
+        }
+
+        // Drop a trailing partial frame
+        int completeSamples = sampleCount / channels * channels;
+        return completeSamples == samples.length ? samples : Arrays.copyOf(samples, completeSamples);
+    }
+
+    /**
+     * Converts raw PCM bytes to floats.
+     */
+    static void convert(byte[] bytes, int length, AudioFormat format, float[] out, int outOffset) {
+        int bytesPerSample = format.getSampleSizeInBits() / 8;
+        boolean bigEndian = format.isBigEndian();
+        AudioFormat.Encoding encoding = format.getEncoding();
+        boolean isFloat = encoding.equals(AudioFormat.Encoding.PCM_FLOAT);
+        boolean unsigned = encoding.equals(AudioFormat.Encoding.PCM_UNSIGNED);
+
+        int o = outOffset;
+        for (int i = 0; i + bytesPerSample <= length; i += bytesPerSample) {
+            long raw = 0;
+            for (int b = 0; b < bytesPerSample; b++) {
+                int index = bigEndian ? i + b : i + bytesPerSample - 1 - b;
+                raw = (raw << 8) | (bytes[index] & 0xFF);
+            }
+
+            if (isFloat) {
+                out[o++] = bytesPerSample == 4
+                    ? Float.intBitsToFloat((int) raw)
+                    : (float) Double.longBitsToDouble(raw);
+            } else {
+                int bits = bytesPerSample * 8;
+                long value = unsigned
+                    ? raw - (1L << (bits - 1))
+                    : (raw << (64 - bits)) >> (64 - bits); // sign-extend
+                out[o++] = (float) (value / (double) (1L << (bits - 1)));
+            }
+        }
+    }
+
+    /**
+     * Maps interleaved samples to a different channel count.
+     * Mono is copied to every output channel and all channels are averaged when downmixing
+     * to mono; otherwise extra source channels are dropped and missing ones are silent.
+     */
+    static float[] mapChannels(float[] samples, int sourceChannels, int targetChannels) {
+        if (sourceChannels == targetChannels) {
+            return samples;
+        }
+        int frames = samples.length / sourceChannels;
+        float[] mapped = new float[frames * targetChannels];
+        for (int frame = 0; frame < frames; frame++) {
+            int in = frame * sourceChannels;
+            int out = frame * targetChannels;
+            if (sourceChannels == 1) {
+                for (int c = 0; c < targetChannels; c++) {
+                    mapped[out + c] = samples[in];
+                }
+            } else if (targetChannels == 1) {
+                float sum = 0f;
+                for (int c = 0; c < sourceChannels; c++) {
+                    sum += samples[in + c];
+                }
+                mapped[out] = sum / sourceChannels;
+            } else {
+                for (int c = 0; c < targetChannels; c++) {
+                    mapped[out + c] = c < sourceChannels ? samples[in + c] : 0f;
+                }
+            }
+        }
+        return mapped;
+    }
+
+    /**
+     * Converts the sample rate with linear interpolation.
+     */
+    static float[] resample(float[] samples, int channels, float sourceRate, float targetRate) {
+        if (Float.compare(sourceRate, targetRate) == 0 || samples.length == 0) {
+            return samples;
+        }
+        int sourceFrames = samples.length / channels;
+        long targetFrames = (long) Math.floor(sourceFrames * (double) targetRate / sourceRate);
+        if (targetFrames * channels > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Audio is too long to resample in memory");
+        }
+
+        float[] resampled = new float[(int) targetFrames * channels];
+        double step = sourceRate / (double) targetRate;
+        for (int frame = 0; frame < targetFrames; frame++) {
+            double position = frame * step;
+            int index = (int) position;
+            float fraction = (float) (position - index);
+            int next = Math.min(index + 1, sourceFrames - 1);
+            for (int c = 0; c < channels; c++) {
+                float a = samples[index * channels + c];
+                float b = samples[next * channels + c];
+                resampled[frame * channels + c] = a + (b - a) * fraction;
+            }
+        }
+        return resampled;
+    }
+}
@@ -0,0 +1,574 @@
+package com.winlabs.service.audio;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.LineUnavailableException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.winlabs.model.OutputDevice;
+
+/**
+ * Software mixer that plays any number of {@link MixerVoice}s through one or more
+ * output devices.
+ *
+ * One render thread mixes all active voices block by block and writes the result to the
+ * line. Voices are started at block boundaries, so voices started together with
+ * {@link #playTogether(MixerVoice...)} begin on exactly the same sample; a voice chained to
+ * another ({@link MixerVoice#chain}) starts on the frame after it ends. The line buffer
+ * is a fixed number of blocks, which makes the output latency constant and known
+ * ({@link #getOutputLatencyMillis()}). CPU cost is one multiply-add per sample per voice,
+ * with no native pipeline per voice.
+ *
+ * Streaming voices ({@link #createStreamingVoice(PcmSource)}) are fed by a separate prefetch
+ * thread through a lock-free {@link PcmRingBuffer} each, so page faults and disk reads happen
+ * off the render thread.
+ *
+ * With several outputs ({@link #setOutputs(List)}) the devices' channels are laid side by side
+ * as one bus. Each voice is read, faded and metered once per block and added to the bus
+ * channels its routing reaches, so the cost follows the voices playing, not voices times
+ * devices. The first device is the clock: the render thread writes to it, and every other
+ * device plays the same blocks on a {@link DeviceOutput} thread of its own.
+ *
+ * Voices play through the mixer's master {@link GainBus}, or a group bus under it. Each bus
+ * a playing voice uses is evaluated once per block, so moving the master costs the same
+ * however many voices are playing.
+ */
+public class PcmMixer implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(PcmMixer.class);
+
+    public static final float DEFAULT_SAMPLE_RATE = 48000f;
+    public static final int DEFAULT_CHANNELS = 2;
+    public static final int DEFAULT_BLOCK_FRAMES = 256;
+    public static final int DEFAULT_BUFFER_BLOCKS = 4;
+
+    /** Frames buffered ahead for each streaming voice (about 340 ms at 48 kHz). */
+    public static final int STREAM_BUFFER_FRAMES = 16384;
+    /** Blocks in a row that may fail before the mixer stops itself (about 100 ms by default). */
+    static final int MAX_RENDER_FAILURES = 20;
+
+    private final float sampleRate;
+    private final int channels;
+    private final int blockFrames;
+    private final int bufferBlocks;
+    private final Executor eventExecutor;
+    private final ConcurrentLinkedQueue<MixerVoice[]> pendingStarts;
+    private final ConcurrentLinkedQueue<MixerVoice> streamingVoices;
+    private final AtomicLong framesRendered;
+    private final AtomicLong underrunCount;
+    private volatile OutputLayout layout; // Replaced only while stopped
+    private final GainBus masterBus;
+
+    // Render thread only
+    private final List<MixerVoice> activeVoices;
+    private final List<MixerVoice> chainedStarts; // Started by another voice during this block
+    private long blockIndex;
+    private float busCoefficient; // Bus smoothing for the current block's length
+
+    private volatile int activeVoiceCount;
+    private volatile boolean running;
+    private Thread renderThread;
+    private volatile Thread prefetchThread;
+    private DeviceOutput[] outputs; // Null where a follower device failed to open
+
+    /**
+     * Creates a mixer with the default format (48 kHz stereo, 256-frame blocks, 4 blocks of buffer).
+     *
+     * @param eventExecutor Executor that voice callbacks are delivered on
+     */
+    public PcmMixer(Executor eventExecutor) {
+        this(DEFAULT_SAMPLE_RATE, DEFAULT_CHANNELS, DEFAULT_BLOCK_FRAMES, DEFAULT_BUFFER_BLOCKS, eventExecutor);
+    }
+
+    /**
+     * Creates a mixer.
+     *
+     * @param sampleRate Output sample rate
+     * @param channels Output channel count
+     * @param blockFrames Frames mixed per block
+     * @param bufferBlocks Number of blocks buffered in the output line
+     * @param eventExecutor Executor that voice callbacks are delivered on
+     */
+    public PcmMixer(float sampleRate, int channels, int blockFrames, int bufferBlocks, Executor eventExecutor) {
+        if (sampleRate <= 0 || channels < 1 || blockFrames < 1 || bufferBlocks < 1) {
+            throw new IllegalArgumentException("Invalid mixer format");
+        }
+        this.sampleRate = sampleRate;
+        this.channels = channels;
+        this.blockFrames = blockFrames;
+        this.bufferBlocks = bufferBlocks;
+        this.eventExecutor = eventExecutor != null ? eventExecutor : Runnable::run;
+        this.pendingStarts = new ConcurrentLinkedQueue<>();
+        this.streamingVoices = new ConcurrentLinkedQueue<>();
+        this.framesRendered = new AtomicLong();
+        this.underrunCount = new AtomicLong();
+        this.layout = new OutputLayout(List.of(new OutputDevice(OutputDevice.MAINS.getLabel(), "", channels)),
+            channels, sampleRate, blockFrames);
+        this.masterBus = new GainBus("Master");
+        this.activeVoices = new ArrayList<>();
+        this.chainedStarts = new ArrayList<>();
+    }
+
+    /**
+     * Opens the output lines and starts the render thread. Does nothing if already running.
+     * A follower device that cannot be opened is left silent rather than stopping the show.
+     *
+     * @throws LineUnavailableException if the first device cannot play the mixer format
+     */
+    public synchronized void start() throws LineUnavailableException {
+        if (running) {
+            return;
+        }
+        if (renderThread != null) {
+            close(); // Stopped itself after failing, and not yet closed
+        }
+
+        List<OutputDevice> devices = layout.devices;
+        outputs = new DeviceOutput[devices.size()];
+        outputs[0] = DeviceOutput.open(devices.get(0), sampleRate, blockFrames, bufferBlocks, true);
+        for (int d = 1; d < devices.size(); d++) {
+            try {
+                outputs[d] = DeviceOutput.open(devices.get(d), sampleRate, blockFrames, bufferBlocks, false);
+            } catch (LineUnavailableException | IllegalArgumentException e) {
+                logger.error("Cannot open output {}, it will stay silent: {}", devices.get(d), e.getMessage());
+            }
+        }
+
+        running = true;
+        renderThread = new Thread(this::renderLoop, "PcmMixer-Render");
+        renderThread.setDaemon(true);
+        renderThread.setPriority(Thread.MAX_PRIORITY);
+        renderThread.start();
+        Thread prefetch = new Thread(this::prefetchLoop, "PcmMixer-Prefetch");
+        prefetch.setDaemon(true);
+        prefetchThread = prefetch;
+        prefetch.start();
+        logger.info("PCM mixer started: {} Hz, {} channel(s), {}-frame blocks, {} ms output latency, outputs {}",
+            sampleRate, channels, blockFrames, String.format("%.1f", getOutputLatencyMillis()), devices);
+    }
+
+    /**
+     * Sets the devices the mixer plays to, the first being the clock. A running mixer
+     * reopens its lines, which interrupts the output briefly; voices carry on where they were.
+     * If the new first device cannot be opened, the mixer goes back to its previous outputs.
+     *
+     * @param devices The outputs, in the order their channels are numbered in routings
+     * @throws LineUnavailableException if the mixer was running and the first device cannot be opened
+     */
+    public synchronized void setOutputs(List<OutputDevice> devices) throws LineUnavailableException {
+        if (devices.equals(layout.devices)) {
+            return;
+        }
+        OutputLayout changed = new OutputLayout(devices, channels, sampleRate, blockFrames);
+        boolean wasRunning = running;
+        if (wasRunning) {
+            close();
+        }
+        OutputLayout previous = layout;
+        layout = changed;
+        if (wasRunning) {
+            try {
+                start();
+            } catch (LineUnavailableException | IllegalArgumentException e) {
+                layout = previous;
+                start();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Gets the devices the mixer plays to.
+     */
+    public List<OutputDevice> getOutputs() {
+        return layout.devices;
+    }
+
+    /**
+     * Gets the names of the sound devices that can play audio, for choosing outputs.
+     */
+    public static List<String> listOutputDevices() {
+        return DeviceOutput.listDeviceNames();
+    }
+
+    /**
+     * Checks if the render thread is running.
+     */
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Creates a voice that reads its audio on the render thread. The audio must already be in
+     * the mixer's format; see {@link ConvertingSource} for sources that are not.
+     */
+    public MixerVoice createVoice(PcmSource source) {
+        checkFormat(source);
+        return new MixerVoice(this, source);
+    }
+
+    /**
+     * Creates a voice that streams its audio through a ring buffer filled by the prefetch
+     * thread. Use this for sources whose reads may touch the disk. The buffer is filled once
+     * on the calling thread, so the voice can start immediately.
+     */
+    public MixerVoice createStreamingVoice(PcmSource source) {
+        checkFormat(source);
+        MixerVoice voice = new MixerVoice(this, source, new PcmRingBuffer(STREAM_BUFFER_FRAMES, channels));
+        voice.fill();
+        streamingVoices.add(voice);
+        return voice;
+    }
+
+    private void checkFormat(PcmSource source) {
+        if (source.getChannels() != channels || Float.compare(source.getSampleRate(), sampleRate) != 0) {
+            throw new IllegalArgumentException(String.format(
+                "Audio format (%d ch, %.0f Hz) does not match mixer (%d ch, %.0f Hz)",
+                source.getChannels(), source.getSampleRate(), channels, sampleRate));
+        }
+    }
+
+    /**
+     * Starts several voices on the same sample frame.
+     */
+    public void playTogether(MixerVoice... voices) {
+        for (MixerVoice voice : voices) {
+            voice.prepareStart();
+        }
+        pendingStarts.add(voices.clone());
+    }
+
+    /**
+     * Queues a voice to join the mix at the next block.
+     */
+    void schedule(MixerVoice voice) {
+        pendingStarts.add(new MixerVoice[] { voice });
+    }
+
+    /**
+     * Adds a voice started by a chained voice to the current block. Called by the render thread only.
+     */
+    void startChained(MixerVoice voice) {
+        chainedStarts.add(voice);
+    }
+
+    /**
+     * Delivers a voice callback on the event executor.
+     */
+    void dispatch(Runnable event) {
+        try {
+            eventExecutor.execute(event);
+        } catch (Exception e) {
+            logger.warn("Failed to dispatch mixer event: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Mixes one block of all active voices into the bus (which is cleared first), then splits
+     * it into the devices' blocks and meters them.
+     * Called by the render thread; package-private so tests can render without an output line.
+     *
+     * @param mix Interleaved bus of at least {@code frames} times the outputs' total channels
+     * @param frames Number of frames to render
+     */
+    void renderBlock(float[] mix, int frames) {
+        OutputLayout current = layout;
+        MixerVoice[] batch;
+        while ((batch = pendingStarts.poll()) != null) {
+            for (MixerVoice voice : batch) {
+                if (!voice.inMix) {
+                    voice.inMix = true;
+                    activeVoices.add(voice);
+                }
+            }
+        }
+
+        blockIndex++;
+        busCoefficient = (float) (1.0 - Math.exp(-frames / (GainBus.SMOOTHING_SECONDS * sampleRate)));
+        Arrays.fill(mix, 0, frames * current.busChannels, 0f);
+        for (int i = activeVoices.size() - 1; i >= 0; i--) {
+            MixerVoice voice = activeVoices.get(i);
+            if (!mixVoice(voice, mix, frames, current)) {
+                voice.inMix = false;
+                voice.getMeter().clear();
+                activeVoices.remove(i);
+            }
+        }
+        // These start part way through the block, and may chain further voices themselves
+        for (int i = 0; i < chainedStarts.size(); i++) {
+            MixerVoice voice = chainedStarts.get(i);
+            if (!voice.inMix) {
+                voice.inMix = true;
+                if (mixVoice(voice, mix, frames, current)) {
+                    activeVoices.add(voice);
+                } else {
+                    voice.inMix = false;
+                    voice.getMeter().clear();
+                }
+            }
+        }
+        chainedStarts.clear();
+        current.split(mix, frames);
+        activeVoiceCount = activeVoices.size();
+        framesRendered.addAndGet(frames);
+    }
+
+    /**
+     * Mixes one voice into the bus. A voice whose audio cannot be read is stopped and reported
+     * rather than failing the block, so one bad file does not silence every other cue.
+     *
+     * @return false if the voice has left the mix
+     */
+    private boolean mixVoice(MixerVoice voice, float[] mix, int frames, OutputLayout current) {
+        try {
+            return voice.mixInto(mix, frames, current);
+        } catch (RuntimeException e) {
+            logger.error("Voice failed to mix and was stopped: {}", e.getMessage(), e);
+            voice.fail(e);
+            return false;
+        }
+    }
+
+    /**
+     * Tops up the ring buffer of every streaming voice and forgets disposed ones.
+     * Called by the prefetch thread; package-private so tests can stream without it.
+     */
+    void prefetch() {
+        Iterator<MixerVoice> iterator = streamingVoices.iterator();
+        while (iterator.hasNext()) {
+            MixerVoice voice = iterator.next();
+            if (!voice.isReusable()) {
+                iterator.remove();
+            } else {
+                voice.fill();
+            }
+        }
+    }
+
+    /**
+     * Wakes the prefetch thread early, after a streaming voice has seeked.
+     */
+    void wakePrefetch() {
+        Thread thread = prefetchThread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    private void prefetchLoop() {
+        long periodNanos = (long) (blockFrames * 1_000_000_000L / sampleRate);
+        while (running) {
+            try {
+                prefetch();
+            } catch (Exception e) {
+                logger.error("Error in PCM mixer prefetch thread: {}", e.getMessage(), e);
+            }
+            LockSupport.parkNanos(periodNanos);
+        }
+    }
+
+    private void renderLoop() {
+        OutputLayout current = layout; // Fixed while running
+        DeviceOutput[] devices = outputs;
+        float[] mix = new float[blockFrames * current.busChannels];
+        boolean primed = false;
+        int failures = 0; // Blocks in a row that could not be rendered
+
+        while (running) {
+            try {
+                renderBlock(mix, blockFrames);
+                for (int d = 1; d < devices.length; d++) {
+                    if (devices[d] != null) {
+                        devices[d].offer(current.deviceMix(d, mix), blockFrames);
+                    }
+                }
+
+                // An empty line buffer after the first writes means the render thread fell behind
+                if (devices[0].writeClock(current.deviceMix(0, mix), primed)) {
+                    underrunCount.incrementAndGet();
+                }
+                primed = true;
+                if (failures > 0) {
+                    logger.info("PCM mixer recovered after {} failed block(s)", failures);
+                    failures = 0;
+                }
+            } catch (Exception e) {
+                failures++;
+                if (failures == 1) {
+                    logger.error("Error in PCM mixer render thread: {}", e.getMessage(), e);
+                }
+                if (failures >= MAX_RENDER_FAILURES) {
+                    fail(e, failures);
+                    return;
+                }
+                writeSilence(devices[0], current, mix);
+            }
+        }
+    }
+
+    /**
+     * Keeps the clock line fed with a silent block after a failed one, which also keeps a
+     * fault that recurs from spinning the render thread. If the line cannot be written either,
+     * waits for as long as the block would have played.
+     */
+    private void writeSilence(DeviceOutput clock, OutputLayout current, float[] mix) {
+        try {
+            Arrays.fill(mix, 0f);
+            current.split(mix, blockFrames);
+            clock.writeClock(current.deviceMix(0, mix), false);
+        } catch (Exception e) {
+            LockSupport.parkNanos((long) (blockFrames * 1_000_000_000L / sampleRate));
+        }
+    }
+
+    /**
+     * Gives up after too many failed blocks in a row: stops every voice, reporting the error
+     * to each on the event executor, and closes the mixer there. Called by the render thread,
+     * which exits straight after. The next {@link #start()} opens the outputs again.
+     */
+    void fail(Throwable error, int failures) {
+        logger.error("PCM mixer failed {} blocks in a row and was stopped: {}", failures, error.getMessage());
+        running = false;
+        for (MixerVoice voice : activeVoices) {
+            voice.inMix = false;
+            voice.getMeter().clear();
+            voice.fail(error);
+        }
+        activeVoices.clear();
+        activeVoiceCount = 0;
+        dispatch(this::close);
+    }
+
+    /**
+     * Converts mixed floats to 16-bit little-endian PCM, clipping at full scale.
+     */
+    static void toPcm16(float[] mix, byte[] out) {
+        for (int i = 0, o = 0; i < mix.length; i++, o += 2) {
+            float sample = Math.max(-1f, Math.min(1f, mix[i]));
+            int value = (int) (sample * 32767f);
+            out[o] = (byte) value;
+            out[o + 1] = (byte) (value >> 8);
+        }
+    }
+
+    /**
+     * Gets the format written to the first output's line (16-bit signed little-endian PCM).
+     */
+    public AudioFormat getOutputFormat() {
+        return new AudioFormat(sampleRate, 16, layout.devices.get(0).getChannels(), true, false);
+    }
+
+    public float getSampleRate() {
+        return sampleRate;
+    }
+
+    public int getChannels() {
+        return channels;
+    }
+
+    public int getBlockFrames() {
+        return blockFrames;
+    }
+
+    /**
+     * Gets the fixed delay between a voice starting and it reaching the output, in milliseconds.
+     * This is one block of mixing plus the output line buffer.
+     */
+    public double getOutputLatencyMillis() {
+        return blockFrames * (bufferBlocks + 1) * 1000.0 / sampleRate;
+    }
+
+    /**
+     * Gets the bus every voice plays through, directly or through a group bus under it.
+     */
+    public GainBus getMasterBus() {
+        return masterBus;
+    }
+
+    /**
+     * Moves a bus on to the block being rendered. Called by the render thread only.
+     */
+    void advanceBus(GainBus bus) {
+        bus.advance(blockIndex, busCoefficient);
+    }
+
+    /**
+     * Gets the meter showing the level of the first output, before it is clipped to 16 bits.
+     */
+    public LevelMeter getMasterMeter() {
+        return layout.meters[0];
+    }
+
+    /**
+     * Gets the meter showing the level of one output, before it is clipped to 16 bits.
+     *
+     * @param device Index of the output, in the order set by {@link #setOutputs(List)}
+     */
+    public LevelMeter getOutputMeter(int device) {
+        return layout.meters[device];
+    }
+
+    /**
+     * Gets the number of voices mixed in the last block.
+     */
+    public int getActiveVoiceCount() {
+        return activeVoiceCount;
+    }
+
+    /**
+     * Gets the total number of frames rendered since creation.
+     */
+    public long getFramesRendered() {
+        return framesRendered.get();
+    }
+
+    /**
+     * Gets the number of times the first output's line ran dry.
+     */
+    public long getUnderrunCount() {
+        return underrunCount.get();
+    }
+
+    /**
+     * Stops the render thread and closes the output lines.
+     */
+    @Override
+    public synchronized void close() {
+        if (renderThread == null) {
+            return;
+        }
+        running = false;
+        Thread prefetch = prefetchThread;
+        prefetchThread = null;
+        LockSupport.unpark(prefetch);
+        try {
+            if (Thread.currentThread() != renderThread) {
+                renderThread.join(1000);
+            }
+            prefetch.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        long corrections = 0;
+        for (DeviceOutput output : outputs) {
+            if (output != null) {
+                corrections += output.getCorrectionCount();
+                output.close();
+            }
+        }
+        outputs = null;
+        renderThread = null;
+        logger.info("PCM mixer stopped after {} frames ({} underruns, {} follower corrections)",
+            framesRendered.get(), underrunCount.get(), corrections);
+    }
+}
@@ -0,0 +1,186 @@
+package com.winlabs.service.audio;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.UnaryOperator;
+
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.UnsupportedAudioFileException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.winlabs.model.OutputDevice;
+
+/**
+ * {@link AudioBackend} that decodes files up front and plays them through one shared
+ * {@link PcmMixer}. The mixer is created on first use and its output line is only opened
+ * once a file has decoded successfully. Decoded files are kept in a {@link PcmCache}, so
+ * opening a cached file again does not read it from disk.
+ *
+ * Long uncompressed WAV/AIFF files are not decoded at all: they are streamed from a
+ * {@link MappedPcmReader} through the mixer's prefetch thread, so their size does not matter
+ * to the heap and opening or seeking them is instant. Pinned (resident) files always go
+ * through the cache.
+ *
+ * With a source resolver set, files are read from wherever it points (a render in the output
+ * format, which streams or decodes without conversion) but cached under the path opened.
+ *
+ * Output devices and bus levels set before the mixer exists are applied when it is created.
+ * Bus levels are a write to the mixer's {@link GainBus}es, whatever the number of voices.
+ */
+public class PcmMixerBackend implements AudioBackend {
+
+    private static final Logger logger = LoggerFactory.getLogger(PcmMixerBackend.class);
+
+    /** Files at least this large are streamed from disk when their format allows it. */
+    public static final long STREAMING_THRESHOLD_BYTES = 16L * 1024 * 1024;
+
+    private final Executor eventExecutor;
+    private final PcmCache cache;
+    private volatile PcmMixer mixer; // Written under this
+    private volatile UnaryOperator<Path> sourceResolver;
+    private List<OutputDevice> outputDevices; // Guarded by this
+    private double masterLevel; // Guarded by this
+    private final Map<String, Double> groupLevels; // Written under this
+
+    /**
+     * @param eventExecutor Executor that voice callbacks are delivered on
+     */
+    public PcmMixerBackend(Executor eventExecutor) {
+        this.eventExecutor = eventExecutor;
+        this.sourceResolver = UnaryOperator.identity();
+        this.outputDevices = List.of(OutputDevice.MAINS);
+        this.masterLevel = 1.0;
+        this.groupLevels = new ConcurrentHashMap<>();
+        this.cache = new PcmCache(PcmCache.DEFAULT_BUDGET_BYTES, path -> {
+            PcmMixer pcmMixer = obtainMixer();
+            return PcmDecoder.decode(sourceResolver.apply(path), pcmMixer.getChannels(), pcmMixer.getSampleRate());
+        });
+    }
+
+    @Override
+    public String getName() {
+        return "PCM Mixer";
+    }
+
+    /**
+     * Opens a file from the cache, by memory-mapping it if it is long and uncompressed,
+     * or by decoding it completely on the calling thread.
+     */
+    @Override
+    public AudioVoice open(Path path) throws Exception {
+        PcmMixer pcmMixer = obtainMixer();
+        PcmSource stream = openStreaming(path, pcmMixer);
+        if (stream != null) {
+            pcmMixer.start();
+            return pcmMixer.createStreamingVoice(stream);
+        }
+        PcmAudio audio = cache.load(path);
+        pcmMixer.start();
+        return pcmMixer.createVoice(audio);
+    }
+
+    /**
+     * Maps a long uncompressed file for streaming.
+     *
+     * @return The mapped source in the mixer's format, or null if the file should be decoded instead
+     */
+    private PcmSource openStreaming(Path path, PcmMixer pcmMixer) throws IOException {
+        if (cache.contains(path) || cache.isPinned(path)) {
+            return null;
+        }
+        Path source = sourceResolver.apply(path);
+        if (Files.size(source) < STREAMING_THRESHOLD_BYTES) {
+            return null;
+        }
+        try {
+            MappedPcmReader reader = MappedPcmReader.open(source);
+            return ConvertingSource.adapt(reader, pcmMixer.getChannels(), pcmMixer.getSampleRate());
+        } catch (UnsupportedAudioFileException e) {
+            logger.debug("Cannot stream {} ({}), decoding instead", path.getFileName(), e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public void setSourceResolver(UnaryOperator<Path> resolver) {
+        this.sourceResolver = resolver != null ? resolver : UnaryOperator.identity();
+    }
+
+    /**
+     * {@inheritDoc}
+     * If the first device cannot be opened, the previous outputs are kept.
+     */
+    @Override
+    public synchronized void setOutputDevices(List<OutputDevice> devices) throws Exception {
+        List<OutputDevice> copy = List.copyOf(devices);
+        if (mixer != null) {
+            mixer.setOutputs(copy);
+        }
+        outputDevices = copy;
+    }
+
+    @Override
+    public synchronized void setMasterLevel(double level) {
+        masterLevel = level;
+        if (mixer != null) {
+            mixer.getMasterBus().setLevel(level);
+        }
+    }
+
+    @Override
+    public synchronized void setGroupLevel(String group, double level) {
+        groupLevels.put(group, level);
+        if (mixer != null) {
+            mixer.getMasterBus().child(group).setLevel(level);
+        }
+    }
+
+    @Override
+    public PcmCache getPcmCache() {
+        return cache;
+    }
+
+    /**
+     * Gets the mixer, or null if no file has been opened yet.
+     */
+    public synchronized PcmMixer getMixer() {
+        return mixer;
+    }
+
+    @Override
+    public LevelMeter getMasterMeter() {
+        PcmMixer current = mixer;
+        return current != null ? current.getMasterMeter() : null;
+    }
+
+    private synchronized PcmMixer obtainMixer() {
+        if (mixer == null) {
+            PcmMixer created = new PcmMixer(eventExecutor);
+            try {
+                created.setOutputs(outputDevices); // Not started yet, so only the layout changes
+            } catch (LineUnavailableException e) {
+                throw new IllegalStateException(e); // Unreachable while stopped
+            }
+            created.getMasterBus().setLevel(masterLevel);
+            groupLevels.forEach((group, level) -> created.getMasterBus().child(group).setLevel(level));
+            mixer = created;
+        }
+        return mixer;
+    }
+
+    @Override
+    public synchronized void close() {
+        cache.clear();
+        if (mixer != null) {
+            mixer.close();
+            mixer = null;
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.winlabs.service.audio;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Lock-free single-producer/single-consumer ring buffer of interleaved float frames.
+ *
+ * One thread writes (for example a prefetch thread reading from disk) and one thread reads
+ * (the mixer's render thread). Neither side ever blocks or allocates: a write that does not
+ * fit and a read that finds too little data both return short and are counted as an
+ * overrun or underrun instead. The read and write counters are padded onto their own cache
+ * lines, and each side keeps a cached copy of the other side's counter so it only touches
+ * the shared line when its cached view says the buffer is full or empty.
+ */
+public final class PcmRingBuffer {
+
+    private final float[] buffer;
+    private final int channels;
+    private final int capacity; // Frames, a power of two
+    private final int mask;
+    private final Counter readCounter;  // Written by the consumer only
+    private final Counter writeCounter; // Written by the producer only
+    private volatile long underrunCount;
+    private volatile long overrunCount;
+
+    /**
+     * Creates a ring buffer.
+     *
+     * @param capacityFrames Minimum capacity in frames, rounded up to a power of two
+     * @param channels Samples per frame
+     */
+    public PcmRingBuffer(int capacityFrames, int channels) {
+        if (capacityFrames < 1 || capacityFrames > (1 << 30) || channels < 1) {
+            throw new IllegalArgumentException("Invalid ring buffer size");
+        }
+        this.capacity = capacityFrames == 1 ? 1 : Integer.highestOneBit(capacityFrames - 1) << 1;
+        this.mask = capacity - 1;
+        this.channels = channels;
+        this.buffer = new float[capacity * channels];
+        this.readCounter = new Counter();
+        this.writeCounter = new Counter();
+    }
+
+    public int getCapacityFrames() {
+        return capacity;
+    }
+
+    public int getChannels() {
+        return channels;
+    }
+
+    /**
+     * Writes frames into the buffer. Called by the producer only.
+     *
+     * @param src Interleaved samples
+     * @param offset Index in src of the first sample
+     * @param frames Number of frames to write
+     * @return The number of frames written, less than requested if the buffer was full (an overrun)
+     */
+    public int write(float[] src, int offset, int frames) {
+        long write = writeCounter.value;
+        long free = capacity - (write - writeCounter.cached);
+        if (free < frames) {
+            writeCounter.cached = readCounter.getAcquire();
+            free = capacity - (write - writeCounter.cached);
+        }
+        int count = (int) Math.min(frames, free);
+        if (count < frames) {
+            overrunCount = overrunCount + 1;
+        }
+        if (count == 0) {
+            return 0;
+        }
+
+        int start = (int) (write & mask);
+        int first = Math.min(count, capacity - start);
+        System.arraycopy(src, offset, buffer, start * channels, first * channels);
+        if (first < count) {
+            System.arraycopy(src, offset + first * channels, buffer, 0, (count - first) * channels);
+        }
+        writeCounter.setRelease(write + count);
+        return count;
+    }
+
+    /**
+     * Reads frames from the buffer. Called by the consumer only.
+     *
+     * @param dest Destination for interleaved samples
+     * @param offset Index in dest of the first sample
+     * @param frames Number of frames wanted
+     * @return The number of frames read, less than requested if the buffer ran dry (an underrun)
+     */
+    public int read(float[] dest, int offset, int frames) {
+        long read = readCounter.value;
+        int count = (int) Math.min(frames, readable(read, frames));
+        if (count < frames) {
+            underrunCount = underrunCount + 1;
+        }
+        if (count == 0) {
+            return 0;
+        }
+
+        int start = (int) (read & mask);
+        int first = Math.min(count, capacity - start);
+        System.arraycopy(buffer, start * channels, dest, offset, first * channels);
+        if (first < count) {
+            System.arraycopy(buffer, 0, dest, offset + first * channels, (count - first) * channels);
+        }
+        readCounter.setRelease(read + count);
+        return count;
+    }
+
+    /**
+     * Discards frames without copying them. Called by the consumer only.
+     *
+     * @return The number of frames discarded
+     */
+    public int skip(int frames) {
+        long read = readCounter.value;
+        int count = (int) Math.min(frames, readable(read, frames));
+        if (count > 0) {
+            readCounter.setRelease(read + count);
+        }
+        return count;
+    }
+
+    private long readable(long read, int wanted) {
+        long available = readCounter.cached - read;
+        if (available < wanted) {
+            readCounter.cached = writeCounter.getAcquire();
+            available = readCounter.cached - read;
+        }
+        return available;
+    }
+
+    /**
+     * Gets the number of frames that can be read now.
+     */
+    public int availableToRead() {
+        return (int) (writeCounter.getAcquire() - readCounter.getAcquire());
+    }
+
+    /**
+     * Gets the number of frames that can be written now.
+     */
+    public int availableToWrite() {
+        return capacity - availableToRead();
+    }
+
+    /**
+     * Gets the total number of frames written since creation.
+     */
+    public long getWriteCount() {
+        return writeCounter.getAcquire();
+    }
+
+    /**
+     * Gets the total number of frames read or skipped since creation.
+     */
+    public long getReadCount() {
+        return readCounter.getAcquire();
+    }
+
+    /**
+     * Gets the number of reads that found fewer frames than requested.
+     */
+    public long getUnderrunCount() {
+        return underrunCount;
+    }
+
+    /**
+     * Gets the number of writes that did not fit completely.
+     */
+    public long getOverrunCount() {
+        return overrunCount;
+    }
+
+    /**
+     * Padding before the counter, so it never shares a cache line with other hot fields.
+     */
+    abstract static class LeftPadding {
+        long p01, p02, p03, p04, p05, p06, p07;
+    }
+
+    /**
+     * A frame counter owned by one side, plus that side's cached view of the other counter.
+     */
+    abstract static class CounterFields extends LeftPadding {
+        volatile long value;
+        long cached;
+    }
+
+    /**
+     * Padded counter. Superclass fields are laid out first, so the padding brackets both fields.
+     */
+    static final class Counter extends CounterFields {
+        private static final VarHandle VALUE;
+
+        static {
+            try {
+                VALUE = MethodHandles.lookup().findVarHandle(CounterFields.class, "value", long.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        long p11, p12, p13, p14, p15, p16, p17;
+
+        long getAcquire() {
+            return (long) VALUE.getAcquire(this);
+        }
+
+        void setRelease(long newValue) {
+            VALUE.setRelease(this, newValue);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.winlabs.service.audio;
+
+/**
+ * Frame-addressable interleaved float audio that a {@link MixerVoice} can play.
+ * Implementations are either fully decoded in memory ({@link PcmAudio}) or read on demand
+ * ({@link MappedPcmReader}).
+ *
+ * {@link #read} is called on the mixer's render thread for every block, so it must not block
+ * on locks or allocate. Reads are absolute, which makes seeking free.
+ */
+public interface PcmSource {
+
+    int getChannels();
+
+    float getSampleRate();
+
+    /**
+     * Gets the number of frames (samples per channel).
+     */
+    long getFrameCount();
+
+    /**
+     * Gets the duration in seconds.
+     */
+    default double getDuration() {
+        return getFrameCount() / (double) getSampleRate();
+    }
+
+    /**
+     * Reads interleaved frames as floats in the range -1.0 to 1.0.
+     *
+     * @param frame First frame to read
+     * @param dest Destination for {@code frames * getChannels()} samples
+     * @param destOffset Index in dest of the first sample
+     * @param frames Maximum number of frames to read
+     * @return The number of frames read, less than requested only at the end of the audio
+     */
+    int read(long frame, float[] dest, int destOffset, int frames);
+}
@@ -0,0 +1,55 @@
+package com.winlabs.service.audio;
+
+import com.winlabs.model.OutputRouting;
+
+/**
+ * An {@link OutputRouting} compiled for the render thread: only the routed cells, as
+ * parallel arrays of voice channel, bus channel and gain, so mixing a voice costs one
+ * multiply-add per routed cell per frame however many devices the bus spans. Immutable.
+ */
+final class RouteMap {
+
+    final int[] inputs;
+    final int[] outputs;
+    final float[] gains;
+    final boolean direct; // Each voice channel to the same bus channel at unity, on a bus exactly as wide
+
+    private RouteMap(int[] inputs, int[] outputs, float[] gains, boolean direct) {
+        this.inputs = inputs;
+        this.outputs = outputs;
+        this.gains = gains;
+        this.direct = direct;
+    }
+
+    /**
+     * Compiles a routing for voices and a bus of the given widths. Cells outside either are dropped.
+     */
+    static RouteMap compile(OutputRouting routing, int voiceChannels, int busChannels) {
+        int count = 0;
+        for (int in = 0; in < voiceChannels; in++) {
+            for (int out = 0; out < busChannels; out++) {
+                if (routing.getGain(in, out) > 0) {
+                    count++;
+                }
+            }
+        }
+        int[] inputs = new int[count];
+        int[] outputs = new int[count];
+        float[] gains = new float[count];
+        boolean direct = voiceChannels == busChannels && count == voiceChannels;
+        int cell = 0;
+        for (int in = 0; in < voiceChannels; in++) {
+            for (int out = 0; out < busChannels; out++) {
+                double gain = routing.getGain(in, out);
+                if (gain > 0) {
+                    inputs[cell] = in;
+                    outputs[cell] = out;
+                    gains[cell] = (float) gain;
+                    direct &= in == out && gain == 1.0;
+                    cell++;
+                }
+            }
+        }
+        return new RouteMap(inputs, outputs, gains, direct);
+    }
+}
@@ -0,0 +1,95 @@
+package com.winlabs.service.audio;
+
+import com.winlabs.model.AudibleRange;
+
+/**
+ * Finds where a file's audio becomes audible and where it falls silent for good: the first
+ * and last sample whose level on any channel rises above a threshold.
+ *
+ * Reads are absolute, so the start is found by reading forward from the beginning and the
+ * end by reading backward from the end; for a typical file only the silent edges are read.
+ * A little of the silence is kept on each side ({@value #PRE_ROLL_SECONDS} s before the
+ * start, so an attack is not clipped, and {@value #TAIL_SECONDS} s after the end, for a
+ * decay fading under the threshold).
+ */
+public final class SilenceDetector {
+
+    public static final double PRE_ROLL_SECONDS = 0.005;
+    public static final double TAIL_SECONDS = 0.1;
+    private static final int READ_FRAMES = 4096;
+
+    private SilenceDetector() {
+        // Utility class
+    }
+
+    /**
+     * Scans audio for its audible range.
+     *
+     * @param source The audio to scan
+     * @param thresholdDb Level in dBFS at or below which a sample counts as silence
+     * @return The audible range, empty if no sample rose above the threshold
+     */
+    public static AudibleRange scan(PcmSource source, double thresholdDb) {
+        int channels = source.getChannels();
+        double sampleRate = source.getSampleRate();
+        long frameCount = source.getFrameCount();
+        float threshold = (float) Math.pow(10, thresholdDb / 20);
+        float[] buffer = new float[READ_FRAMES * channels];
+
+        long first = -1;
+        for (long frame = 0; frame < frameCount && first < 0; ) {
+            int read = source.read(frame, buffer, 0, (int) Math.min(READ_FRAMES, frameCount - frame));
+            if (read <= 0) {
+                break;
+            }
+            int index = firstAbove(buffer, read, channels, threshold);
+            if (index >= 0) {
+                first = frame + index;
+            }
+            frame += read;
+        }
+        if (first < 0) {
+            return new AudibleRange(0.0, 0.0, frameCount / sampleRate);
+        }
+
+        long last = first;
+        for (long end = frameCount; end > first; ) {
+            long start = Math.max(first, end - READ_FRAMES);
+            int read = source.read(start, buffer, 0, (int) (end - start));
+            int index = lastAbove(buffer, read, channels, threshold);
+            if (index >= 0) {
+                last = start + index;
+                break;
+            }
+            end = start;
+        }
+
+        long preRoll = Math.round(PRE_ROLL_SECONDS * sampleRate);
+        long tail = Math.round(TAIL_SECONDS * sampleRate);
+        long startFrame = Math.max(0, first - preRoll);
+        long endFrame = Math.min(frameCount, last + 1 + tail);
+        return new AudibleRange(startFrame / sampleRate, endFrame / sampleRate, frameCount / sampleRate);
+    }
+
+    private static int firstAbove(float[] buffer, int frames, int channels, float threshold) {
+        for (int f = 0, i = 0; f < frames; f++) {
+            for (int c = 0; c < channels; c++, i++) {
+                if (Math.abs(buffer[i]) > threshold) {
+                    return f;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static int lastAbove(float[] buffer, int frames, int channels, float threshold) {
+        for (int f = frames - 1; f >= 0; f--) {
+            for (int c = 0, i = f * channels; c < channels; c++, i++) {
+                if (Math.abs(buffer[i]) > threshold) {
+                    return f;
+                }
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,93 @@
+package com.winlabs.service.audio;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CancellationException;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Writes a {@link PcmSource} to a 16-bit PCM WAV file, the format every backend plays and
+ * {@link MappedPcmReader} maps without decoding.
+ *
+ * The source is read and written one block at a time, so a long file never has to fit in
+ * memory. Samples are clipped to full scale and rounded to the nearest 16-bit value.
+ */
+public final class WavWriter {
+
+    private static final int WRITE_FRAMES = 8192;
+    private static final int HEADER_BYTES = 44;
+    private static final long MAX_DATA_BYTES = 0xFFFFFFFFL - (HEADER_BYTES - 8); // RIFF sizes are 32-bit
+
+    private WavWriter() {
+        // Utility class
+    }
+
+    /**
+     * Writes audio from start to end, replacing the target file.
+     *
+     * @param source The audio to write
+     * @param target The WAV file to create
+     * @param cancelled Checked before every block; writing stops when it returns true
+     * @return The number of frames written
+     * @throws CancellationException if writing was cancelled; the partial file is left behind
+     * @throws IOException if the file cannot be written or the audio is too long for WAV
+     */
+    public static long write(PcmSource source, Path target, BooleanSupplier cancelled) throws IOException {
+        int channels = source.getChannels();
+        int frameSize = channels * 2;
+        if ((double) source.getFrameCount() * frameSize > MAX_DATA_BYTES) {
+            throw new IOException("Audio too long for a WAV file: " + source.getFrameCount() + " frames");
+        }
+
+        try (FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(header(channels, source.getSampleRate(), 0), 0);
+            float[] samples = new float[WRITE_FRAMES * channels];
+            ByteBuffer bytes = ByteBuffer.allocate(WRITE_FRAMES * frameSize).order(ByteOrder.LITTLE_ENDIAN);
+            long frame = 0;
+            long position = HEADER_BYTES;
+            int read;
+            while ((read = source.read(frame, samples, 0, WRITE_FRAMES)) > 0) {
+                if (cancelled.getAsBoolean()) {
+                    throw new CancellationException("Cancelled writing " + target.getFileName());
+                }
+                bytes.clear();
+                for (int i = 0, count = read * channels; i < count; i++) {
+                    bytes.putShort(toShort(samples[i]));
+                }
+                bytes.flip();
+                while (bytes.hasRemaining()) {
+                    position += channel.write(bytes, position);
+                }
+                frame += read;
+            }
+            channel.write(header(channels, source.getSampleRate(), frame * frameSize), 0);
+            return frame;
+        }
+    }
+
+    private static short toShort(float sample) {
+        float clipped = Math.max(-1f, Math.min(1f, sample));
+        return (short) Math.round(clipped * Short.MAX_VALUE);
+    }
+
+    private static ByteBuffer header(int channels, float sampleRate, long dataBytes) {
+        int rate = Math.round(sampleRate);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        header.put(new byte[] { 'R', 'I', 'F', 'F' }).putInt((int) (HEADER_BYTES - 8 + dataBytes));
+        header.put(new byte[] { 'W', 'A', 'V', 'E' });
+        header.put(new byte[] { 'f', 'm', 't', ' ' }).putInt(16);
+        header.putShort((short) 1); // PCM
+        header.putShort((short) channels);
+        header.putInt(rate);
+        header.putInt(rate * channels * 2);
+        header.putShort((short) (channels * 2));
+        header.putShort((short) 16);
+        header.put(new byte[] { 'd', 'a', 't', 'a' }).putInt((int) dataBytes);
+        return header.flip();
+    }
+}
@@ -0,0 +1,90 @@
+package com.winlabs.service.audio;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Computes {@link WaveformPeaks} from audio. The finest level is split into chunks that are
+ * analysed in parallel, each worker reading its own frames through {@link PcmSource#read},
+ * whose absolute reads make a shared source safe to scan from several threads at once.
+ * Coarser levels are then merged from the finest in one pass.
+ */
+public final class WaveformAnalyzer {
+
+    private static final Logger logger = LoggerFactory.getLogger(WaveformAnalyzer.class);
+
+    private static final int CHUNKS_PER_WORKER = 4; // Smaller chunks even out uneven workers
+
+    private WaveformAnalyzer() {
+        // Utility class
+    }
+
+    /**
+     * Analyses audio on the calling thread.
+     */
+    public static WaveformPeaks analyze(PcmSource source) {
+        return analyze(source, WaveformPeaks.DEFAULT_BASE_FRAMES_PER_BIN, Runnable::run, 1);
+    }
+
+    /**
+     * Analyses audio, spreading the work across worker threads.
+     *
+     * @param source The audio to analyse
+     * @param baseFramesPerBin Frames per bin at the finest level
+     * @param workers Executor the chunks run on
+     * @param parallelism How many workers the executor has
+     * @return The summary of the audio
+     */
+    public static WaveformPeaks analyze(PcmSource source, int baseFramesPerBin, Executor workers, int parallelism) {
+        long start = System.nanoTime();
+        long frameCount = source.getFrameCount();
+        int bins = (int) Math.max(1, (frameCount + baseFramesPerBin - 1) / baseFramesPerBin);
+        short[] base = new short[bins * 3];
+
+        int chunkCount = Math.min(bins, Math.max(1, parallelism) * CHUNKS_PER_WORKER);
+        int binsPerChunk = (bins + chunkCount - 1) / chunkCount;
+        List<CompletableFuture<Void>> chunks = new ArrayList<>();
+        for (int first = 0; first < bins; first += binsPerChunk) {
+            int from = first;
+            int to = Math.min(bins, first + binsPerChunk);
+            chunks.add(CompletableFuture.runAsync(() -> analyzeBins(source, baseFramesPerBin, from, to, base), workers));
+        }
+        CompletableFuture.allOf(chunks.toArray(CompletableFuture[]::new)).join();
+
+        WaveformPeaks peaks = WaveformPeaks.fromBase(base, baseFramesPerBin, source.getSampleRate(), frameCount);
+        if (logger.isDebugEnabled()) {
+            logger.debug("Analysed {} frames into {} levels on {} chunks in {} ms", frameCount,
+                peaks.getLevelCount(), chunks.size(), (System.nanoTime() - start) / 1_000_000);
+        }
+        return peaks;
+    }
+
+    /**
+     * Fills bins [from, to) of the finest level. Each chunk writes only its own bins.
+     */
+    private static void analyzeBins(PcmSource source, int framesPerBin, int from, int to, short[] base) {
+        int channels = source.getChannels();
+        float[] buffer = new float[framesPerBin * channels];
+        for (int bin = from; bin < to; bin++) {
+            int frames = source.read((long) bin * framesPerBin, buffer, 0, framesPerBin);
+            int samples = frames * channels;
+            float low = 0f;
+            float high = 0f;
+            double sumSquares = 0;
+            for (int i = 0; i < samples; i++) {
+                float sample = buffer[i];
+                low = Math.min(low, sample);
+                high = Math.max(high, sample);
+                sumSquares += sample * sample;
+            }
+            base[bin * 3] = WaveformPeaks.toFixed(low);
+            base[bin * 3 + 1] = WaveformPeaks.toFixed(high);
+            base[bin * 3 + 2] = WaveformPeaks.toFixed(samples > 0 ? Math.sqrt(sumSquares / samples) : 0);
+        }
+    }
+}
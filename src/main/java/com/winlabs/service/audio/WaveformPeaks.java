@@ -0,0 +1,284 @@
+package com.winlabs.service.audio;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Min/max/RMS summary of a file's audio at several resolutions, for drawing waveforms.
+ *
+ * Level 0 has one bin per {@link #getBaseFramesPerBin()} frames; each level above it merges
+ * pairs of bins from the level below, up to a single bin for the whole file. Drawing picks
+ * the coarsest level with at least one bin per pixel, so {@link #render} reads a handful of
+ * bins per pixel at any zoom and never touches the audio itself.
+ *
+ * Values are stored as 16-bit fixed point (three per bin) in one buffer, either on the heap
+ * (freshly analysed) or memory-mapped from a cache file written by {@link #write}. Instances
+ * are immutable and safe to share between threads.
+ */
+public final class WaveformPeaks {
+
+    public static final int DEFAULT_BASE_FRAMES_PER_BIN = 512;
+
+    private static final int MAGIC = 0x574C5746; // "WLWF"
+    private static final int FORMAT_VERSION = 1;
+    private static final int VALUES_PER_BIN = 3; // min, max, rms
+    private static final float SCALE = Short.MAX_VALUE;
+
+    private final ShortBuffer data;
+    private final int[] levelOffsets; // First bin of each level in data
+    private final int[] levelBins;
+    private final int baseFramesPerBin;
+    private final float sampleRate;
+    private final long frameCount;
+
+    private WaveformPeaks(ShortBuffer data, int[] levelBins, int baseFramesPerBin, float sampleRate, long frameCount) {
+        this.data = data;
+        this.levelBins = levelBins;
+        this.levelOffsets = new int[levelBins.length];
+        for (int level = 1; level < levelBins.length; level++) {
+            levelOffsets[level] = levelOffsets[level - 1] + levelBins[level - 1];
+        }
+        this.baseFramesPerBin = baseFramesPerBin;
+        this.sampleRate = sampleRate;
+        this.frameCount = frameCount;
+    }
+
+    /**
+     * Builds every level from the finest one.
+     *
+     * @param base Level 0 as min, max, rms triples in 16-bit fixed point; not copied
+     * @param baseFramesPerBin Frames summarised by each level 0 bin
+     * @param sampleRate Sample rate of the audio
+     * @param frameCount Length of the audio in frames
+     * @return The complete summary
+     */
+    static WaveformPeaks fromBase(short[] base, int baseFramesPerBin, float sampleRate, long frameCount) {
+        List<Integer> bins = new ArrayList<>();
+        int count = base.length / VALUES_PER_BIN;
+        int total = 0;
+        do {
+            bins.add(count);
+            total += count;
+            count = (count + 1) / 2;
+        } while (bins.get(bins.size() - 1) > 1);
+
+        short[] all = new short[total * VALUES_PER_BIN];
+        System.arraycopy(base, 0, all, 0, base.length);
+        int source = 0;
+        int target = base.length;
+        for (int level = 1; level < bins.size(); level++) {
+            int below = bins.get(level - 1);
+            for (int bin = 0; bin < bins.get(level); bin++) {
+                int a = source + 2 * bin * VALUES_PER_BIN;
+                boolean pair = 2 * bin + 1 < below;
+                int b = pair ? a + VALUES_PER_BIN : a;
+                all[target++] = (short) Math.min(all[a], all[b]);
+                all[target++] = (short) Math.max(all[a + 1], all[b + 1]);
+                double rmsA = all[a + 2];
+                double rmsB = all[b + 2];
+                all[target++] = (short) Math.round(Math.sqrt((rmsA * rmsA + rmsB * rmsB) / 2));
+            }
+            source += below * VALUES_PER_BIN;
+        }
+
+        int[] levelBins = bins.stream().mapToInt(Integer::intValue).toArray();
+        return new WaveformPeaks(ShortBuffer.wrap(all).asReadOnlyBuffer(), levelBins, baseFramesPerBin,
+            sampleRate, frameCount);
+    }
+
+    /**
+     * Converts a sample in the range -1.0 to 1.0 to the stored fixed point.
+     */
+    static short toFixed(double value) {
+        return (short) Math.round(Math.max(-1.0, Math.min(1.0, value)) * SCALE);
+    }
+
+    /**
+     * Writes the summary to a cache file.
+     *
+     * @param path The file to write
+     * @throws IOException if writing fails
+     */
+    public void write(Path path) throws IOException {
+        int headerBytes = headerBytes(levelBins.length);
+        ByteBuffer buffer = ByteBuffer.allocate(headerBytes + data.capacity() * Short.BYTES)
+            .order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(FORMAT_VERSION).putFloat(sampleRate).putLong(frameCount)
+            .putInt(baseFramesPerBin).putInt(levelBins.length);
+        for (int bins : levelBins) {
+            buffer.putInt(bins);
+        }
+        ShortBuffer values = data.duplicate();
+        values.clear();
+        buffer.asShortBuffer().put(values);
+        Files.write(path, buffer.array());
+    }
+
+    /**
+     * Memory-maps a cache file written by {@link #write}. Only the header is read; bins are
+     * paged in as they are drawn.
+     *
+     * @param path The cache file
+     * @return The summary stored in the file
+     * @throws IOException if the file cannot be read or is not a valid cache file
+     */
+    public static WaveformPeaks map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            mapped.order(ByteOrder.LITTLE_ENDIAN);
+            if (mapped.remaining() < headerBytes(0) || mapped.getInt() != MAGIC || mapped.getInt() != FORMAT_VERSION) {
+                throw new IOException("Not a waveform cache file: " + path.getFileName());
+            }
+            float sampleRate = mapped.getFloat();
+            long frameCount = mapped.getLong();
+            int baseFramesPerBin = mapped.getInt();
+            int levels = mapped.getInt();
+            if (levels < 1 || levels > 64 || mapped.remaining() < levels * Integer.BYTES) {
+                throw new IOException("Corrupt waveform cache file: " + path.getFileName());
+            }
+            int[] levelBins = new int[levels];
+            long totalBins = 0;
+            for (int level = 0; level < levels; level++) {
+                levelBins[level] = mapped.getInt();
+                totalBins += levelBins[level];
+            }
+            if (mapped.remaining() != totalBins * VALUES_PER_BIN * Short.BYTES) {
+                throw new IOException("Truncated waveform cache file: " + path.getFileName());
+            }
+            return new WaveformPeaks(mapped.slice().order(ByteOrder.LITTLE_ENDIAN).asShortBuffer(), levelBins,
+                baseFramesPerBin, sampleRate, frameCount);
+        }
+    }
+
+    private static int headerBytes(int levels) {
+        return 4 + 4 + 4 + 8 + 4 + 4 + levels * Integer.BYTES;
+    }
+
+    public float getSampleRate() {
+        return sampleRate;
+    }
+
+    public long getFrameCount() {
+        return frameCount;
+    }
+
+    /**
+     * Gets the duration in seconds.
+     */
+    public double getDuration() {
+        return frameCount / (double) sampleRate;
+    }
+
+    public int getBaseFramesPerBin() {
+        return baseFramesPerBin;
+    }
+
+    public int getLevelCount() {
+        return levelBins.length;
+    }
+
+    public int getBinCount(int level) {
+        return levelBins[level];
+    }
+
+    /**
+     * Gets the number of frames each bin of a level summarises.
+     */
+    public long getFramesPerBin(int level) {
+        return (long) baseFramesPerBin << level;
+    }
+
+    public float getMin(int level, int bin) {
+        return value(level, bin, 0);
+    }
+
+    public float getMax(int level, int bin) {
+        return value(level, bin, 1);
+    }
+
+    public float getRms(int level, int bin) {
+        return value(level, bin, 2);
+    }
+
+    private float value(int level, int bin, int which) {
+        return data.get((levelOffsets[level] + bin) * VALUES_PER_BIN + which) / SCALE;
+    }
+
+    /**
+     * Chooses the coarsest level whose bins are no wider than a pixel.
+     *
+     * @param framesPerPixel Frames that one pixel covers
+     * @return The level to draw from
+     */
+    public int levelFor(double framesPerPixel) {
+        int level = 0;
+        while (level + 1 < levelBins.length && getFramesPerBin(level + 1) <= framesPerPixel) {
+            level++;
+        }
+        return level;
+    }
+
+    /**
+     * Summarises a time range into one min/max/RMS column per pixel. Pixels past the end of
+     * the audio are set to 0.
+     *
+     * @param startSeconds Time at the left edge
+     * @param endSeconds Time at the right edge
+     * @param pixels Number of columns to fill
+     * @param min Receives each column's minimum
+     * @param max Receives each column's maximum
+     * @param rms Receives each column's RMS level
+     */
+    public void render(double startSeconds, double endSeconds, int pixels, float[] min, float[] max, float[] rms) {
+        if (pixels <= 0) {
+            return;
+        }
+        double framesPerPixel = Math.max(1e-9, (endSeconds - startSeconds) * sampleRate / pixels);
+        int level = levelFor(framesPerPixel);
+        long framesPerBin = getFramesPerBin(level);
+        int bins = levelBins[level];
+        double startFrame = startSeconds * sampleRate;
+
+        for (int pixel = 0; pixel < pixels; pixel++) {
+            double from = startFrame + pixel * framesPerPixel;
+            double to = from + framesPerPixel;
+            // Each bin belongs to the pixel its first frame falls in, so none is counted twice;
+            // zoomed in past level 0, a pixel shows the bin it lies inside
+            int firstBin = (int) Math.ceil(from / framesPerBin);
+            int lastBin = (int) Math.ceil(to / framesPerBin) - 1;
+            if (firstBin > lastBin) {
+                firstBin = (int) Math.floor(from / framesPerBin);
+                lastBin = firstBin;
+            }
+            firstBin = Math.max(0, firstBin);
+            lastBin = Math.min(bins - 1, lastBin);
+            if (from >= frameCount || to <= 0 || firstBin > lastBin) {
+                min[pixel] = 0f;
+                max[pixel] = 0f;
+                rms[pixel] = 0f;
+                continue;
+            }
+            float low = Float.MAX_VALUE;
+            float high = -Float.MAX_VALUE;
+            double sumSquares = 0;
+            for (int bin = firstBin; bin <= lastBin; bin++) {
+                low = Math.min(low, getMin(level, bin));
+                high = Math.max(high, getMax(level, bin));
+                float binRms = getRms(level, bin);
+                sumSquares += binRms * binRms;
+            }
+            min[pixel] = low;
+            max[pixel] = high;
+            rms[pixel] = (float) Math.sqrt(sumSquares / (lastBin - firstBin + 1));
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.winlabs.service.eviction;
+
+/**
+ * A player chosen by an {@link EvictionPolicy}, with the reason it was chosen.
+ */
+public class Eviction {
+
+    private final EvictionCandidate candidate;
+    private final String reason;
+
+    public Eviction(EvictionCandidate candidate, String reason) {
+        this.candidate = candidate;
+        this.reason = reason;
+    }
+
+    public EvictionCandidate getCandidate() {
+        return candidate;
+    }
+
+    /**
+     * Gets why the policy chose this player, for example "idle 42s, limit 30s".
+     */
+    public String getReason() {
+        return reason;
+    }
+
+    @Override
+    public String toString() {
+        return candidate + ": " + reason;
+    }
+}
@@ -0,0 +1,64 @@
+package com.winlabs.service.eviction;
+
+/**
+ * An idle player the pool could free, as seen by an {@link EvictionPolicy}.
+ */
+public class EvictionCandidate {
+
+    /**
+     * What would be freed.
+     */
+    public enum Kind {
+        STANDBY_VOICE("standby voice"), // A loaded voice kept for its file
+        IDLE_TRACK("idle track");       // A pooled track above the pool's target size
+
+        private final String label;
+
+        Kind(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    private final Kind kind;
+    private final String key;
+    private final long idleMillis;
+    private final boolean upcoming;
+
+    /**
+     * @param kind What would be freed
+     * @param key The file path of a standby voice, or the track ID of an idle track
+     * @param idleMillis How long it has been unused
+     * @param upcoming Whether one of the next cues plays this file
+     */
+    public EvictionCandidate(Kind kind, String key, long idleMillis, boolean upcoming) {
+        this.kind = kind;
+        this.key = key;
+        this.idleMillis = idleMillis;
+        this.upcoming = upcoming;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public long getIdleMillis() {
+        return idleMillis;
+    }
+
+    public boolean isUpcoming() {
+        return upcoming;
+    }
+
+    @Override
+    public String toString() {
+        return kind.getLabel() + " " + key;
+    }
+}
@@ -0,0 +1,43 @@
+package com.winlabs.service.eviction;
+
+import java.util.List;
+
+import com.winlabs.model.EvictionPolicyType;
+import com.winlabs.model.PlaylistSettings;
+
+/**
+ * Decides which idle players the {@link com.winlabs.service.AudioPlayerPool} frees on each
+ * periodic check. The pool asks separately for its standby voices and for its idle tracks
+ * above the target size, and frees exactly the candidates returned.
+ *
+ * Policies are called from the pool's culler thread and must not keep state between calls
+ * that other threads change.
+ */
+public interface EvictionPolicy {
+
+    /**
+     * Chooses the candidates to free.
+     *
+     * @param candidates Idle players of one kind, least recently used first
+     * @return The players to free, each with the reason it was chosen
+     */
+    List<Eviction> select(List<EvictionCandidate> candidates);
+
+    /**
+     * Gets the policy type, for logging and settings.
+     */
+    EvictionPolicyType getType();
+
+    /**
+     * Creates the policy selected in a playlist's settings.
+     */
+    static EvictionPolicy create(PlaylistSettings settings) {
+        long idleMillis = settings.getEvictionIdleSeconds() * 1000L;
+        return switch (settings.getEvictionPolicy()) {
+            case LEAST_RECENTLY_USED -> new LeastRecentlyUsedPolicy(settings.getEvictionKeepCount());
+            case MEMORY_PRESSURE -> new MemoryPressurePolicy(settings.getEvictionMemoryPercent() / 100.0);
+            case PROTECT_UPCOMING -> new ProtectUpcomingPolicy(idleMillis);
+            default -> new IdleTimePolicy(idleMillis);
+        };
+    }
+}
@@ -0,0 +1,45 @@
+package com.winlabs.service.eviction;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.winlabs.model.EvictionPolicyType;
+
+/**
+ * Frees every player that has been unused for longer than a timeout.
+ */
+public class IdleTimePolicy implements EvictionPolicy {
+
+    private final long timeoutMillis;
+
+    /**
+     * @param timeoutMillis How long a player may stay unused
+     */
+    public IdleTimePolicy(long timeoutMillis) {
+        this.timeoutMillis = Math.max(0, timeoutMillis);
+    }
+
+    public long getTimeoutMillis() {
+        return timeoutMillis;
+    }
+
+    @Override
+    public List<Eviction> select(List<EvictionCandidate> candidates) {
+        List<Eviction> evictions = new ArrayList<>();
+        for (EvictionCandidate candidate : candidates) {
+            if (candidate.getIdleMillis() > timeoutMillis) {
+                evictions.add(new Eviction(candidate, idleReason(candidate)));
+            }
+        }
+        return evictions;
+    }
+
+    String idleReason(EvictionCandidate candidate) {
+        return String.format("idle %ds, limit %ds", candidate.getIdleMillis() / 1000, timeoutMillis / 1000);
+    }
+
+    @Override
+    public EvictionPolicyType getType() {
+        return EvictionPolicyType.IDLE_TIME;
+    }
+}
@@ -0,0 +1,38 @@
+package com.winlabs.service.eviction;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.winlabs.model.EvictionPolicyType;
+
+/**
+ * Keeps a fixed number of the most recently used players and frees the rest,
+ * however recently they were used.
+ */
+public class LeastRecentlyUsedPolicy implements EvictionPolicy {
+
+    private final int keepCount;
+
+    /**
+     * @param keepCount Number of players of each kind to keep
+     */
+    public LeastRecentlyUsedPolicy(int keepCount) {
+        this.keepCount = Math.max(0, keepCount);
+    }
+
+    @Override
+    public List<Eviction> select(List<EvictionCandidate> candidates) {
+        List<Eviction> evictions = new ArrayList<>();
+        int excess = candidates.size() - keepCount;
+        for (int i = 0; i < excess; i++) {
+            String reason = String.format("least recently used, %d over the %d kept", excess - i, keepCount);
+            evictions.add(new Eviction(candidates.get(i), reason));
+        }
+        return evictions;
+    }
+
+    @Override
+    public EvictionPolicyType getType() {
+        return EvictionPolicyType.LEAST_RECENTLY_USED;
+    }
+}
@@ -0,0 +1,66 @@
+package com.winlabs.service.eviction;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryUsage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.DoubleSupplier;
+
+import com.winlabs.model.EvictionPolicyType;
+
+/**
+ * Keeps every player while memory allows. Once heap use reaches a threshold, frees the
+ * least recently used half of the players on each check (at least one) until it drops
+ * below it again.
+ *
+ * Heap use is read from the {@link MemoryMXBean} as used over maximum heap (or over
+ * committed heap if the JVM has no maximum).
+ */
+public class MemoryPressurePolicy implements EvictionPolicy {
+
+    private final double threshold;
+    private final DoubleSupplier heapUsage;
+
+    /**
+     * @param threshold Fraction of the heap in use (0.0 to 1.0) at which players are freed
+     */
+    public MemoryPressurePolicy(double threshold) {
+        this(threshold, MemoryPressurePolicy::readHeapUsage);
+    }
+
+    /**
+     * Creates a policy with a custom heap reading, for tests.
+     */
+    MemoryPressurePolicy(double threshold, DoubleSupplier heapUsage) {
+        this.threshold = Math.max(0.0, Math.min(1.0, threshold));
+        this.heapUsage = heapUsage;
+    }
+
+    @Override
+    public List<Eviction> select(List<EvictionCandidate> candidates) {
+        List<Eviction> evictions = new ArrayList<>();
+        double usage = heapUsage.getAsDouble();
+        if (usage < threshold || candidates.isEmpty()) {
+            return evictions;
+        }
+
+        String reason = String.format("heap %.0f%% used, threshold %.0f%%", usage * 100, threshold * 100);
+        int count = Math.max(1, candidates.size() / 2);
+        for (int i = 0; i < count; i++) {
+            evictions.add(new Eviction(candidates.get(i), reason));
+        }
+        return evictions;
+    }
+
+    @Override
+    public EvictionPolicyType getType() {
+        return EvictionPolicyType.MEMORY_PRESSURE;
+    }
+
+    private static double readHeapUsage() {
+        MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        long limit = heap.getMax() > 0 ? heap.getMax() : heap.getCommitted();
+        return limit > 0 ? (double) heap.getUsed() / limit : 0.0;
+    }
+}
@@ -0,0 +1,33 @@
+package com.winlabs.service.eviction;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.winlabs.model.EvictionPolicyType;
+
+/**
+ * Frees players unused for longer than a timeout, except those for the files of the next
+ * cues from the playlist cursor, however long they have waited.
+ */
+public class ProtectUpcomingPolicy extends IdleTimePolicy {
+
+    public ProtectUpcomingPolicy(long timeoutMillis) {
+        super(timeoutMillis);
+    }
+
+    @Override
+    public List<Eviction> select(List<EvictionCandidate> candidates) {
+        List<Eviction> evictions = new ArrayList<>();
+        for (EvictionCandidate candidate : candidates) {
+            if (!candidate.isUpcoming() && candidate.getIdleMillis() > getTimeoutMillis()) {
+                evictions.add(new Eviction(candidate, idleReason(candidate) + ", not upcoming"));
+            }
+        }
+        return evictions;
+    }
+
+    @Override
+    public EvictionPolicyType getType() {
+        return EvictionPolicyType.PROTECT_UPCOMING;
+    }
+}
@@ -3,7 +3,11 @@ package com.winlabs.util;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 
 /**
  * Utility class for path manipulation and file type detection.
@@ -103,4 +107,16 @@ public class PathUtil {
     public static String[] getSupportedExtensions() {
         return AUDIO_EXTENSIONS.clone();
     }
+    
+    /**
+     * Moves a finished temporary file over its target, atomically where the file system
+     * allows it, so readers see either the old file or the new one and never a partial write.
+     */
+    public static void replaceAtomically(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
 }
@@ -0,0 +1,77 @@
+package com.winlabs.view;
+
+import java.util.Collection;
+import java.util.function.BiConsumer;
+import java.util.function.DoubleConsumer;
+
+import com.winlabs.model.PlaylistSettings;
+
+import javafx.geometry.Insets;
+import javafx.scene.Scene;
+import javafx.scene.control.Label;
+import javafx.scene.control.ScrollPane;
+import javafx.scene.control.Separator;
+import javafx.scene.control.Slider;
+import javafx.scene.layout.GridPane;
+import javafx.stage.Stage;
+import javafx.stage.Window;
+
+/**
+ * Faders for the playlist's master bus and each cue group's bus. Moves are applied as they
+ * happen and kept in the playlist settings, which are saved with the playlist.
+ */
+public class GroupLevelsWindow extends Stage {
+
+    private final GridPane grid;
+    private int rows;
+
+    /**
+     * @param groups Names of the groups the playlist's cues use
+     * @param onMasterLevel Called with the new master level as the master fader moves
+     * @param onGroupLevel Called with a group and its new level as a group fader moves
+     */
+    public GroupLevelsWindow(Window owner, PlaylistSettings playlistSettings, Collection<String> groups,
+                             DoubleConsumer onMasterLevel, BiConsumer<String, Double> onGroupLevel) {
+        initOwner(owner);
+        setTitle("Group Levels");
+
+        grid = new GridPane();
+        grid.setHgap(10);
+        grid.setVgap(8);
+        grid.setPadding(new Insets(12));
+
+        addFader("Master", playlistSettings.getMasterVolume(), level -> {
+            playlistSettings.setMasterVolume(level);
+            onMasterLevel.accept(level);
+        });
+        grid.add(new Separator(), 0, rows++, 3, 1);
+        if (groups.isEmpty()) {
+            grid.add(new Label("No cue has a group yet. Set one in the Group column."), 0, rows++, 3, 1);
+        }
+        for (String group : groups) {
+            addFader(group, playlistSettings.getGroupLevel(group), level -> {
+                playlistSettings.setGroupLevel(group, level);
+                onGroupLevel.accept(group, level);
+            });
+        }
+
+        setScene(new Scene(new ScrollPane(grid), 420, Math.min(500, 80 + rows * 36)));
+        if (owner != null && owner.getScene() != null) {
+            getScene().getStylesheets().setAll(owner.getScene().getStylesheets());
+        }
+    }
+
+    private void addFader(String name, double level, DoubleConsumer onChange) {
+        Slider slider = new Slider(0.0, 1.0, level);
+        slider.setPrefWidth(240);
+        Label valueLabel = new Label(String.format("%.0f%%", level * 100));
+        slider.valueProperty().addListener((observable, oldValue, newValue) -> {
+            valueLabel.setText(String.format("%.0f%%", newValue.doubleValue() * 100));
+            onChange.accept(newValue.doubleValue());
+        });
+        grid.add(new Label(name), 0, rows);
+        grid.add(slider, 1, rows);
+        grid.add(valueLabel, 2, rows);
+        rows++;
+    }
+}
@@ -0,0 +1,97 @@
+package com.winlabs.view;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.winlabs.model.Cue;
+
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.Spinner;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.HBox;
+import javafx.stage.Stage;
+import javafx.stage.Window;
+
+/**
+ * Window editing one cue's loop: the points in its file where the loop starts and ends, and
+ * how many times it plays before carrying on to the end of the cue.
+ */
+public class LoopWindow extends Stage {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoopWindow.class);
+
+    private final Cue cue;
+    private final Runnable onApply;
+    private final Spinner<Double> startSpinner;
+    private final Spinner<Double> endSpinner;
+    private final Spinner<Integer> countSpinner;
+
+    /**
+     * @param onApply Called once the cue's loop has been changed
+     */
+    public LoopWindow(Window owner, Cue cue, Runnable onApply) {
+        this.cue = cue;
+        this.onApply = onApply;
+        initOwner(owner);
+        setTitle("Loop - Cue " + cue.getNumber() + ": " + cue.getName());
+
+        double length = Math.max(cue.getDuration(), cue.getLoopEnd());
+        startSpinner = new Spinner<>(0.0, length, cue.getLoopStart(), 0.001);
+        endSpinner = new Spinner<>(0.0, length, cue.getLoopEnd(), 0.001);
+        countSpinner = new Spinner<>(0, 999, cue.getLoopCount());
+        for (Spinner<?> spinner : new Spinner<?>[] { startSpinner, endSpinner, countSpinner }) {
+            spinner.setEditable(true);
+            spinner.setPrefWidth(120);
+        }
+
+        GridPane grid = new GridPane();
+        grid.setHgap(10);
+        grid.setVgap(8);
+        grid.setPadding(new Insets(12));
+        grid.addRow(0, new Label("Loop start (s)"), startSpinner);
+        grid.addRow(1, new Label("Loop end (s)"), endSpinner);
+        grid.addRow(2, new Label("Times played"), countSpinner, new Label("0 loops until devamped"));
+
+        Button clearButton = new Button("No Loop");
+        clearButton.setOnAction(e -> {
+            startSpinner.getValueFactory().setValue(0.0);
+            endSpinner.getValueFactory().setValue(0.0);
+        });
+        Button applyButton = new Button("Apply");
+        applyButton.setOnAction(e -> apply());
+        Button cancelButton = new Button("Cancel");
+        cancelButton.setOnAction(e -> close());
+
+        HBox footer = new HBox(10, clearButton, applyButton, cancelButton);
+        footer.setAlignment(Pos.CENTER_RIGHT);
+        footer.setPadding(new Insets(8));
+        BorderPane root = new BorderPane(grid);
+        root.setBottom(footer);
+        setScene(new Scene(root, 420, 190));
+        if (owner != null && owner.getScene() != null) {
+            getScene().getStylesheets().setAll(owner.getScene().getStylesheets());
+        }
+    }
+
+    private void apply() {
+        Double start = startSpinner.getValue();
+        Double end = endSpinner.getValue();
+        Integer count = countSpinner.getValue();
+        cue.setLoopStart(start != null ? start : 0.0);
+        cue.setLoopEnd(end != null ? end : 0.0);
+        cue.setLoopCount(count != null ? count : 0);
+        if (cue.isLoop()) {
+            logger.info("Cue {} loops {} to {}s, {}", cue.getNumber(), cue.getLoopStart(), cue.getLoopEnd(),
+                cue.getLoopCount() > 0 ? cue.getLoopCount() + " time(s)" : "until devamped");
+        } else {
+            logger.info("Cue {} does not loop", cue.getNumber());
+        }
+        onApply.run();
+        close();
+    }
+}
@@ -8,24 +8,43 @@ import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
+import java.util.TreeSet;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.winlabs.controller.AudioController;
 import com.winlabs.model.Cue;
+import com.winlabs.model.FadeCurve;
 import com.winlabs.model.PlaybackState;
 import com.winlabs.model.Playlist;
 import com.winlabs.model.PlaylistSettings;
+import com.winlabs.model.PreloadState;
 import com.winlabs.model.RecentPlaylist;
 import com.winlabs.model.Settings;
+import com.winlabs.service.GoLatencyMonitor;
+import com.winlabs.service.LatencyHistogram;
+import com.winlabs.service.LoudnessService;
+import com.winlabs.service.MediaProbeService;
+import com.winlabs.service.SilenceScanService;
+import com.winlabs.service.RenderCacheService;
+import com.winlabs.service.RenderJob;
 import com.winlabs.service.PlaylistService;
 import com.winlabs.service.PlaylistSettingsService;
+import com.winlabs.service.ProgressScheduler;
+import com.winlabs.service.ProgressSnapshot;
 import com.winlabs.service.SettingsService;
+import com.winlabs.service.WaveformService;
+import com.winlabs.service.audio.PcmCache;
+import com.winlabs.service.eviction.EvictionPolicy;
 import com.winlabs.util.PathUtil;
 import com.winlabs.util.TimeUtil;
 import com.winlabs.view.components.FileView;
+import com.winlabs.view.components.MeterBridge;
+import com.winlabs.view.components.WaveformView;
 
+import javafx.application.Platform;
+import javafx.collections.ListChangeListener;
 import javafx.geometry.Insets;
 import javafx.geometry.Orientation;
 import javafx.geometry.Pos;
@@ -33,6 +52,7 @@ import javafx.scene.Scene;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
 import javafx.scene.control.ButtonType;
+import javafx.scene.control.CheckBox;
 import javafx.scene.control.Dialog;
 import javafx.scene.control.Label;
 import javafx.scene.control.Menu;
@@ -40,10 +60,12 @@ import javafx.scene.control.MenuBar;
 import javafx.scene.control.MenuItem;
 import javafx.scene.control.Separator;
 import javafx.scene.control.SeparatorMenuItem;
+import javafx.scene.control.Spinner;
 import javafx.scene.control.SplitPane;
 import javafx.scene.control.TableCell;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
+import javafx.scene.control.TextField;
 import javafx.scene.control.ToolBar;
 import javafx.scene.control.Tooltip;
 import javafx.scene.control.cell.PropertyValueFactory;
@@ -73,6 +95,7 @@ import javafx.stage.Stage;
 public class MainWindow extends Stage {
     
     private static final Logger logger = LoggerFactory.getLogger(MainWindow.class);
+    private static final double DEFAULT_FADE_OUT_SECONDS = 3.0;
     
     private Playlist playlist;
     private PlaylistSettings playlistSettings;
@@ -83,10 +106,22 @@ public class MainWindow extends Stage {
     private Button goButton;
     private Button pauseButton;
     private Button stopButton;
+    private Button devampButton;
     private Label statusLabel;
     private Label cueCountLabel;
+    private Label latencyLabel;
+    private Label playingLabel;
+    private MeterBridge meterBridge;
     
     private AudioController audioController;
+    private MediaProbeService mediaProbeService;
+    private WaveformService waveformService;
+    private LoudnessService loudnessService;
+    private SilenceScanService silenceScanService;
+    private double scannedSilenceThreshold; // Threshold the cues were last trimmed with
+    private RenderCacheService renderCacheService;
+    private RenderJob renderJob; // Running "prepare show", if any
+    private MenuItem prepareShowItem;
     private PlaylistService playlistService;
     private PlaylistSettingsService playlistSettingsService;
     private SettingsService settingsService;
@@ -95,6 +130,7 @@ public class MainWindow extends Stage {
     private VBox fileViewContainer;
     private SplitPane splitPane;
     private boolean isFileViewVisible = false;
+    private boolean audioDisposed = false;
 
     private Runnable showDocumentationCallback;
     private Runnable showAboutDialogCallback;
@@ -106,7 +142,6 @@ public class MainWindow extends Stage {
         this.playlist = new Playlist();
         this.playlistSettings = new PlaylistSettings();
         this.currentPlaylistPath = null;
-        this.audioController = new AudioController();
         this.playlistService = new PlaylistService();
         this.playlistSettingsService = new PlaylistSettingsService();
         this.settingsService = new SettingsService();
@@ -120,17 +155,23 @@ public class MainWindow extends Stage {
             this.settings = new Settings();
         }
         
+        this.audioController = new AudioController(settings.getPlaybackBackend());
+        this.audioController.setPlaylist(playlist);
+        this.mediaProbeService = new MediaProbeService();
+        this.waveformService = new WaveformService();
+        this.loudnessService = new LoudnessService();
+        this.silenceScanService = new SilenceScanService();
+        this.scannedSilenceThreshold = playlistSettings.getSilenceThreshold();
+        this.renderCacheService = new RenderCacheService();
+        this.audioController.setSourceResolver(renderCacheService::resolve);
+        
         setupAudioControllerListeners();
         
         // Apply settings to audio controller
-        if (audioController.getAudioService() != null && 
-            audioController.getAudioService().getPlayerPool() != null) {
-            audioController.getAudioService().getPlayerPool()
-                .setVolumeAll(settings.getMasterVolume());
-            logger.debug("Applied master volume: {}", settings.getMasterVolume());
-        }
+        applyMasterLevel();
         
         initializeUI();
+        setOnCloseRequest(e -> disposeAudio());
         logger.info("MainWindow initialized successfully");
     }
     
@@ -141,6 +182,15 @@ public class MainWindow extends Stage {
         audioController.setStatusUpdateListener(this::updateStatus);
         audioController.setStateChangeListener(this::handleStateChange);
         audioController.setOnCueCompleteListener(this::playNextCue);
+        
+        GoLatencyMonitor latencyMonitor = audioController.getLatencyMonitor();
+        latencyMonitor.setWarningThresholdMillis(settings.getGoLatencyWarningMs());
+        latencyMonitor.setOnGoMeasured(latencyNanos -> Platform.runLater(this::updateLatencyDisplay));
+        latencyMonitor.setOnSlowGo(latencyNanos -> Platform.runLater(() -> warnSlowGo(latencyNanos)));
+        
+        ProgressScheduler progressScheduler = audioController.getProgressScheduler();
+        progressScheduler.setRate(settings.getProgressRateHz());
+        progressScheduler.subscribe(this::updatePlayingDisplay);
     }
     
     private void initializeUI() {
@@ -243,7 +293,10 @@ public class MainWindow extends Stage {
         backToWelcomeItem.setOnAction(e -> showWelcomeScreen());
         
         MenuItem exitItem = new MenuItem("Exit");
-        exitItem.setOnAction(e -> close());
+        exitItem.setOnAction(e -> {
+            disposeAudio();
+            close();
+        });
         
         fileMenu.getItems().addAll(
             newItem, new SeparatorMenuItem(),
@@ -258,12 +311,29 @@ public class MainWindow extends Stage {
         // editMenu.setDisable(true); // Disable until functional
         MenuItem addCueItem = new MenuItem("Add Cue");
         addCueItem.setOnAction(e -> addNewCue());
+        MenuItem addFadeCueItem = new MenuItem("Add Fade Out Cue");
+        addFadeCueItem.setOnAction(e -> addFadeOutCue());
         MenuItem deleteCueItem = new MenuItem("Delete Cue");
         deleteCueItem.setOnAction(e -> deleteSelectedCue());
+        MenuItem waveformItem = new MenuItem("Show Waveform");
+        waveformItem.setOnAction(e -> showSelectedWaveform());
+        MenuItem routingItem = new MenuItem("Edit Routing...");
+        routingItem.setOnAction(e -> editSelectedRouting());
+        MenuItem loopItem = new MenuItem("Edit Loop...");
+        loopItem.setOnAction(e -> editSelectedLoop());
+        MenuItem groupLevelsItem = new MenuItem("Group Levels...");
+        groupLevelsItem.setOnAction(e -> openGroupLevels());
+        MenuItem normalizeItem = new MenuItem("Normalize Loudness");
+        normalizeItem.setOnAction(e -> normalizeLoudness());
+        MenuItem clearNormalizationItem = new MenuItem("Clear Normalization");
+        clearNormalizationItem.setOnAction(e -> clearNormalization());
+        prepareShowItem = new MenuItem("Prepare Show");
+        prepareShowItem.setOnAction(e -> togglePrepareShow());
         MenuItem settingsItem = new MenuItem("Settings");
         settingsItem.setOnAction(e -> openSettings());
         
-        editMenu.getItems().addAll(addCueItem, deleteCueItem, new SeparatorMenuItem(), settingsItem);
+        editMenu.getItems().addAll(addCueItem, addFadeCueItem, deleteCueItem, waveformItem, routingItem, loopItem, groupLevelsItem, new SeparatorMenuItem(),
+            normalizeItem, clearNormalizationItem, prepareShowItem, new SeparatorMenuItem(), settingsItem);
         
         // Help menu
         Menu helpMenu = new Menu("Help");
@@ -322,6 +392,24 @@ public class MainWindow extends Stage {
         cueTable = new TableView<>();
         cueTable.setItems(playlist.getCues());
         
+        // Preparation status column (READY/LOADING)
+        TableColumn<Cue, PreloadState> preloadCol = new TableColumn<>("Status");
+        preloadCol.setCellValueFactory(new PropertyValueFactory<>("preloadState"));
+        preloadCol.setPrefWidth(70);
+        preloadCol.setCellFactory(col -> new TableCell<Cue, PreloadState>() {
+            @Override
+            protected void updateItem(PreloadState item, boolean empty) {
+                super.updateItem(item, empty);
+                getStyleClass().removeAll("cue-preload-ready", "cue-preload-loading", "cue-preload-failed");
+                if (empty || item == null || item == PreloadState.NONE) {
+                    setText(null);
+                } else {
+                    setText(item.name());
+                    getStyleClass().add("cue-preload-" + item.name().toLowerCase());
+                }
+            }
+        });
+        
         // Number column
         TableColumn<Cue, Integer> numberCol = new TableColumn<>("No.");
         numberCol.setCellValueFactory(new PropertyValueFactory<>("number"));
@@ -381,7 +469,7 @@ public class MainWindow extends Stage {
             }
         });
         
-        // Auto-follow column
+        // Auto-follow column, with the crossfade into the next cue if there is one
         TableColumn<Cue, Boolean> autoFollowCol = new TableColumn<>("Auto-Follow");
         autoFollowCol.setCellValueFactory(new PropertyValueFactory<>("autoFollow"));
         autoFollowCol.setPrefWidth(90);
@@ -389,24 +477,247 @@ public class MainWindow extends Stage {
             @Override
             protected void updateItem(Boolean item, boolean empty) {
                 super.updateItem(item, empty);
+                Cue cue = getTableRow() != null ? getTableRow().getItem() : null;
                 if (empty || item == null) {
                     setText(null);
+                } else if (item && cue != null && cue.getCrossfadeTime() > 0) {
+                    setText(String.format("Yes, X %.1fs", cue.getCrossfadeTime()));
                 } else {
                     setText(item ? "Yes" : "No");
                 }
             }
         });
         
+        // Keep-resident column (decoded audio stays in memory with the PCM mixer)
+        TableColumn<Cue, Boolean> residentCol = new TableColumn<>("Resident");
+        residentCol.setCellValueFactory(new PropertyValueFactory<>("keepResident"));
+        residentCol.setPrefWidth(70);
+        residentCol.setCellFactory(col -> new TableCell<Cue, Boolean>() {
+            private final CheckBox checkBox = new CheckBox();
+            {
+                checkBox.setOnAction(e -> {
+                    Cue cue = getTableRow().getItem();
+                    if (cue != null) {
+                        audioController.setKeepResident(cue, checkBox.isSelected());
+                    }
+                });
+            }
+            
+            @Override
+            protected void updateItem(Boolean item, boolean empty) {
+                super.updateItem(item, empty);
+                if (empty || item == null) {
+                    setGraphic(null);
+                } else {
+                    checkBox.setSelected(item);
+                    setGraphic(checkBox);
+                }
+            }
+        });
+        
+        // Priority column (a full pool steals the tracks of lower-priority cues first)
+        TableColumn<Cue, Integer> priorityCol = new TableColumn<>("Priority");
+        priorityCol.setCellValueFactory(new PropertyValueFactory<>("priority"));
+        priorityCol.setPrefWidth(75);
+        priorityCol.setCellFactory(col -> new TableCell<Cue, Integer>() {
+            private final Spinner<Integer> spinner = new Spinner<>(-9, 9, 0);
+            {
+                spinner.setPrefWidth(65);
+                spinner.valueProperty().addListener((observable, oldValue, newValue) -> {
+                    Cue cue = getTableRow() != null ? getTableRow().getItem() : null;
+                    if (cue != null && newValue != null) {
+                        cue.setPriority(newValue);
+                    }
+                });
+            }
+            
+            @Override
+            protected void updateItem(Integer item, boolean empty) {
+                super.updateItem(item, empty);
+                if (empty || item == null) {
+                    setGraphic(null);
+                } else {
+                    spinner.getValueFactory().setValue(item);
+                    setGraphic(spinner);
+                }
+            }
+        });
+        
+        // Fade column: a fade cue's target and length, or an audio cue's fade-out on STOP
+        TableColumn<Cue, Double> fadeCol = new TableColumn<>("Fade");
+        fadeCol.setCellValueFactory(new PropertyValueFactory<>("fadeTime"));
+        fadeCol.setPrefWidth(110);
+        fadeCol.setCellFactory(col -> new TableCell<Cue, Double>() {
+            @Override
+            protected void updateItem(Double item, boolean empty) {
+                super.updateItem(item, empty);
+                Cue cue = getTableRow() != null ? getTableRow().getItem() : null;
+                if (empty || item == null || cue == null) {
+                    setText(null);
+                } else if (cue.isFadeCue()) {
+                    setText(String.format("Cue %d \u2192 %.0f%% %.1fs", cue.getFadeTarget(), cue.getFadeLevel() * 100, item));
+                } else if (item > 0) {
+                    setText(String.format("Out %.1fs", item));
+                } else {
+                    setText(null);
+                }
+            }
+        });
+        
+        // Gain column: the cue's loudness normalization, with the measurement as a tooltip
+        TableColumn<Cue, Number> gainCol = new TableColumn<>("Gain");
+        gainCol.setCellValueFactory(cellData -> cellData.getValue().normalizationGainProperty());
+        gainCol.setPrefWidth(70);
+        gainCol.setCellFactory(col -> new TableCell<Cue, Number>() {
+            @Override
+            protected void updateItem(Number item, boolean empty) {
+                super.updateItem(item, empty);
+                Cue cue = getTableRow() != null ? getTableRow().getItem() : null;
+                if (empty || item == null || cue == null || cue.isFadeCue() || item.doubleValue() == 0) {
+                    setText(null);
+                    setTooltip(null);
+                } else {
+                    setText(String.format("%+.1f dB", item.doubleValue()));
+                    setTooltip(cue.getLoudness() != null ? new Tooltip(cue.getLoudness().toString()) : null);
+                }
+            }
+        });
+        
+        // Trim column: whether the cue skips its file's leading and trailing silence, and how much
+        TableColumn<Cue, Boolean> trimCol = new TableColumn<>("Trim");
+        trimCol.setCellValueFactory(new PropertyValueFactory<>("autoTrim"));
+        trimCol.setPrefWidth(100);
+        trimCol.setCellFactory(col -> new TableCell<Cue, Boolean>() {
+            private final CheckBox checkBox = new CheckBox();
+            {
+                checkBox.setOnAction(e -> {
+                    Cue cue = getTableRow().getItem();
+                    if (cue != null) {
+                        setAutoTrim(cue, checkBox.isSelected());
+                    }
+                });
+            }
+            
+            @Override
+            protected void updateItem(Boolean item, boolean empty) {
+                super.updateItem(item, empty);
+                Cue cue = getTableRow() != null ? getTableRow().getItem() : null;
+                if (empty || item == null || cue == null || cue.isFadeCue()) {
+                    setGraphic(null);
+                    setText(null);
+                    return;
+                }
+                checkBox.setSelected(item);
+                setGraphic(checkBox);
+                double tail = cue.getEndTrim() > 0 ? Math.max(0.0, cue.getDuration() - cue.getEndTrim()) : 0.0;
+                setText(cue.getStartTrim() > 0 || tail > 0
+                    ? String.format("%.2f | %.2f", cue.getStartTrim(), tail) : null);
+            }
+        });
+        
+        // Waveform column (drawn from the cached summary once it is ready)
+        TableColumn<Cue, String> waveformCol = new TableColumn<>("Waveform");
+        waveformCol.setCellValueFactory(new PropertyValueFactory<>("filePath"));
+        waveformCol.setPrefWidth(130);
+        waveformCol.setSortable(false);
+        waveformCol.setCellFactory(col -> new TableCell<Cue, String>() {
+            private final WaveformView waveformView = new WaveformView(120, 20);
+            
+            @Override
+            protected void updateItem(String item, boolean empty) {
+                super.updateItem(item, empty);
+                Cue cue = getTableRow() != null ? getTableRow().getItem() : null;
+                if (empty || item == null || item.isEmpty() || cue == null || cue.isFadeCue()) {
+                    setGraphic(null);
+                    return;
+                }
+                waveformView.setPeaks(waveformService.getIfReady(item));
+                setGraphic(waveformView);
+                if (waveformView.getPeaks() == null) {
+                    waveformService.request(item).thenAcceptAsync(peaks -> {
+                        if (item.equals(getItem())) {
+                            waveformView.setPeaks(peaks);
+                        }
+                    }, Platform::runLater);
+                }
+            }
+        });
+        
+        // Group column: the bus the cue plays through under the master
+        TableColumn<Cue, String> groupCol = new TableColumn<>("Group");
+        groupCol.setCellValueFactory(new PropertyValueFactory<>("group"));
+        groupCol.setPrefWidth(90);
+        groupCol.setCellFactory(col -> new TableCell<Cue, String>() {
+            private final TextField field = new TextField();
+            {
+                field.setPromptText("Master");
+                field.setOnAction(e -> commit());
+                field.focusedProperty().addListener((observable, wasFocused, focused) -> {
+                    if (!focused) {
+                        commit();
+                    }
+                });
+            }
+            
+            private void commit() {
+                Cue cue = getTableRow() != null ? getTableRow().getItem() : null;
+                if (cue != null && !field.getText().trim().equals(cue.getGroup())) {
+                    cue.setGroup(field.getText());
+                    if (!cue.getGroup().isEmpty()) {
+                        audioController.setGroupLevel(cue.getGroup(), playlistSettings.getGroupLevel(cue.getGroup()));
+                    }
+                }
+            }
+            
+            @Override
+            protected void updateItem(String item, boolean empty) {
+                super.updateItem(item, empty);
+                Cue cue = getTableRow() != null ? getTableRow().getItem() : null;
+                if (empty || item == null || cue == null || cue.isFadeCue()) {
+                    setGraphic(null);
+                } else {
+                    field.setText(item);
+                    setGraphic(field);
+                }
+            }
+        });
+        
         // File path column
         TableColumn<Cue, String> fileCol = new TableColumn<>("File");
         fileCol.setCellValueFactory(new PropertyValueFactory<>("filePath"));
         fileCol.setPrefWidth(300);
         
 		cueTable.getColumns().addAll(List.of(
-			numberCol, nameCol, durationCol, preWaitCol, 
-			postWaitCol, autoFollowCol, fileCol
+			preloadCol, numberCol, nameCol, durationCol, preWaitCol, 
+			postWaitCol, autoFollowCol, residentCol, priorityCol, fadeCol, gainCol, trimCol, groupCol, waveformCol, fileCol
 		));
         
+        // Re-plan background preparation whenever the next cue changes
+        cueTable.getSelectionModel().selectedItemProperty().addListener(
+            (observable, oldCue, newCue) -> audioController.planLookAhead(newCue));
+        playlist.getCues().addListener((ListChangeListener<Cue>) change -> {
+            // Fill in durations off the FX thread; the pool is sized from them once they land
+            List<Cue> added = new ArrayList<>();
+            while (change.next()) {
+                if (change.wasAdded()) {
+                    added.addAll(change.getAddedSubList());
+                }
+            }
+            if (!added.isEmpty()) {
+                mediaProbeService.probeCues(added, Platform::runLater)
+                    .thenRun(() -> Platform.runLater(audioController::updatePoolSize));
+                trimSilence(added);
+                for (Cue cue : added) {
+                    if (!cue.isFadeCue()) {
+                        waveformService.request(cue.getFilePath());
+                    }
+                }
+            }
+            audioController.planLookAhead(cueTable.getSelectionModel().getSelectedItem());
+            audioController.updateResidentCues();
+            audioController.updatePoolSize();
+        });
+        
         return cueTable;
     }
     
@@ -432,7 +743,19 @@ public class MainWindow extends Stage {
         stopButton.setDisable(true);
         stopButton.setOnAction(e -> onStopClicked());
         
-        controls.getChildren().addAll(goButton, pauseButton, stopButton);
+        devampButton = new Button("Devamp");
+        devampButton.setPrefWidth(100);
+        devampButton.setDisable(true);
+        devampButton.setTooltip(new Tooltip("Let playing loops finish their pass and play on to the end"));
+        devampButton.setOnAction(e -> audioController.devamp(null));
+        
+        meterBridge = new MeterBridge(180, 48);
+        meterBridge.setTrackLabeler(trackId -> {
+            Cue cue = audioController.getCueForTrack(trackId);
+            return cue != null ? String.valueOf(cue.getNumber()) : "";
+        });
+        
+        controls.getChildren().addAll(goButton, pauseButton, stopButton, devampButton, meterBridge);
         return controls;
     }
     
@@ -450,6 +773,13 @@ public class MainWindow extends Stage {
         Region spacer = new Region();
         HBox.setHgrow(spacer, Priority.ALWAYS);
         
+        latencyLabel = new Label("GO latency: --");
+        latencyLabel.setStyle("-fx-text-fill: white; -fx-padding: 0 15 0 0;");
+        latencyLabel.setTooltip(new Tooltip("No GOs measured yet"));
+        
+        playingLabel = new Label();
+        playingLabel.setStyle("-fx-text-fill: white; -fx-padding: 0 15 0 0;");
+        
         cueCountLabel = new Label("Cues: 0");
         cueCountLabel.setStyle("-fx-text-fill: white;");
         updateCueCount();
@@ -460,7 +790,7 @@ public class MainWindow extends Stage {
         fileViewToggle.setStyle("-fx-background-color: transparent; -fx-text-fill: white; -fx-font-size: 16px;");
         fileViewToggle.setOnAction(e -> toggleFileView());
         
-        statusBar.getChildren().addAll(statusLabel, spacer, cueCountLabel, fileViewToggle);
+        statusBar.getChildren().addAll(statusLabel, spacer, playingLabel, latencyLabel, cueCountLabel, fileViewToggle);
         return statusBar;
     }
     
@@ -494,6 +824,24 @@ public class MainWindow extends Stage {
         logger.debug("Added new cue with number {}", nextNumber);
     }
     
+    /**
+     * Adds a fade cue that fades out and stops the selected audio cue.
+     */
+    private void addFadeOutCue() {
+        Cue target = cueTable.getSelectionModel().getSelectedItem();
+        if (target == null || target.isFadeCue()) {
+            updateStatus("Select an audio cue to fade out");
+            return;
+        }
+        int nextNumber = playlist.size() + 1;
+        Cue fadeCue = Cue.fadeCue(nextNumber, "Fade out " + target.getName(), target.getNumber(),
+            0.0, DEFAULT_FADE_OUT_SECONDS, FadeCurve.EQUAL_POWER, true);
+        playlist.addCue(fadeCue);
+        updateCueCount();
+        updateStatus("Added fade out cue for: " + target.getName());
+        logger.debug("Added fade cue {} targeting cue {}", nextNumber, target.getNumber());
+    }
+    
     /**
      * Deletes the selected cue from the playlist.
      */
@@ -507,15 +855,179 @@ public class MainWindow extends Stage {
         }
     }
     
+    /**
+     * Opens a waveform window for the selected cue.
+     */
+    private void showSelectedWaveform() {
+        Cue selectedCue = cueTable.getSelectionModel().getSelectedItem();
+        if (selectedCue == null || selectedCue.isFadeCue()) {
+            updateStatus("Select an audio cue to show its waveform");
+            return;
+        }
+        new WaveformWindow(this, selectedCue, waveformService).show();
+    }
+    
+    /**
+     * Opens the routing grid for the selected cue, over the playlist's outputs.
+     */
+    private void editSelectedRouting() {
+        Cue selectedCue = cueTable.getSelectionModel().getSelectedItem();
+        if (selectedCue == null || selectedCue.isFadeCue()) {
+            updateStatus("Select an audio cue to edit its routing");
+            return;
+        }
+        new RoutingWindow(this, selectedCue, playlistSettings.getOutputDevices()).show();
+    }
+    
+    /**
+     * Opens the loop points and count of the selected cue. Loop cues are kept in memory,
+     * so the resident cues are updated once it changes.
+     */
+    private void editSelectedLoop() {
+        Cue selectedCue = cueTable.getSelectionModel().getSelectedItem();
+        if (selectedCue == null || selectedCue.isFadeCue()) {
+            updateStatus("Select an audio cue to edit its loop");
+            return;
+        }
+        new LoopWindow(this, selectedCue, audioController::updateResidentCues).show();
+    }
+    
+    /**
+     * Opens the faders for the master bus and each cue group's bus.
+     */
+    private void openGroupLevels() {
+        new GroupLevelsWindow(this, playlistSettings, playlistGroups(),
+            level -> applyMasterLevel(),
+            audioController::setGroupLevel).show();
+    }
+    
+    /**
+     * Gets the names of the groups the playlist's cues use, sorted.
+     */
+    private Set<String> playlistGroups() {
+        Set<String> groups = new TreeSet<>();
+        for (Cue cue : playlist.getCues()) {
+            if (!cue.getGroup().isEmpty()) {
+                groups.add(cue.getGroup());
+            }
+        }
+        return groups;
+    }
+    
+    /**
+     * Sets the master bus from the playlist's master volume and the workspace master volume.
+     */
+    private void applyMasterLevel() {
+        double level = playlistSettings.getMasterVolume() * settings.getMasterVolume();
+        audioController.setMasterLevel(level);
+        logger.debug("Applied master level: {}", level);
+    }
+    
+    /**
+     * Measures every audio cue's loudness in the background and sets each cue's gain so the
+     * playlist plays at the target level from Playlist Settings.
+     */
+    private void normalizeLoudness() {
+        double target = playlistSettings.getLoudnessTarget();
+        long audioCues = playlist.getCues().stream().filter(cue -> !cue.isFadeCue()).count();
+        if (audioCues == 0) {
+            updateStatus("No audio cues to normalize");
+            return;
+        }
+        updateStatus("Analysing loudness of " + audioCues + " files...");
+        loudnessService.normalizeCues(new ArrayList<>(playlist.getCues()), target,
+                LoudnessService.DEFAULT_TRUE_PEAK_CEILING, Platform::runLater)
+            .thenAccept(normalized -> Platform.runLater(() -> {
+                cueTable.refresh();
+                updateStatus(String.format("Normalized %d cues to %.1f LUFS", normalized, target));
+            }));
+    }
+    
+    /**
+     * Finds the leading and trailing silence of cues' files in the background and trims the
+     * cues that follow it, then re-cues the prepared ones at their new start.
+     */
+    private void trimSilence(List<Cue> cues) {
+        silenceScanService.scanCues(cues, playlistSettings.getSilenceThreshold(), Platform::runLater)
+            .thenAccept(trimmed -> Platform.runLater(() -> {
+                if (trimmed > 0) {
+                    cueTable.refresh();
+                    audioController.planLookAhead(cueTable.getSelectionModel().getSelectedItem());
+                }
+            }));
+    }
+    
+    /**
+     * Turns silence trimming on or off for a cue. Turning it off plays the whole file.
+     */
+    private void setAutoTrim(Cue cue, boolean autoTrim) {
+        cue.setAutoTrim(autoTrim);
+        if (autoTrim) {
+            trimSilence(List.of(cue));
+        } else {
+            cue.setStartTrim(0.0);
+            cue.setEndTrim(0.0);
+            cueTable.refresh();
+            audioController.planLookAhead(cueTable.getSelectionModel().getSelectedItem());
+        }
+    }
+    
+    /**
+     * Transcodes the playlist's compressed and off-format files into the render cache in the
+     * background, so they play without decoding at GO. Chosen again while running, cancels.
+     */
+    private void togglePrepareShow() {
+        if (renderJob != null && !renderJob.isDone()) {
+            renderJob.cancel();
+            updateStatus("Cancelling show preparation...");
+            return;
+        }
+        updateStatus("Preparing show...");
+        RenderJob job = renderCacheService.prepareShow(new ArrayList<>(playlist.getCues()),
+            progress -> Platform.runLater(() -> {
+                if (!progress.isDone() && !progress.isCancelled()) {
+                    updateStatus(String.format("Preparing show: %d of %d files", progress.getCompleted(), progress.getTotal()));
+                }
+            }));
+        renderJob = job;
+        prepareShowItem.setText("Cancel Show Preparation");
+        job.whenDone().thenAccept(done -> Platform.runLater(() -> {
+            if (renderJob == done) {
+                renderJob = null;
+                prepareShowItem.setText("Prepare Show");
+            }
+            if (done.isCancelled()) {
+                updateStatus("Show preparation cancelled (" + done.getRenderedCount() + " files rendered)");
+            } else if (done.getFailedCount() > 0) {
+                updateStatus(String.format("Show prepared: %d rendered, %d could not be decoded and play from the original (%s)",
+                    done.getRenderedCount(), done.getFailedCount(), String.join(", ", done.getFailedFiles())));
+            } else {
+                updateStatus(String.format("Show prepared: %d rendered, %d already cached, %d need no rendering",
+                    done.getRenderedCount(), done.getReusedCount(), done.getSkippedCount()));
+            }
+        }));
+    }
+    
+    /**
+     * Removes the normalization gain from every cue.
+     */
+    private void clearNormalization() {
+        for (Cue cue : playlist.getCues()) {
+            cue.setNormalizationGain(0.0);
+        }
+        updateStatus("Cleared loudness normalization");
+    }
+    
     /**
      * Handles GO button click.
      * Plays the currently selected cue and advances selection to next cue.
      */
     private void onGoClicked() {
+        long goNanos = System.nanoTime();
         Cue selectedCue = cueTable.getSelectionModel().getSelectedItem();
         if (selectedCue != null) {
             // Play the selected cue
-            audioController.playCue(selectedCue);
+            audioController.playCue(selectedCue, goNanos);
             
             // Immediately advance to next cue
             int currentIndex = playlist.getCues().indexOf(selectedCue);
@@ -551,15 +1063,16 @@ public class MainWindow extends Stage {
     }
     
     /**
-     * Plays the next cue in the list (for auto-follow).
+     * Plays the cue after the one that completed (for auto-follow).
+     * 
+     * @param completedCue The cue that just completed
      */
-    private void playNextCue() {
-        Cue currentCue = audioController.getCurrentCue();
-        if (currentCue == null) {
+    private void playNextCue(Cue completedCue) {
+        if (completedCue == null) {
             return;
         }
         
-        int currentIndex = playlist.getCues().indexOf(currentCue);
+        int currentIndex = playlist.getCues().indexOf(completedCue);
         if (currentIndex >= 0 && currentIndex < playlist.size() - 1) {
             Cue nextCue = playlist.getCue(currentIndex + 1);
             cueTable.getSelectionModel().select(nextCue);
@@ -602,6 +1115,7 @@ public class MainWindow extends Stage {
                 stopButton.setDisable(true);
             }
         }
+        devampButton.setDisable(state == PlaybackState.STOPPED);
     }
     
     /**
@@ -653,6 +1167,7 @@ public class MainWindow extends Stage {
         currentPlaylistPath = null;
         playlistSettings.resetToDefaults();
         playlistInitialized = true;
+        applyPlaylistSettings();
         updateCueCount();
         updateStatus("New playlist created");
         logger.info("New playlist created successfully");
@@ -700,6 +1215,7 @@ public class MainWindow extends Stage {
                 currentPlaylistPath = filePath;
                 playlistSettings = playlistSettingsService.load(filePath);
                 playlistInitialized = true;
+                applyPlaylistSettings();
                 
                 // Add to recent files
                 settings.addRecentFile(filePath.toString());
@@ -761,6 +1277,31 @@ public class MainWindow extends Stage {
         }
     }
     
+    /**
+     * Applies the current playlist settings to playback.
+     */
+    private void applyPlaylistSettings() {
+        audioController.setLookAheadCount(playlistSettings.getLookAheadCount());
+        audioController.setResidentCacheBudget(playlistSettings.getResidentCacheMb() * 1024L * 1024L);
+        audioController.setEvictionPolicy(EvictionPolicy.create(playlistSettings));
+        audioController.setVoiceStealing(playlistSettings.getVoiceStealing());
+        applyMasterLevel();
+        for (String group : playlistGroups()) {
+            audioController.setGroupLevel(group, playlistSettings.getGroupLevel(group));
+        }
+        try {
+            audioController.setOutputDevices(playlistSettings.getOutputDevices());
+        } catch (Exception e) {
+            logger.error("Failed to open outputs {}: {}", playlistSettings.getOutputDevices(), e.getMessage());
+            updateStatus("Could not open outputs, keeping the previous ones: " + e.getMessage());
+        }
+        audioController.planLookAhead(cueTable.getSelectionModel().getSelectedItem());
+        if (playlistSettings.getSilenceThreshold() != scannedSilenceThreshold) {
+            scannedSilenceThreshold = playlistSettings.getSilenceThreshold();
+            trimSilence(new ArrayList<>(playlist.getCues()));
+        }
+    }
+    
     /**
      * Updates the cue count label.
      */
@@ -853,6 +1394,7 @@ public class MainWindow extends Stage {
                 if (welcomeScreenRef[0] != null) {
                     welcomeScreenRef[0].closeWelcomeScreen();
                 }
+                disposeAudio();
                 System.exit(0);
             }
         );
@@ -962,11 +1504,9 @@ public class MainWindow extends Stage {
             // Also update the settings window's theme
             applyThemeToWindow(settingsWindow);
             // Apply audio settings
-            if (audioController.getAudioService() != null && 
-                audioController.getAudioService().getPlayerPool() != null) {
-                audioController.getAudioService().getPlayerPool()
-                    .setVolumeAll(settings.getMasterVolume());
-            }
+            audioController.getLatencyMonitor().setWarningThresholdMillis(settings.getGoLatencyWarningMs());
+            audioController.getProgressScheduler().setRate(settings.getProgressRateHz());
+            applyMasterLevel();
             updateStatus("Settings applied");
         });
         settingsWindow.showAndWait();
@@ -990,6 +1530,7 @@ public class MainWindow extends Stage {
                 playlistSettingsWindow.getDialogPane().getStylesheets().add(getClass().getResource(themePath).toExternalForm());
             }
             playlistSettingsWindow.showAndWait();
+            applyPlaylistSettings();
             updateStatus("Playlist settings updated");
         } else {
             showError("No Playlist Open", "Please open or create a playlist first.");
@@ -1042,6 +1583,74 @@ public class MainWindow extends Stage {
         statusLabel.setText(message);
     }
     
+    /**
+     * Updates the GO latency readout in the status bar.
+     */
+    private void updateLatencyDisplay() {
+        GoLatencyMonitor latencyMonitor = audioController.getLatencyMonitor();
+        LatencyHistogram goToPlaying = latencyMonitor.getGoToPlaying();
+        latencyLabel.setStyle("-fx-text-fill: white; -fx-padding: 0 15 0 0;");
+        if (goToPlaying.getCount() > 0) {
+            latencyLabel.setText(String.format("GO p50 %.1f ms | p99 %.1f ms",
+                goToPlaying.getPercentileMillis(50), goToPlaying.getPercentileMillis(99)));
+        }
+        PcmCache cache = audioController.getPcmCache();
+        String summary = cache == null ? latencyMonitor.formatSummary()
+            : latencyMonitor.formatSummary() + "\nDecoded audio cache: " + cache.formatSummary();
+        long steals = audioController.getVoiceStealCount();
+        latencyLabel.getTooltip().setText(steals == 0 ? summary
+            : summary + "\nCues stopped by voice stealing: " + steals);
+    }
+    
+    /**
+     * Shows how many cues are running, where the current cue is and the output levels,
+     * from one progress tick.
+     */
+    private void updatePlayingDisplay(ProgressSnapshot snapshot) {
+        meterBridge.setSnapshot(snapshot);
+        if (snapshot.size() == 0) {
+            playingLabel.setText("");
+            return;
+        }
+        int current = snapshot.indexOf(audioController.getCurrentTrackId());
+        String playing = snapshot.size() == 1 ? "1 playing" : snapshot.size() + " playing";
+        if (current < 0) {
+            playingLabel.setText(playing);
+        } else {
+            playingLabel.setText(String.format("%s | %s / %s", playing,
+                TimeUtil.formatTime(snapshot.getPosition(current)),
+                TimeUtil.formatTime(snapshot.getDuration(current))));
+        }
+    }
+    
+    /**
+     * Warns the operator that a GO took longer than the configured threshold.
+     */
+    private void warnSlowGo(long latencyNanos) {
+        long thresholdMs = audioController.getLatencyMonitor().getWarningThresholdMillis();
+        latencyLabel.setStyle("-fx-text-fill: #ff8c00; -fx-padding: 0 15 0 0;");
+        updateStatus(String.format("Warning: slow GO, %.1f ms to start (limit %d ms)",
+            latencyNanos / 1_000_000.0, thresholdMs));
+    }
+    
+    /**
+     * Stops playback and releases audio resources, logging the session's GO latency summary.
+     * Safe to call more than once.
+     */
+    private void disposeAudio() {
+        if (audioDisposed) {
+            return;
+        }
+        audioDisposed = true;
+        meterBridge.dispose();
+        audioController.dispose();
+        mediaProbeService.dispose();
+        waveformService.dispose();
+        loudnessService.dispose();
+        silenceScanService.dispose();
+        renderCacheService.dispose();
+    }
+    
     /**
      * Opens a playlist file by path (for .wlp file argument handling).
      * 
@@ -1160,6 +1769,7 @@ public class MainWindow extends Stage {
             currentPlaylistPath = path;
             playlistSettings = playlistSettingsService.load(path);
             playlistInitialized = true;
+            applyPlaylistSettings();
             
             // Move to front of recent files list
             settings.addRecentFile(filePath);
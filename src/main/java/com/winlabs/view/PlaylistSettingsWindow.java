@@ -3,12 +3,18 @@ package com.winlabs.view;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.winlabs.model.EvictionPolicyType;
+import com.winlabs.model.OutputDevice;
+import com.winlabs.model.VoiceStealing;
 import com.winlabs.model.PlaylistSettings;
 import com.winlabs.service.PlaylistSettingsService;
+import com.winlabs.service.audio.PcmMixer;
 
 import javafx.geometry.Insets;
 import javafx.scene.control.Alert;
@@ -16,6 +22,7 @@ import javafx.scene.control.Button;
 import javafx.scene.control.ButtonBar;
 import javafx.scene.control.ButtonType;
 import javafx.scene.control.CheckBox;
+import javafx.scene.control.ComboBox;
 import javafx.scene.control.Dialog;
 import javafx.scene.control.Label;
 import javafx.scene.control.Separator;
@@ -40,6 +47,7 @@ import javafx.stage.Window;
 public class PlaylistSettingsWindow extends Dialog<Boolean> {
     
     private static final Logger logger = LoggerFactory.getLogger(PlaylistSettingsWindow.class);
+    private static final String SYSTEM_DEFAULT = "System Default";
     
     private final PlaylistSettings playlistSettings;
     private final PlaylistSettingsService playlistSettingsService;
@@ -49,9 +57,20 @@ public class PlaylistSettingsWindow extends Dialog<Boolean> {
     private Slider volumeSlider;
     private Label volumeLabel;
     private TextField audioDirectoryField;
+    private Spinner<Integer> lookAheadSpinner;
+    private Spinner<Integer> residentCacheSpinner;
+    private ComboBox<EvictionPolicyType> evictionPolicyComboBox;
+    private Spinner<Integer> evictionIdleSpinner;
+    private Spinner<Integer> evictionKeepSpinner;
+    private Spinner<Integer> evictionMemorySpinner;
+    private ComboBox<VoiceStealing> voiceStealingComboBox;
+    private Spinner<Double> loudnessTargetSpinner;
+    private Spinner<Double> silenceThresholdSpinner;
     private Spinner<Double> preWaitSpinner;
     private Spinner<Double> postWaitSpinner;
     private CheckBox autoFollowCheckBox;
+    private VBox outputRowsBox;
+    private final List<OutputRow> outputRows = new ArrayList<>();
     
     public PlaylistSettingsWindow(Window owner, PlaylistSettings playlistSettings, 
                                   PlaylistSettingsService playlistSettingsService, 
@@ -82,7 +101,11 @@ public class PlaylistSettingsWindow extends Dialog<Boolean> {
         Tab cueTab = new Tab("Cue Defaults", createCueDefaultsTab());
         cueTab.setClosable(false);
         
-        tabPane.getTabs().addAll(audioTab, cueTab);
+        // Outputs Tab
+        Tab outputsTab = new Tab("Outputs", createOutputsTab());
+        outputsTab.setClosable(false);
+        
+        tabPane.getTabs().addAll(audioTab, cueTab, outputsTab);
         
         // Buttons
         ButtonType applyType = new ButtonType("Apply", ButtonBar.ButtonData.OK_DONE);
@@ -143,12 +166,110 @@ public class PlaylistSettingsWindow extends Dialog<Boolean> {
         HBox.setHgrow(audioDirectoryField, javafx.scene.layout.Priority.ALWAYS);
         dirBox.getChildren().addAll(audioDirectoryField, browseBtn);
         
+        // Look-ahead
+        Label lookAheadTitle = new Label("Cue Preparation");
+        lookAheadTitle.setFont(Font.font("System", FontWeight.BOLD, 14));
+        
+        HBox lookAheadBox = new HBox(10);
+        Label lookAheadLabel = new Label("Prepare next cues:");
+        lookAheadSpinner = new Spinner<>(0, PlaylistSettings.MAX_LOOK_AHEAD_COUNT, 
+                                         playlistSettings.getLookAheadCount());
+        lookAheadSpinner.setEditable(true);
+        lookAheadSpinner.setPrefWidth(80);
+        lookAheadBox.getChildren().addAll(lookAheadLabel, lookAheadSpinner);
+        
+        HBox residentCacheBox = new HBox(10);
+        Label residentCacheLabel = new Label("Decoded audio cache (MB):");
+        residentCacheSpinner = new Spinner<>(0, PlaylistSettings.MAX_RESIDENT_CACHE_MB, 
+                                             playlistSettings.getResidentCacheMb(), 64);
+        residentCacheSpinner.setEditable(true);
+        residentCacheSpinner.setPrefWidth(100);
+        residentCacheBox.getChildren().addAll(residentCacheLabel, residentCacheSpinner);
+        Label residentCacheNote = new Label("PCM mixer only. Cues marked Resident are always kept in memory.");
+        residentCacheNote.setStyle("-fx-font-size: 10px; -fx-text-fill: gray;");
+        
+        // Eviction of idle players
+        HBox evictionPolicyBox = new HBox(10);
+        Label evictionPolicyLabel = new Label("Free idle players by:");
+        evictionPolicyComboBox = new ComboBox<>();
+        evictionPolicyComboBox.getItems().addAll(EvictionPolicyType.values());
+        evictionPolicyComboBox.setPrefWidth(200);
+        evictionPolicyBox.getChildren().addAll(evictionPolicyLabel, evictionPolicyComboBox);
+        
+        HBox evictionLimitsBox = new HBox(10);
+        evictionIdleSpinner = new Spinner<>(1, PlaylistSettings.MAX_EVICTION_IDLE_SECONDS, 
+                                            playlistSettings.getEvictionIdleSeconds(), 5);
+        evictionIdleSpinner.setEditable(true);
+        evictionIdleSpinner.setPrefWidth(80);
+        evictionKeepSpinner = new Spinner<>(0, PlaylistSettings.MAX_EVICTION_KEEP_COUNT, 
+                                            playlistSettings.getEvictionKeepCount());
+        evictionKeepSpinner.setEditable(true);
+        evictionKeepSpinner.setPrefWidth(70);
+        evictionMemorySpinner = new Spinner<>(10, 100, playlistSettings.getEvictionMemoryPercent(), 5);
+        evictionMemorySpinner.setEditable(true);
+        evictionMemorySpinner.setPrefWidth(70);
+        evictionLimitsBox.getChildren().addAll(
+            new Label("After idle (s):"), evictionIdleSpinner,
+            new Label("Keep:"), evictionKeepSpinner,
+            new Label("Heap %:"), evictionMemorySpinner);
+        evictionPolicyComboBox.valueProperty().addListener(
+            (observable, oldPolicy, newPolicy) -> updateEvictionControls(newPolicy));
+        Label evictionNote = new Label("Protect upcoming cues never frees the players of the next cues to be prepared.");
+        evictionNote.setStyle("-fx-font-size: 10px; -fx-text-fill: gray;");
+        
+        // Voice stealing
+        HBox voiceStealingBox = new HBox(10);
+        Label voiceStealingLabel = new Label("When all players are in use:");
+        voiceStealingComboBox = new ComboBox<>();
+        voiceStealingComboBox.getItems().addAll(VoiceStealing.values());
+        voiceStealingComboBox.setPrefWidth(200);
+        voiceStealingBox.getChildren().addAll(voiceStealingLabel, voiceStealingComboBox);
+        Label voiceStealingNote = new Label("Stops a playing cue with a short fade so the new cue can start.");
+        voiceStealingNote.setStyle("-fx-font-size: 10px; -fx-text-fill: gray;");
+        
+        // Loudness normalization
+        HBox loudnessBox = new HBox(10);
+        Label loudnessLabel = new Label("Normalize cues to (LUFS):");
+        loudnessTargetSpinner = new Spinner<>(PlaylistSettings.MIN_LOUDNESS_TARGET, PlaylistSettings.MAX_LOUDNESS_TARGET,
+                                              playlistSettings.getLoudnessTarget(), 1.0);
+        loudnessTargetSpinner.setEditable(true);
+        loudnessTargetSpinner.setPrefWidth(90);
+        loudnessBox.getChildren().addAll(loudnessLabel, loudnessTargetSpinner);
+        Label loudnessNote = new Label("Used by Edit > Normalize Loudness. -23 is EBU R128; louder targets are limited by each file's peaks.");
+        loudnessNote.setStyle("-fx-font-size: 10px; -fx-text-fill: gray;");
+        
+        // Silence trimming
+        HBox silenceBox = new HBox(10);
+        Label silenceLabel = new Label("Trim silence below (dBFS):");
+        silenceThresholdSpinner = new Spinner<>(PlaylistSettings.MIN_SILENCE_THRESHOLD, PlaylistSettings.MAX_SILENCE_THRESHOLD,
+                                                playlistSettings.getSilenceThreshold(), 1.0);
+        silenceThresholdSpinner.setEditable(true);
+        silenceThresholdSpinner.setPrefWidth(90);
+        silenceBox.getChildren().addAll(silenceLabel, silenceThresholdSpinner);
+        Label silenceNote = new Label("Cues with Trim ticked skip their file's leading and trailing audio below this level.");
+        silenceNote.setStyle("-fx-font-size: 10px; -fx-text-fill: gray;");
+        
         vbox.getChildren().addAll(
             volumeTitle,
             volumeBox,
             new Separator(),
             dirTitle,
-            dirBox
+            dirBox,
+            new Separator(),
+            lookAheadTitle,
+            lookAheadBox,
+            residentCacheBox,
+            residentCacheNote,
+            evictionPolicyBox,
+            evictionLimitsBox,
+            evictionNote,
+            voiceStealingBox,
+            voiceStealingNote,
+            new Separator(),
+            loudnessBox,
+            loudnessNote,
+            silenceBox,
+            silenceNote
         );
         
         return vbox;
@@ -199,6 +320,55 @@ public class PlaylistSettingsWindow extends Dialog<Boolean> {
         return vbox;
     }
     
+    /**
+     * Creates the Outputs tab content: one row per output device, in routing order.
+     */
+    private VBox createOutputsTab() {
+        VBox vbox = new VBox(16);
+        vbox.setPadding(new Insets(20));
+        
+        Label title = new Label("Output Devices");
+        title.setFont(Font.font("System", FontWeight.BOLD, 14));
+        
+        outputRowsBox = new VBox(8);
+        for (OutputDevice device : playlistSettings.getOutputDevices()) {
+            addOutputRow(device);
+        }
+        Button addButton = new Button("Add Output");
+        addButton.setOnAction(e -> addOutputRow(new OutputDevice("Output " + (outputRows.size() + 1), "", 2)));
+        
+        Label note = new Label("Unrouted cues play on the first output, which also times the mix. "
+            + "Other outputs follow it. Only the PCM mixer playback engine plays to more than the system default.");
+        note.setWrapText(true);
+        note.setStyle("-fx-font-size: 10px; -fx-text-fill: gray;");
+        
+        vbox.getChildren().addAll(title, outputRowsBox, addButton, note);
+        return vbox;
+    }
+    
+    private void addOutputRow(OutputDevice device) {
+        OutputRow row = new OutputRow(device);
+        outputRows.add(row);
+        outputRowsBox.getChildren().add(row.box);
+    }
+    
+    private void removeOutputRow(OutputRow row) {
+        if (outputRows.size() > 1) {
+            outputRows.remove(row);
+            outputRowsBox.getChildren().remove(row.box);
+        }
+    }
+    
+    /**
+     * Enables only the limit that the selected eviction policy uses.
+     */
+    private void updateEvictionControls(EvictionPolicyType policy) {
+        boolean idle = policy == EvictionPolicyType.IDLE_TIME || policy == EvictionPolicyType.PROTECT_UPCOMING;
+        evictionIdleSpinner.setDisable(!idle);
+        evictionKeepSpinner.setDisable(policy != EvictionPolicyType.LEAST_RECENTLY_USED);
+        evictionMemorySpinner.setDisable(policy != EvictionPolicyType.MEMORY_PRESSURE);
+    }
+    
     /**
      * Loads settings into UI controls.
      */
@@ -206,6 +376,16 @@ public class PlaylistSettingsWindow extends Dialog<Boolean> {
         volumeSlider.setValue(playlistSettings.getMasterVolume());
         volumeLabel.setText(String.format("%.0f%%", playlistSettings.getMasterVolume() * 100));
         audioDirectoryField.setText(playlistSettings.getAudioFileDirectory());
+        lookAheadSpinner.getValueFactory().setValue(playlistSettings.getLookAheadCount());
+        residentCacheSpinner.getValueFactory().setValue(playlistSettings.getResidentCacheMb());
+        evictionPolicyComboBox.setValue(playlistSettings.getEvictionPolicy());
+        evictionIdleSpinner.getValueFactory().setValue(playlistSettings.getEvictionIdleSeconds());
+        evictionKeepSpinner.getValueFactory().setValue(playlistSettings.getEvictionKeepCount());
+        evictionMemorySpinner.getValueFactory().setValue(playlistSettings.getEvictionMemoryPercent());
+        updateEvictionControls(playlistSettings.getEvictionPolicy());
+        voiceStealingComboBox.setValue(playlistSettings.getVoiceStealing());
+        loudnessTargetSpinner.getValueFactory().setValue(playlistSettings.getLoudnessTarget());
+        silenceThresholdSpinner.getValueFactory().setValue(playlistSettings.getSilenceThreshold());
         preWaitSpinner.getValueFactory().setValue(playlistSettings.getDefaultPreWait());
         postWaitSpinner.getValueFactory().setValue(playlistSettings.getDefaultPostWait());
         autoFollowCheckBox.setSelected(playlistSettings.isDefaultAutoFollow());
@@ -217,9 +397,23 @@ public class PlaylistSettingsWindow extends Dialog<Boolean> {
     private void applySettings() {
         playlistSettings.setMasterVolume(volumeSlider.getValue());
         playlistSettings.setAudioFileDirectory(audioDirectoryField.getText());
+        playlistSettings.setLookAheadCount(lookAheadSpinner.getValue());
+        playlistSettings.setResidentCacheMb(residentCacheSpinner.getValue());
+        playlistSettings.setEvictionPolicy(evictionPolicyComboBox.getValue());
+        playlistSettings.setEvictionIdleSeconds(evictionIdleSpinner.getValue());
+        playlistSettings.setEvictionKeepCount(evictionKeepSpinner.getValue());
+        playlistSettings.setEvictionMemoryPercent(evictionMemorySpinner.getValue());
+        playlistSettings.setVoiceStealing(voiceStealingComboBox.getValue());
+        playlistSettings.setLoudnessTarget(loudnessTargetSpinner.getValue());
+        playlistSettings.setSilenceThreshold(silenceThresholdSpinner.getValue());
         playlistSettings.setDefaultPreWait(preWaitSpinner.getValue());
         playlistSettings.setDefaultPostWait(postWaitSpinner.getValue());
         playlistSettings.setDefaultAutoFollow(autoFollowCheckBox.isSelected());
+        List<OutputDevice> devices = new ArrayList<>();
+        for (OutputRow row : outputRows) {
+            devices.add(row.toDevice());
+        }
+        playlistSettings.setOutputDevices(devices);
         
         // Save to .wlp file
         try {
@@ -250,4 +444,39 @@ public class PlaylistSettingsWindow extends Dialog<Boolean> {
             audioDirectoryField.setText(selectedDir.getAbsolutePath());
         }
     }
+    
+    /**
+     * Controls for one output device: its label, the sound device and its channel count.
+     */
+    private final class OutputRow {
+        final HBox box;
+        final TextField labelField;
+        final ComboBox<String> deviceComboBox;
+        final Spinner<Integer> channelsSpinner;
+        
+        OutputRow(OutputDevice device) {
+            labelField = new TextField(device.getLabel());
+            labelField.setPrefWidth(100);
+            deviceComboBox = new ComboBox<>();
+            deviceComboBox.getItems().add(SYSTEM_DEFAULT);
+            deviceComboBox.getItems().addAll(PcmMixer.listOutputDevices());
+            if (!device.isSystemDefault() && !deviceComboBox.getItems().contains(device.getDeviceName())) {
+                deviceComboBox.getItems().add(device.getDeviceName()); // Not connected now, keep it
+            }
+            deviceComboBox.setValue(device.isSystemDefault() ? SYSTEM_DEFAULT : device.getDeviceName());
+            deviceComboBox.setPrefWidth(200);
+            channelsSpinner = new Spinner<>(1, OutputDevice.MAX_CHANNELS, device.getChannels());
+            channelsSpinner.setEditable(true);
+            channelsSpinner.setPrefWidth(70);
+            Button removeButton = new Button("Remove");
+            removeButton.setOnAction(e -> removeOutputRow(this));
+            box = new HBox(8, labelField, deviceComboBox, channelsSpinner, removeButton);
+        }
+        
+        OutputDevice toDevice() {
+            String name = deviceComboBox.getValue();
+            return new OutputDevice(labelField.getText(), SYSTEM_DEFAULT.equals(name) || name == null ? "" : name,
+                channelsSpinner.getValue());
+        }
+    }
 }
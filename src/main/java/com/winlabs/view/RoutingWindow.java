@@ -0,0 +1,115 @@
+package com.winlabs.view;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.winlabs.model.Cue;
+import com.winlabs.model.OutputDevice;
+import com.winlabs.model.OutputRouting;
+
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.ScrollPane;
+import javafx.scene.control.Spinner;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.HBox;
+import javafx.stage.Stage;
+import javafx.stage.Window;
+
+/**
+ * Window editing one cue's routing: a grid with a row per cue channel and a column per output
+ * channel, each cell the linear gain from one to the other (0 for not routed).
+ */
+public class RoutingWindow extends Stage {
+
+    private static final Logger logger = LoggerFactory.getLogger(RoutingWindow.class);
+    private static final int CUE_CHANNELS = 2; // Cues are played in the mixer's layout
+
+    private final Cue cue;
+    private final List<OutputDevice> devices;
+    private final Spinner<Double>[][] cells;
+
+    @SuppressWarnings("unchecked")
+    public RoutingWindow(Window owner, Cue cue, List<OutputDevice> devices) {
+        this.cue = cue;
+        this.devices = devices;
+        initOwner(owner);
+        setTitle("Routing - Cue " + cue.getNumber() + ": " + cue.getName());
+
+        int outputs = OutputRouting.totalChannels(devices);
+        OutputRouting current = cue.getRouting() != null ? cue.getRouting().withOutputs(outputs)
+            : OutputRouting.defaultFor(CUE_CHANNELS, devices);
+        cells = new Spinner[CUE_CHANNELS][outputs];
+
+        GridPane grid = new GridPane();
+        grid.setHgap(6);
+        grid.setVgap(6);
+        grid.setPadding(new Insets(10));
+        int column = 1;
+        for (OutputDevice device : devices) {
+            for (int c = 0; c < device.getChannels(); c++) {
+                grid.add(new Label(device.getLabel() + " " + (c + 1)), column++, 0);
+            }
+        }
+        for (int in = 0; in < CUE_CHANNELS; in++) {
+            grid.add(new Label(in == 0 ? "Left" : "Right"), 0, in + 1);
+            for (int out = 0; out < outputs; out++) {
+                Spinner<Double> cell = new Spinner<>(0.0, OutputRouting.MAX_GAIN, current.getGain(in, out), 0.1);
+                cell.setEditable(true);
+                cell.setPrefWidth(80);
+                cells[in][out] = cell;
+                grid.add(cell, out + 1, in + 1);
+            }
+        }
+
+        Button defaultButton = new Button("Default");
+        defaultButton.setOnAction(e -> showRouting(OutputRouting.defaultFor(CUE_CHANNELS, devices)));
+        Button applyButton = new Button("Apply");
+        applyButton.setOnAction(e -> apply());
+        Button cancelButton = new Button("Cancel");
+        cancelButton.setOnAction(e -> close());
+
+        HBox footer = new HBox(10, defaultButton, applyButton, cancelButton);
+        footer.setAlignment(Pos.CENTER_RIGHT);
+        footer.setPadding(new Insets(8));
+        BorderPane root = new BorderPane(new ScrollPane(grid));
+        root.setBottom(footer);
+        setScene(new Scene(root, Math.min(900, 140 + outputs * 90), 200));
+        if (owner != null && owner.getScene() != null) {
+            getScene().getStylesheets().setAll(owner.getScene().getStylesheets());
+        }
+    }
+
+    private void showRouting(OutputRouting routing) {
+        for (int in = 0; in < cells.length; in++) {
+            for (int out = 0; out < cells[in].length; out++) {
+                cells[in][out].getValueFactory().setValue(routing.getGain(in, out));
+            }
+        }
+    }
+
+    /**
+     * Sets the cue's routing from the grid; the default routing is stored as none, so the cue
+     * follows the first output if the outputs change.
+     */
+    private void apply() {
+        int outputs = cells[0].length;
+        double[] gains = new double[CUE_CHANNELS * outputs];
+        for (int in = 0; in < CUE_CHANNELS; in++) {
+            for (int out = 0; out < outputs; out++) {
+                Double value = cells[in][out].getValue();
+                gains[in * outputs + out] = value != null ? value : 0.0;
+            }
+        }
+        OutputRouting routing = OutputRouting.of(CUE_CHANNELS, outputs, gains);
+        cue.setRouting(routing.equals(OutputRouting.defaultFor(CUE_CHANNELS, devices)) ? null : routing);
+        logger.info("Routed cue {}: {}", cue.getNumber(), cue.getRouting() != null ? cue.getRouting() : "first output");
+        close();
+    }
+}
@@ -8,6 +8,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.winlabs.model.LogLevel;
+import com.winlabs.model.PlaybackBackend;
 import com.winlabs.model.Settings;
 import com.winlabs.service.LoggerService;
 import com.winlabs.service.SettingsService;
@@ -53,6 +54,9 @@ public class SettingsWindow extends Stage {
     private ComboBox<String> themeComboBox;
     private CheckBox autoSaveCheckBox;
     private Spinner<Integer> autoSaveIntervalSpinner;
+    private Spinner<Integer> goLatencyWarningSpinner;
+    private Spinner<Integer> progressRateSpinner;
+    private ComboBox<PlaybackBackend> playbackBackendComboBox;
     
     // Playlist defaults controls
     private Slider masterVolumeSlider;
@@ -164,9 +168,45 @@ public class SettingsWindow extends Stage {
         HBox intervalBox = new HBox(10, intervalLabel, autoSaveIntervalSpinner);
         intervalBox.setAlignment(Pos.CENTER_LEFT);
         
+        // Playback section
+        Label monitoringLabel = new Label("Playback:");
+        monitoringLabel.setStyle("-fx-font-weight: bold; -fx-font-size: 14px;");
+        monitoringLabel.setPadding(new Insets(10, 0, 0, 0));
+        
+        Label backendLabel = new Label("Audio engine:");
+        playbackBackendComboBox = new ComboBox<>();
+        playbackBackendComboBox.getItems().addAll(PlaybackBackend.values());
+        playbackBackendComboBox.setPrefWidth(200);
+        HBox backendBox = new HBox(10, backendLabel, playbackBackendComboBox);
+        backendBox.setAlignment(Pos.CENTER_LEFT);
+        Label backendNote = new Label("PCM Mixer plays WAV/AIFF through one output with fixed latency. Applies to newly opened playlist windows.");
+        backendNote.setStyle("-fx-font-size: 10px; -fx-text-fill: gray;");
+        backendNote.setWrapText(true);
+        
+        Label goLatencyLabel = new Label("Warn when a GO takes longer than (ms):");
+        goLatencyWarningSpinner = new Spinner<>(1, 2000, 50, 5);
+        goLatencyWarningSpinner.setEditable(true);
+        goLatencyWarningSpinner.setPrefWidth(150);
+        Label goLatencyNote = new Label("Measured from pressing GO (or the end of a pre-wait) until the audio is playing.");
+        goLatencyNote.setStyle("-fx-font-size: 10px; -fx-text-fill: gray;");
+        
+        HBox goLatencyBox = new HBox(10, goLatencyLabel, goLatencyWarningSpinner);
+        goLatencyBox.setAlignment(Pos.CENTER_LEFT);
+        
+        Label progressRateLabel = new Label("Update playing cue times (per second):");
+        progressRateSpinner = new Spinner<>(1, 120, 30, 5);
+        progressRateSpinner.setEditable(true);
+        progressRateSpinner.setPrefWidth(150);
+        HBox progressRateBox = new HBox(10, progressRateLabel, progressRateSpinner);
+        progressRateBox.setAlignment(Pos.CENTER_LEFT);
+        Label progressRateNote = new Label("All running cues are sampled together, so the cost does not grow with the number of cues.");
+        progressRateNote.setStyle("-fx-font-size: 10px; -fx-text-fill: gray;");
+        
         content.getChildren().addAll(
             appearanceLabel, themeBox, new Separator(),
-            autoSaveLabel, autoSaveCheckBox, autoSaveNote, intervalBox
+            autoSaveLabel, autoSaveCheckBox, autoSaveNote, intervalBox, new Separator(),
+            monitoringLabel, backendBox, backendNote, goLatencyBox, goLatencyNote,
+            progressRateBox, progressRateNote
         );
         
         ScrollPane scrollPane = new ScrollPane(content);
@@ -408,6 +448,9 @@ public class SettingsWindow extends Stage {
         themeComboBox.setValue(settings.getTheme());
         autoSaveCheckBox.setSelected(settings.isAutoSaveEnabled());
         autoSaveIntervalSpinner.getValueFactory().setValue(settings.getAutoSaveInterval());
+        goLatencyWarningSpinner.getValueFactory().setValue(settings.getGoLatencyWarningMs());
+        progressRateSpinner.getValueFactory().setValue(settings.getProgressRateHz());
+        playbackBackendComboBox.setValue(settings.getPlaybackBackend());
         
         // Playlist defaults
         preWaitDefaultSpinner.getValueFactory().setValue(settings.getPreWaitDefault());
@@ -437,6 +480,9 @@ public class SettingsWindow extends Stage {
         settings.setMasterVolume(masterVolumeSlider.getValue());
         settings.setAutoSaveEnabled(autoSaveCheckBox.isSelected());
         settings.setAutoSaveInterval(autoSaveIntervalSpinner.getValue());
+        settings.setGoLatencyWarningMs(goLatencyWarningSpinner.getValue());
+        settings.setProgressRateHz(progressRateSpinner.getValue());
+        settings.setPlaybackBackend(playbackBackendComboBox.getValue());
         settings.setAudioFileDirectory(audioFileDirectoryField.getText());
         settings.setPreWaitDefault(preWaitDefaultSpinner.getValue());
         settings.setPostWaitDefault(postWaitDefaultSpinner.getValue());
@@ -0,0 +1,125 @@
+package com.winlabs.view;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.winlabs.model.Cue;
+import com.winlabs.service.WaveformService;
+import com.winlabs.util.TimeUtil;
+import com.winlabs.view.components.WaveformView;
+
+import javafx.application.Platform;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Pane;
+import javafx.stage.Stage;
+import javafx.stage.Window;
+
+/**
+ * Window showing one cue's waveform. Scroll to zoom around the mouse, drag to pan.
+ * Uses the same cached summary as the cue table, so opening it on a long file is instant
+ * once the cue's waveform has been built.
+ */
+public class WaveformWindow extends Stage {
+
+    private static final Logger logger = LoggerFactory.getLogger(WaveformWindow.class);
+    private static final double MIN_VISIBLE_SECONDS = 0.05;
+    private static final double ZOOM_STEP = 1.25;
+
+    private final WaveformView waveformView;
+    private final Label rangeLabel;
+    private double dragStartX;
+    private double dragStartTime;
+
+    public WaveformWindow(Window owner, Cue cue, WaveformService waveformService) {
+        initOwner(owner);
+        setTitle("Waveform - Cue " + cue.getNumber() + ": " + cue.getName());
+
+        waveformView = new WaveformView(800, 240);
+        rangeLabel = new Label("Loading waveform...");
+        Button fitButton = new Button("Fit");
+        fitButton.setOnAction(e -> showRange(0, 0));
+
+        Pane canvasPane = new Pane(waveformView);
+        canvasPane.setMinSize(100, 60);
+        waveformView.widthProperty().bind(canvasPane.widthProperty());
+        waveformView.heightProperty().bind(canvasPane.heightProperty());
+        setupZoomAndPan();
+
+        HBox footer = new HBox(10, fitButton, rangeLabel);
+        footer.setAlignment(Pos.CENTER_LEFT);
+        footer.setPadding(new Insets(8));
+        BorderPane root = new BorderPane(canvasPane);
+        root.setBottom(footer);
+        setScene(new Scene(root, 800, 300));
+        if (owner != null && owner.getScene() != null) {
+            getScene().getStylesheets().setAll(owner.getScene().getStylesheets());
+        }
+
+        waveformService.request(cue.getFilePath()).thenAcceptAsync(peaks -> {
+            if (peaks == null) {
+                rangeLabel.setText("No waveform available for this file");
+                return;
+            }
+            waveformView.setPeaks(peaks);
+            updateRangeLabel();
+        }, Platform::runLater);
+        logger.debug("Opened waveform for cue {}", cue.getNumber());
+    }
+
+    private void setupZoomAndPan() {
+        waveformView.setOnScroll(e -> {
+            if (waveformView.getPeaks() == null || e.getDeltaY() == 0) {
+                return;
+            }
+            double start = waveformView.getVisibleStart();
+            double span = waveformView.getVisibleEnd() - start;
+            double anchor = start + span * e.getX() / waveformView.getWidth();
+            double factor = e.getDeltaY() > 0 ? 1 / ZOOM_STEP : ZOOM_STEP;
+            double newSpan = Math.max(MIN_VISIBLE_SECONDS, span * factor);
+            double newStart = anchor - (anchor - start) * newSpan / span;
+            showRange(newStart, newStart + newSpan);
+        });
+        waveformView.setOnMousePressed(e -> {
+            dragStartX = e.getX();
+            dragStartTime = waveformView.getVisibleStart();
+        });
+        waveformView.setOnMouseDragged(e -> {
+            if (waveformView.getPeaks() == null) {
+                return;
+            }
+            double span = waveformView.getVisibleEnd() - waveformView.getVisibleStart();
+            double newStart = dragStartTime - (e.getX() - dragStartX) * span / waveformView.getWidth();
+            showRange(newStart, newStart + span);
+        });
+    }
+
+    /**
+     * Shows a time range, kept within the file; an end of 0 shows the whole file.
+     */
+    private void showRange(double start, double end) {
+        if (waveformView.getPeaks() == null) {
+            return;
+        }
+        double duration = waveformView.getPeaks().getDuration();
+        double span = end > 0 ? Math.min(end - start, duration) : duration;
+        if (end <= 0 || span >= duration) {
+            waveformView.setVisibleRange(0, 0);
+        } else {
+            double clampedStart = Math.max(0, Math.min(start, duration - span));
+            waveformView.setVisibleRange(clampedStart, clampedStart + span);
+        }
+        updateRangeLabel();
+    }
+
+    private void updateRangeLabel() {
+        rangeLabel.setText(TimeUtil.formatTime(waveformView.getVisibleStart()) + " - "
+            + TimeUtil.formatTime(waveformView.getVisibleEnd()) + " of "
+            + TimeUtil.formatTime(waveformView.getPeaks().getDuration()));
+    }
+}
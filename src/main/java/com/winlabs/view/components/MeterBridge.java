@@ -0,0 +1,153 @@
+package com.winlabs.view.components;
+
+import java.util.function.Function;
+
+import com.winlabs.service.ProgressSnapshot;
+import com.winlabs.service.audio.LevelMeter;
+
+import javafx.animation.AnimationTimer;
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.TextAlignment;
+
+/**
+ * Row of level meters: the master channels, then one strip per running cue, drawn from the
+ * latest {@link ProgressSnapshot}. Each strip shows RMS as a bar and the peak as a line.
+ *
+ * Snapshots only mark the bridge dirty; it is redrawn by an animation timer at most
+ * {@value #FRAMES_PER_SECOND} times a second, and shows at most {@value #MAX_CUE_STRIPS}
+ * cue strips, so its cost on the FX thread is fixed however many cues are running.
+ */
+public class MeterBridge extends Canvas {
+
+    public static final int MAX_CUE_STRIPS = 8;
+    private static final int FRAMES_PER_SECOND = 30;
+    private static final long FRAME_NANOS = 1_000_000_000L / FRAMES_PER_SECOND;
+    private static final double FLOOR_DB = -60.0;
+    private static final double STRIP_WIDTH = 10;
+    private static final double STRIP_GAP = 4;
+    private static final double GROUP_GAP = 12;
+    private static final double LABEL_HEIGHT = 12;
+    private static final Color BACKGROUND = Color.web("#1e1e1e");
+    private static final Color STRIP_COLOR = Color.web("#333333");
+    private static final Color RMS_COLOR = Color.web("#3fa34d");
+    private static final Color PEAK_COLOR = Color.web("#6fd37d");
+    private static final Color WARN_COLOR = Color.web("#e0c030");
+    private static final Color OVER_COLOR = Color.web("#e04040");
+    private static final Color LABEL_COLOR = Color.web("#c0c0c0");
+    private static final Font LABEL_FONT = Font.font(9);
+    private static final double WARN_DB = -18.0;
+    private static final double OVER_DB = -3.0;
+
+    private final AnimationTimer timer;
+    private Function<String, String> trackLabeler;
+    private ProgressSnapshot snapshot;
+    private boolean dirty;
+    private long lastDrawNanos;
+
+    public MeterBridge(double width, double height) {
+        super(width, height);
+        this.snapshot = ProgressSnapshot.EMPTY;
+        this.trackLabeler = trackId -> "";
+        this.dirty = true;
+        this.timer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                if (dirty && now - lastDrawNanos >= FRAME_NANOS) {
+                    lastDrawNanos = now;
+                    dirty = false;
+                    redraw();
+                }
+            }
+        };
+        timer.start();
+    }
+
+    /**
+     * Sets how each cue strip is labelled, from the running track's ID.
+     */
+    public void setTrackLabeler(Function<String, String> trackLabeler) {
+        this.trackLabeler = trackLabeler != null ? trackLabeler : trackId -> "";
+    }
+
+    /**
+     * Shows the levels from a snapshot at the next frame.
+     */
+    public void setSnapshot(ProgressSnapshot snapshot) {
+        this.snapshot = snapshot != null ? snapshot : ProgressSnapshot.EMPTY;
+        this.dirty = true;
+    }
+
+    /**
+     * Stops redrawing. The bridge cannot be restarted.
+     */
+    public void dispose() {
+        timer.stop();
+    }
+
+    private void redraw() {
+        GraphicsContext graphics = getGraphicsContext2D();
+        double width = getWidth();
+        double height = getHeight();
+        graphics.setFill(BACKGROUND);
+        graphics.fillRect(0, 0, width, height);
+        graphics.setFont(LABEL_FONT);
+        graphics.setTextAlign(TextAlignment.CENTER);
+        graphics.setTextBaseline(VPos.BOTTOM);
+        double meterHeight = height - LABEL_HEIGHT;
+
+        ProgressSnapshot current = snapshot;
+        int masterChannels = current.getMasterChannels();
+        double x = STRIP_GAP;
+        for (int c = 0; c < masterChannels; c++) {
+            String label = masterChannels == 2 ? (c == 0 ? "L" : "R") : "M";
+            drawStrip(graphics, x, meterHeight, current.getMasterPeak(c), current.getMasterRms(c), label);
+            x += STRIP_WIDTH + STRIP_GAP;
+        }
+        x += GROUP_GAP - STRIP_GAP;
+
+        int strips = Math.min(current.size(), MAX_CUE_STRIPS);
+        for (int i = 0; i < strips && x + STRIP_WIDTH <= width; i++) {
+            drawStrip(graphics, x, meterHeight, current.getPeak(i), current.getRms(i),
+                trackLabeler.apply(current.getTrackId(i)));
+            x += STRIP_WIDTH + STRIP_GAP;
+        }
+        if (current.size() > strips) {
+            graphics.setFill(LABEL_COLOR);
+            graphics.fillText("+" + (current.size() - strips), Math.min(x + STRIP_WIDTH, width - STRIP_WIDTH), height);
+        }
+    }
+
+    private void drawStrip(GraphicsContext graphics, double x, double meterHeight, float peak, float rms, String label) {
+        graphics.setFill(STRIP_COLOR);
+        graphics.fillRect(x, 0, STRIP_WIDTH, meterHeight);
+
+        double rmsHeight = scale(rms) * meterHeight;
+        graphics.setFill(RMS_COLOR);
+        graphics.fillRect(x, meterHeight - rmsHeight, STRIP_WIDTH, rmsHeight);
+
+        double peakDb = LevelMeter.toDb(peak);
+        if (peakDb > FLOOR_DB) {
+            double peakY = meterHeight - scale(peak) * meterHeight;
+            graphics.setFill(peakDb >= OVER_DB ? OVER_COLOR : peakDb >= WARN_DB ? WARN_COLOR : PEAK_COLOR);
+            graphics.fillRect(x, Math.max(0, peakY - 1), STRIP_WIDTH, 2);
+        }
+
+        graphics.setFill(LABEL_COLOR);
+        graphics.fillText(label, x + STRIP_WIDTH / 2, meterHeight + LABEL_HEIGHT);
+    }
+
+    /**
+     * Maps a linear level to the fraction of the strip it fills, on a dB scale.
+     */
+    private static double scale(float level) {
+        double db = LevelMeter.toDb(level);
+        if (db <= FLOOR_DB) {
+            return 0;
+        }
+        return Math.min(1.0, (db - FLOOR_DB) / -FLOOR_DB);
+    }
+}
@@ -0,0 +1,128 @@
+package com.winlabs.view.components;
+
+import com.winlabs.service.audio.WaveformPeaks;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+
+/**
+ * Draws a {@link WaveformPeaks} summary: the min/max envelope with the RMS level inside it.
+ * Shows the whole file unless a visible range is set. Redrawing costs one column per pixel
+ * whatever the file's length or the zoom.
+ */
+public class WaveformView extends Canvas {
+
+    private static final Color PEAK_COLOR = Color.web("#4a90d9");
+    private static final Color RMS_COLOR = Color.web("#9cc8f2");
+    private static final Color CENTER_COLOR = Color.web("#808080", 0.5);
+
+    private WaveformPeaks peaks;
+    private double visibleStart;
+    private double visibleEnd; // 0 shows the whole file
+    private float[] min = new float[0];
+    private float[] max = new float[0];
+    private float[] rms = new float[0];
+
+    public WaveformView(double width, double height) {
+        super(width, height);
+        widthProperty().addListener((observable, oldValue, newValue) -> redraw());
+        heightProperty().addListener((observable, oldValue, newValue) -> redraw());
+    }
+
+    @Override
+    public boolean isResizable() {
+        return true;
+    }
+
+    @Override
+    public double prefWidth(double height) {
+        return getWidth();
+    }
+
+    @Override
+    public double prefHeight(double width) {
+        return getHeight();
+    }
+
+    @Override
+    public void resize(double width, double height) {
+        setWidth(width);
+        setHeight(height);
+    }
+
+    public WaveformPeaks getPeaks() {
+        return peaks;
+    }
+
+    /**
+     * Sets the waveform to draw, or null to draw nothing.
+     */
+    public void setPeaks(WaveformPeaks peaks) {
+        this.peaks = peaks;
+        redraw();
+    }
+
+    /**
+     * Sets the time range shown across the width.
+     *
+     * @param startSeconds Time at the left edge
+     * @param endSeconds Time at the right edge; 0 or less shows the whole file
+     */
+    public void setVisibleRange(double startSeconds, double endSeconds) {
+        this.visibleStart = Math.max(0, startSeconds);
+        this.visibleEnd = endSeconds;
+        redraw();
+    }
+
+    public double getVisibleStart() {
+        return visibleStart;
+    }
+
+    /**
+     * Gets the time at the right edge.
+     */
+    public double getVisibleEnd() {
+        if (visibleEnd > 0 || peaks == null) {
+            return visibleEnd;
+        }
+        return peaks.getDuration();
+    }
+
+    /**
+     * Redraws the waveform for the current size and range.
+     */
+    public void redraw() {
+        GraphicsContext graphics = getGraphicsContext2D();
+        double width = getWidth();
+        double height = getHeight();
+        graphics.clearRect(0, 0, width, height);
+        double middle = height / 2;
+        graphics.setStroke(CENTER_COLOR);
+        graphics.strokeLine(0, middle, width, middle);
+        if (peaks == null || width < 1) {
+            return;
+        }
+
+        int pixels = (int) width;
+        if (min.length != pixels) {
+            min = new float[pixels];
+            max = new float[pixels];
+            rms = new float[pixels];
+        }
+        peaks.render(visibleStart, getVisibleEnd(), pixels, min, max, rms);
+
+        graphics.setFill(PEAK_COLOR);
+        for (int x = 0; x < pixels; x++) {
+            double top = middle - max[x] * middle;
+            double bottom = middle - min[x] * middle;
+            graphics.fillRect(x, top, 1, Math.max(1, bottom - top));
+        }
+        graphics.setFill(RMS_COLOR);
+        for (int x = 0; x < pixels; x++) {
+            double level = rms[x] * middle;
+            if (level >= 0.5) {
+                graphics.fillRect(x, middle - level, 1, 2 * level);
+            }
+        }
+    }
+}
@@ -0,0 +1,321 @@
+package com.winlabs.controller;
+
+import com.winlabs.model.AudioTrack;
+import com.winlabs.model.Cue;
+import com.winlabs.model.FadeCurve;
+import com.winlabs.model.PlaybackState;
+import com.winlabs.model.Playlist;
+import com.winlabs.model.VoiceStealing;
+import com.winlabs.service.AudioPlayerPool;
+import com.winlabs.service.audio.NullBackend;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for AudioController, run headless on the silent NullBackend.
+ * Only cues without pre/post-waits are used, since those timers need the FX toolkit.
+ */
+class AudioControllerTest {
+    
+    private NullBackend backend;
+    private AudioController controller;
+    private Path testAudioFile;
+    
+    @BeforeEach
+    void setUp() throws IOException {
+        backend = new NullBackend(1.0);
+        controller = new AudioController(backend);
+        testAudioFile = Files.createTempFile("test-audio", ".wav");
+    }
+    
+    @AfterEach
+    void tearDown() throws IOException {
+        controller.dispose();
+        Files.deleteIfExists(testAudioFile);
+    }
+    
+    @Test
+    void testPlayCueRunsToCompletion() {
+        Cue cue = new Cue(1, "Doorbell", testAudioFile.toString());
+        List<String> statuses = new ArrayList<>();
+        controller.setStatusUpdateListener(statuses::add);
+        
+        controller.playCue(cue);
+        assertEquals(PlaybackState.PLAYING, controller.getState());
+        assertEquals(cue, controller.getCurrentCue());
+        
+        backend.advance(1.0);
+        
+        assertEquals(PlaybackState.STOPPED, controller.getState());
+        assertNull(controller.getCurrentCue());
+        assertTrue(statuses.contains("Cue complete: Doorbell"));
+    }
+    
+    @Test
+    void testLatencyIsMeasuredForEveryGo() {
+        Cue cue = new Cue(1, "Gunshot", testAudioFile.toString());
+        int gos = 2000;
+        
+        for (int i = 0; i < gos; i++) {
+            controller.playCue(cue);
+            if (i % 8 == 7) {
+                backend.advance(1.0);
+            }
+        }
+        backend.advance(1.0);
+        
+        assertEquals(gos, controller.getLatencyMonitor().getGoToPlaying().getCount());
+        assertEquals(gos, backend.getPlaysStarted());
+        AudioPlayerPool pool = controller.getAudioService().getPlayerPool();
+        assertEquals(0, pool.getActiveTrackCount());
+    }
+    
+    @Test
+    void testPauseAndResume() {
+        controller.playCue(new Cue(1, "Ambience", testAudioFile.toString()));
+        backend.advance(0.25);
+        
+        controller.pause();
+        assertEquals(PlaybackState.PAUSED, controller.getState());
+        backend.advance(5.0);
+        
+        controller.resume();
+        assertEquals(PlaybackState.PLAYING, controller.getState());
+        backend.advance(0.75);
+        assertEquals(PlaybackState.STOPPED, controller.getState());
+    }
+    
+    @Test
+    void testStateChangeFiresOnlyWhenAggregateChanges() {
+        List<PlaybackState> states = new ArrayList<>();
+        controller.setStateChangeListener(states::add);
+        
+        controller.playCue(new Cue(1, "Rain", testAudioFile.toString()));
+        controller.playCue(new Cue(2, "Wind", testAudioFile.toString()));
+        controller.playCue(new Cue(3, "Birds", testAudioFile.toString()));
+        controller.pause();
+        controller.resume();
+        backend.advance(1.0);
+        
+        assertEquals(List.of(PlaybackState.PLAYING, PlaybackState.PAUSED, PlaybackState.PLAYING,
+            PlaybackState.STOPPED), states);
+        assertEquals(PlaybackState.STOPPED, controller.getState());
+    }
+    
+    @Test
+    void testFadeCueStopsItsTarget() {
+        useLongCues();
+        Cue music = new Cue(1, "Music", testAudioFile.toString());
+        Cue fade = Cue.fadeCue(2, "Fade music", 1, 0.0, 2.0, FadeCurve.EQUAL_POWER, true);
+        AudioPlayerPool pool = controller.getAudioService().getPlayerPool();
+        
+        controller.playCue(music);
+        backend.advance(1.0);
+        controller.playCue(fade);
+        backend.advance(1.0);
+        
+        double volume = pool.getActiveTracks().get(0).getVolume();
+        assertEquals(Math.cos(Math.PI / 4), volume, 1e-9);
+        
+        backend.advance(1.0);
+        assertEquals(0, pool.getActiveTrackCount());
+        assertEquals(PlaybackState.STOPPED, controller.getState());
+    }
+    
+    @Test
+    void testFadeCueWithoutRunningTarget() {
+        List<String> statuses = new ArrayList<>();
+        controller.setStatusUpdateListener(statuses::add);
+        
+        controller.playCue(Cue.fadeCue(2, "Fade", 1, 0.0, 2.0, FadeCurve.LINEAR, true));
+        
+        assertTrue(statuses.contains("Fade: cue 1 is not playing"));
+        assertEquals(PlaybackState.STOPPED, controller.getState());
+    }
+    
+    @Test
+    void testStopFadesOutCuesWithFadeTime() {
+        useLongCues();
+        Cue music = new Cue(1, "Music", testAudioFile.toString());
+        music.setFadeTime(2.0);
+        AudioPlayerPool pool = controller.getAudioService().getPlayerPool();
+        
+        controller.playCue(music);
+        controller.stop();
+        assertEquals(PlaybackState.PLAYING, controller.getState());
+        
+        backend.advance(1.0);
+        assertEquals(0.5, pool.getActiveTracks().get(0).getVolume(), 1e-9);
+        
+        backend.advance(1.0);
+        assertEquals(0, pool.getActiveTrackCount());
+        assertEquals(PlaybackState.STOPPED, controller.getState());
+    }
+    
+    @Test
+    void testSecondStopCutsFadeOut() {
+        useLongCues();
+        Cue music = new Cue(1, "Music", testAudioFile.toString());
+        music.setFadeTime(5.0);
+        
+        controller.playCue(music);
+        controller.stop();
+        controller.stop();
+        
+        assertEquals(0, controller.getAudioService().getPlayerPool().getActiveTrackCount());
+        assertEquals(0, backend.getPlayingVoiceCount());
+    }
+    
+    @Test
+    void testStopWithoutFadeFreesTheTracks() {
+        useLongCues();
+        AudioPlayerPool pool = controller.getAudioService().getPlayerPool();
+        controller.setVoiceStealing(VoiceStealing.OFF);
+        
+        // More STOPs than the pool has tracks: stopped cues must not hold on to theirs
+        for (int i = 1; i <= pool.getMaxPoolSize() + 2; i++) {
+            controller.playCue(new Cue(i, "Effect " + i, testAudioFile.toString()));
+            controller.stop();
+            assertEquals(0, pool.getActiveTrackCount());
+        }
+        assertNull(controller.getCueForTrack(controller.getCurrentTrackId()));
+        assertEquals(0, controller.getVoiceStealCount());
+    }
+    
+    @Test
+    void testAutoFollowStartsWithoutGap() {
+        Cue intro = Cue.withTimingAndAutoFollow(1, "Intro", testAudioFile.toString(), 0.0, 0.0, true);
+        Cue verse = new Cue(2, "Verse", testAudioFile.toString());
+        useChain(intro, verse);
+        AudioPlayerPool pool = controller.getAudioService().getPlayerPool();
+        
+        controller.playCue(intro);
+        assertEquals(2, pool.getActiveTrackCount()); // The verse is pre-rolled
+        
+        backend.advance(1.25);
+        
+        assertEquals(verse, controller.getCurrentCue());
+        assertEquals(1, pool.getActiveTrackCount());
+        assertEquals(0.25, pool.getActiveTracks().get(0).getCurrentTime(), 1e-9);
+        assertEquals(PlaybackState.PLAYING, controller.getState());
+        assertEquals(2, backend.getPlaysStarted());
+    }
+    
+    @Test
+    void testAutoFollowCrossfade() {
+        Cue intro = Cue.withTimingAndAutoFollow(1, "Intro", testAudioFile.toString(), 0.0, 0.0, true);
+        intro.setCrossfadeTime(0.5);
+        Cue verse = new Cue(2, "Verse", testAudioFile.toString());
+        useChain(intro, verse);
+        AudioPlayerPool pool = controller.getAudioService().getPlayerPool();
+        
+        controller.playCue(intro);
+        AudioTrack introTrack = pool.getTrack(controller.getCurrentTrackId());
+        backend.advance(0.75);
+        
+        AudioTrack verseTrack = pool.getActiveTracks().stream().filter(track -> track != introTrack).findFirst().orElseThrow();
+        assertTrue(verseTrack.isPlaying());
+        assertEquals(Math.cos(Math.PI / 4), introTrack.getVolume(), 1e-9);
+        assertEquals(Math.sin(Math.PI / 4), verseTrack.getVolume(), 1e-9);
+        
+        backend.advance(0.25);
+        assertEquals(verse, controller.getCurrentCue());
+        assertEquals(0.5, verseTrack.getCurrentTime(), 1e-9);
+    }
+    
+    @Test
+    void testPlaylistSizesThePool() {
+        Playlist playlist = new Playlist();
+        for (int i = 1; i <= 30; i++) {
+            playlist.addCue(new Cue(i, "Effect " + i, testAudioFile.toString(), 12.0, 0.0, 0.0, false));
+        }
+        
+        controller.setPlaylist(playlist);
+        
+        // Twelve-second effects a second apart: twelve at once
+        AudioPlayerPool pool = controller.getAudioService().getPlayerPool();
+        assertEquals(12, pool.getPlannedPoolSize());
+        assertEquals(20, pool.getMaxPoolSize());
+        assertEquals(12, pool.getAvailableTrackCount());
+    }
+    
+    @Test
+    void testStopCancelsChainedCue() {
+        Cue intro = Cue.withTimingAndAutoFollow(1, "Intro", testAudioFile.toString(), 0.0, 0.0, true);
+        Cue verse = new Cue(2, "Verse", testAudioFile.toString());
+        useChain(intro, verse);
+        
+        controller.playCue(intro);
+        controller.stop();
+        backend.advance(2.0);
+        
+        assertEquals(1, backend.getPlaysStarted());
+        assertEquals(0, backend.getPlayingVoiceCount());
+        assertEquals(PlaybackState.STOPPED, controller.getState());
+    }
+    
+    @Test
+    void testFullPoolStealsOldestCue() {
+        useLongCues();
+        AudioPlayerPool pool = controller.getAudioService().getPlayerPool();
+        controller.setVoiceStealing(VoiceStealing.OLDEST);
+        List<String> statuses = new ArrayList<>();
+        controller.setStatusUpdateListener(statuses::add);
+        List<Cue> completed = new ArrayList<>();
+        controller.setOnCueCompleteListener(completed::add);
+        
+        Cue first = Cue.withTimingAndAutoFollow(1, "Rain", testAudioFile.toString(), 0.0, 0.0, true);
+        controller.playCue(first);
+        for (int i = 2; i <= pool.getMaxPoolSize(); i++) {
+            backend.advance(0.1);
+            controller.playCue(new Cue(i, "Effect " + i, testAudioFile.toString()));
+        }
+        Cue extra = new Cue(99, "Thunder", testAudioFile.toString());
+        controller.playCue(extra);
+        
+        assertEquals(1, controller.getVoiceStealCount());
+        assertEquals(extra, controller.getCurrentCue());
+        assertTrue(statuses.contains("Too many cues playing: stopped cue 1"));
+        
+        // The stolen cue is cut short: it neither completes nor auto-follows
+        backend.advance(0.1);
+        assertEquals(pool.getMaxPoolSize(), pool.getActiveTrackCount());
+        assertEquals(pool.getMaxPoolSize(), backend.getPlayingVoiceCount());
+        backend.advance(10.0);
+        assertFalse(completed.contains(first));
+        assertEquals(0, pool.getActiveTrackCount());
+    }
+    
+    /**
+     * Puts the cues in a playlist and follows on like the main window does.
+     */
+    private void useChain(Cue... cues) {
+        Playlist playlist = new Playlist();
+        for (Cue cue : cues) {
+            playlist.addCue(cue);
+        }
+        controller.setPlaylist(playlist);
+        controller.setOnCueCompleteListener(completed -> {
+            int index = playlist.getCues().indexOf(completed);
+            controller.playCue(playlist.getCue(index + 1));
+        });
+    }
+    
+    /**
+     * Replaces the controller with one whose cues last 10 seconds.
+     */
+    private void useLongCues() {
+        controller.dispose();
+        backend = new NullBackend(10.0);
+        controller = new AudioController(backend);
+    }
+}
@@ -1,5 +1,8 @@
 package com.winlabs.model;
 
+import com.winlabs.service.audio.MixerVoice;
+import com.winlabs.service.audio.PcmAudio;
+import com.winlabs.service.audio.PcmMixer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -49,6 +52,66 @@ class AudioTrackTest {
         assertNull(audioTrack.getMediaPlayer());
     }
     
+    @Test
+    void testVoiceDelegation() {
+        PcmMixer mixer = new PcmMixer(1000f, 1, 4, 2, Runnable::run);
+        MixerVoice voice = mixer.createVoice(new PcmAudio(new float[8], 1, 1000f));
+        
+        audioTrack.setVoice(voice);
+        assertSame(voice, audioTrack.getVoice());
+        assertNull(audioTrack.getMediaPlayer());
+        
+        audioTrack.setVolume(0.5);
+        assertEquals(0.5, voice.getVolume(), 0.001);
+        assertEquals(0.008, audioTrack.getDuration(), 0.0001);
+        
+        assertSame(voice, audioTrack.detachVoice());
+        assertNull(audioTrack.getVoice());
+        assertTrue(voice.isReusable()); // Detaching does not dispose
+    }
+    
+    @Test
+    void testTrimFollowsTheAttachedVoice() {
+        PcmMixer mixer = new PcmMixer(1000f, 1, 4, 2, Runnable::run);
+        MixerVoice voice = mixer.createVoice(new PcmAudio(new float[8], 1, 1000f));
+        
+        audioTrack.setTrim(0.5);
+        audioTrack.setVoice(voice);
+        assertEquals(0.5, voice.getTrim(), 0.001);
+        
+        audioTrack.setTrim(2.0);
+        assertEquals(2.0, voice.getTrim(), 0.001);
+        
+        audioTrack.detachVoice();
+        assertEquals(1.0, voice.getTrim(), 0.001); // Not carried to the next cue
+    }
+    
+    @Test
+    void testPlayRangeFollowsTheAttachedVoice() {
+        PcmMixer mixer = new PcmMixer(1000f, 1, 4, 2, Runnable::run);
+        MixerVoice voice = mixer.createVoice(new PcmAudio(new float[100], 1, 1000f));
+        
+        audioTrack.setPlayRange(0.02, 0.08);
+        audioTrack.setVoice(voice);
+        assertEquals(0.02, voice.getCurrentTime(), 0.001);
+        assertEquals(0.08, audioTrack.getDuration(), 0.001);
+        
+        audioTrack.detachVoice();
+        assertEquals(0.1, voice.getDuration(), 0.001); // Not carried to the next cue
+        assertEquals(0.0, voice.getCurrentTime(), 0.001);
+    }
+    
+    @Test
+    void testReadyListenerFiresForLoadedVoice() {
+        PcmMixer mixer = new PcmMixer(1000f, 1, 4, 2, Runnable::run);
+        audioTrack.setVoice(mixer.createVoice(new PcmAudio(new float[8], 1, 1000f)));
+        AtomicBoolean ready = new AtomicBoolean(false);
+        
+        audioTrack.setOnReadyListener(() -> ready.set(true));
+        
+        assertTrue(ready.get());
+    }
+    
     @Test
     void testStateManagement() {
         assertEquals(PlaybackState.STOPPED, audioTrack.getState());
@@ -142,8 +205,12 @@ class AudioTrackTest {
     
     @Test
     void testReset() {
+        PcmMixer mixer = new PcmMixer(1000f, 1, 4, 2, Runnable::run);
+        audioTrack.setVoice(mixer.createVoice(new PcmAudio(new float[3000], 1, 1000f)));
         audioTrack.setState(PlaybackState.PLAYING);
         audioTrack.setFilePath("/test/path.mp3");
+        audioTrack.setLoop(1.0, 2.0, 0);
+        assertTrue(audioTrack.isLooping());
         long initialTimestamp = audioTrack.getLastUsedTimestamp();
         
         try {
@@ -155,9 +222,25 @@ class AudioTrackTest {
         audioTrack.reset();
         
         assertEquals(PlaybackState.STOPPED, audioTrack.getState());
+        assertFalse(audioTrack.isLooping());
         assertTrue(audioTrack.getLastUsedTimestamp() > initialTimestamp);
     }
     
+    @Test
+    void testLoopRefusedByTheVoiceIsNotLooping() {
+        PcmMixer mixer = new PcmMixer(1000f, 1, 4, 2, Runnable::run);
+        audioTrack.setLoop(1.0, 2.0, 0);
+        assertFalse(audioTrack.isLooping()); // No voice to play it yet
+        
+        audioTrack.setVoice(mixer.createStreamingVoice(new PcmAudio(new float[3000], 1, 1000f)));
+        assertFalse(audioTrack.isLooping()); // Streaming voices play through once
+        
+        audioTrack.setVoice(mixer.createVoice(new PcmAudio(new float[3000], 1, 1000f)));
+        assertTrue(audioTrack.isLooping());
+        audioTrack.detachVoice();
+        assertFalse(audioTrack.isLooping());
+    }
+    
     @Test
     void testDispose() {
         audioTrack.setFilePath("/test/path.mp3");
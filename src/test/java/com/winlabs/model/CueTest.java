@@ -21,6 +21,12 @@ class CueTest {
         assertEquals(0.0, cue.getPreWait());
         assertEquals(0.0, cue.getPostWait());
         assertFalse(cue.isAutoFollow());
+        assertEquals(0.0, cue.getCrossfadeTime());
+        assertFalse(cue.isKeepResident());
+        assertEquals(0, cue.getPriority());
+        assertEquals(CueType.AUDIO, cue.getType());
+        assertEquals(0.0, cue.getFadeTime());
+        assertEquals(FadeCurve.LINEAR, cue.getFadeCurve());
         assertEquals("", cue.getFilePath());
     }
     
@@ -70,6 +76,49 @@ class CueTest {
         assertFalse(cue.isAutoFollow());
     }
     
+    @Test
+    void testSetAndGetPriority() {
+        cue.setPriority(-3);
+        assertEquals(-3, cue.getPriority());
+        cue.setPriority(10);
+        assertEquals(10, cue.getPriority());
+    }
+    
+    @Test
+    void testSetAndGetKeepResident() {
+        cue.setKeepResident(true);
+        assertTrue(cue.isKeepResident());
+        cue.setKeepResident(false);
+        assertFalse(cue.isKeepResident());
+    }
+    
+    @Test
+    void testFadeCueFactory() {
+        Cue fade = Cue.fadeCue(4, "Fade out music", 2, 0.0, 3.5, FadeCurve.EQUAL_POWER, true);
+        
+        assertTrue(fade.isFadeCue());
+        assertEquals(2, fade.getFadeTarget());
+        assertEquals(0.0, fade.getFadeLevel());
+        assertEquals(3.5, fade.getFadeTime());
+        assertEquals(FadeCurve.EQUAL_POWER, fade.getFadeCurve());
+        assertTrue(fade.isStopAfterFade());
+        assertEquals("", fade.getFilePath());
+    }
+    
+    @Test
+    void testFadeValidation() {
+        assertThrows(IllegalArgumentException.class, () -> cue.setFadeLevel(1.5));
+        assertThrows(IllegalArgumentException.class, () -> cue.setFadeLevel(-0.1));
+        assertThrows(IllegalArgumentException.class, () -> cue.setFadeTime(-1.0));
+        assertThrows(IllegalArgumentException.class, () -> cue.setCrossfadeTime(-0.5));
+        assertThrows(IllegalArgumentException.class, () -> cue.setFadeTarget(-1));
+        
+        cue.setFadeCurve(null);
+        cue.setType(null);
+        assertEquals(FadeCurve.LINEAR, cue.getFadeCurve());
+        assertEquals(CueType.AUDIO, cue.getType());
+    }
+    
     @Test
     void testSetAndGetFilePath() {
         String path = "C:/Music/song.mp3";
@@ -386,4 +435,67 @@ class CueTest {
         });
         assertTrue(exception.getMessage().contains("filePath cannot be null"));
     }
+    
+    @Test
+    void testPreloadStateDefaultsToNone() {
+        assertEquals(PreloadState.NONE, cue.getPreloadState());
+        
+        cue.setPreloadState(PreloadState.READY);
+        assertEquals(PreloadState.READY, cue.getPreloadState());
+        
+        cue.setPreloadState(null);
+        assertEquals(PreloadState.NONE, cue.getPreloadState());
+    }
+    
+    @Test
+    void testNormalizationGain() {
+        assertEquals(0.0, cue.getNormalizationGain(), 0.001);
+        assertEquals(1.0, cue.getNormalizationFactor(), 1e-9);
+        
+        cue.setNormalizationGain(-6.0);
+        assertEquals(0.501, cue.getNormalizationFactor(), 0.001);
+        cue.setNormalizationGain(20.0);
+        assertEquals(10.0, cue.getNormalizationFactor(), 1e-9);
+        
+        cue.setNormalizationGain(Double.NaN);
+        assertEquals(0.0, cue.getNormalizationGain(), 0.001);
+    }
+    
+    @Test
+    void testApplyAudibleRange() {
+        assertTrue(cue.isAutoTrim());
+        
+        cue.applyAudibleRange(new AudibleRange(0.4, 9.2, 10.0));
+        assertEquals(0.4, cue.getStartTrim(), 1e-9);
+        assertEquals(9.2, cue.getEndTrim(), 1e-9);
+        
+        // Audible to the end plays to the end; a silent file is not trimmed at all
+        cue.applyAudibleRange(new AudibleRange(0.4, 10.0, 10.0));
+        assertEquals(0.0, cue.getEndTrim(), 1e-9);
+        cue.applyAudibleRange(new AudibleRange(0.0, 0.0, 10.0));
+        assertEquals(0.0, cue.getStartTrim(), 1e-9);
+        
+        cue.setStartTrim(-1.0);
+        assertEquals(0.0, cue.getStartTrim(), 1e-9);
+    }
+    
+    @Test
+    void testLoopPoints() {
+        Cue cue = new Cue();
+        assertFalse(cue.isLoop());
+        
+        cue.setLoopStart(2.5);
+        cue.setLoopEnd(12.0);
+        assertTrue(cue.isLoop());
+        assertEquals(0, cue.getLoopCount()); // Loops until devamped
+        
+        // An end at or before the start is no loop
+        cue.setLoopEnd(2.5);
+        assertFalse(cue.isLoop());
+        
+        cue.setLoopCount(-3);
+        assertEquals(0, cue.getLoopCount());
+        cue.setLoopStart(Double.NaN);
+        assertEquals(0.0, cue.getLoopStart(), 1e-9);
+    }
 }
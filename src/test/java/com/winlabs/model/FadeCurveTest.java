@@ -0,0 +1,51 @@
+package com.winlabs.model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for FadeCurve.
+ */
+class FadeCurveTest {
+    
+    @Test
+    void testEveryCurveHitsItsEndpoints() {
+        for (FadeCurve curve : FadeCurve.values()) {
+            assertEquals(1.0, curve.gainAt(0.0, 1.0, 0.0), 1e-9, curve.name());
+            assertEquals(0.0, curve.gainAt(1.0, 1.0, 0.0), 1e-9, curve.name());
+            assertEquals(0.2, curve.gainAt(0.0, 0.2, 0.8), 1e-9, curve.name());
+            assertEquals(0.8, curve.gainAt(1.0, 0.2, 0.8), 1e-9, curve.name());
+        }
+    }
+    
+    @Test
+    void testProgressIsClamped() {
+        assertEquals(0.0, FadeCurve.LINEAR.gainAt(1.5, 1.0, 0.0), 1e-9);
+        assertEquals(1.0, FadeCurve.LINEAR.gainAt(-0.5, 1.0, 0.0), 1e-9);
+    }
+    
+    @Test
+    void testLinear() {
+        assertEquals(0.75, FadeCurve.LINEAR.gainAt(0.25, 1.0, 0.0), 1e-9);
+        assertEquals(0.5, FadeCurve.LINEAR.gainAt(0.5, 0.0, 1.0), 1e-9);
+    }
+    
+    @Test
+    void testEqualPowerCrossfadeKeepsConstantPower() {
+        for (double p = 0.0; p <= 1.0; p += 0.1) {
+            double out = FadeCurve.EQUAL_POWER.gainAt(p, 1.0, 0.0);
+            double in = FadeCurve.EQUAL_POWER.gainAt(p, 0.0, 1.0);
+            assertEquals(1.0, out * out + in * in, 1e-9);
+        }
+    }
+    
+    @Test
+    void testSCurveIsSymmetric() {
+        assertEquals(0.5, FadeCurve.S_CURVE.gainAt(0.5, 1.0, 0.0), 1e-9);
+        double early = 1.0 - FadeCurve.S_CURVE.gainAt(0.1, 1.0, 0.0);
+        double late = FadeCurve.S_CURVE.gainAt(0.9, 1.0, 0.0);
+        assertEquals(early, late, 1e-9);
+        // Eases out of the start more slowly than a linear fade
+        assertTrue(early < 0.1);
+    }
+}
@@ -0,0 +1,71 @@
+package com.winlabs.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for OutputRouting.
+ */
+class OutputRoutingTest {
+
+    private static final OutputDevice FOLDBACK = new OutputDevice("Foldback", "USB Audio", 2);
+    private static final OutputDevice SUB = new OutputDevice("Sub", "USB Audio", 1);
+
+    @Test
+    void testDefaultRoutesToFirstDeviceOnly() {
+        OutputRouting routing = OutputRouting.defaultFor(2, List.of(OutputDevice.MAINS, FOLDBACK));
+
+        assertEquals(4, routing.getOutputs());
+        assertEquals(1.0, routing.getGain(0, 0), 0.0);
+        assertEquals(1.0, routing.getGain(1, 1), 0.0);
+        assertEquals(0.0, routing.getGain(0, 1), 0.0);
+        assertEquals(0.0, routing.getGain(0, 2), 0.0);
+        assertEquals(0.0, routing.getGain(1, 3), 0.0);
+    }
+
+    @Test
+    void testDefaultSumsToMonoFirstDevice() {
+        OutputRouting routing = OutputRouting.defaultFor(2, List.of(SUB, FOLDBACK));
+
+        assertEquals(0.5, routing.getGain(0, 0), 0.0);
+        assertEquals(0.5, routing.getGain(1, 0), 0.0);
+        assertEquals(0.0, routing.getGain(1, 1), 0.0);
+    }
+
+    @Test
+    void testWithGainCopiesAndClamps() {
+        OutputRouting silent = OutputRouting.silent(2, 3);
+        OutputRouting routed = silent.withGain(1, 2, 10.0).withGain(0, 1, -1.0);
+
+        assertEquals(0.0, silent.getGain(1, 2), 0.0);
+        assertEquals(OutputRouting.MAX_GAIN, routed.getGain(1, 2), 0.0);
+        assertEquals(0.0, routed.getGain(0, 1), 0.0);
+        assertEquals(0.0, routed.getGain(5, 5), 0.0); // Out of range reads as not routed
+        assertThrows(IndexOutOfBoundsException.class, () -> silent.withGain(2, 0, 1.0));
+    }
+
+    @Test
+    void testOfRoundTripsThroughArray() {
+        OutputRouting routing = OutputRouting.silent(2, 2).withGain(0, 1, 0.5).withGain(1, 0, 0.25);
+
+        OutputRouting copy = OutputRouting.of(2, 2, routing.toArray());
+
+        assertEquals(routing, copy);
+        assertEquals(routing.hashCode(), copy.hashCode());
+        assertThrows(IllegalArgumentException.class, () -> OutputRouting.of(2, 2, new double[3]));
+    }
+
+    @Test
+    void testWithOutputsKeepsSharedChannels() {
+        OutputRouting routing = OutputRouting.silent(2, 4).withGain(0, 1, 0.5).withGain(1, 3, 1.0);
+
+        OutputRouting narrower = routing.withOutputs(2);
+
+        assertEquals(2, narrower.getOutputs());
+        assertEquals(0.5, narrower.getGain(0, 1), 0.0);
+        assertEquals(0.0, narrower.getGain(1, 1), 0.0);
+    }
+}
@@ -0,0 +1,55 @@
+package com.winlabs.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for PlaylistSettings.
+ */
+class PlaylistSettingsTest {
+
+    @Test
+    void testResetToDefaultsRestoresEverySetting() {
+        PlaylistSettings settings = new PlaylistSettings();
+        settings.setMasterVolume(0.5);
+        settings.setAudioFileDirectory("/shows/audio");
+        settings.setLookAheadCount(7);
+        settings.setResidentCacheMb(1024);
+        settings.setEvictionPolicy(EvictionPolicyType.MEMORY_PRESSURE);
+        settings.setEvictionIdleSeconds(120);
+        settings.setEvictionKeepCount(2);
+        settings.setEvictionMemoryPercent(60);
+        settings.setVoiceStealing(VoiceStealing.BEDS_LAST);
+        settings.setLoudnessTarget(-16.0);
+        settings.setSilenceThreshold(-45.0);
+        settings.setOutputDevices(List.of(OutputDevice.MAINS, new OutputDevice("Foldback", "USB Audio", 2)));
+        settings.setGroupLevels(Map.of("Music", 0.5));
+        settings.setDefaultPreWait(1.0);
+        settings.setDefaultPostWait(2.0);
+        settings.setDefaultAutoFollow(true);
+
+        settings.resetToDefaults();
+
+        PlaylistSettings defaults = new PlaylistSettings();
+        assertEquals(defaults.getMasterVolume(), settings.getMasterVolume(), 0.0);
+        assertEquals(defaults.getAudioFileDirectory(), settings.getAudioFileDirectory());
+        assertEquals(defaults.getLookAheadCount(), settings.getLookAheadCount());
+        assertEquals(defaults.getResidentCacheMb(), settings.getResidentCacheMb());
+        assertEquals(defaults.getEvictionPolicy(), settings.getEvictionPolicy());
+        assertEquals(defaults.getEvictionIdleSeconds(), settings.getEvictionIdleSeconds());
+        assertEquals(defaults.getEvictionKeepCount(), settings.getEvictionKeepCount());
+        assertEquals(defaults.getEvictionMemoryPercent(), settings.getEvictionMemoryPercent());
+        assertEquals(defaults.getVoiceStealing(), settings.getVoiceStealing());
+        assertEquals(defaults.getLoudnessTarget(), settings.getLoudnessTarget(), 0.0);
+        assertEquals(defaults.getSilenceThreshold(), settings.getSilenceThreshold(), 0.0);
+        assertEquals(defaults.getOutputDevices(), settings.getOutputDevices());
+        assertEquals(defaults.getGroupLevels(), settings.getGroupLevels());
+        assertEquals(defaults.getDefaultPreWait(), settings.getDefaultPreWait(), 0.0);
+        assertEquals(defaults.getDefaultPostWait(), settings.getDefaultPostWait(), 0.0);
+        assertEquals(defaults.isDefaultAutoFollow(), settings.isDefaultAutoFollow());
+    }
+}
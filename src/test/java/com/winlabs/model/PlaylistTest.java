@@ -2,6 +2,9 @@ package com.winlabs.model;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.BeforeEach;
+
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class PlaylistTest {
@@ -100,6 +103,29 @@ class PlaylistTest {
         assertEquals(3, cue3.getNumber());
     }
     
+    @Test
+    void testRenumberCuesKeepsFadeTargets() {
+        Cue doorbell = new Cue(1, "Doorbell", "doorbell.wav");
+        Cue music = new Cue(2, "Music", "music.wav");
+        Cue rain = new Cue(3, "Rain", "rain.wav");
+        Cue fadeMusic = Cue.fadeCue(4, "Fade music", 2, 0.0, 3.0, FadeCurve.LINEAR, true);
+        Cue fadeDoorbell = Cue.fadeCue(5, "Fade doorbell", 1, 0.0, 1.0, FadeCurve.LINEAR, true);
+        Cue fadeRain = Cue.fadeCue(6, "Fade rain", 3, 0.0, 1.0, FadeCurve.LINEAR, true);
+        for (Cue cue : List.of(doorbell, music, rain, fadeMusic, fadeDoorbell, fadeRain)) {
+            playlist.addCue(cue);
+        }
+        
+        // Deleting a cue in front of the targets, as the main window does
+        playlist.removeCue(doorbell);
+        playlist.renumberCues();
+        
+        assertEquals(1, music.getNumber());
+        assertEquals(2, rain.getNumber());
+        assertEquals(1, fadeMusic.getFadeTarget());
+        assertEquals(2, fadeRain.getFadeTarget());
+        assertEquals(0, fadeDoorbell.getFadeTarget()); // Its target is gone, not some other cue
+    }
+    
     @Test
     void testSetAndGetName() {
         playlist.setName("My Show");
@@ -128,4 +154,40 @@ class PlaylistTest {
         assertTrue(result.contains("Test Playlist"));
         assertTrue(result.contains("2"));
     }
+    
+    @Test
+    void testGetUpcomingCues() {
+        for (int i = 1; i <= 6; i++) {
+            playlist.addCue(new Cue(i, "Cue " + i, "cue" + i + ".mp3"));
+        }
+        
+        List<Cue> upcoming = playlist.getUpcomingCues(1, 3);
+        assertEquals(3, upcoming.size());
+        assertEquals(playlist.getCue(1), upcoming.get(0));
+        assertEquals(playlist.getCue(3), upcoming.get(2));
+    }
+    
+    @Test
+    void testGetUpcomingCuesFollowsAutoFollowChains() {
+        playlist.addCue(Cue.withTimingAndAutoFollow(1, "Intro", "intro.mp3", 0.0, 0.0, true));
+        playlist.addCue(Cue.withTimingAndAutoFollow(2, "Verse", "verse.mp3", 0.0, 0.0, true));
+        playlist.addCue(new Cue(3, "Chorus", "chorus.mp3"));
+        playlist.addCue(new Cue(4, "Bridge", "bridge.mp3"));
+        playlist.addCue(new Cue(5, "Outro", "outro.mp3"));
+        
+        // One GO plays Intro -> Verse -> Chorus, the second GO plays Bridge
+        List<Cue> upcoming = playlist.getUpcomingCues(0, 2);
+        assertEquals(4, upcoming.size());
+        assertEquals("Bridge", upcoming.get(3).getName());
+    }
+    
+    @Test
+    void testGetUpcomingCuesAtEndOfList() {
+        playlist.addCue(new Cue(1, "First", "first.mp3"));
+        playlist.addCue(new Cue(2, "Second", "second.mp3"));
+        
+        assertEquals(1, playlist.getUpcomingCues(1, 3).size());
+        assertTrue(playlist.getUpcomingCues(2, 3).isEmpty());
+        assertTrue(playlist.getUpcomingCues(0, 0).isEmpty());
+    }
 }
@@ -68,6 +68,44 @@ class SettingsTest {
         assertEquals(60, settings.getAutoSaveInterval());
     }
     
+    @Test
+    void testPlaybackBackendProperty() {
+        assertEquals(PlaybackBackend.JAVAFX, settings.getPlaybackBackend());
+        
+        settings.setPlaybackBackend(PlaybackBackend.PCM_MIXER);
+        assertEquals(PlaybackBackend.PCM_MIXER, settings.getPlaybackBackend());
+        
+        // Null falls back to the default engine
+        settings.setPlaybackBackend(null);
+        assertEquals(PlaybackBackend.JAVAFX, settings.getPlaybackBackend());
+    }
+    
+    @Test
+    void testGoLatencyWarningProperty() {
+        assertEquals(50, settings.getGoLatencyWarningMs());
+        
+        settings.setGoLatencyWarningMs(120);
+        assertEquals(120, settings.getGoLatencyWarningMs());
+        
+        // Test minimum value (1 ms)
+        settings.setGoLatencyWarningMs(0);
+        assertEquals(1, settings.getGoLatencyWarningMs());
+    }
+    
+    @Test
+    void testProgressRateProperty() {
+        assertEquals(30, settings.getProgressRateHz());
+        
+        settings.setProgressRateHz(60);
+        assertEquals(60, settings.getProgressRateHz());
+        
+        // Test range (1-120 Hz)
+        settings.setProgressRateHz(0);
+        assertEquals(1, settings.getProgressRateHz());
+        settings.setProgressRateHz(500);
+        assertEquals(120, settings.getProgressRateHz());
+    }
+    
     @Test
     void testResetToDefaults() {
         // Change all settings
@@ -1,6 +1,19 @@
 package com.winlabs.service;
 
 import com.winlabs.model.AudioTrack;
+import com.winlabs.model.PlaybackBackend;
+import com.winlabs.model.PlaybackState;
+import com.winlabs.model.VoiceStealing;
+import com.winlabs.service.audio.JavaFxBackend;
+import com.winlabs.service.audio.NullBackend;
+import com.winlabs.service.audio.NullVoice;
+import com.winlabs.service.audio.PcmAudio;
+import com.winlabs.service.audio.PcmCache;
+import com.winlabs.service.audio.PcmMixerBackend;
+import com.winlabs.service.eviction.Eviction;
+import com.winlabs.service.eviction.EvictionCandidate;
+import com.winlabs.service.eviction.LeastRecentlyUsedPolicy;
+import com.winlabs.service.eviction.ProtectUpcomingPolicy;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -8,7 +21,14 @@ import org.junit.jupiter.api.Test;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -211,16 +231,16 @@ class AudioPlayerPoolTest {
     }
     
     @Test
-    void testSetVolumeAll() {
+    void testSetMasterLevel() {
         pool.prewarm();
         
-        assertDoesNotThrow(() -> pool.setVolumeAll(0.5));
-        assertDoesNotThrow(() -> pool.setVolumeAll(0.0));
-        assertDoesNotThrow(() -> pool.setVolumeAll(1.0));
+        assertDoesNotThrow(() -> pool.setMasterLevel(0.5));
+        assertDoesNotThrow(() -> pool.setMasterLevel(0.0));
+        assertDoesNotThrow(() -> pool.setMasterLevel(1.0));
         
         // Test clamping
-        assertDoesNotThrow(() -> pool.setVolumeAll(-0.5));
-        assertDoesNotThrow(() -> pool.setVolumeAll(1.5));
+        assertDoesNotThrow(() -> pool.setMasterLevel(-0.5));
+        assertDoesNotThrow(() -> pool.setMasterLevel(1.5));
     }
     
     @Test
@@ -355,4 +375,670 @@ class AudioPlayerPoolTest {
             growablePool.dispose();
         }
     }
+    
+    @Test
+    void testStandbyCountersStartAtZero() {
+        assertEquals(0, pool.getStandbyCount());
+        assertEquals(0, pool.getStandbyHitCount());
+        assertEquals(0, pool.getStandbyMissCount());
+        assertEquals(8, pool.getStandbyCapacity()); // Default standby size is 8
+    }
+    
+    @Test
+    void testCustomStandbyCapacity() {
+        AudioPlayerPool customPool = new AudioPlayerPool(2, 4, 3);
+        assertEquals(3, customPool.getStandbyCapacity());
+        
+        customPool.setStandbyCapacity(1);
+        assertEquals(1, customPool.getStandbyCapacity());
+        
+        customPool.dispose();
+    }
+    
+    @Test
+    void testPrepareWithNonExistentFile() {
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> {
+            pool.prepare("/nonexistent/file.mp3");
+        });
+        
+        assertTrue(exception.getMessage().contains("does not exist"));
+        assertFalse(pool.isPrepared("/nonexistent/file.mp3"));
+    }
+    
+    @Test
+    void testAcquireWithoutPrepareIsStandbyMiss() {
+        pool.prewarm();
+        
+        try {
+            pool.acquireTrack(testAudioFile.toString());
+        } catch (Exception e) {
+            // Expected - test file isn't valid media
+        }
+        
+        // The standby lookup happens before the media is loaded
+        assertEquals(0, pool.getStandbyHitCount());
+        assertEquals(1, pool.getStandbyMissCount());
+    }
+    
+    @Test
+    void testDefaultBackendIsJavaFx() {
+        assertInstanceOf(JavaFxBackend.class, pool.getBackend());
+    }
+    
+    @Test
+    void testPcmMixerBackendRejectsUndecodableFile() {
+        AudioPlayerPool mixerPool = new AudioPlayerPool(PlaybackBackend.PCM_MIXER);
+        mixerPool.prewarm();
+        
+        // The empty test file cannot be decoded, which fails before any output line is opened
+        assertThrows(Exception.class, () -> mixerPool.acquireTrack(testAudioFile.toString()));
+        PcmMixerBackend backend = assertInstanceOf(PcmMixerBackend.class, mixerPool.getBackend());
+        assertFalse(backend.getMixer().isRunning());
+        assertEquals(1, mixerPool.getStandbyMissCount());
+        
+        mixerPool.dispose();
+    }
+    
+    @Test
+    void testNullBackendPlaysTrackToEnd() throws Exception {
+        NullBackend backend = new NullBackend(2.0);
+        AudioPlayerPool nullPool = new AudioPlayerPool(2, 4, 4, backend);
+        nullPool.prewarm();
+        
+        AudioTrack track = nullPool.acquireTrack(testAudioFile.toString());
+        track.play();
+        assertTrue(track.isPlaying());
+        assertEquals(1, backend.getPlayingVoiceCount());
+        
+        backend.advance(1.0);
+        assertEquals(1.0, track.getCurrentTime(), 1e-6);
+        assertEquals(1, nullPool.getActiveTrackCount());
+        
+        // Reaching the end releases the track and keeps its voice in standby
+        backend.advance(1.5);
+        assertEquals(0, nullPool.getActiveTrackCount());
+        assertEquals(0, backend.getPlayingVoiceCount());
+        assertTrue(nullPool.isPrepared(testAudioFile.toString()));
+        
+        AudioTrack again = nullPool.acquireTrack(testAudioFile.toString());
+        assertEquals(1, nullPool.getStandbyHitCount());
+        assertEquals(1, backend.getVoicesOpened());
+        assertEquals(0.0, again.getCurrentTime(), 1e-6);
+        
+        nullPool.dispose();
+    }
+    
+    @Test
+    void testNullBackendSustainsThousandsOfGos() throws Exception {
+        NullBackend backend = new NullBackend(0.5);
+        AudioPlayerPool nullPool = new AudioPlayerPool(4, 16, 8, backend);
+        nullPool.prewarm();
+        nullPool.disableAutoCulling();
+        
+        List<Path> files = List.of(testAudioFile, 
+            Files.createTempFile("test-audio", ".mp3"), 
+            Files.createTempFile("test-audio", ".mp3"), 
+            Files.createTempFile("test-audio", ".mp3"));
+        
+        int gos = 5000;
+        for (int i = 0; i < gos; i++) {
+            AudioTrack track = nullPool.acquireTrack(files.get(i % files.size()).toString());
+            track.play();
+            // Keep four cues overlapping, as in a busy scene
+            if (i % files.size() == files.size() - 1) {
+                backend.advance(0.5);
+            }
+        }
+        
+        assertEquals(gos, backend.getPlaysStarted());
+        assertEquals(0, nullPool.getActiveTrackCount());
+        assertTrue(nullPool.getTotalTrackCount() <= 16);
+        // Only the first GO of each file had to open a voice; the rest came from standby
+        assertEquals(files.size(), backend.getVoicesOpened());
+        
+        nullPool.dispose();
+        for (Path file : files.subList(1, files.size())) {
+            Files.deleteIfExists(file);
+        }
+    }
+    
+    @Test
+    void testCachedFileStartsWithoutTouchingDisk() throws Exception {
+        PcmCache cache = new PcmCache(PcmCache.DEFAULT_BUDGET_BYTES, 
+            path -> new PcmAudio(new float[1000], 1, 1000f));
+        NullBackend backend = new NullBackend(1.0) {
+            @Override
+            public NullVoice open(Path path) {
+                try {
+                    cache.load(path);
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+                return super.open(path);
+            }
+            
+            @Override
+            public PcmCache getPcmCache() {
+                return cache;
+            }
+        };
+        AudioPlayerPool cachingPool = new AudioPlayerPool(1, 4, 0, backend);
+        
+        cachingPool.releaseTrack(cachingPool.acquireTrack(testAudioFile.toString()));
+        assertSame(cache, cachingPool.getPcmCache());
+        assertTrue(cache.contains(testAudioFile));
+        
+        // The file is gone, but its decoded audio is still resident
+        Files.delete(testAudioFile);
+        AudioTrack track = cachingPool.acquireTrack(testAudioFile.toString());
+        
+        assertNotNull(track);
+        assertEquals(1, cache.getHitCount());
+        cachingPool.dispose();
+    }
+    
+    @Test
+    void testTimedAcquireWaitsForRelease() throws Exception {
+        AudioPlayerPool smallPool = new AudioPlayerPool(1, 1, 0, new NullBackend(1.0));
+        smallPool.disableAutoCulling();
+        AudioTrack held = smallPool.acquireTrack(testAudioFile.toString());
+        
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<AudioTrack> waiter = executor.submit(
+            () -> smallPool.acquireTrack(testAudioFile.toString(), 5, TimeUnit.SECONDS));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (smallPool.getWaitingCount() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(1, smallPool.getWaitingCount());
+        assertFalse(waiter.isDone());
+        
+        smallPool.releaseTrack(held);
+        AudioTrack track = waiter.get(5, TimeUnit.SECONDS);
+        
+        assertNotNull(track);
+        assertEquals(0, smallPool.getWaitingCount());
+        assertEquals(1, smallPool.getActiveTrackCount());
+        executor.shutdown();
+        smallPool.dispose();
+    }
+    
+    @Test
+    void testTimedAcquireTimesOut() throws Exception {
+        AudioPlayerPool smallPool = new AudioPlayerPool(1, 1, 0, new NullBackend(1.0));
+        smallPool.disableAutoCulling();
+        smallPool.acquireTrack(testAudioFile.toString());
+        
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+            () -> smallPool.acquireTrack(testAudioFile.toString(), 50, TimeUnit.MILLISECONDS));
+        
+        assertTrue(e.getMessage().contains("pool exhausted"));
+        assertEquals(0, smallPool.getWaitingCount());
+        smallPool.dispose();
+    }
+    
+    @Test
+    void testDoubleReleaseReturnsOnePermit() throws Exception {
+        AudioPlayerPool smallPool = new AudioPlayerPool(1, 1, 0, new NullBackend(1.0));
+        smallPool.disableAutoCulling();
+        AudioTrack track = smallPool.acquireTrack(testAudioFile.toString());
+        
+        smallPool.releaseTrack(track);
+        smallPool.releaseTrack(track);
+        
+        smallPool.acquireTrack(testAudioFile.toString());
+        assertThrows(IllegalStateException.class, () -> smallPool.acquireTrack(testAudioFile.toString()));
+        smallPool.dispose();
+    }
+    
+    @Test
+    void testConcurrentAcquireNeverExceedsMax() throws Exception {
+        int maxTracks = 8;
+        int threads = 16;
+        int iterations = 2000;
+        AudioPlayerPool sharedPool = new AudioPlayerPool(4, maxTracks, 8, new NullBackend(1.0));
+        sharedPool.disableAutoCulling();
+        AtomicInteger inUse = new AtomicInteger();
+        AtomicInteger maxInUse = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+        AtomicInteger acquired = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                workers.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < iterations; i++) {
+                        AudioTrack track = sharedPool.acquireTrack(testAudioFile.toString(), 5, TimeUnit.SECONDS);
+                        maxInUse.accumulateAndGet(inUse.incrementAndGet(), Math::max);
+                        maxActive.accumulateAndGet(sharedPool.getActiveTrackCount(), Math::max);
+                        acquired.incrementAndGet();
+                        inUse.decrementAndGet();
+                        sharedPool.releaseTrack(track);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get(60, TimeUnit.SECONDS);
+            }
+            
+            assertEquals(threads * iterations, acquired.get());
+            assertTrue(maxInUse.get() <= maxTracks, "In use peaked at " + maxInUse.get());
+            assertTrue(maxActive.get() <= maxTracks, "Active peaked at " + maxActive.get());
+            assertEquals(0, sharedPool.getActiveTrackCount());
+            assertEquals(0, sharedPool.getWaitingCount());
+            assertTrue(sharedPool.getAvailableTrackCount() <= sharedPool.getTargetPoolSize());
+            assertTrue(sharedPool.getTargetPoolSize() <= maxTracks);
+            // Every permit came back: the pool can be filled to its cap again
+            for (int i = 0; i < maxTracks; i++) {
+                sharedPool.acquireTrack(testAudioFile.toString());
+            }
+            assertThrows(IllegalStateException.class, () -> sharedPool.acquireTrack(testAudioFile.toString()));
+        } finally {
+            executor.shutdownNow();
+            sharedPool.dispose();
+        }
+    }
+    
+    @Test
+    void testSizeForPeakPrewarmsAndRaisesMax() {
+        AudioPlayerPool sizedPool = new AudioPlayerPool(2, 4, 2, new NullBackend(1.0));
+        
+        sizedPool.sizeForPeak(10);
+        assertEquals(10, sizedPool.getPlannedPoolSize());
+        assertEquals(10, sizedPool.getTargetPoolSize());
+        assertEquals(10, sizedPool.getMaxPoolSize());
+        assertEquals(10, sizedPool.getAvailableTrackCount());
+        assertTrue(sizedPool.getStandbyCapacity() >= 10);
+        
+        // A quieter playlist trims the idle tracks and lowers the max back to the pool's own
+        sizedPool.sizeForPeak(3);
+        assertEquals(3, sizedPool.getTargetPoolSize());
+        assertEquals(4, sizedPool.getMaxPoolSize());
+        assertEquals(3, sizedPool.getAvailableTrackCount());
+        sizedPool.dispose();
+    }
+    
+    @Test
+    void testSizeForPeakAllowsMoreActiveTracks() throws Exception {
+        AudioPlayerPool sizedPool = new AudioPlayerPool(1, 2, 0, new NullBackend(1.0));
+        sizedPool.sizeForPeak(3);
+        
+        for (int i = 0; i < 3; i++) {
+            sizedPool.acquireTrack(testAudioFile.toString());
+        }
+        assertThrows(IllegalStateException.class, () -> sizedPool.acquireTrack(testAudioFile.toString()));
+        sizedPool.dispose();
+    }
+    
+    @Test
+    void testBurstKeepsReleasedTracks() throws Exception {
+        AudioPlayerPool burstPool = new AudioPlayerPool(2, 16, 8, new NullBackend(1.0));
+        burstPool.disableAutoCulling();
+        
+        List<AudioTrack> tracks = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            tracks.add(burstPool.acquireTrack(testAudioFile.toString()));
+        }
+        assertEquals(8, burstPool.getTargetPoolSize());
+        for (AudioTrack track : tracks) {
+            burstPool.releaseTrack(track);
+        }
+        
+        // Every track of the burst is kept, so the next burst creates none
+        assertEquals(8, burstPool.getAvailableTrackCount());
+        for (int i = 0; i < 8; i++) {
+            assertTrue(tracks.contains(burstPool.acquireTrack(testAudioFile.toString())));
+        }
+        burstPool.dispose();
+    }
+    
+    @Test
+    void testTargetShrinksOnlyAfterQuietChecks() throws Exception {
+        AudioPlayerPool burstPool = new AudioPlayerPool(2, 16, 8, new NullBackend(1.0));
+        burstPool.disableAutoCulling();
+        List<AudioTrack> tracks = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            tracks.add(burstPool.acquireTrack(testAudioFile.toString()));
+        }
+        for (AudioTrack track : tracks) {
+            burstPool.releaseTrack(track);
+        }
+        burstPool.adjustTargetSize(); // Check covering the burst
+        
+        // Busy enough to stay within the margin: no shrinking however long it runs
+        for (int i = 0; i < 10; i++) {
+            List<AudioTrack> held = new ArrayList<>();
+            for (int j = 0; j < 7; j++) {
+                held.add(burstPool.acquireTrack(testAudioFile.toString()));
+            }
+            held.forEach(burstPool::releaseTrack);
+            burstPool.adjustTargetSize();
+        }
+        assertEquals(8, burstPool.getTargetPoolSize());
+        
+        // Quiet: a minute of checks before the first step down, then one track per check
+        for (int i = 0; i < 5; i++) {
+            burstPool.adjustTargetSize();
+        }
+        assertEquals(8, burstPool.getTargetPoolSize());
+        burstPool.adjustTargetSize();
+        assertEquals(7, burstPool.getTargetPoolSize());
+        for (int i = 0; i < 20; i++) {
+            burstPool.adjustTargetSize();
+        }
+        assertEquals(2, burstPool.getTargetPoolSize());
+        burstPool.dispose();
+    }
+    
+    @Test
+    void testIdleStandbyVoiceIsEvictedWithReason() throws Exception {
+        AudioPlayerPool evictingPool = new AudioPlayerPool(1, 4, 4, new NullBackend(1.0));
+        List<Eviction> evictions = new ArrayList<>();
+        evictingPool.setEvictionListener(evictions::add);
+        evictingPool.releaseTrack(evictingPool.acquireTrack(testAudioFile.toString()));
+        assertTrue(evictingPool.isPrepared(testAudioFile.toString()));
+        
+        // Still within the default 30 second idle time
+        assertEquals(0, evictingPool.cullUnusedTracks(System.currentTimeMillis() + 10_000));
+        assertEquals(1, evictingPool.cullUnusedTracks(System.currentTimeMillis() + 60_000));
+        
+        assertFalse(evictingPool.isPrepared(testAudioFile.toString()));
+        assertEquals(1, evictions.size());
+        assertEquals(EvictionCandidate.Kind.STANDBY_VOICE, evictions.get(0).getCandidate().getKind());
+        assertTrue(evictions.get(0).getReason().startsWith("idle"));
+        evictingPool.dispose();
+    }
+    
+    @Test
+    void testProtectUpcomingKeepsNextCueVoice() throws Exception {
+        Path otherFile = Files.createTempFile("test-audio", ".mp3");
+        AudioPlayerPool evictingPool = new AudioPlayerPool(1, 4, 4, new NullBackend(1.0));
+        evictingPool.setEvictionPolicy(new ProtectUpcomingPolicy(30_000));
+        evictingPool.releaseTrack(evictingPool.acquireTrack(testAudioFile.toString()));
+        evictingPool.releaseTrack(evictingPool.acquireTrack(otherFile.toString()));
+        evictingPool.setUpcomingFiles(List.of(testAudioFile.toString()));
+        
+        assertEquals(1, evictingPool.cullUnusedTracks(System.currentTimeMillis() + 60_000));
+        
+        assertTrue(evictingPool.isPrepared(testAudioFile.toString()));
+        assertFalse(evictingPool.isPrepared(otherFile.toString()));
+        evictingPool.dispose();
+        Files.deleteIfExists(otherFile);
+    }
+    
+    @Test
+    void testIdleTracksAboveTargetGoThroughPolicy() throws Exception {
+        AudioPlayerPool evictingPool = new AudioPlayerPool(2, 16, 0, new NullBackend(1.0));
+        evictingPool.disableAutoCulling();
+        List<Eviction> evictions = new ArrayList<>();
+        evictingPool.setEvictionListener(evictions::add);
+        List<AudioTrack> tracks = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            tracks.add(evictingPool.acquireTrack(testAudioFile.toString()));
+        }
+        tracks.forEach(evictingPool::releaseTrack);
+        
+        // Within the target: the burst's tracks stay however long they are idle
+        assertEquals(0, evictingPool.cullUnusedTracks(System.currentTimeMillis() + 60_000));
+        for (int i = 0; i < 7; i++) {
+            evictingPool.adjustTargetSize();
+        }
+        assertEquals(5, evictingPool.getTargetPoolSize());
+        
+        assertEquals(1, evictingPool.cullUnusedTracks(System.currentTimeMillis() + 60_000));
+        assertEquals(5, evictingPool.getAvailableTrackCount());
+        assertEquals(EvictionCandidate.Kind.IDLE_TRACK, evictions.get(0).getCandidate().getKind());
+        
+        // Least recently used with nothing kept frees the next one over the target at once
+        evictingPool.adjustTargetSize();
+        evictingPool.setEvictionPolicy(new LeastRecentlyUsedPolicy(0));
+        assertEquals(1, evictingPool.cullUnusedTracks(System.currentTimeMillis()));
+        assertEquals(4, evictingPool.getAvailableTrackCount());
+        evictingPool.dispose();
+    }
+    
+    @Test
+    void testStealingOffRefusesNewTrack() throws Exception {
+        AudioPlayerPool fullPool = new AudioPlayerPool(1, 1, 0, new NullBackend(10.0));
+        fullPool.setVoiceStealing(VoiceStealing.OFF);
+        fullPool.acquireTrack(testAudioFile.toString()).play();
+        
+        assertThrows(IllegalStateException.class, () -> fullPool.acquireTrack(testAudioFile.toString()));
+        assertEquals(0, fullPool.getVoiceStealCount());
+        fullPool.dispose();
+    }
+    
+    @Test
+    void testOldestTrackIsStolenAndFadedOut() throws Exception {
+        NullBackend backend = new NullBackend(10.0);
+        AudioPlayerPool fullPool = new AudioPlayerPool(1, 2, 0, backend);
+        fullPool.setVoiceStealing(VoiceStealing.OLDEST);
+        List<VoiceSteal> steals = new ArrayList<>();
+        fullPool.setStealListener(steals::add);
+        
+        AudioTrack first = fullPool.acquireTrack(testAudioFile.toString());
+        first.play();
+        backend.advance(2.0);
+        AudioTrack second = fullPool.acquireTrack(testAudioFile.toString());
+        second.play();
+        backend.advance(1.0);
+        
+        AudioTrack third = fullPool.acquireTrack(testAudioFile.toString());
+        assertNotNull(third);
+        assertEquals(1, fullPool.getVoiceStealCount());
+        assertEquals(1, steals.size());
+        assertEquals(first.getTrackId(), steals.get(0).getStolenTrackId());
+        assertEquals(3.0, steals.get(0).getStolenAtSeconds(), 1e-6);
+        assertEquals(VoiceStealing.OLDEST, steals.get(0).getStrategy());
+        assertEquals(steals, fullPool.getVoiceSteals());
+        
+        // The victim fades out and is released without handing its permit back to the pool
+        assertTrue(first.isPlaying());
+        backend.advance(0.1);
+        assertFalse(first.isPlaying());
+        assertEquals(2, fullPool.getActiveTrackCount());
+        assertTrue(fullPool.getActiveTracks().contains(second));
+        assertTrue(fullPool.getActiveTracks().contains(third));
+        
+        // Still exactly two permits: a fourth track steals again rather than slipping through
+        fullPool.setVoiceStealing(VoiceStealing.OFF);
+        assertThrows(IllegalStateException.class, () -> fullPool.acquireTrack(testAudioFile.toString()));
+        fullPool.releaseTrack(second);
+        assertNotNull(fullPool.acquireTrack(testAudioFile.toString()));
+        fullPool.dispose();
+    }
+    
+    @Test
+    void testVictimEndingDuringTheStealIsNotReused() throws Exception {
+        NullBackend backend = new NullBackend(10.0);
+        AudioPlayerPool fullPool = new AudioPlayerPool(1, 2, 0, backend);
+        fullPool.setVoiceStealing(VoiceStealing.OLDEST);
+        AudioTrack first = fullPool.acquireTrack(testAudioFile.toString());
+        first.play();
+        backend.advance(1.0);
+        AudioTrack second = fullPool.acquireTrack(testAudioFile.toString());
+        second.play();
+        
+        // Between the claim and the fade, the victim ends and is released, and the next GO
+        // takes whichever track is idle
+        List<AudioTrack> reused = new ArrayList<>();
+        fullPool.setStealListener(steal -> {
+            fullPool.releaseTrack(second);
+            fullPool.releaseTrack(first);
+            try {
+                AudioTrack next = fullPool.acquireTrack(testAudioFile.toString());
+                next.play();
+                reused.add(next);
+            } catch (Exception e) {
+                fail("The next GO failed: " + e.getMessage());
+            }
+        });
+        AudioTrack third = fullPool.acquireTrack(testAudioFile.toString());
+        third.play();
+        assertNotSame(first, reused.get(0));
+        
+        // The fade stops and releases the victim only, leaving the new cue playing
+        backend.advance(0.1);
+        assertFalse(first.isPlaying());
+        assertTrue(reused.get(0).isPlaying());
+        assertTrue(third.isPlaying());
+        assertEquals(2, fullPool.getActiveTrackCount());
+        assertTrue(first.isPooled());
+        
+        fullPool.setVoiceStealing(VoiceStealing.OFF);
+        assertThrows(IllegalStateException.class, () -> fullPool.acquireTrack(testAudioFile.toString()));
+        fullPool.dispose();
+    }
+    
+    @Test
+    void testStealingStrategiesPickTheirVictim() throws Exception {
+        NullBackend backend = new NullBackend(100.0);
+        AudioPlayerPool fullPool = new AudioPlayerPool(1, 3, 0, backend);
+        AudioTrack bed = fullPool.acquireTrack(testAudioFile.toString());
+        bed.setBed(true);
+        bed.setPriority(5);
+        bed.play();
+        backend.advance(3.0);
+        AudioTrack quiet = fullPool.acquireTrack(testAudioFile.toString());
+        quiet.setVolume(0.1);
+        quiet.setPriority(3);
+        quiet.play();
+        backend.advance(2.0);
+        AudioTrack minor = fullPool.acquireTrack(testAudioFile.toString());
+        minor.setPriority(-1);
+        minor.play();
+        backend.advance(1.0);
+        
+        assertEquals(bed.getTrackId(), stealFrom(fullPool, VoiceStealing.OLDEST));
+        assertEquals(quiet.getTrackId(), stealFrom(fullPool, VoiceStealing.BEDS_LAST));
+        assertEquals(minor.getTrackId(), stealFrom(fullPool, VoiceStealing.LOWEST_PRIORITY));
+        fullPool.dispose();
+    }
+    
+    @Test
+    void testOldestGoesByTimePlayingNotPositionInTheFile() throws Exception {
+        NullBackend backend = new NullBackend(100.0);
+        AudioPlayerPool fullPool = new AudioPlayerPool(1, 2, 0, backend);
+        AudioTrack bed = fullPool.acquireTrack(testAudioFile.toString());
+        bed.play();
+        backend.advance(20.0);
+        AudioTrack trimmed = fullPool.acquireTrack(testAudioFile.toString());
+        trimmed.setPlayRange(90.0, 0.0); // Starts well into its file
+        trimmed.play();
+        backend.advance(2.0);
+        
+        assertEquals(bed.getTrackId(), stealFrom(fullPool, VoiceStealing.OLDEST));
+        fullPool.dispose();
+    }
+    
+    @Test
+    void testQuietestTrackIsStolen() throws Exception {
+        NullBackend backend = new NullBackend(100.0);
+        AudioPlayerPool fullPool = new AudioPlayerPool(1, 2, 0, backend);
+        AudioTrack loud = fullPool.acquireTrack(testAudioFile.toString());
+        loud.play();
+        backend.advance(2.0);
+        AudioTrack quiet = fullPool.acquireTrack(testAudioFile.toString());
+        quiet.setVolume(0.2);
+        quiet.play();
+        
+        assertEquals(quiet.getTrackId(), stealFrom(fullPool, VoiceStealing.QUIETEST));
+        fullPool.dispose();
+    }
+    
+    @Test
+    void testStoppedAndPausedTracksAreStolenBeforeSoundingOnes() throws Exception {
+        NullBackend backend = new NullBackend(100.0);
+        AudioPlayerPool fullPool = new AudioPlayerPool(1, 3, 0, backend);
+        AudioTrack sounding = fullPool.acquireTrack(testAudioFile.toString());
+        sounding.setVolume(0.1);
+        sounding.play();
+        backend.advance(5.0);
+        AudioTrack stopped = fullPool.acquireTrack(testAudioFile.toString());
+        stopped.setVolume(1.0);
+        stopped.play();
+        backend.advance(1.0);
+        stopped.stop();
+        AudioTrack paused = fullPool.acquireTrack(testAudioFile.toString());
+        paused.setVolume(1.0);
+        paused.play();
+        backend.advance(1.0);
+        paused.pause();
+        
+        // The sounding track is the oldest and the quietest, but is still taken last
+        assertEquals(stopped.getTrackId(), stealFrom(fullPool, VoiceStealing.OLDEST));
+        assertEquals(paused.getTrackId(), stealFrom(fullPool, VoiceStealing.QUIETEST));
+        fullPool.dispose();
+    }
+    
+    @Test
+    void testQuietestGoesByThePlayingLevel() throws Exception {
+        NullBackend backend = new NullBackend(100.0);
+        AudioPlayerPool fullPool = new AudioPlayerPool(1, 2, 0, backend);
+        AudioTrack trimmed = fullPool.acquireTrack(testAudioFile.toString());
+        trimmed.setTrim(0.1); // Full volume, but normalized well down
+        trimmed.play();
+        backend.advance(2.0);
+        AudioTrack other = fullPool.acquireTrack(testAudioFile.toString());
+        other.setVolume(0.5);
+        other.play();
+        
+        assertEquals(trimmed.getTrackId(), stealFrom(fullPool, VoiceStealing.QUIETEST));
+        fullPool.dispose();
+    }
+    
+    /**
+     * Acquires a track from a full pool with the given strategy and returns the stolen track's ID.
+     */
+    private String stealFrom(AudioPlayerPool fullPool, VoiceStealing strategy) throws Exception {
+        fullPool.setVoiceStealing(strategy);
+        long before = fullPool.getVoiceStealCount();
+        fullPool.acquireTrack(testAudioFile.toString()).play(); // Plays at once, as a GO does
+        assertEquals(before + 1, fullPool.getVoiceStealCount());
+        List<VoiceSteal> steals = fullPool.getVoiceSteals();
+        return steals.get(steals.size() - 1).getStolenTrackId();
+    }
+    
+    @Test
+    void testPlayingAndPausedCountsFollowTransitions() throws Exception {
+        NullBackend backend = new NullBackend(2.0);
+        AudioPlayerPool countingPool = new AudioPlayerPool(1, 4, 0, backend);
+        AtomicInteger changes = new AtomicInteger();
+        countingPool.setActivityListener(changes::incrementAndGet);
+        
+        AudioTrack first = countingPool.acquireTrack(testAudioFile.toString());
+        AudioTrack second = countingPool.acquireTrack(testAudioFile.toString());
+        assertEquals(0, countingPool.getPlayingTrackCount());
+        first.play();
+        second.play();
+        assertEquals(2, countingPool.getPlayingTrackCount());
+        
+        countingPool.pauseAll();
+        assertEquals(0, countingPool.getPlayingTrackCount());
+        assertEquals(2, countingPool.getPausedTrackCount());
+        countingPool.resumeAll();
+        assertEquals(2, countingPool.getPlayingTrackCount());
+        assertEquals(0, countingPool.getPausedTrackCount());
+        
+        // Ending, forced release and a pre-rolled track that never started
+        countingPool.forceReleaseTrack(second.getTrackId());
+        assertEquals(1, countingPool.getPlayingTrackCount());
+        AudioTrack idle = countingPool.acquireTrack(testAudioFile.toString());
+        backend.advance(2.0);
+        assertEquals(0, countingPool.getPlayingTrackCount());
+        assertEquals(0, countingPool.getPausedTrackCount());
+        countingPool.releaseTrack(idle);
+        assertEquals(0, countingPool.getPlayingTrackCount());
+        assertEquals(8, changes.get());
+        
+        // A released track no longer counts, whatever is done with it afterwards
+        first.setState(PlaybackState.PLAYING);
+        assertEquals(0, countingPool.getPlayingTrackCount());
+        countingPool.dispose();
+    }
 }
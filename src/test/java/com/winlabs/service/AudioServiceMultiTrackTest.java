@@ -125,12 +125,12 @@ class AudioServiceMultiTrackTest {
     }
     
     @Test
-    void testSetVolumeAllTracks() {
-        assertDoesNotThrow(() -> audioService.getPlayerPool().setVolumeAll(0.5));
+    void testSetMasterLevel() {
+        assertDoesNotThrow(() -> audioService.getPlayerPool().setMasterLevel(0.5));
         
         // Test boundary values
-        assertDoesNotThrow(() -> audioService.getPlayerPool().setVolumeAll(0.0));
-        assertDoesNotThrow(() -> audioService.getPlayerPool().setVolumeAll(1.0));
+        assertDoesNotThrow(() -> audioService.getPlayerPool().setMasterLevel(0.0));
+        assertDoesNotThrow(() -> audioService.getPlayerPool().setMasterLevel(1.0));
     }
     
     @Test
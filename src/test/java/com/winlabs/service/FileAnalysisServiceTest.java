@@ -0,0 +1,103 @@
+package com.winlabs.service;
+
+import com.winlabs.model.Cue;
+import com.winlabs.model.CueType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for FileAnalysisService's shared work, cue fan-out and cache saving.
+ */
+class FileAnalysisServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Works out each file's size, waiting on a latch so tests can hold the work open.
+     */
+    private static final class SizeService extends FileAnalysisService<Long> {
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger reads = new AtomicInteger();
+
+        SizeService(Path cacheFile) {
+            super("Size", Executors.newThreadPerTaskExecutor(Thread.ofVirtual().factory()), 2, cacheFile,
+                item -> item.get("size").getAsLong(), (size, item) -> item.addProperty("size", size));
+        }
+
+        CompletableFuture<Long> size(String filePath) {
+            return analyze(filePath, "", size -> true, path -> {
+                reads.incrementAndGet();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return Files.size(path);
+            }, null);
+        }
+
+        CompletableFuture<Integer> sizeCues(List<Cue> cues) {
+            return applyToCues(cues, cue -> true, this::size, (cue, size) -> {
+                cue.setDuration(size);
+                return true;
+            }, Runnable::run);
+        }
+    }
+
+    @Test
+    void testFileAskedForTwiceIsReadOnce() throws Exception {
+        Path file = Files.write(tempDir.resolve("a.wav"), new byte[100]);
+        SizeService service = new SizeService(tempDir.resolve("cache.json"));
+
+        CompletableFuture<Long> first = service.size(file.toString());
+        CompletableFuture<Long> second = service.size(file.toString());
+        service.release.countDown();
+
+        assertEquals(100L, (long) first.get(10, TimeUnit.SECONDS));
+        assertEquals(100L, (long) second.get(10, TimeUnit.SECONDS));
+        assertEquals(1, service.reads.get());
+        assertEquals(1, service.getAnalysisCount());
+        service.dispose();
+    }
+
+    @Test
+    void testResultIsNotAppliedToACueWhoseFileChanged() throws Exception {
+        Path cacheFile = tempDir.resolve("cache.json");
+        Path a = Files.write(tempDir.resolve("a.wav"), new byte[100]);
+        Path b = Files.write(tempDir.resolve("b.wav"), new byte[200]);
+        SizeService service = new SizeService(cacheFile);
+        Cue kept = new Cue(1, "Kept", a.toString());
+        Cue changed = new Cue(2, "Changed", a.toString());
+        Cue fade = new Cue(3, "Fade", b.toString());
+        fade.setType(CueType.FADE);
+
+        CompletableFuture<Integer> sized = service.sizeCues(List.of(kept, changed, fade));
+        changed.setFilePath(b.toString());
+        service.release.countDown();
+
+        assertEquals(1, (int) sized.get(10, TimeUnit.SECONDS));
+        assertEquals(100.0, kept.getDuration(), 1e-9);
+        assertTrue(changed.getDuration() != 100.0);
+        assertEquals(1, service.reads.get());
+
+        // The cache is saved once the batch is done, without waiting for dispose
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!Files.exists(cacheFile) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(Files.exists(cacheFile));
+        service.dispose();
+    }
+}
@@ -0,0 +1,88 @@
+package com.winlabs.service;
+
+import com.google.gson.JsonObject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for FileResultCache's file state checks and persistence.
+ */
+class FileResultCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    private FileResultCache<String> newCache(Path file) {
+        return new FileResultCache<>(file, "test cache",
+            item -> item.get("value").getAsString(), (value, item) -> item.addProperty("value", value));
+    }
+
+    private static BasicFileAttributes attributes(Path file) throws Exception {
+        return Files.readAttributes(file, BasicFileAttributes.class);
+    }
+
+    @Test
+    void testResultsAreKeptUntilTheFileChanges() throws Exception {
+        Path audio = Files.write(tempDir.resolve("a.wav"), new byte[] { 1, 2, 3 });
+        FileResultCache<String> cache = newCache(tempDir.resolve("cache.json"));
+        assertNull(cache.get(audio.toString(), attributes(audio)));
+
+        cache.put(audio.toString(), attributes(audio), "measured");
+        assertEquals("measured", cache.get(audio.toString(), attributes(audio)));
+
+        Files.setLastModifiedTime(audio, FileTime.fromMillis(Files.getLastModifiedTime(audio).toMillis() + 5000));
+        assertNull(cache.get(audio.toString(), attributes(audio)));
+        Files.write(audio, new byte[] { 1, 2, 3, 4 });
+        assertNull(cache.get(audio.toString(), attributes(audio)));
+        assertTrue(cache.contains(audio.toString()));
+    }
+
+    @Test
+    void testFlushWritesAtomicallyAndReloads() throws Exception {
+        Path audio = Files.write(tempDir.resolve("a.wav"), new byte[] { 1, 2, 3 });
+        Path other = Files.write(tempDir.resolve("b.wav"), new byte[] { 4 });
+        Path file = tempDir.resolve("caches").resolve("cache.json");
+        FileResultCache<String> cache = newCache(file);
+        cache.put(audio.toString(), attributes(audio), "first");
+        cache.put(other.toString(), attributes(other), "second");
+        assertTrue(cache.remove(other.toString()));
+        assertFalse(cache.remove(other.toString()));
+        cache.flush();
+
+        assertTrue(Files.exists(file));
+        assertFalse(Files.exists(file.resolveSibling("cache.json.tmp")));
+        FileResultCache<String> reloaded = newCache(file);
+        assertEquals("first", reloaded.get(audio.toString(), attributes(audio)));
+        assertEquals(List.of("first"), List.copyOf(reloaded.values()));
+        assertEquals(1, reloaded.size());
+    }
+
+    @Test
+    void testBrokenFileStartsEmpty() throws Exception {
+        Path file = Files.writeString(tempDir.resolve("cache.json"), "{ \"a.wav\": { \"value\": ");
+        FileResultCache<String> cache = newCache(file);
+
+        assertEquals(0, cache.size());
+
+        Path missingFields = Files.writeString(tempDir.resolve("fields.json"), "{ \"a.wav\": { \"value\": \"x\" } }");
+        assertEquals(0, newCache(missingFields).size());
+    }
+
+    @Test
+    void testNothingIsWrittenUntilSomethingChanges() {
+        Path file = tempDir.resolve("cache.json");
+        FileResultCache<String> cache = newCache(file);
+
+        cache.flush();
+
+        assertFalse(Files.exists(file));
+    }
+}
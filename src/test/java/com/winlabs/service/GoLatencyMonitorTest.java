@@ -0,0 +1,97 @@
+package com.winlabs.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for GoLatencyMonitor stage tracking and slow GO warnings.
+ */
+class GoLatencyMonitorTest {
+
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private GoLatencyMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        monitor = new GoLatencyMonitor();
+    }
+
+    @Test
+    void testDefaultThreshold() {
+        assertEquals(GoLatencyMonitor.DEFAULT_WARNING_THRESHOLD_MS, monitor.getWarningThresholdMillis());
+    }
+
+    @Test
+    void testStagesRecordedFromOrigin() {
+        GoLatencyMonitor.Trace trace = monitor.begin(1_000 * MS, false);
+
+        trace.mark(GoLatencyMonitor.Stage.ACQUIRE, 1_001 * MS);
+        trace.mark(GoLatencyMonitor.Stage.PLAY_CALLED, 1_002 * MS);
+        // On a cold load the media becomes ready after play() was called
+        trace.mark(GoLatencyMonitor.Stage.MEDIA_READY, 1_020 * MS);
+        trace.mark(GoLatencyMonitor.Stage.PLAYING, 1_030 * MS);
+
+        assertEquals(1.0, monitor.getStageHistogram(GoLatencyMonitor.Stage.ACQUIRE).getPercentileMillis(50), 0.05);
+        assertEquals(20.0, monitor.getStageHistogram(GoLatencyMonitor.Stage.MEDIA_READY).getPercentileMillis(50), 1.0);
+        assertEquals(30.0, monitor.getGoToPlaying().getPercentileMillis(50), 1.0);
+        assertEquals(0, monitor.getPreWaitToPlaying().getCount());
+    }
+
+    @Test
+    void testStageMarkedOnlyOnce() {
+        GoLatencyMonitor.Trace trace = monitor.begin(0, false);
+
+        assertTrue(trace.mark(GoLatencyMonitor.Stage.PLAYING, 5 * MS));
+        assertFalse(trace.mark(GoLatencyMonitor.Stage.PLAYING, 9 * MS));
+
+        assertTrue(trace.isMarked(GoLatencyMonitor.Stage.PLAYING));
+        assertFalse(trace.isMarked(GoLatencyMonitor.Stage.ACQUIRE));
+        assertEquals(1, monitor.getGoToPlaying().getCount());
+    }
+
+    @Test
+    void testPreWaitTracedSeparately() {
+        GoLatencyMonitor.Trace trace = monitor.begin(100 * MS, true);
+        trace.mark(GoLatencyMonitor.Stage.PLAYING, 104 * MS);
+
+        assertTrue(trace.isAfterPreWait());
+        assertEquals(1, monitor.getPreWaitToPlaying().getCount());
+        assertEquals(0, monitor.getGoToPlaying().getCount());
+    }
+
+    @Test
+    void testSlowGoWarning() {
+        List<Long> measured = new ArrayList<>();
+        List<Long> slow = new ArrayList<>();
+        monitor.setOnGoMeasured(measured::add);
+        monitor.setOnSlowGo(slow::add);
+        monitor.setWarningThresholdMillis(20);
+
+        monitor.begin(0, false).mark(GoLatencyMonitor.Stage.PLAYING, 10 * MS);
+        monitor.begin(0, false).mark(GoLatencyMonitor.Stage.PLAYING, 35 * MS);
+
+        assertEquals(List.of(10 * MS, 35 * MS), measured);
+        assertEquals(List.of(35 * MS), slow);
+        assertEquals(1, monitor.getSlowGoCount());
+    }
+
+    @Test
+    void testSummaryAndReset() {
+        monitor.begin(0, false).mark(GoLatencyMonitor.Stage.PLAYING, 12 * MS);
+
+        String summary = monitor.formatSummary();
+        assertTrue(summary.contains("GO -> PLAYING"));
+        assertTrue(summary.contains("n=1"));
+
+        monitor.reset();
+        assertEquals(0, monitor.getGoToPlaying().getCount());
+        assertEquals(0, monitor.getSlowGoCount());
+    }
+}
@@ -0,0 +1,124 @@
+package com.winlabs.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the lock-free LatencyHistogram.
+ */
+class LatencyHistogramTest {
+
+    private LatencyHistogram histogram;
+
+    @BeforeEach
+    void setUp() {
+        histogram = new LatencyHistogram();
+    }
+
+    @Test
+    void testEmptyHistogram() {
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0.0, histogram.getMean(), 0.001);
+        assertEquals(0, histogram.getPercentile(50));
+    }
+
+    @Test
+    void testSmallValuesAreExact() {
+        for (int i = 1; i <= 60; i++) {
+            histogram.record(i);
+        }
+
+        assertEquals(60, histogram.getCount());
+        assertEquals(30, histogram.getPercentile(50));
+        assertEquals(60, histogram.getPercentile(100));
+    }
+
+    @Test
+    void testPercentilesWithinPrecision() {
+        for (int ms = 1; ms <= 1000; ms++) {
+            histogram.record(TimeUnit.MILLISECONDS.toNanos(ms));
+        }
+
+        assertEquals(1000, histogram.getCount());
+        assertEquals(500.0, histogram.getPercentileMillis(50), 500.0 * 0.04);
+        assertEquals(990.0, histogram.getPercentileMillis(99), 990.0 * 0.04);
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(1000), histogram.getMax());
+        assertEquals(500.5, histogram.getMean() / 1_000_000.0, 0.001);
+    }
+
+    @Test
+    void testPercentileNeverExceedsMax() {
+        histogram.record(1_000_003);
+
+        assertEquals(1_000_003, histogram.getPercentile(99));
+    }
+
+    @Test
+    void testNegativeValuesRecordedAsZero() {
+        histogram.record(-5);
+
+        assertEquals(1, histogram.getCount());
+        assertEquals(0, histogram.getPercentile(50));
+    }
+
+    @Test
+    void testExtremeValues() {
+        histogram.record(Long.MAX_VALUE);
+
+        assertEquals(Long.MAX_VALUE, histogram.getMax());
+        assertEquals(Long.MAX_VALUE, histogram.getPercentile(50), Long.MAX_VALUE * 0.04);
+    }
+
+    @Test
+    void testBucketsAreMonotonic() {
+        int previous = -1;
+        for (long value = 1; value > 0 && value < Long.MAX_VALUE / 3; value = value * 3 + 1) {
+            int index = LatencyHistogram.bucketIndex(value);
+            assertTrue(index >= previous);
+            long midpoint = LatencyHistogram.bucketMidpoint(index);
+            assertEquals(value, midpoint, Math.max(1.0, value * 0.04));
+            previous = index;
+        }
+    }
+
+    @Test
+    void testReset() {
+        histogram.record(1000);
+        histogram.record(2000);
+
+        histogram.reset();
+
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, histogram.getPercentile(99));
+    }
+
+    @Test
+    void testConcurrentRecording() throws InterruptedException {
+        int threads = 4;
+        int perThread = 10_000;
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    histogram.record(i);
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        assertEquals((long) threads * perThread, histogram.getCount());
+        assertEquals(perThread - 1, histogram.getMax());
+    }
+}
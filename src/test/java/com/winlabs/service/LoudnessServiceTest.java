@@ -0,0 +1,82 @@
+package com.winlabs.service;
+
+import com.winlabs.model.Cue;
+import com.winlabs.model.LoudnessInfo;
+import com.winlabs.service.audio.TestAudioFiles;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for LoudnessService's gain calculation, cache and cue normalization.
+ */
+class LoudnessServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Writes two seconds of a 997 Hz stereo sine at the given level in dBFS.
+     */
+    private Path writeSine(String name, double levelDb) throws Exception {
+        return TestAudioFiles.tone(997).seconds(2.0).level(levelDb).writeWav(tempDir.resolve(name));
+    }
+
+    @Test
+    void testNormalizationGainIsLimitedByTruePeak() {
+        LoudnessInfo quiet = new LoudnessInfo(-30.0, -12.0, -33.0);
+        LoudnessInfo peaky = new LoudnessInfo(-30.0, -3.0, -33.0);
+
+        assertEquals(7.0, LoudnessService.normalizationGain(quiet, -23.0, -1.0), 1e-9);
+        assertEquals(2.0, LoudnessService.normalizationGain(peaky, -23.0, -1.0), 1e-9);
+        assertEquals(-5.0, LoudnessService.normalizationGain(new LoudnessInfo(-18.0, -2.0, -20.0), -23.0, -1.0), 1e-9);
+        assertEquals(0.0, LoudnessService.normalizationGain(
+            new LoudnessInfo(Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY), -23.0, -1.0));
+        assertEquals(0.0, LoudnessService.normalizationGain(null, -23.0, -1.0));
+    }
+
+    @Test
+    void testMeasuresOnceAndReusesCache() throws Exception {
+        Path cacheFile = tempDir.resolve("loudness-cache.json");
+        Path file = writeSine("tone.wav", -20.0);
+        LoudnessService first = new LoudnessService(cacheFile, 2);
+
+        LoudnessInfo loudness = first.analyze(file.toString()).get(10, TimeUnit.SECONDS);
+        assertEquals(-20.0, loudness.getIntegratedLufs(), 0.2);
+        assertEquals(1, first.getAnalysisCount());
+        first.dispose();
+        assertTrue(Files.exists(cacheFile));
+
+        LoudnessService second = new LoudnessService(cacheFile, 2);
+        LoudnessInfo cached = second.analyze(file.toString()).get(10, TimeUnit.SECONDS);
+        assertEquals(0, second.getAnalysisCount());
+        assertEquals(1, second.getCacheHitCount());
+        assertEquals(loudness.getIntegratedLufs(), cached.getIntegratedLufs(), 1e-9);
+        second.dispose();
+    }
+
+    @Test
+    void testNormalizeCuesSetsGainPerCue() throws Exception {
+        LoudnessService service = new LoudnessService(tempDir.resolve("cache.json"), 2);
+        Cue loud = new Cue(1, "Loud", writeSine("loud.wav", -12.0).toString());
+        Cue quiet = new Cue(2, "Quiet", writeSine("quiet.wav", -30.0).toString());
+        Cue missing = new Cue(3, "Missing", tempDir.resolve("missing.wav").toString());
+        missing.setNormalizationGain(2.0);
+
+        int normalized = service.normalizeCues(List.of(loud, quiet, missing), -23.0, -1.0, Runnable::run)
+            .get(10, TimeUnit.SECONDS);
+
+        assertEquals(2, normalized);
+        assertEquals(-11.0, loud.getNormalizationGain(), 0.2);
+        assertEquals(7.0, quiet.getNormalizationGain(), 0.2);
+        assertNotNull(quiet.getLoudness());
+        assertEquals(2.0, missing.getNormalizationGain(), 1e-9);
+        service.dispose();
+    }
+}
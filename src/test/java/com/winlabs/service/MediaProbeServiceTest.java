@@ -0,0 +1,106 @@
+package com.winlabs.service;
+
+import com.winlabs.model.Cue;
+import com.winlabs.model.MediaInfo;
+import com.winlabs.service.audio.MediaProber;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.sound.sampled.UnsupportedAudioFileException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for MediaProbeService's background probing and its on-disk cache.
+ */
+class MediaProbeServiceTest {
+
+    private static final MediaInfo TEN_SECONDS = new MediaInfo(10.0, 48000, 2, "PCM 16-bit");
+
+    @TempDir
+    Path tempDir;
+
+    private final AtomicInteger filesRead = new AtomicInteger();
+    private final MediaProber countingProber = path -> {
+        filesRead.incrementAndGet();
+        return TEN_SECONDS;
+    };
+
+    @Test
+    void testFillsInCueDurationAndInfo() throws Exception {
+        Path audio = Files.createFile(tempDir.resolve("a.wav"));
+        Cue cue = new Cue(1, "A", audio.toString());
+        Cue fade = Cue.fadeCue(2, "Fade", 1, 0.0, 2.0, null, false);
+        MediaProbeService service = new MediaProbeService(tempDir.resolve("cache.json"), countingProber, 2);
+
+        service.probeCues(List.of(cue, fade), Runnable::run).get(5, TimeUnit.SECONDS);
+
+        assertEquals(10.0, cue.getDuration(), 1e-9);
+        assertSame(TEN_SECONDS, cue.getMediaInfo());
+        assertNull(fade.getMediaInfo());
+        assertEquals(1, filesRead.get());
+        service.dispose();
+    }
+
+    @Test
+    void testSecondSessionUsesCache() throws Exception {
+        Path cacheFile = tempDir.resolve("cache.json");
+        Path audio = Files.createFile(tempDir.resolve("a.wav"));
+        MediaProbeService first = new MediaProbeService(cacheFile, countingProber, 2);
+        first.probe(audio.toString()).get(5, TimeUnit.SECONDS);
+        first.dispose();
+        assertTrue(Files.exists(cacheFile));
+
+        MediaProbeService second = new MediaProbeService(cacheFile, countingProber, 2);
+        MediaInfo info = second.probe(audio.toString()).get(5, TimeUnit.SECONDS);
+
+        assertEquals(1, filesRead.get());
+        assertEquals(0, second.getProbeCount());
+        assertEquals(1, second.getCacheHitCount());
+        assertEquals(10.0, info.getDurationSeconds(), 1e-9);
+        assertEquals("PCM 16-bit", info.getCodec());
+        second.dispose();
+    }
+
+    @Test
+    void testChangedFileIsProbedAgain() throws Exception {
+        Path audio = Files.createFile(tempDir.resolve("a.wav"));
+        MediaProbeService service = new MediaProbeService(tempDir.resolve("cache.json"), countingProber, 2);
+        service.probe(audio.toString()).get(5, TimeUnit.SECONDS);
+
+        Files.write(audio, new byte[16]);
+        service.probe(audio.toString()).get(5, TimeUnit.SECONDS);
+        assertEquals(2, filesRead.get());
+
+        Files.setLastModifiedTime(audio, FileTime.fromMillis(Files.getLastModifiedTime(audio).toMillis() - 60_000));
+        service.probe(audio.toString()).get(5, TimeUnit.SECONDS);
+        assertEquals(3, filesRead.get());
+
+        service.probe(audio.toString()).get(5, TimeUnit.SECONDS);
+        assertEquals(3, filesRead.get());
+        service.dispose();
+    }
+
+    @Test
+    void testUnreadableFormatIsCachedAsUnknown() throws Exception {
+        Path audio = Files.createFile(tempDir.resolve("a.xyz"));
+        MediaProber rejecting = path -> {
+            filesRead.incrementAndGet();
+            throw new UnsupportedAudioFileException("nope");
+        };
+        MediaProbeService service = new MediaProbeService(tempDir.resolve("cache.json"), rejecting, 2);
+
+        assertSame(MediaInfo.UNKNOWN, service.probe(audio.toString()).get(5, TimeUnit.SECONDS));
+        assertSame(MediaInfo.UNKNOWN, service.probe(audio.toString()).get(5, TimeUnit.SECONDS));
+        assertSame(MediaInfo.UNKNOWN, service.probe(tempDir.resolve("missing.wav").toString()).get(5, TimeUnit.SECONDS));
+
+        assertEquals(1, filesRead.get());
+        service.dispose();
+    }
+}
@@ -1,6 +1,9 @@
 package com.winlabs.service;
 
 import com.winlabs.model.Cue;
+import com.winlabs.model.CueType;
+import com.winlabs.model.FadeCurve;
+import com.winlabs.model.OutputRouting;
 import com.winlabs.model.Playlist;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.BeforeEach;
@@ -43,13 +46,30 @@ class PlaylistServiceTest {
         cue1.setPreWait(5.0);
         cue1.setPostWait(3.0);
         cue1.setAutoFollow(true);
+        cue1.setCrossfadeTime(1.5);
         
         Cue cue2 = new Cue(2, "Intermission", "C:/music/intermission.wav");
         cue2.setDuration(300.0);
         cue2.setAutoFollow(false);
+        cue2.setKeepResident(true);
+        cue2.setPriority(4);
+        cue2.setFadeTime(2.5);
+        cue2.setFadeCurve(FadeCurve.S_CURVE);
+        cue2.setNormalizationGain(-4.5);
+        cue2.setStartTrim(0.35);
+        cue2.setEndTrim(297.5);
+        cue2.setAutoTrim(false);
+        cue2.setGroup("Music");
+        cue2.setLoopStart(1.5);
+        cue2.setLoopEnd(9.25);
+        cue2.setLoopCount(3);
+        cue2.setRouting(OutputRouting.silent(2, 4).withGain(0, 2, 0.5).withGain(1, 3, 1.0));
+        
+        Cue cue3 = Cue.fadeCue(3, "Fade intermission", 2, 0.25, 4.0, FadeCurve.EQUAL_POWER, true);
         
         original.addCue(cue1);
         original.addCue(cue2);
+        original.addCue(cue3);
         
         // Save it
         Path playlistFile = tempDir.resolve("test-playlist.json");
@@ -62,7 +82,7 @@ class PlaylistServiceTest {
         
         assertNotNull(loaded);
         assertEquals("My Show", loaded.getName());
-        assertEquals(2, loaded.size());
+        assertEquals(3, loaded.size());
         
         Cue loadedCue1 = loaded.getCue(0);
         assertEquals(1, loadedCue1.getNumber());
@@ -72,6 +92,15 @@ class PlaylistServiceTest {
         assertEquals(5.0, loadedCue1.getPreWait(), 0.001);
         assertEquals(3.0, loadedCue1.getPostWait(), 0.001);
         assertTrue(loadedCue1.isAutoFollow());
+        assertEquals(1.5, loadedCue1.getCrossfadeTime(), 0.001);
+        assertFalse(loadedCue1.isKeepResident());
+        assertEquals(0, loadedCue1.getPriority());
+        assertEquals(0.0, loadedCue1.getNormalizationGain(), 0.001);
+        assertEquals(0.0, loadedCue1.getStartTrim(), 0.001);
+        assertTrue(loadedCue1.isAutoTrim());
+        assertNull(loadedCue1.getRouting());
+        assertEquals("", loadedCue1.getGroup());
+        assertFalse(loadedCue1.isLoop());
         
         Cue loadedCue2 = loaded.getCue(1);
         assertEquals(2, loadedCue2.getNumber());
@@ -79,6 +108,28 @@ class PlaylistServiceTest {
         assertEquals("C:/music/intermission.wav", loadedCue2.getFilePath());
         assertEquals(300.0, loadedCue2.getDuration(), 0.001);
         assertFalse(loadedCue2.isAutoFollow());
+        assertTrue(loadedCue2.isKeepResident());
+        assertEquals(4, loadedCue2.getPriority());
+        assertEquals(CueType.AUDIO, loadedCue2.getType());
+        assertEquals(2.5, loadedCue2.getFadeTime(), 0.001);
+        assertEquals(FadeCurve.S_CURVE, loadedCue2.getFadeCurve());
+        assertEquals(-4.5, loadedCue2.getNormalizationGain(), 0.001);
+        assertEquals(0.35, loadedCue2.getStartTrim(), 0.001);
+        assertEquals(297.5, loadedCue2.getEndTrim(), 0.001);
+        assertFalse(loadedCue2.isAutoTrim());
+        assertEquals(cue2.getRouting(), loadedCue2.getRouting());
+        assertEquals("Music", loadedCue2.getGroup());
+        assertEquals(1.5, loadedCue2.getLoopStart(), 0.001);
+        assertEquals(9.25, loadedCue2.getLoopEnd(), 0.001);
+        assertEquals(3, loadedCue2.getLoopCount());
+        
+        Cue loadedCue3 = loaded.getCue(2);
+        assertEquals(CueType.FADE, loadedCue3.getType());
+        assertEquals(2, loadedCue3.getFadeTarget());
+        assertEquals(0.25, loadedCue3.getFadeLevel(), 0.001);
+        assertEquals(4.0, loadedCue3.getFadeTime(), 0.001);
+        assertEquals(FadeCurve.EQUAL_POWER, loadedCue3.getFadeCurve());
+        assertTrue(loadedCue3.isStopAfterFade());
     }
     
     @Test
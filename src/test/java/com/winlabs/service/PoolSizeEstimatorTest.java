@@ -0,0 +1,104 @@
+package com.winlabs.service;
+
+import com.winlabs.model.Cue;
+import com.winlabs.model.FadeCurve;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the PoolSizeEstimator that sizes the track pool from a playlist.
+ */
+class PoolSizeEstimatorTest {
+
+    @Test
+    void testEmptyPlaylistNeedsOneTrack() {
+        assertEquals(1, PoolSizeEstimator.estimatePeakVoices(List.of()));
+    }
+
+    @Test
+    void testQuickGosOverlap() {
+        // 30 three-second effects fired a second apart: three play at once
+        List<Cue> cues = new ArrayList<>();
+        for (int i = 1; i <= 30; i++) {
+            cues.add(audioCue(i, 3.0, false));
+        }
+
+        assertEquals(3, PoolSizeEstimator.estimatePeakVoices(cues));
+    }
+
+    @Test
+    void testBackgroundUnderEffects() {
+        List<Cue> cues = new ArrayList<>();
+        cues.add(audioCue(1, 60.0, false));
+        for (int i = 2; i <= 10; i++) {
+            cues.add(audioCue(i, 2.0, false));
+        }
+
+        assertEquals(3, PoolSizeEstimator.estimatePeakVoices(cues));
+    }
+
+    @Test
+    void testGaplessChainHoldsThePreRolledTrack() {
+        List<Cue> cues = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            cues.add(audioCue(i, 10.0, i < 5));
+        }
+
+        // The playing cue plus the next one waiting in the engine
+        assertEquals(2, PoolSizeEstimator.estimatePeakVoices(cues));
+    }
+
+    @Test
+    void testPostWaitFollowDoesNotOverlap() {
+        List<Cue> cues = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            Cue cue = audioCue(i, 10.0, i < 5);
+            cue.setPostWait(0.5);
+            cues.add(cue);
+        }
+
+        assertEquals(1, PoolSizeEstimator.estimatePeakVoices(cues));
+    }
+
+    @Test
+    void testAutoFollowedCuesAreNotGos() {
+        // A 20-second chain fired by one GO, then a single effect a second later
+        List<Cue> cues = new ArrayList<>();
+        Cue first = audioCue(1, 10.0, true);
+        first.setPostWait(1.0);
+        cues.add(first);
+        cues.add(audioCue(2, 10.0, false));
+        cues.add(audioCue(3, 5.0, false));
+
+        // Cue 3 starts at 1s, under cue 1; cue 2 starts at 11s once cue 3 has ended
+        assertEquals(2, PoolSizeEstimator.estimatePeakVoices(cues));
+    }
+
+    @Test
+    void testFadeCuesTakeNoTrack() {
+        List<Cue> cues = new ArrayList<>();
+        cues.add(audioCue(1, 1.0, false));
+        cues.add(Cue.fadeCue(2, "Fade", 1, 0.0, 5.0, FadeCurve.LINEAR, true));
+        cues.add(Cue.fadeCue(3, "Fade", 1, 0.0, 5.0, FadeCurve.LINEAR, true));
+
+        assertEquals(1, PoolSizeEstimator.estimatePeakVoices(cues));
+    }
+
+    @Test
+    void testUnknownDurationLastsUntilNextGo() {
+        List<Cue> cues = new ArrayList<>();
+        for (int i = 1; i <= 10; i++) {
+            cues.add(audioCue(i, 0.0, false));
+        }
+
+        assertEquals(1, PoolSizeEstimator.estimatePeakVoices(cues));
+    }
+
+    private static Cue audioCue(int number, double duration, boolean autoFollow) {
+        return new Cue(number, "Cue " + number, "/audio/" + number + ".wav", duration, 0.0, 0.0, autoFollow);
+    }
+}
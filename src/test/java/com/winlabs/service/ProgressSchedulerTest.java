@@ -0,0 +1,158 @@
+package com.winlabs.service;
+
+import com.winlabs.model.AudioTrack;
+import com.winlabs.service.audio.LevelMeter;
+import com.winlabs.service.audio.NullBackend;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for ProgressScheduler and ProgressSnapshot, on the silent NullBackend.
+ */
+class ProgressSchedulerTest {
+
+    private NullBackend backend;
+    private AudioPlayerPool pool;
+    private Path testAudioFile;
+    private List<Runnable> queuedDeliveries;
+    private ProgressScheduler scheduler;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        backend = new NullBackend(10.0);
+        pool = new AudioPlayerPool(1, 16, 0, backend);
+        testAudioFile = Files.createTempFile("test-audio", ".wav");
+        queuedDeliveries = Collections.synchronizedList(new ArrayList<>());
+        scheduler = new ProgressScheduler(pool::getActiveTracks, queuedDeliveries::add);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        scheduler.dispose();
+        pool.dispose();
+        Files.deleteIfExists(testAudioFile);
+    }
+
+    @Test
+    void testSnapshotHoldsEveryRunningTrack() throws Exception {
+        List<AudioTrack> tracks = new ArrayList<>();
+        for (int i = 0; i < 15; i++) {
+            AudioTrack track = pool.acquireTrack(testAudioFile.toString());
+            track.play();
+            tracks.add(track);
+            backend.advance(0.5);
+        }
+        AudioTrack notStarted = pool.acquireTrack(testAudioFile.toString());
+
+        ProgressSnapshot snapshot = scheduler.tick();
+
+        assertEquals(15, snapshot.size());
+        assertEquals(-1, snapshot.indexOf(notStarted.getTrackId()));
+        int first = snapshot.indexOf(tracks.get(0).getTrackId());
+        assertEquals(7.5, snapshot.getPosition(first), 1e-6);
+        assertEquals(10.0, snapshot.getDuration(first), 1e-6);
+        assertEquals(2.5, snapshot.getRemaining(first), 1e-6);
+        int last = snapshot.indexOf(tracks.get(14).getTrackId());
+        assertEquals(0.5, snapshot.getPosition(last), 1e-6);
+    }
+
+    @Test
+    void testSnapshotReadsMasterMeter() throws Exception {
+        AudioTrack track = pool.acquireTrack(testAudioFile.toString());
+        track.play();
+
+        ProgressSnapshot estimated = scheduler.tick();
+        assertEquals(1, estimated.getMasterChannels());
+        assertEquals(0f, estimated.getPeak(0), 0.0f); // Silent voices are not metered
+        assertEquals(0f, estimated.getMasterPeak(0), 0.0f);
+
+        LevelMeter master = new LevelMeter(2, 48000f);
+        master.set(0.5f, 0.25f);
+        scheduler.setMasterMeter(() -> master);
+        ProgressSnapshot measured = scheduler.tick();
+
+        assertEquals(2, measured.getMasterChannels());
+        assertEquals(0.5f, measured.getMasterPeak(1), 1e-6f);
+        assertEquals(0.25f, measured.getMasterRms(0), 1e-6f);
+    }
+
+    @Test
+    void testSlowDeliveryOnlyGetsNewestSnapshot() throws Exception {
+        List<ProgressSnapshot> delivered = new ArrayList<>();
+        scheduler.subscribe(delivered::add);
+        AudioTrack track = pool.acquireTrack(testAudioFile.toString());
+        track.play();
+
+        scheduler.tick();
+        backend.advance(1.0);
+        scheduler.tick();
+        backend.advance(1.0);
+        scheduler.tick();
+
+        // However many ticks ran while the FX thread was busy, one delivery is queued
+        assertEquals(1, queuedDeliveries.size());
+        queuedDeliveries.remove(0).run();
+        assertEquals(1, delivered.size());
+        ProgressSnapshot newest = delivered.get(0);
+        assertEquals(2.0, newest.getPosition(newest.indexOf(track.getTrackId())), 1e-6);
+    }
+
+    @Test
+    void testQuietOnceEverythingStops() throws Exception {
+        AudioTrack track = pool.acquireTrack(testAudioFile.toString());
+        track.play();
+        scheduler.tick();
+        assertEquals(1, queuedDeliveries.size());
+        queuedDeliveries.remove(0).run();
+
+        backend.advance(10.0);
+        assertEquals(0, scheduler.tick().size());
+        assertEquals(1, queuedDeliveries.size());
+        queuedDeliveries.remove(0).run();
+
+        // Nothing running and nothing to clear: no more deliveries
+        scheduler.tick();
+        scheduler.tick();
+        assertTrue(queuedDeliveries.isEmpty());
+        assertEquals(0, scheduler.getLatest().size());
+    }
+
+    @Test
+    void testTicksOnlyWhileSubscribed() throws Exception {
+        ProgressScheduler running = new ProgressScheduler(pool::getActiveTracks, Runnable::run);
+        CountDownLatch ticks = new CountDownLatch(3);
+        pool.acquireTrack(testAudioFile.toString()).play();
+        assertFalse(running.isRunning());
+
+        Consumer<ProgressSnapshot> subscriber = snapshot -> ticks.countDown();
+        running.subscribe(subscriber);
+        assertTrue(running.isRunning());
+        assertTrue(ticks.await(2, TimeUnit.SECONDS));
+
+        running.unsubscribe(subscriber);
+        assertFalse(running.isRunning());
+        running.dispose();
+    }
+
+    @Test
+    void testRateIsClamped() {
+        assertEquals(ProgressScheduler.DEFAULT_RATE_HZ, scheduler.getRate());
+        scheduler.setRate(0);
+        assertEquals(ProgressScheduler.MIN_RATE_HZ, scheduler.getRate());
+        scheduler.setRate(1000);
+        assertEquals(ProgressScheduler.MAX_RATE_HZ, scheduler.getRate());
+    }
+}
@@ -0,0 +1,106 @@
+package com.winlabs.service;
+
+import com.winlabs.model.Cue;
+import com.winlabs.service.audio.MappedPcmReader;
+import com.winlabs.service.audio.TestAudioFiles;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for RenderCacheService's rendering, reuse, invalidation and cancellation.
+ */
+class RenderCacheServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Writes one second of a 440 Hz tone at half scale.
+     */
+    private Path writeTone(String name, float sampleRate, int channels) throws Exception {
+        return TestAudioFiles.tone(440).sampleRate(sampleRate).channels(channels).writeWav(tempDir.resolve(name));
+    }
+
+    @Test
+    void testPreparesOffFormatFilesAndReusesThem() throws Exception {
+        Path cacheDir = tempDir.resolve("renders");
+        Path offFormat = writeTone("tone.wav", 44100f, 1);
+        Path canonical = writeTone("canonical.wav", 48000f, 2);
+        Path broken = Files.write(tempDir.resolve("broken.mp3"), new byte[] { 1, 2, 3, 4 });
+        List<Cue> cues = List.of(new Cue(1, "Tone", offFormat.toString()), new Cue(2, "Again", offFormat.toString()),
+            new Cue(3, "Canonical", canonical.toString()), new Cue(4, "Broken", broken.toString()));
+        RenderCacheService first = new RenderCacheService(cacheDir, 2, 2, 48000f);
+
+        RenderJob job = first.prepareShow(cues, null).whenDone().get(10, TimeUnit.SECONDS);
+
+        assertEquals(3, job.getTotal());
+        assertEquals(3, job.getCompleted());
+        assertEquals(1, job.getRenderedCount());
+        assertEquals(1, job.getSkippedCount());
+        assertEquals(List.of("broken.mp3"), job.getFailedFiles());
+        Path rendered = first.resolve(offFormat);
+        assertNotEquals(offFormat, rendered);
+        assertTrue(rendered.startsWith(cacheDir));
+        MappedPcmReader reader = MappedPcmReader.open(rendered);
+        assertEquals(2, reader.getChannels());
+        assertEquals(48000f, reader.getSampleRate());
+        assertEquals(48000, reader.getFrameCount(), 1);
+        assertEquals(canonical, first.resolve(canonical));
+        assertEquals(broken, first.resolve(broken));
+        first.dispose();
+
+        RenderCacheService second = new RenderCacheService(cacheDir, 2, 2, 48000f);
+        RenderJob again = second.prepareShow(cues, null).whenDone().get(10, TimeUnit.SECONDS);
+        assertEquals(1, again.getReusedCount());
+        assertEquals(0, second.getRenderCount());
+        assertEquals(rendered, second.resolve(offFormat));
+
+        // An edited source plays from the original until the show is prepared again
+        Files.setLastModifiedTime(offFormat, FileTime.fromMillis(Files.getLastModifiedTime(offFormat).toMillis() + 5000));
+        assertEquals(offFormat, second.resolve(offFormat));
+        second.dispose();
+    }
+
+    @Test
+    void testRendersMp3Files() throws Exception {
+        Path mp3 = Files.copy(Path.of(RenderCacheServiceTest.class.getResource("/audio/tone-440hz.mp3").toURI()),
+            tempDir.resolve("tone.mp3"));
+        RenderCacheService service = new RenderCacheService(tempDir.resolve("renders"), 2, 2, 48000f);
+
+        RenderJob job = service.prepareShow(List.of(new Cue(1, "Tone", mp3.toString())), null)
+            .whenDone().get(10, TimeUnit.SECONDS);
+
+        assertEquals(1, job.getRenderedCount());
+        assertEquals(List.of(), job.getFailedFiles());
+        MappedPcmReader reader = MappedPcmReader.open(service.resolve(mp3));
+        assertEquals(2, reader.getChannels());
+        assertEquals(48000f, reader.getSampleRate());
+        assertEquals(48000, reader.getFrameCount(), 4800);
+        service.dispose();
+    }
+
+    @Test
+    void testCancelLeavesRemainingFilesUnrendered() throws Exception {
+        List<Cue> cues = List.of(new Cue(1, "A", writeTone("a.wav", 22050f, 1).toString()),
+            new Cue(2, "B", writeTone("b.wav", 22050f, 2).toString()),
+            new Cue(3, "C", writeTone("c.wav", 32000f, 1).toString()));
+        RenderCacheService service = new RenderCacheService(tempDir.resolve("renders"), 1, 2, 48000f);
+
+        RenderJob job = service.prepareShow(cues, RenderJob::cancel).whenDone().get(10, TimeUnit.SECONDS);
+
+        assertTrue(job.isCancelled());
+        assertEquals(3, job.getCompleted());
+        assertEquals(1, job.getRenderedCount());
+        assertNotEquals(Path.of(cues.get(0).getFilePath()), service.resolve(Path.of(cues.get(0).getFilePath())));
+        assertEquals(Path.of(cues.get(2).getFilePath()), service.resolve(Path.of(cues.get(2).getFilePath())));
+        service.dispose();
+    }
+}
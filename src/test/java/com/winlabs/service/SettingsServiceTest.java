@@ -1,5 +1,6 @@
 package com.winlabs.service;
 
+import com.winlabs.model.PlaybackBackend;
 import com.winlabs.model.Settings;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -46,6 +47,9 @@ class SettingsServiceTest {
         settings.setMasterVolume(0.75);
         settings.setAutoSaveEnabled(true);
         settings.setAutoSaveInterval(600);
+        settings.setGoLatencyWarningMs(80);
+        settings.setProgressRateHz(15);
+        settings.setPlaybackBackend(PlaybackBackend.PCM_MIXER);
         
         // Save settings
         settingsService.save(settings);
@@ -62,6 +66,9 @@ class SettingsServiceTest {
         assertEquals(0.75, loadedSettings.getMasterVolume(), 0.001);
         assertTrue(loadedSettings.isAutoSaveEnabled());
         assertEquals(600, loadedSettings.getAutoSaveInterval());
+        assertEquals(80, loadedSettings.getGoLatencyWarningMs());
+        assertEquals(15, loadedSettings.getProgressRateHz());
+        assertEquals(PlaybackBackend.PCM_MIXER, loadedSettings.getPlaybackBackend());
     }
     
     @Test
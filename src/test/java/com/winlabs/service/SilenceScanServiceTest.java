@@ -0,0 +1,85 @@
+package com.winlabs.service;
+
+import com.winlabs.model.AudibleRange;
+import com.winlabs.model.Cue;
+import com.winlabs.service.audio.SilenceDetector;
+import com.winlabs.service.audio.TestAudioFiles;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for SilenceScanService's cache and cue trimming.
+ */
+class SilenceScanServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Writes a two second mono file: silence, a 1 kHz tone at -12 dBFS between two times, then silence.
+     */
+    private Path writeTone(String name, double toneStart, double toneEnd) throws Exception {
+        return TestAudioFiles.tone(1000).channels(1).seconds(2.0).level(-12.0).between(toneStart, toneEnd)
+            .writeWav(tempDir.resolve(name));
+    }
+
+    @Test
+    void testScansOnceAndReusesCache() throws Exception {
+        Path cacheFile = tempDir.resolve("silence-cache.json");
+        Path file = writeTone("tone.wav", 0.4, 1.5);
+        SilenceScanService first = new SilenceScanService(cacheFile, 2);
+
+        AudibleRange range = first.scan(file.toString(), -60.0).get(10, TimeUnit.SECONDS);
+        assertEquals(0.4 - SilenceDetector.PRE_ROLL_SECONDS, range.getStart(), 0.001);
+        assertEquals(1.5 + SilenceDetector.TAIL_SECONDS, range.getEnd(), 0.001);
+        assertEquals(1, first.getScanCount());
+        first.flush();
+        first.dispose();
+        assertTrue(Files.exists(cacheFile));
+
+        SilenceScanService second = new SilenceScanService(cacheFile, 2);
+        AudibleRange cached = second.scan(file.toString(), -60.0).get(10, TimeUnit.SECONDS);
+        assertEquals(0, second.getScanCount());
+        assertEquals(1, second.getCacheHitCount());
+        assertEquals(range.getStart(), cached.getStart(), 1e-9);
+        assertEquals(range.getEnd(), cached.getEnd(), 1e-9);
+
+        // Another threshold is another scan
+        second.scan(file.toString(), -30.0).get(10, TimeUnit.SECONDS);
+        assertEquals(1, second.getScanCount());
+        second.dispose();
+    }
+
+    @Test
+    void testScanCuesTrimsOnlyAutoTrimCues() throws Exception {
+        SilenceScanService service = new SilenceScanService(tempDir.resolve("cache.json"), 2);
+        Path file = writeTone("tone.wav", 0.5, 1.0);
+        Cue trimmed = new Cue(1, "Trimmed", file.toString());
+        Cue manual = new Cue(2, "Manual", file.toString());
+        manual.setAutoTrim(false);
+        manual.setStartTrim(0.25);
+        Cue full = new Cue(3, "Full", writeTone("full.wav", 0.0, 2.0).toString());
+        full.setEndTrim(1.0);
+        Cue missing = new Cue(4, "Missing", tempDir.resolve("missing.wav").toString());
+
+        int count = service.scanCues(List.of(trimmed, manual, full, missing), -60.0, Runnable::run)
+            .get(10, TimeUnit.SECONDS);
+
+        assertEquals(2, count);
+        assertEquals(0.5 - SilenceDetector.PRE_ROLL_SECONDS, trimmed.getStartTrim(), 0.001);
+        assertEquals(1.0 + SilenceDetector.TAIL_SECONDS, trimmed.getEndTrim(), 0.001);
+        assertEquals(0.25, manual.getStartTrim(), 1e-9);
+        assertEquals(0.0, manual.getEndTrim(), 1e-9);
+        assertEquals(0.0, full.getStartTrim(), 1e-9);
+        assertEquals(0.0, full.getEndTrim(), 1e-9); // Audible to the end, so it plays to the end
+        assertEquals(0.0, missing.getStartTrim(), 1e-9);
+        service.dispose();
+    }
+}
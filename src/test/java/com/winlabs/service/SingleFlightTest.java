@@ -0,0 +1,57 @@
+package com.winlabs.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for SingleFlight's sharing of running work.
+ */
+class SingleFlightTest {
+
+    @Test
+    void testSameKeySharesRunningWork() throws Exception {
+        SingleFlight<String, Integer> flight = new SingleFlight<>();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger runs = new AtomicInteger();
+
+        CompletableFuture<Integer> first = flight.run("a.wav", executor, () -> {
+            release.await();
+            return runs.incrementAndGet();
+        }, -1);
+        CompletableFuture<Integer> second = flight.run("a.wav", executor, runs::incrementAndGet, -1);
+        assertSame(first, second);
+        assertFalse(flight.isIdle());
+
+        release.countDown();
+        assertEquals(1, (int) first.get(5, TimeUnit.SECONDS));
+        assertTrue(flight.isIdle());
+
+        // Finished work is not remembered: asking again runs it again
+        assertEquals(2, (int) flight.run("a.wav", executor, runs::incrementAndGet, -1).get(5, TimeUnit.SECONDS));
+        executor.shutdown();
+    }
+
+    @Test
+    void testFailureAndShutdownGiveTheFallback() throws Exception {
+        SingleFlight<String, Integer> flight = new SingleFlight<>();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        CompletableFuture<Integer> failed = flight.run("a.wav", executor, () -> {
+            throw new IllegalStateException("unreadable");
+        }, -1);
+        assertEquals(-1, (int) failed.get(5, TimeUnit.SECONDS));
+
+        executor.shutdown();
+        assertEquals(-1, (int) flight.run("b.wav", executor, () -> 1, -1).get(5, TimeUnit.SECONDS));
+        assertTrue(flight.isIdle());
+    }
+}
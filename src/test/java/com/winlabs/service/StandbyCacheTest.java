@@ -0,0 +1,198 @@
+package com.winlabs.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the StandbyCache used to keep prepared players ready for reuse.
+ */
+class StandbyCacheTest {
+
+    private List<String> disposed;
+    private StandbyCache<String> cache;
+
+    @BeforeEach
+    void setUp() {
+        disposed = new ArrayList<>();
+        cache = new StandbyCache<>(3, value -> !value.startsWith("broken"), disposed::add);
+    }
+
+    @Test
+    void testTakeOnEmptyCacheIsMiss() {
+        assertNull(cache.take("/audio/a.wav"));
+
+        assertEquals(0, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    void testPutAndTakeIsHit() {
+        assertTrue(cache.put("/audio/a.wav", "player-a"));
+        assertTrue(cache.contains("/audio/a.wav"));
+
+        assertEquals("player-a", cache.take("/audio/a.wav"));
+
+        assertEquals(1, cache.getHitCount());
+        assertEquals(0, cache.getMissCount());
+        assertFalse(cache.contains("/audio/a.wav"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testTakeRemovesEntry() {
+        cache.put("/audio/a.wav", "player-a");
+        cache.take("/audio/a.wav");
+
+        assertNull(cache.take("/audio/a.wav"));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    void testLeastRecentlyUsedIsEvicted() {
+        cache.put("/audio/a.wav", "player-a");
+        cache.put("/audio/b.wav", "player-b");
+        cache.put("/audio/c.wav", "player-c");
+
+        // a is played and returned, so b becomes the least recently used entry
+        String player = cache.take("/audio/a.wav");
+        cache.put("/audio/a.wav", player);
+        cache.put("/audio/d.wav", "player-d");
+
+        assertEquals(3, cache.size());
+        assertTrue(cache.contains("/audio/a.wav"));
+        assertFalse(cache.contains("/audio/b.wav"));
+        assertEquals(1, cache.getEvictionCount());
+        assertEquals(List.of("player-b"), disposed);
+    }
+
+    @Test
+    void testEvictionOrderFollowsInsertion() {
+        cache.put("/audio/a.wav", "player-a");
+        cache.put("/audio/b.wav", "player-b");
+        cache.put("/audio/c.wav", "player-c");
+        cache.put("/audio/d.wav", "player-d");
+
+        assertFalse(cache.contains("/audio/a.wav"));
+        assertEquals(List.of("player-a"), disposed);
+    }
+
+    @Test
+    void testDuplicatePutDisposesNewValue() {
+        assertTrue(cache.put("/audio/a.wav", "player-a"));
+        assertFalse(cache.put("/audio/a.wav", "player-a2"));
+
+        assertEquals(List.of("player-a2"), disposed);
+        assertEquals("player-a", cache.take("/audio/a.wav"));
+    }
+
+    @Test
+    void testInvalidEntryCountsAsMiss() {
+        cache.put("/audio/a.wav", "broken-player");
+
+        assertNull(cache.take("/audio/a.wav"));
+        assertEquals(0, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(List.of("broken-player"), disposed);
+    }
+
+    @Test
+    void testShrinkingCapacityEvicts() {
+        cache.put("/audio/a.wav", "player-a");
+        cache.put("/audio/b.wav", "player-b");
+        cache.put("/audio/c.wav", "player-c");
+
+        cache.setCapacity(1);
+
+        assertEquals(1, cache.getCapacity());
+        assertEquals(1, cache.size());
+        assertTrue(cache.contains("/audio/c.wav"));
+        assertEquals(List.of("player-a", "player-b"), disposed);
+    }
+
+    @Test
+    void testZeroCapacityDisablesCaching() {
+        StandbyCache<String> disabled = new StandbyCache<>(0, null, disposed::add);
+
+        assertFalse(disabled.put("/audio/a.wav", "player-a"));
+        assertEquals(0, disabled.size());
+        assertEquals(List.of("player-a"), disposed);
+    }
+
+    @Test
+    void testClearDisposesEverything() {
+        cache.put("/audio/a.wav", "player-a");
+        cache.put("/audio/b.wav", "player-b");
+
+        cache.clear();
+
+        assertEquals(0, cache.size());
+        assertEquals(2, disposed.size());
+    }
+
+    @Test
+    void testRemoveDisposesEntry() {
+        cache.put("/audio/a.wav", "player-a");
+
+        cache.remove("/audio/a.wav");
+        cache.remove("/audio/missing.wav");
+
+        assertFalse(cache.contains("/audio/a.wav"));
+        assertEquals(List.of("player-a"), disposed);
+    }
+
+    @Test
+    void testRemoveOnlyTheGivenPlayer() {
+        String player = new String("player-a");
+        cache.put("/audio/a.wav", player);
+
+        assertFalse(cache.remove("/audio/a.wav", new String("player-a"))); // An equal player refused by put
+        assertFalse(cache.remove("/audio/missing.wav", player));
+        assertTrue(cache.contains("/audio/a.wav"));
+        assertTrue(disposed.isEmpty());
+
+        assertTrue(cache.remove("/audio/a.wav", player));
+        assertFalse(cache.contains("/audio/a.wav"));
+        assertEquals(List.of("player-a"), disposed);
+    }
+
+    @Test
+    void testNullArgumentsAreIgnored() {
+        assertFalse(cache.put(null, "player"));
+        assertFalse(cache.put("/audio/a.wav", null));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testStoredTimesInLruOrder() {
+        long before = System.currentTimeMillis();
+        cache.put("/audio/a.wav", "player-a");
+        cache.put("/audio/b.wav", "player-b");
+
+        Map<String, Long> times = cache.getStoredTimes();
+
+        assertEquals(List.of("/audio/a.wav", "/audio/b.wav"), List.copyOf(times.keySet()));
+        assertTrue(times.get("/audio/a.wav") >= before);
+    }
+
+    @Test
+    void testEvictOnlyTheStoredPlayer() {
+        cache.put("/audio/a.wav", "player-a");
+        long storedAt = cache.getStoredTimes().get("/audio/a.wav");
+
+        assertFalse(cache.evict("/audio/a.wav", storedAt - 1));
+        assertTrue(cache.contains("/audio/a.wav"));
+
+        assertTrue(cache.evict("/audio/a.wav", storedAt));
+        assertFalse(cache.contains("/audio/a.wav"));
+        assertEquals(List.of("player-a"), disposed);
+        assertEquals(1, cache.getEvictionCount());
+        assertFalse(cache.evict("/audio/a.wav", storedAt));
+    }
+}
@@ -0,0 +1,66 @@
+package com.winlabs.service;
+
+import com.winlabs.service.audio.WaveformPeaks;
+import com.winlabs.service.audio.TestAudioFiles;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for WaveformService's background analysis and fingerprinted cache.
+ */
+class WaveformServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testAnalysesOnceAndReusesCacheByContent() throws Exception {
+        Path cacheDir = tempDir.resolve("waveforms");
+        Path original = TestAudioFiles.tone(100).writeWav(tempDir.resolve("a.wav"));
+        WaveformService first = new WaveformService(cacheDir, 2);
+
+        WaveformPeaks peaks = first.request(original.toString()).get(10, TimeUnit.SECONDS);
+        assertNotNull(peaks);
+        assertEquals(1.0, peaks.getDuration(), 1e-9);
+        assertEquals(0.5f, peaks.getMax(peaks.getLevelCount() - 1, 0), 1e-3);
+        assertSame(peaks, first.getIfReady(original.toString()));
+        assertEquals(1, first.getAnalysisCount());
+        first.dispose();
+
+        // A renamed copy has the same contents, so the new session maps the cached summary
+        Path copy = Files.copy(original, tempDir.resolve("renamed.wav"));
+        WaveformService second = new WaveformService(cacheDir, 2);
+        WaveformPeaks cached = second.request(copy.toString()).get(10, TimeUnit.SECONDS);
+
+        assertEquals(0, second.getAnalysisCount());
+        assertEquals(1, second.getCacheHitCount());
+        assertEquals(peaks.getBinCount(0), cached.getBinCount(0));
+        second.dispose();
+    }
+
+    @Test
+    void testDifferentContentGetsDifferentFingerprint() throws Exception {
+        Path quiet = TestAudioFiles.tone(100).level(-18.0).writeWav(tempDir.resolve("quiet.wav"));
+        Path loud = TestAudioFiles.tone(100).writeWav(tempDir.resolve("loud.wav"));
+
+        assertNotEquals(WaveformService.fingerprint(quiet), WaveformService.fingerprint(loud));
+        assertEquals(WaveformService.fingerprint(loud), WaveformService.fingerprint(Files.copy(loud, tempDir.resolve("copy.wav"))));
+    }
+
+    @Test
+    void testUnreadableFileGivesNoWaveform() throws Exception {
+        Path notes = tempDir.resolve("notes.wav");
+        Files.writeString(notes, "not audio");
+        WaveformService service = new WaveformService(tempDir.resolve("waveforms"), 1);
+
+        assertNull(service.request(notes.toString()).get(10, TimeUnit.SECONDS));
+        assertNull(service.request("").get(1, TimeUnit.SECONDS));
+        service.dispose();
+    }
+}
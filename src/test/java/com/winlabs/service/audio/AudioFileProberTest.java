@@ -0,0 +1,120 @@
+package com.winlabs.service.audio;
+
+import com.winlabs.model.MediaInfo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.sound.sampled.AudioFileFormat;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.UnsupportedAudioFileException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for AudioFileProber's header parsing, on small generated files.
+ */
+class AudioFileProberTest {
+
+    private static final int MP3_128K_STEREO = 0xFFFB9000; // MPEG-1 layer III, 128 kbps, 44.1 kHz
+    private static final int MP3_128K_MONO = 0xFFFB90C0;
+
+    @TempDir
+    Path tempDir;
+
+    private final AudioFileProber prober = new AudioFileProber();
+
+    @Test
+    void testProbesWav() throws Exception {
+        AudioFormat format = new AudioFormat(48000f, 16, 2, true, false);
+        Path file = TestAudioFiles.write(tempDir.resolve("half-second.wav"), format,
+            new byte[24000 * format.getFrameSize()], AudioFileFormat.Type.WAVE);
+
+        MediaInfo info = prober.probe(file);
+
+        assertEquals(0.5, info.getDurationSeconds(), 1e-9);
+        assertEquals(48000, info.getSampleRate());
+        assertEquals(2, info.getChannels());
+        assertEquals("PCM 16-bit", info.getCodec());
+    }
+
+    @Test
+    void testProbesCbrMp3FromFileSize() throws Exception {
+        // 100 frames of 417 bytes between an ID3v2 tag and an ID3v1 tag
+        ByteBuffer audio = ByteBuffer.allocate(100 * 417);
+        audio.putInt(0, MP3_128K_STEREO);
+        byte[] id3v2 = { 'I', 'D', '3', 3, 0, 0, 0, 0, 0, 20 };
+        byte[] id3v1 = new byte[128];
+        id3v1[0] = 'T';
+        id3v1[1] = 'A';
+        id3v1[2] = 'G';
+        Path file = tempDir.resolve("cbr.mp3");
+        Files.write(file, concat(id3v2, new byte[20], audio.array(), id3v1));
+
+        MediaInfo info = prober.probe(file);
+
+        assertEquals(100 * 417 * 8 / 128000.0, info.getDurationSeconds(), 1e-9);
+        assertEquals(44100, info.getSampleRate());
+        assertEquals(2, info.getChannels());
+        assertEquals("MP3 128 kbps", info.getCodec());
+    }
+
+    @Test
+    void testProbesVbrMp3FromXingFrameCount() throws Exception {
+        ByteBuffer frame = ByteBuffer.allocate(417);
+        frame.putInt(0, MP3_128K_MONO);
+        frame.put(4 + 17, "Xing".getBytes(StandardCharsets.US_ASCII));
+        frame.putInt(4 + 17 + 4, 0x1); // Frame count present
+        frame.putInt(4 + 17 + 8, 1000);
+        Path file = tempDir.resolve("vbr.mp3");
+        Files.write(file, frame.array());
+
+        MediaInfo info = prober.probe(file);
+
+        assertEquals(1000 * 1152 / 44100.0, info.getDurationSeconds(), 1e-9);
+        assertEquals(1, info.getChannels());
+        assertTrue(info.getCodec().endsWith("VBR"));
+    }
+
+    @Test
+    void testProbesFlacStreamInfo() throws Exception {
+        ByteBuffer header = ByteBuffer.allocate(42);
+        header.put("fLaC".getBytes(StandardCharsets.US_ASCII));
+        header.putInt(0x80000022); // Last block, STREAMINFO, 34 bytes
+        header.position(18);
+        header.putLong(48000L << 44 | 1L << 41 | 23L << 36 | 96000L); // 48 kHz, stereo, 24-bit
+        Path file = tempDir.resolve("two-seconds.flac");
+        Files.write(file, header.array());
+
+        MediaInfo info = prober.probe(file);
+
+        assertEquals(2.0, info.getDurationSeconds(), 1e-9);
+        assertEquals(48000, info.getSampleRate());
+        assertEquals(2, info.getChannels());
+        assertEquals("FLAC 24-bit", info.getCodec());
+    }
+
+    @Test
+    void testRejectsUnknownFormats() throws IOException {
+        Path file = tempDir.resolve("noise.ogg");
+        Files.write(file, new byte[512]);
+
+        assertThrows(UnsupportedAudioFileException.class, () -> prober.probe(file));
+    }
+
+    private static byte[] concat(byte[]... parts) {
+        int length = 0;
+        for (byte[] part : parts) {
+            length += part.length;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        for (byte[] part : parts) {
+            buffer.put(part);
+        }
+        return buffer.array();
+    }
+}
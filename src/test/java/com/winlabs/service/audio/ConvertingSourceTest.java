@@ -0,0 +1,72 @@
+package com.winlabs.service.audio;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for ConvertingSource channel mapping and on-the-fly resampling.
+ */
+class ConvertingSourceTest {
+
+    @Test
+    void testMatchingFormatIsNotWrapped() {
+        PcmAudio audio = new PcmAudio(new float[4], 2, 48000f);
+
+        assertSame(audio, ConvertingSource.adapt(audio, 2, 48000f));
+    }
+
+    @Test
+    void testMonoToStereo() {
+        PcmSource source = ConvertingSource.adapt(new PcmAudio(new float[] { 0.25f, -0.5f }, 1, 1000f), 2, 1000f);
+        float[] out = new float[4];
+
+        assertEquals(2, source.read(0, out, 0, 2));
+
+        assertArrayEquals(new float[] { 0.25f, 0.25f, -0.5f, -0.5f }, out, 0.0f);
+    }
+
+    @Test
+    void testStereoToMono() {
+        PcmSource source = ConvertingSource.adapt(new PcmAudio(new float[] { 0.5f, 0.0f, 1.0f, 0.5f }, 2, 1000f), 1, 1000f);
+        float[] out = new float[2];
+
+        source.read(0, out, 0, 2);
+
+        assertArrayEquals(new float[] { 0.25f, 0.75f }, out, 0.0001f);
+    }
+
+    @Test
+    void testUpsampleMatchesDecoder() {
+        float[] ramp = { 0.0f, 0.4f, 0.8f, 0.4f, 0.0f };
+        PcmSource source = ConvertingSource.adapt(new PcmAudio(ramp.clone(), 1, 500f), 1, 1000f);
+        float[] expected = PcmDecoder.resample(ramp, 1, 500f, 1000f);
+
+        assertEquals(expected.length, source.getFrameCount());
+        float[] out = new float[expected.length];
+        // Read in uneven blocks, as the mixer would after a seek
+        int read = source.read(0, out, 0, 3);
+        read += source.read(3, out, 3, expected.length - 3);
+
+        assertEquals(expected.length, read);
+        assertArrayEquals(expected, out, 0.0001f);
+    }
+
+    @Test
+    void testDownsample() {
+        float[] samples = { 0.0f, 0.1f, 0.2f, 0.3f, 0.4f, 0.5f, 0.6f, 0.7f };
+        PcmSource source = ConvertingSource.adapt(new PcmAudio(samples, 1, 2000f), 1, 1000f);
+        float[] out = new float[4];
+
+        assertEquals(4, source.read(0, out, 0, 4));
+
+        assertArrayEquals(new float[] { 0.0f, 0.2f, 0.4f, 0.6f }, out, 0.0001f);
+    }
+
+    @Test
+    void testReadPastEnd() {
+        PcmSource source = ConvertingSource.adapt(new PcmAudio(new float[4], 1, 1000f), 2, 1000f);
+
+        assertEquals(0, source.read(4, new float[8], 0, 4));
+    }
+}
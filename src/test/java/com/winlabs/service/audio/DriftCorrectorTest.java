@@ -0,0 +1,80 @@
+package com.winlabs.service.audio;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for DriftCorrector.
+ */
+class DriftCorrectorTest {
+
+    private static final int BLOCK = 4;
+    private static final int TARGET = 1000;
+
+    @Test
+    void testAtTargetPlaysEveryFrameOneLate() {
+        DriftCorrector corrector = new DriftCorrector(2, 1000f, TARGET);
+        corrector.update(TARGET);
+        assertEquals(1.0, corrector.getRatio(), 0.0);
+
+        float[] out = new float[BLOCK * 2];
+        assertEquals(BLOCK, corrector.framesNeeded(BLOCK));
+        corrector.resample(new float[] { 1, -1, 2, -2, 3, -3, 4, -4 }, out, BLOCK);
+        assertArrayEquals(new float[] { 0, 0, 1, -1, 2, -2, 3, -3 }, out, 0.0f);
+
+        assertEquals(BLOCK, corrector.framesNeeded(BLOCK));
+        corrector.resample(new float[] { 5, -5, 6, -6, 7, -7, 8, -8 }, out, BLOCK);
+        assertArrayEquals(new float[] { 4, -4, 5, -5, 6, -6, 7, -7 }, out, 0.0f);
+    }
+
+    @Test
+    void testRatioFollowsTheBufferWithinItsLimit() {
+        DriftCorrector corrector = new DriftCorrector(1, 1000f, TARGET);
+
+        corrector.update(TARGET + 50); // Smoothed, so one block moves it a little
+        double first = corrector.getRatio();
+        assertTrue(first > 1.0 && first < 1.0 + DriftCorrector.MAX_ADJUST);
+
+        for (int i = 0; i < 500; i++) {
+            corrector.update(TARGET + 100_000);
+        }
+        assertEquals(1.0 + DriftCorrector.MAX_ADJUST, corrector.getRatio(), 1e-12); // Behind: play faster
+
+        for (int i = 0; i < 1000; i++) {
+            corrector.update(0);
+        }
+        assertEquals(1.0 - DriftCorrector.MAX_ADJUST, corrector.getRatio(), 1e-12); // Ahead: play slower
+    }
+
+    @Test
+    void testResamplingIsSmoothAcrossBlocks() {
+        DriftCorrector corrector = new DriftCorrector(1, 1000f, TARGET);
+        for (int i = 0; i < 500; i++) {
+            corrector.update(TARGET + 100_000);
+        }
+        double ratio = corrector.getRatio();
+
+        // A ramp read at the ratio rises by the same step on every frame played
+        float[] in = new float[BLOCK + 2];
+        float[] out = new float[BLOCK];
+        int read = 0;
+        float last = Float.NaN;
+        for (int block = 0; block < 2000; block++) {
+            int needed = corrector.framesNeeded(BLOCK);
+            for (int f = 0; f < needed; f++) {
+                in[f] = (read + f) * 0.001f;
+            }
+            read += needed;
+            corrector.resample(in, out, BLOCK);
+            for (float sample : out) {
+                if (!Float.isNaN(last) && block > 0) {
+                    assertEquals(ratio * 0.001, sample - last, 1e-5);
+                }
+                last = sample;
+            }
+        }
+        // 8000 frames played took 8 more read, one of them ahead of the frame played
+        assertEquals(8008, read, 1);
+    }
+}
@@ -0,0 +1,78 @@
+package com.winlabs.service.audio;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for Follower's drift correction and stall handling.
+ */
+class FollowerTest {
+
+    private static final float RATE = 48000f;
+    private static final int BLOCK = 512;
+    private static final int LINE = BLOCK * 4;
+
+    /**
+     * Hands over a block of a ramp, so every frame is different.
+     */
+    private static void offerBlock(Follower follower, int blockIndex) {
+        float[] mix = new float[BLOCK];
+        for (int f = 0; f < BLOCK; f++) {
+            mix[f] = ((blockIndex * BLOCK + f) % 1000) * 0.001f;
+        }
+        follower.offer(mix, BLOCK);
+    }
+
+    @Test
+    void testInStepWithTheClockKeepsTheRatioAtOne() {
+        Follower follower = new Follower(1, RATE, BLOCK, LINE);
+        for (int i = 0; i < 1000; i++) {
+            offerBlock(follower, i);
+            assertNotNull(follower.next(LINE)); // The line is full when its last write returns
+        }
+        assertEquals(1.0, follower.getRatio(), DriftCorrector.MAX_ADJUST / 10);
+        assertEquals(0, follower.getCorrectionCount());
+    }
+
+    @Test
+    void testStallDropsBlocksWithoutMovingTheRatio() {
+        Follower follower = new Follower(1, RATE, BLOCK, LINE);
+        int offered = 0;
+        for (; offered < 100; offered++) {
+            offerBlock(follower, offered);
+            follower.next(LINE);
+        }
+        double before = follower.getRatio();
+
+        // The device stalls while the clock hands over six more blocks
+        for (int i = 0; i < 6; i++) {
+            offerBlock(follower, offered++);
+        }
+        // It comes back and drops blocks until it is no more than three behind
+        assertNotNull(follower.next(LINE));
+        assertNotNull(follower.next(LINE));
+        assertEquals(2, follower.getCorrectionCount());
+        assertEquals(before, follower.getRatio(), 0.0);
+        assertEquals(1.0, follower.getRatio(), DriftCorrector.MAX_ADJUST / 10);
+
+        // Then plays normally, making up what is left at the corrector's pace
+        assertNotNull(follower.next(LINE));
+        assertEquals(2, follower.getCorrectionCount());
+        assertEquals(1.0, follower.getRatio(), DriftCorrector.MAX_ADJUST);
+    }
+
+    @Test
+    void testRunningDryPlaysSilenceAndCountsIt() {
+        Follower follower = new Follower(1, RATE, BLOCK, LINE);
+        offerBlock(follower, 0);
+        assertNotNull(follower.next(LINE));
+
+        assertNull(follower.next(LINE)); // Still playing: wait
+        float[] silence = follower.next(BLOCK / 2); // Nearly dry
+        for (float sample : silence) {
+            assertEquals(0f, sample, 0f);
+        }
+        assertEquals(1, follower.getCorrectionCount());
+    }
+}
@@ -0,0 +1,77 @@
+package com.winlabs.service.audio;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for GainBus.
+ */
+class GainBusTest {
+
+    @Test
+    void testEffectiveLevelMultipliesParents() {
+        GainBus master = new GainBus("Master");
+        GainBus music = master.child("Music");
+        master.setLevel(0.5);
+        music.setLevel(0.5);
+
+        assertSame(music, master.child("Music"));
+        assertSame(master, music.getParent());
+        assertEquals(0.25, music.getEffectiveLevel(), 0.0001);
+        assertEquals("Master/Music", music.toString());
+    }
+
+    @Test
+    void testLevelIsClamped() {
+        GainBus bus = new GainBus("Master");
+
+        bus.setLevel(2.0);
+        assertEquals(1.0, bus.getLevel(), 0.0);
+        bus.setLevel(-1.0);
+        assertEquals(0.0, bus.getLevel(), 0.0);
+    }
+
+    @Test
+    void testMoveIsSmoothedAcrossBlocks() {
+        GainBus bus = new GainBus("Master");
+        bus.advance(1, 0.5f);
+        assertEquals(1f, bus.getBlockEndGain(), 0f);
+
+        bus.setLevel(0.0);
+        bus.advance(2, 0.5f);
+        assertEquals(1f, bus.getBlockStartGain(), 0f);
+        assertEquals(0.5f, bus.getBlockEndGain(), 0.0001f);
+        bus.advance(2, 0.5f); // Once per block
+        assertEquals(0.5f, bus.getBlockEndGain(), 0.0001f);
+        bus.advance(3, 0.5f);
+        assertEquals(0.5f, bus.getBlockStartGain(), 0.0001f);
+        assertEquals(0.25f, bus.getBlockEndGain(), 0.0001f);
+    }
+
+    @Test
+    void testIdleBusStartsAtItsLevel() {
+        GainBus bus = new GainBus("Master");
+        bus.advance(1, 0.5f);
+
+        bus.setLevel(0.2);
+        bus.advance(5, 0.5f); // Skipped blocks 2 to 4
+
+        assertEquals(0.2f, bus.getBlockStartGain(), 0.0001f);
+        assertEquals(0.2f, bus.getBlockEndGain(), 0.0001f);
+    }
+
+    @Test
+    void testGroupFollowsMasterMove() {
+        GainBus master = new GainBus("Master");
+        GainBus group = master.child("Effects");
+        group.setLevel(0.5);
+        group.advance(1, 0.5f);
+
+        master.setLevel(0.0);
+        group.advance(2, 0.5f);
+
+        assertEquals(0.5f, group.getBlockStartGain(), 0.0001f);
+        assertEquals(0.25f, group.getBlockEndGain(), 0.0001f); // Master half way down
+    }
+}
@@ -0,0 +1,97 @@
+package com.winlabs.service.audio;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for LevelMeter's measurement, ballistics and lock-free publication.
+ */
+class LevelMeterTest {
+
+    private static final float RATE = 48000f;
+
+    private static float[] sine(double amplitude, int frames, int channels) {
+        float[] samples = new float[frames * channels];
+        for (int f = 0; f < frames; f++) {
+            float value = (float) (amplitude * Math.sin(2 * Math.PI * 1000 * f / RATE));
+            for (int c = 0; c < channels; c++) {
+                samples[f * channels + c] = value;
+            }
+        }
+        return samples;
+    }
+
+    @Test
+    void testSineSettlesToPeakAndRms() {
+        LevelMeter meter = new LevelMeter(2, RATE);
+        float[] block = sine(0.5, 480, 2);
+
+        for (int i = 0; i < 200; i++) { // Two seconds, well past the RMS window
+            meter.process(block, 0, 480, 1f, 0f);
+        }
+
+        assertEquals(0.5f, meter.getPeak(), 0.001f);
+        assertEquals(0.5f / Math.sqrt(2), meter.getRms(), 0.002f);
+        float[] peaks = new float[2];
+        float[] rms = new float[2];
+        meter.read(peaks, rms);
+        assertEquals(peaks[0], peaks[1], 0.0f);
+        assertEquals(rms[0], rms[1], 0.0f);
+    }
+
+    @Test
+    void testGainIsApplied() {
+        LevelMeter meter = new LevelMeter(1, RATE);
+        float[] block = sine(1.0, 480, 1);
+
+        meter.process(block, 0, 480, 0.25f, 0f);
+
+        assertEquals(0.25f, meter.getPeak(), 0.001f);
+    }
+
+    @Test
+    void testPeakFallsBackAtReleaseRate() {
+        LevelMeter meter = new LevelMeter(1, RATE);
+        meter.process(sine(1.0, 480, 1), 0, 480, 1f, 0f);
+        float[] silence = new float[4800];
+
+        meter.process(silence, 0, 4800, 1f, 0f); // 100 ms later
+
+        double expectedDb = -LevelMeter.PEAK_RELEASE_DB_PER_SECOND * 0.1;
+        assertEquals(expectedDb, LevelMeter.toDb(meter.getPeak()), 0.05);
+
+        meter.clear();
+        assertEquals(0f, meter.getPeak(), 0.0f);
+        assertEquals(0f, meter.getRms(), 0.0f);
+    }
+
+    @Test
+    void testReaderNeverSeesTornLevels() throws Exception {
+        LevelMeter meter = new LevelMeter(8, RATE);
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread writer = new Thread(() -> {
+            float level = 0f;
+            while (running.get()) {
+                level = level >= 1f ? 0f : level + 0.001f;
+                meter.set(level, level); // Every channel equal in each publication
+            }
+        });
+        writer.start();
+        try {
+            float[] peaks = new float[8];
+            float[] rms = new float[8];
+            for (int i = 0; i < 200_000; i++) {
+                meter.read(peaks, rms);
+                for (int c = 1; c < 8; c++) {
+                    assertEquals(peaks[0], peaks[c], 0.0f);
+                }
+            }
+        } finally {
+            running.set(false);
+            writer.join();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.winlabs.service.audio;
+
+import com.winlabs.model.LoudnessInfo;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for LoudnessMeter against the BS.1770 reference behaviour.
+ */
+class LoudnessMeterTest {
+
+    private static final float RATE = 48000f;
+
+    /**
+     * A sine wave copied into every channel.
+     */
+    private static PcmAudio sine(double frequency, double amplitude, double phase, double seconds, int channels) {
+        int frames = (int) (RATE * seconds);
+        float[] samples = new float[frames * channels];
+        for (int f = 0; f < frames; f++) {
+            float value = (float) (amplitude * Math.sin(2 * Math.PI * frequency * f / RATE + phase));
+            for (int c = 0; c < channels; c++) {
+                samples[f * channels + c] = value;
+            }
+        }
+        return new PcmAudio(samples, channels, RATE);
+    }
+
+    @Test
+    void testStereoSineAtMinus20ReadsMinus20Lufs() {
+        // BS.1770 calibration: a 997 Hz sine at -20 dBFS in both channels is -20 LUFS
+        double amplitude = Math.pow(10, -20 / 20.0);
+        LoudnessInfo loudness = LoudnessMeter.measure(sine(997, amplitude, 0, 5, 2));
+
+        assertTrue(loudness.isMeasured());
+        assertEquals(-20.0, loudness.getIntegratedLufs(), 0.1);
+        assertEquals(-23.01, loudness.getRmsDbfs(), 0.05);
+        assertEquals(-20.0, loudness.getTruePeakDbtp(), 0.1);
+    }
+
+    @Test
+    void testMonoCountsAsBothSpeakers() {
+        double amplitude = Math.pow(10, -20 / 20.0);
+        LoudnessInfo mono = LoudnessMeter.measure(sine(997, amplitude, 0, 5, 1));
+
+        assertEquals(-20.0, mono.getIntegratedLufs(), 0.1);
+    }
+
+    @Test
+    void testTruePeakFindsPeaksBetweenSamples() {
+        // A quarter-rate sine sampled 45 degrees off its crests: samples reach 0.354, the wave 0.5
+        LoudnessInfo loudness = LoudnessMeter.measure(sine(12000, 0.5, Math.PI / 4, 1, 2));
+
+        assertEquals(-6.02, loudness.getTruePeakDbtp(), 0.5);
+        assertTrue(loudness.getTruePeakDbtp() > -9.0);
+    }
+
+    @Test
+    void testSilenceIsNotMeasured() {
+        LoudnessInfo loudness = LoudnessMeter.measure(new PcmAudio(new float[48000 * 2], 2, RATE));
+
+        assertFalse(loudness.isMeasured());
+        assertEquals(Double.NEGATIVE_INFINITY, loudness.getIntegratedLufs());
+        assertEquals(Double.NEGATIVE_INFINITY, loudness.getTruePeakDbtp());
+        assertEquals(Double.NEGATIVE_INFINITY, loudness.getRmsDbfs());
+    }
+
+    @Test
+    void testShortAudioIsMeasuredAsOneBlock() {
+        double amplitude = Math.pow(10, -20 / 20.0);
+        LoudnessInfo loudness = LoudnessMeter.measure(sine(997, amplitude, 0, 0.2, 2));
+
+        assertEquals(-20.0, loudness.getIntegratedLufs(), 0.5);
+    }
+
+    @Test
+    void testGatesIgnoreQuietBlocks() {
+        double loud = Math.pow(10, -23 / 10.0 + 0.0691); // Power of a -23 LUFS block
+        double quiet = Math.pow(10, -40 / 10.0 + 0.0691); // More than 10 LU below
+        double silent = Math.pow(10, -80 / 10.0 + 0.0691); // Below the absolute gate
+        double[] blocks = { loud, loud, quiet, quiet, silent, silent, silent };
+
+        assertEquals(-23.0, LoudnessMeter.integrate(blocks, blocks.length), 1e-6);
+        assertEquals(Double.NEGATIVE_INFINITY, LoudnessMeter.integrate(new double[] { silent }, 1));
+    }
+}
@@ -0,0 +1,196 @@
+package com.winlabs.service.audio;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.sound.sampled.AudioFileFormat;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for MappedPcmReader header parsing and sample conversion.
+ */
+class MappedPcmReaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testReadsStereoWav() throws Exception {
+        AudioFormat format = new AudioFormat(48000f, 16, 2, true, false);
+        short[] values = { 0, 16384, -16384, 32767, 8192, -8192 };
+        Path file = write(format, TestAudioFiles.toBytes16(values, false), AudioFileFormat.Type.WAVE, "stereo.wav");
+
+        MappedPcmReader reader = MappedPcmReader.open(file);
+
+        assertEquals(2, reader.getChannels());
+        assertEquals(48000f, reader.getSampleRate());
+        assertEquals(3, reader.getFrameCount());
+        float[] samples = new float[6];
+        assertEquals(3, reader.read(0, samples, 0, 3));
+        assertEquals(0.5f, samples[1], 0.0001f);
+        assertEquals(-0.5f, samples[2], 0.0001f);
+        assertEquals(-0.25f, samples[5], 0.0001f);
+    }
+
+    @Test
+    void testMatchesDecoder() throws Exception {
+        AudioFormat format = new AudioFormat(44100f, 16, 1, true, true);
+        short[] values = new short[64];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (short) (i * 997 - 30000);
+        }
+        Path file = write(format, TestAudioFiles.toBytes16(values, true), AudioFileFormat.Type.AIFF, "ramp.aiff");
+
+        MappedPcmReader reader = MappedPcmReader.open(file);
+        PcmAudio decoded = PcmDecoder.decode(file, 1, 44100f);
+
+        assertEquals(44100f, reader.getSampleRate(), 0.001f);
+        assertEquals(decoded.getFrameCount(), reader.getFrameCount());
+        float[] samples = new float[64];
+        reader.read(0, samples, 0, 64);
+        for (int i = 0; i < 64; i++) {
+            assertEquals(decoded.getSample(i), samples[i], 0.0001f);
+        }
+    }
+
+    @Test
+    void testReadsFromAnyFrame() throws Exception {
+        AudioFormat format = new AudioFormat(48000f, 16, 1, true, false);
+        short[] values = { 0, 8192, 16384, 24576 };
+        Path file = write(format, TestAudioFiles.toBytes16(values, false), AudioFileFormat.Type.WAVE, "seek.wav");
+        MappedPcmReader reader = MappedPcmReader.open(file);
+
+        float[] samples = new float[4];
+        assertEquals(2, reader.read(2, samples, 1, 4));
+
+        assertEquals(0.5f, samples[1], 0.0001f);
+        assertEquals(0.75f, samples[2], 0.0001f);
+        assertEquals(0, reader.read(4, samples, 0, 4));
+    }
+
+    @Test
+    void testReadsAcrossSegments() throws Exception {
+        AudioFormat format = new AudioFormat(48000f, 16, 2, true, false);
+        short[] values = new short[20];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (short) (i * 1000);
+        }
+        Path file = write(format, TestAudioFiles.toBytes16(values, false), AudioFileFormat.Type.WAVE, "segments.wav");
+
+        // Three frames (12 bytes) per segment, so ten frames span four segments
+        MappedPcmReader reader = MappedPcmReader.open(file, 12);
+        float[] samples = new float[20];
+        assertEquals(10, reader.read(0, samples, 0, 10));
+
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(values[i] / 32768f, samples[i], 0.0001f);
+        }
+    }
+
+    @Test
+    void testReads24BitWav() throws Exception {
+        AudioFormat format = new AudioFormat(48000f, 24, 1, true, false);
+        byte[] data = { 0x00, 0x00, 0x40, 0x00, 0x00, (byte) 0xC0 }; // 0.5, -0.5
+        Path file = write(format, data, AudioFileFormat.Type.WAVE, "24bit.wav");
+
+        float[] samples = new float[2];
+        MappedPcmReader.open(file).read(0, samples, 0, 2);
+
+        assertEquals(0.5f, samples[0], 0.0001f);
+        assertEquals(-0.5f, samples[1], 0.0001f);
+    }
+
+    @Test
+    void testReadsUnsigned8BitWav() throws Exception {
+        AudioFormat format = new AudioFormat(8000f, 8, 1, false, false);
+        byte[] data = { (byte) 128, (byte) 192, 64 };
+        Path file = write(format, data, AudioFileFormat.Type.WAVE, "8bit.wav");
+
+        float[] samples = new float[3];
+        MappedPcmReader.open(file).read(0, samples, 0, 3);
+
+        assertEquals(0.0f, samples[0], 0.0001f);
+        assertEquals(0.5f, samples[1], 0.0001f);
+        assertEquals(-0.5f, samples[2], 0.0001f);
+    }
+
+    @Test
+    void testReadsFloatWav() throws Exception {
+        ByteBuffer data = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+        data.putFloat(0.25f).putFloat(-0.75f);
+        Path file = writeRawWav(3, 1, 48000, 32, data.array(), data.capacity(), "float.wav");
+
+        MappedPcmReader reader = MappedPcmReader.open(file);
+        float[] samples = new float[2];
+        reader.read(0, samples, 0, 2);
+
+        assertEquals(0.25f, samples[0]);
+        assertEquals(-0.75f, samples[1]);
+    }
+
+    @Test
+    void testUnsetDataLengthRunsToEndOfFile() throws Exception {
+        byte[] data = TestAudioFiles.toBytes16(new short[] { 1, 2, 3, 4 }, false);
+        Path file = writeRawWav(1, 1, 48000, 16, data, 0, "streamed.wav");
+
+        assertEquals(4, MappedPcmReader.open(file).getFrameCount());
+    }
+
+    @Test
+    void testRejectsCompressedWav() throws Exception {
+        Path file = writeRawWav(0x55, 1, 48000, 16, new byte[4], 4, "mp3.wav");
+
+        assertThrows(UnsupportedAudioFileException.class, () -> MappedPcmReader.open(file));
+    }
+
+    @Test
+    void testRejectsNonAudioFile() throws Exception {
+        Path file = tempDir.resolve("notes.txt");
+        Files.writeString(file, "This is not audio at all");
+
+        assertThrows(UnsupportedAudioFileException.class, () -> MappedPcmReader.open(file));
+    }
+
+    @Test
+    void testReadExtended() {
+        // 48000 as an 80-bit extended float, as stored in an AIFF COMM chunk
+        ByteBuffer buffer = ByteBuffer.wrap(new byte[] {
+            0x40, 0x0E, (byte) 0xBB, (byte) 0x80, 0, 0, 0, 0, 0, 0 });
+
+        assertEquals(48000.0, MappedPcmReader.readExtended(buffer, 0), 1e-9);
+    }
+
+    private Path write(AudioFormat format, byte[] data, AudioFileFormat.Type type, String name) throws IOException {
+        return TestAudioFiles.write(tempDir.resolve(name), format, data, type);
+    }
+
+    /**
+     * Writes a minimal WAV file by hand, for formats and headers AudioSystem does not produce.
+     */
+    private Path writeRawWav(int tag, int channels, int rate, int bits, byte[] data, int declaredLength,
+                             String name) throws IOException {
+        int blockAlign = channels * bits / 8;
+        ByteBuffer header = ByteBuffer.allocate(44).order(ByteOrder.LITTLE_ENDIAN);
+        header.put("RIFF".getBytes()).putInt(36 + data.length).put("WAVE".getBytes());
+        header.put("fmt ".getBytes()).putInt(16)
+            .putShort((short) tag).putShort((short) channels).putInt(rate)
+            .putInt(rate * blockAlign).putShort((short) blockAlign).putShort((short) bits);
+        header.put("data".getBytes()).putInt(declaredLength);
+
+        Path file = tempDir.resolve(name);
+        byte[] bytes = new byte[44 + data.length];
+        System.arraycopy(header.array(), 0, bytes, 0, 44);
+        System.arraycopy(data, 0, bytes, 44, data.length);
+        Files.write(file, bytes);
+        return file;
+    }
+}
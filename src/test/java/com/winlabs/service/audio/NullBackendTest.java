@@ -0,0 +1,255 @@
+package com.winlabs.service.audio;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.winlabs.model.FadeCurve;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for NullBackend and NullVoice.
+ */
+class NullBackendTest {
+
+    private static final Path FILE = Paths.get("cue.wav");
+
+    private NullBackend backend;
+    private NullVoice voice;
+
+    @BeforeEach
+    void setUp() {
+        backend = new NullBackend(2.0);
+        voice = backend.open(FILE);
+    }
+
+    @Test
+    void testVoiceIsReadyImmediately() {
+        assertTrue(voice.whenReady().isDone());
+        assertEquals(2.0, voice.getDuration(), 1e-9);
+        assertEquals(0.0, voice.getCurrentTime(), 1e-9);
+        assertEquals(1, backend.getVoicesOpened());
+    }
+
+    @Test
+    void testDurationResolver() {
+        NullBackend perFile = new NullBackend(path -> path.toString().length());
+
+        assertEquals(7.0, perFile.open(FILE).getDuration(), 1e-9);
+    }
+
+    @Test
+    void testUnreadableFileUsesDefaultDuration() {
+        NullBackend probing = new NullBackend();
+
+        assertEquals(NullBackend.DEFAULT_DURATION_SECONDS, probing.open(FILE).getDuration(), 1e-9);
+    }
+
+    @Test
+    void testPlaybackFollowsVirtualClock() {
+        AtomicInteger playing = new AtomicInteger();
+        voice.setOnPlaying(playing::incrementAndGet);
+
+        voice.play();
+        assertEquals(1, playing.get());
+        assertTrue(voice.isPlaying());
+
+        backend.advance(0.75);
+        assertEquals(0.75, voice.getCurrentTime(), 1e-9);
+        assertEquals(0.75, backend.getTime(), 1e-9);
+    }
+
+    @Test
+    void testEndOfMedia() {
+        AtomicInteger ended = new AtomicInteger();
+        voice.setOnEndOfMedia(ended::incrementAndGet);
+        voice.play();
+
+        backend.advance(1.5);
+        assertEquals(0, ended.get());
+        backend.advance(1.0);
+
+        assertEquals(1, ended.get());
+        assertFalse(voice.isPlaying());
+        assertEquals(2.0, voice.getCurrentTime(), 1e-9);
+        assertEquals(0, backend.getPlayingVoiceCount());
+
+        // Further ticks do not end it again
+        backend.advance(5.0);
+        assertEquals(1, ended.get());
+    }
+
+    @Test
+    void testReplayAfterEndStartsOver() {
+        voice.play();
+        backend.advance(3.0);
+
+        voice.play();
+
+        assertEquals(0.0, voice.getCurrentTime(), 1e-9);
+        assertEquals(2, backend.getPlaysStarted());
+    }
+
+    @Test
+    void testPauseHoldsPosition() {
+        voice.play();
+        backend.advance(0.5);
+
+        voice.pause();
+        backend.advance(1.0);
+        assertEquals(0.5, voice.getCurrentTime(), 1e-9);
+
+        voice.play();
+        backend.advance(0.25);
+        assertEquals(0.75, voice.getCurrentTime(), 1e-9);
+    }
+
+    @Test
+    void testStopReturnsToStart() {
+        voice.play();
+        backend.advance(0.5);
+
+        voice.stop();
+
+        assertEquals(0.0, voice.getCurrentTime(), 1e-9);
+        assertEquals(0, backend.getPlayingVoiceCount());
+    }
+
+    @Test
+    void testSeekWhilePlaying() {
+        voice.play();
+        backend.advance(0.5);
+
+        voice.seek(1.5);
+        backend.advance(0.25);
+        assertEquals(1.75, voice.getCurrentTime(), 1e-9);
+
+        voice.seek(10.0);
+        assertEquals(2.0, voice.getCurrentTime(), 1e-9);
+    }
+
+    @Test
+    void testProgressListener() {
+        List<Double> positions = new ArrayList<>();
+        voice.setProgressListener(positions::add);
+        voice.play();
+
+        backend.advance(0.5);
+        backend.advance(0.5);
+
+        assertEquals(List.of(0.5, 1.0), positions);
+    }
+
+    @Test
+    void testVolumeIsClamped() {
+        voice.setVolume(1.5);
+        assertEquals(1.0, voice.getVolume(), 1e-9);
+
+        voice.setVolume(-0.5);
+        assertEquals(0.0, voice.getVolume(), 1e-9);
+    }
+
+    @Test
+    void testFadeFollowsClock() {
+        List<String> events = new ArrayList<>();
+        voice.play();
+
+        voice.fadeTo(0.5, 1.0, FadeCurve.LINEAR, false, () -> events.add("faded"));
+        backend.advance(0.5);
+        assertEquals(0.75, voice.getVolume(), 1e-9);
+
+        // Holds while paused
+        voice.pause();
+        backend.advance(10.0);
+        assertEquals(0.75, voice.getVolume(), 1e-9);
+        voice.play();
+
+        backend.advance(0.5);
+        assertEquals(0.5, voice.getVolume(), 1e-9);
+        assertEquals(List.of("faded"), events);
+    }
+
+    @Test
+    void testFadeOutAndStop() {
+        List<String> events = new ArrayList<>();
+        voice.setOnEndOfMedia(() -> events.add("end"));
+        voice.setVolume(0.8);
+        voice.play();
+
+        voice.fadeTo(0.0, 0.5, FadeCurve.S_CURVE, true, () -> events.add("faded"));
+        backend.advance(0.5);
+
+        assertEquals(List.of("faded"), events);
+        assertFalse(voice.isPlaying());
+        assertEquals(0.0, voice.getCurrentTime(), 1e-9);
+        assertEquals(0.8, voice.getVolume(), 1e-9);
+        assertEquals(0, backend.getPlayingVoiceCount());
+    }
+
+    @Test
+    void testChainStartsAtExactEnd() {
+        NullVoice next = backend.open(FILE);
+        List<String> events = new ArrayList<>();
+        voice.setOnEndOfMedia(() -> events.add("end"));
+        next.setOnPlaying(() -> events.add("next"));
+        voice.play();
+
+        assertTrue(voice.chain(next, 0.0, null));
+        backend.advance(2.3);
+
+        assertEquals(List.of("next", "end"), events);
+        assertTrue(next.isPlaying());
+        assertEquals(0.3, next.getCurrentTime(), 1e-9);
+    }
+
+    @Test
+    void testChainCrossfade() {
+        NullVoice next = backend.open(FILE);
+        voice.play();
+
+        voice.chain(next, 1.0, FadeCurve.LINEAR);
+        backend.advance(1.5);
+        assertEquals(0.5, voice.getVolume(), 1e-9);
+        assertEquals(0.5, next.getVolume(), 1e-9);
+
+        backend.advance(0.5);
+        assertFalse(voice.isPlaying());
+        assertEquals(1.0, voice.getVolume(), 1e-9); // Back to its volume for the next play
+        assertEquals(1.0, next.getCurrentTime(), 1e-9);
+    }
+
+    @Test
+    void testStopCancelsChain() {
+        NullVoice next = backend.open(FILE);
+        voice.play();
+        voice.chain(next, 0.0, null);
+
+        voice.stop();
+        backend.advance(3.0);
+        assertFalse(next.isPlaying());
+
+        // A voice that is not playing cannot chain
+        assertFalse(voice.chain(next, 0.0, null));
+    }
+
+    @Test
+    void testDisposedVoiceCannotPlay() {
+        voice.play();
+        voice.dispose();
+
+        assertFalse(voice.isReusable());
+        assertEquals(0, backend.getPlayingVoiceCount());
+        assertThrows(IllegalStateException.class, voice::play);
+    }
+
+    @Test
+    void testClockCannotGoBackwards() {
+        assertThrows(IllegalArgumentException.class, () -> backend.advance(-1.0));
+    }
+}
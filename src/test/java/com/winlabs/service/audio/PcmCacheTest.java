@@ -0,0 +1,155 @@
+package com.winlabs.service.audio;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for PcmCache and off-heap PcmAudio.
+ */
+class PcmCacheTest {
+
+    // 100 mono frames of float audio = 400 bytes per file
+    private static final int FRAMES = 100;
+    private static final long FILE_BYTES = FRAMES * Float.BYTES;
+
+    private static final Path A = Paths.get("a.wav");
+    private static final Path B = Paths.get("b.wav");
+    private static final Path C = Paths.get("c.wav");
+
+    private List<Path> decoded;
+    private PcmCache cache;
+
+    @BeforeEach
+    void setUp() {
+        decoded = new ArrayList<>();
+        cache = new PcmCache(2 * FILE_BYTES, path -> {
+            decoded.add(path);
+            float[] samples = new float[FRAMES];
+            samples[0] = 0.5f;
+            return new PcmAudio(samples, 1, 1000f);
+        });
+    }
+
+    @Test
+    void testToDirectCopiesSamplesOffHeap() {
+        PcmAudio heap = new PcmAudio(new float[] { 0.25f, -0.5f }, 1, 1000f);
+
+        PcmAudio direct = heap.toDirect();
+
+        assertFalse(heap.isDirect());
+        assertTrue(direct.isDirect());
+        assertEquals(0.25f, direct.getSample(0));
+        assertEquals(-0.5f, direct.getSample(1));
+        assertEquals(heap.getSizeInBytes(), direct.getSizeInBytes());
+        assertSame(direct, direct.toDirect());
+    }
+
+    @Test
+    void testHitDoesNotDecodeAgain() throws Exception {
+        PcmAudio first = cache.load(A);
+        PcmAudio second = cache.load(A);
+
+        assertSame(first, second);
+        assertTrue(first.isDirect());
+        assertEquals(0.5f, first.getSample(0));
+        assertEquals(List.of(A), decoded);
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(0.5, cache.getHitRate(), 1e-9);
+        assertEquals(FILE_BYTES, cache.getResidentBytes());
+    }
+
+    @Test
+    void testLeastRecentlyUsedIsEvictedFirst() throws Exception {
+        cache.load(A);
+        cache.load(B);
+        cache.load(A); // B is now the least recently used
+
+        cache.load(C);
+
+        assertTrue(cache.contains(A));
+        assertFalse(cache.contains(B));
+        assertTrue(cache.contains(C));
+        assertEquals(1, cache.getEvictionCount());
+        assertEquals(2 * FILE_BYTES, cache.getResidentBytes());
+    }
+
+    @Test
+    void testPinnedFilesAreNeverEvicted() throws Exception {
+        cache.setPinned(Set.of(A));
+        cache.load(A);
+        cache.load(B);
+        cache.load(C);
+
+        assertTrue(cache.contains(A));
+        assertTrue(cache.isPinned(A));
+        // The budget applies to unpinned files only
+        assertTrue(cache.contains(B));
+        assertTrue(cache.contains(C));
+        assertEquals(3 * FILE_BYTES, cache.getResidentBytes());
+
+        cache.setPinned(Set.of());
+        assertFalse(cache.contains(A));
+        assertEquals(2 * FILE_BYTES, cache.getResidentBytes());
+    }
+
+    @Test
+    void testFileLargerThanBudgetIsNotCached() throws Exception {
+        cache.setBudgetBytes(FILE_BYTES - 1);
+
+        PcmAudio audio = cache.load(A);
+
+        assertFalse(audio.isDirect());
+        assertFalse(cache.contains(A));
+        assertEquals(0, cache.getResidentBytes());
+    }
+
+    @Test
+    void testPinnedFileIsCachedOverBudget() throws Exception {
+        cache.setBudgetBytes(0);
+        cache.setPinned(Set.of(A));
+
+        cache.load(A);
+
+        assertTrue(cache.contains(A));
+    }
+
+    @Test
+    void testShrinkingBudgetEvicts() throws Exception {
+        cache.load(A);
+        cache.load(B);
+
+        cache.setBudgetBytes(FILE_BYTES);
+
+        assertEquals(1, cache.size());
+        assertTrue(cache.contains(B));
+        assertEquals(1, cache.getEvictionCount());
+    }
+
+    @Test
+    void testFailedDecodeIsNotCached() {
+        PcmCache failing = new PcmCache(FILE_BYTES, path -> {
+            throw new IOException("unreadable");
+        });
+
+        assertThrows(IOException.class, () -> failing.load(A));
+        assertFalse(failing.contains(A));
+        assertEquals(1, failing.getMissCount());
+    }
+
+    @Test
+    void testSameFileDifferentSpelling() throws Exception {
+        cache.load(Paths.get("sounds/../a.wav"));
+
+        assertTrue(cache.contains(Paths.get("a.wav")));
+    }
+}
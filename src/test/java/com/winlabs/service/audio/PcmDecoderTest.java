@@ -0,0 +1,142 @@
+package com.winlabs.service.audio;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.sound.sampled.AudioFileFormat;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.UnsupportedAudioFileException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for PcmDecoder sample conversion, channel mapping and resampling.
+ */
+class PcmDecoderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testDecodeMonoWavToStereo() throws Exception {
+        AudioFormat format = new AudioFormat(48000f, 16, 1, true, false);
+        short[] values = { 0, 16384, -16384, 32767 };
+        Path file = writeWav(format, TestAudioFiles.toBytes16(values, false), AudioFileFormat.Type.WAVE, "mono.wav");
+
+        PcmAudio audio = PcmDecoder.decode(file, 2, 48000f);
+
+        assertEquals(2, audio.getChannels());
+        assertEquals(4, audio.getFrameCount());
+        assertEquals(0.5f, audio.getSample(2), 0.0001f);
+        assertEquals(0.5f, audio.getSample(3), 0.0001f);
+        assertEquals(-0.5f, audio.getSample(4), 0.0001f);
+    }
+
+    @Test
+    void testDecodeBigEndianAiff() throws Exception {
+        AudioFormat format = new AudioFormat(48000f, 16, 2, true, true);
+        short[] values = { 8192, -8192 };
+        Path file = writeWav(format, TestAudioFiles.toBytes16(values, true), AudioFileFormat.Type.AIFF, "stereo.aiff");
+
+        PcmAudio audio = PcmDecoder.decode(file, 2, 48000f);
+
+        assertEquals(1, audio.getFrameCount());
+        assertEquals(0.25f, audio.getSample(0), 0.0001f);
+        assertEquals(-0.25f, audio.getSample(1), 0.0001f);
+    }
+
+    @Test
+    void testDecodeResamplesToTargetRate() throws Exception {
+        AudioFormat format = new AudioFormat(24000f, 16, 1, true, false);
+        Path file = writeWav(format, new byte[2400 * 2], AudioFileFormat.Type.WAVE, "short.wav");
+
+        PcmAudio audio = PcmDecoder.decode(file, 2, 48000f);
+
+        assertEquals(4800, audio.getFrameCount());
+        assertEquals(0.1, audio.getDuration(), 0.001);
+    }
+
+    @Test
+    void testConvert24BitLittleEndian() {
+        AudioFormat format = new AudioFormat(48000f, 24, 1, true, false);
+        // 0x400000 (half scale) and 0xC00000 (negative half scale), little-endian
+        byte[] bytes = { 0x00, 0x00, 0x40, 0x00, 0x00, (byte) 0xC0 };
+        float[] out = new float[2];
+
+        PcmDecoder.convert(bytes, bytes.length, format, out, 0);
+
+        assertEquals(0.5f, out[0], 0.0001f);
+        assertEquals(-0.5f, out[1], 0.0001f);
+    }
+
+    @Test
+    void testConvert8BitUnsigned() {
+        AudioFormat format = new AudioFormat(AudioFormat.Encoding.PCM_UNSIGNED, 8000f, 8, 1, 1, 8000f, false);
+        byte[] bytes = { (byte) 128, (byte) 192, 0 };
+        float[] out = new float[3];
+
+        PcmDecoder.convert(bytes, bytes.length, format, out, 0);
+
+        assertEquals(0.0f, out[0], 0.0001f);
+        assertEquals(0.5f, out[1], 0.0001f);
+        assertEquals(-1.0f, out[2], 0.0001f);
+    }
+
+    @Test
+    void testDownmixToMono() {
+        float[] stereo = { 1.0f, 0.0f, 0.5f, 0.5f };
+
+        float[] mono = PcmDecoder.mapChannels(stereo, 2, 1);
+
+        assertArrayEquals(new float[] { 0.5f, 0.5f }, mono, 0.0001f);
+    }
+
+    @Test
+    void testResampleInterpolates() {
+        float[] samples = { 0.0f, 1.0f };
+
+        float[] resampled = PcmDecoder.resample(samples, 1, 1000f, 2000f);
+
+        assertArrayEquals(new float[] { 0.0f, 0.5f, 1.0f, 1.0f }, resampled, 0.0001f);
+    }
+
+    @Test
+    void testDecodeMp3() throws Exception {
+        // One second of a 440 Hz tone at half scale, 44.1 kHz stereo, encoded by LAME at 64 kbit/s
+        Path file = Path.of(PcmDecoderTest.class.getResource("/audio/tone-440hz.mp3").toURI());
+
+        PcmAudio audio = PcmDecoder.decode(file, 2, 48000f);
+
+        assertEquals(2, audio.getChannels());
+        assertEquals(48000f, audio.getSampleRate());
+        assertEquals(1.0, audio.getDuration(), 0.1); // Plus the encoder's delay and padding
+        // The middle of the file is still the tone: its level and its zero crossings
+        int crossings = 0;
+        double sum = 0.0;
+        for (int frame = 12000; frame < 36000; frame++) {
+            float sample = audio.getSample(frame * 2);
+            sum += sample * sample;
+            if ((sample >= 0) != (audio.getSample((frame + 1) * 2) >= 0)) {
+                crossings++;
+            }
+        }
+        assertEquals(0.5 / Math.sqrt(2), Math.sqrt(sum / 24000), 0.03);
+        assertEquals(440, crossings, 4);
+    }
+
+    @Test
+    void testUnsupportedFileThrows() throws IOException {
+        Path file = tempDir.resolve("not-audio.wav");
+        Files.writeString(file, "not audio");
+
+        assertThrows(UnsupportedAudioFileException.class,
+            () -> PcmDecoder.decode(file, 2, 48000f));
+    }
+
+    private Path writeWav(AudioFormat format, byte[] data, AudioFileFormat.Type type, String name) throws IOException {
+        return TestAudioFiles.write(tempDir.resolve(name), format, data, type);
+    }
+}
@@ -0,0 +1,733 @@
+package com.winlabs.service.audio;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.winlabs.model.FadeCurve;
+import com.winlabs.model.OutputDevice;
+import com.winlabs.model.OutputRouting;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for PcmMixer and MixerVoice.
+ * Blocks are rendered directly, without opening an output line.
+ */
+class PcmMixerTest {
+
+    private static final int BLOCK = 4;
+
+    private PcmMixer mixer;
+    private float[] mix;
+
+    @BeforeEach
+    void setUp() {
+        // Mono at 1 kHz keeps the arithmetic readable; events are delivered synchronously
+        mixer = new PcmMixer(1000f, 1, BLOCK, 2, Runnable::run);
+        mix = new float[BLOCK];
+    }
+
+    @Test
+    void testIdleMixerRendersSilence() {
+        mix[0] = 1.0f;
+
+        mixer.renderBlock(mix, BLOCK);
+
+        assertArrayEquals(new float[BLOCK], mix, 0.0f);
+        assertEquals(0, mixer.getActiveVoiceCount());
+        assertEquals(BLOCK, mixer.getFramesRendered());
+    }
+
+    @Test
+    void testVoiceThatFailsIsStoppedAndReported() {
+        MixerVoice good = mixer.createVoice(constant(0.25f, 100));
+        MixerVoice bad = mixer.createVoice(failing(new IllegalStateException("Unreadable")));
+        List<Throwable> errors = new ArrayList<>();
+        bad.setOnError(errors::add);
+
+        good.play();
+        bad.play();
+        mixer.renderBlock(mix, BLOCK);
+        mixer.renderBlock(mix, BLOCK);
+
+        assertArrayEquals(new float[] { 0.25f, 0.25f, 0.25f, 0.25f }, mix, 0.0001f);
+        assertEquals(1, mixer.getActiveVoiceCount());
+        assertFalse(bad.isPlaying());
+        assertTrue(good.isPlaying());
+        assertEquals(1, errors.size());
+        assertEquals("Unreadable", errors.get(0).getMessage());
+    }
+
+    @Test
+    void testGivingUpStopsAndReportsEveryVoice() {
+        MixerVoice a = mixer.createVoice(constant(0.25f, 100));
+        MixerVoice b = mixer.createVoice(constant(0.5f, 100));
+        List<Throwable> errors = new ArrayList<>();
+        a.setOnError(errors::add);
+        b.setOnError(errors::add);
+        a.play();
+        b.play();
+        mixer.renderBlock(mix, BLOCK);
+
+        RuntimeException failure = new IllegalStateException("Line lost");
+        mixer.fail(failure, PcmMixer.MAX_RENDER_FAILURES);
+
+        assertEquals(List.of(failure, failure), errors);
+        assertFalse(a.isPlaying());
+        assertFalse(b.isPlaying());
+        assertEquals(0, mixer.getActiveVoiceCount());
+        assertFalse(mixer.isRunning());
+
+        // A voice played afterwards starts cleanly
+        a.play();
+        mixer.renderBlock(mix, BLOCK);
+        assertArrayEquals(new float[] { 0.25f, 0.25f, 0.25f, 0.25f }, mix, 0.0001f);
+    }
+
+    @Test
+    void testVoicesAreSummed() {
+        MixerVoice a = mixer.createVoice(constant(0.25f, 8));
+        MixerVoice b = mixer.createVoice(constant(0.5f, 8));
+
+        a.play();
+        b.play();
+        mixer.renderBlock(mix, BLOCK);
+
+        assertArrayEquals(new float[] { 0.75f, 0.75f, 0.75f, 0.75f }, mix, 0.0001f);
+        assertEquals(2, mixer.getActiveVoiceCount());
+    }
+
+    @Test
+    void testMetersFollowVoicesAndMix() {
+        MixerVoice a = mixer.createVoice(constant(0.25f, 8));
+        MixerVoice b = mixer.createVoice(constant(0.5f, 100));
+        a.setVolume(0.5);
+
+        a.play();
+        b.play();
+        mixer.renderBlock(mix, BLOCK);
+
+        assertEquals(0.125f, a.getMeter().getPeak(), 0.0001f); // After the volume
+        assertEquals(0.5f, b.getMeter().getPeak(), 0.0001f);
+        assertEquals(0.625f, mixer.getMasterMeter().getPeak(), 0.0001f);
+
+        mixer.renderBlock(mix, BLOCK);
+        mixer.renderBlock(mix, BLOCK); // a has ended and left the mix
+        assertEquals(0f, a.getMeter().getPeak(), 0.0f);
+        assertTrue(b.getMeter().getPeak() > 0.49f);
+    }
+
+    @Test
+    void testPlayTogetherStartsOnSameFrame() {
+        MixerVoice a = mixer.createVoice(constant(0.1f, 100));
+        MixerVoice b = mixer.createVoice(constant(0.1f, 100));
+
+        mixer.playTogether(a, b);
+        mixer.renderBlock(mix, BLOCK);
+
+        assertEquals(a.getCurrentTime(), b.getCurrentTime(), 0.0);
+        assertTrue(a.isPlaying());
+        assertTrue(b.isPlaying());
+    }
+
+    @Test
+    void testEndOfMediaAndPlayingEvents() {
+        List<String> events = new ArrayList<>();
+        MixerVoice voice = mixer.createVoice(constant(0.5f, 6));
+        voice.setOnPlaying(() -> events.add("playing"));
+        voice.setOnEndOfMedia(() -> events.add("end"));
+
+        voice.play();
+        mixer.renderBlock(mix, BLOCK);
+        assertEquals(List.of("playing"), events);
+
+        mixer.renderBlock(mix, BLOCK);
+        // Only the remaining two frames are mixed; the rest of the block is silent
+        assertArrayEquals(new float[] { 0.5f, 0.5f, 0f, 0f }, mix, 0.0001f);
+        assertEquals(List.of("playing", "end"), events);
+        assertFalse(voice.isPlaying());
+        assertEquals(0, mixer.getActiveVoiceCount());
+    }
+
+    @Test
+    void testPauseKeepsPosition() {
+        MixerVoice voice = mixer.createVoice(constant(0.5f, 100));
+        voice.play();
+        mixer.renderBlock(mix, BLOCK);
+
+        voice.pause();
+        mixer.renderBlock(mix, BLOCK);
+
+        assertArrayEquals(new float[BLOCK], mix, 0.0f);
+        assertEquals(0.004, voice.getCurrentTime(), 0.0001);
+
+        voice.play();
+        mixer.renderBlock(mix, BLOCK);
+        assertEquals(0.008, voice.getCurrentTime(), 0.0001);
+    }
+
+    @Test
+    void testStopRewinds() {
+        MixerVoice voice = mixer.createVoice(constant(0.5f, 100));
+        voice.play();
+        mixer.renderBlock(mix, BLOCK);
+
+        voice.stop();
+
+        assertEquals(0.0, voice.getCurrentTime(), 0.0);
+        assertFalse(voice.isPlaying());
+    }
+
+    @Test
+    void testSeekAppliesAtNextBlock() {
+        float[] ramp = new float[20];
+        for (int i = 0; i < ramp.length; i++) {
+            ramp[i] = i / 100f;
+        }
+        MixerVoice voice = mixer.createVoice(new PcmAudio(ramp, 1, 1000f));
+
+        voice.seek(0.010);
+        voice.play();
+        mixer.renderBlock(mix, BLOCK);
+
+        assertEquals(0.10f, mix[0], 0.0001f);
+        assertEquals(0.13f, mix[3], 0.0001f);
+    }
+
+    @Test
+    void testConvertedSourcePlaysAtMixerRate() {
+        float[] ramp = { 0.0f, 0.2f, 0.4f, 0.6f, 0.8f };
+        MixerVoice voice = mixer.createVoice(ConvertingSource.adapt(new PcmAudio(ramp, 1, 500f), 1, 1000f));
+
+        voice.seek(0.002);
+        voice.play();
+        mixer.renderBlock(mix, BLOCK);
+
+        assertEquals(0.2f, mix[0], 0.0001f);
+        assertEquals(0.3f, mix[1], 0.0001f);
+        assertEquals(0.5f, mix[3], 0.0001f);
+    }
+
+    @Test
+    void testStreamingVoicePlaysFromBuffer() {
+        MixerVoice voice = mixer.createStreamingVoice(ramp(40));
+        List<String> events = new ArrayList<>();
+        voice.setOnEndOfMedia(() -> events.add("end"));
+
+        assertTrue(voice.isStreaming());
+        voice.play();
+        for (int block = 0; block < 10; block++) {
+            mixer.prefetch();
+            mixer.renderBlock(mix, BLOCK);
+            assertEquals(block * BLOCK / 100f, mix[0], 0.0001f);
+        }
+
+        assertEquals(List.of("end"), events);
+        assertEquals(0, voice.getBufferUnderrunCount());
+    }
+
+    @Test
+    void testStreamingSeekWaitsForRefill() {
+        MixerVoice voice = mixer.createStreamingVoice(ramp(40));
+        voice.play();
+        mixer.renderBlock(mix, BLOCK);
+
+        voice.seek(0.020);
+        mixer.renderBlock(mix, BLOCK);
+        assertEquals(0.0f, mix[0], 0.0f);
+
+        mixer.prefetch();
+        mixer.renderBlock(mix, BLOCK);
+        assertEquals(0.20f, mix[0], 0.0001f);
+        assertEquals(0.23f, mix[3], 0.0001f);
+        assertEquals(0.024, voice.getCurrentTime(), 0.0001);
+    }
+
+    @Test
+    void testPlayRangeStartsAndEndsInsideTheSource() {
+        MixerVoice voice = mixer.createVoice(ramp(40));
+        List<String> events = new ArrayList<>();
+        voice.setOnEndOfMedia(() -> events.add("end"));
+
+        voice.setPlayRange(0.010, 0.016);
+        assertEquals(0.010, voice.getCurrentTime(), 0.0001);
+        assertEquals(0.016, voice.getDuration(), 0.0001);
+        voice.play();
+        mixer.renderBlock(mix, BLOCK);
+        assertEquals(0.10f, mix[0], 0.0001f);
+        mixer.renderBlock(mix, BLOCK);
+        assertArrayEquals(new float[] { 0.14f, 0.15f, 0f, 0f }, mix, 0.0001f);
+        assertEquals(List.of("end"), events);
+
+        voice.play();
+        mixer.renderBlock(mix, BLOCK);
+        assertEquals(0.10f, mix[0], 0.0001f);
+        voice.stop();
+        assertEquals(0.010, voice.getCurrentTime(), 0.0001);
+    }
+
+    @Test
+    void testCuedStreamingVoiceStartsWithoutRefillGap() {
+        MixerVoice voice = mixer.createStreamingVoice(ramp(40));
+
+        voice.setPlayRange(0.020, 0.0);
+        mixer.prefetch(); // Refilled while stopped, before the GO
+        voice.play();
+        mixer.renderBlock(mix, BLOCK);
+        assertEquals(0.20f, mix[0], 0.0001f);
+        assertEquals(0.23f, mix[3], 0.0001f);
+
+        voice.stop();
+        mixer.prefetch();
+        voice.play();
+        mixer.renderBlock(mix, BLOCK);
+        assertEquals(0.20f, mix[0], 0.0001f);
+        assertEquals(0, voice.getBufferUnderrunCount());
+    }
+
+    @Test
+    void testStreamingUnderrunIsSilenceNotEnd() {
+        PcmMixer small = new PcmMixer(1000f, 1, 4096, 2, Runnable::run);
+        MixerVoice voice = small.createStreamingVoice(ramp(PcmMixer.STREAM_BUFFER_FRAMES + 8192));
+        float[] big = new float[4096];
+        voice.play();
+
+        for (int block = 0; block < 5; block++) {
+            small.renderBlock(big, 4096); // Nothing refills the buffer
+        }
+
+        assertTrue(voice.isPlaying());
+        assertEquals(1, voice.getBufferUnderrunCount());
+        assertEquals(PcmMixer.STREAM_BUFFER_FRAMES / 1000.0, voice.getCurrentTime(), 0.0001);
+    }
+
+    @Test
+    void testFadeIsEvaluatedPerBlock() {
+        MixerVoice voice = mixer.createVoice(constant(1.0f, 100));
+        voice.play();
+        mixer.renderBlock(mix, BLOCK);
+
+        voice.fadeTo(0.0, 0.008, FadeCurve.LINEAR, false, null);
+        mixer.renderBlock(mix, BLOCK);
+        assertEquals(1.0f, mix[0], 0.0001f);
+        assertEquals(0.625f, mix[3], 0.0001f); // Ramping to 0.5 at the end of the block
+
+        mixer.renderBlock(mix, BLOCK);
+        assertEquals(0.5f, mix[0], 0.0001f);
+        assertEquals(0.125f, mix[3], 0.0001f);
+        assertEquals(0.0, voice.getVolume(), 0.0);
+        assertTrue(voice.isPlaying());
+    }
+
+    @Test
+    void testFadeFollowsCurve() {
+        MixerVoice voice = mixer.createVoice(constant(1.0f, 100));
+        voice.play();
+        mixer.renderBlock(mix, BLOCK);
+
+        voice.fadeTo(0.0, 0.008, FadeCurve.EQUAL_POWER, false, null);
+        mixer.renderBlock(mix, BLOCK);
+        mixer.renderBlock(mix, 1);
+
+        // Half way through, then a one-frame block starts from that gain
+        assertEquals(Math.cos(Math.PI / 4), mix[0], 0.0001f);
+    }
+
+    @Test
+    void testFadeOutAndStop() {
+        MixerVoice voice = mixer.createVoice(constant(1.0f, 100));
+        voice.setVolume(0.8);
+        List<String> events = new ArrayList<>();
+        voice.play();
+        mixer.renderBlock(mix, BLOCK);
+
+        voice.fadeTo(0.0, 0.004, FadeCurve.LINEAR, true, () -> events.add("faded"));
+        mixer.renderBlock(mix, BLOCK);
+
+        assertEquals(List.of("faded"), events);
+        assertFalse(voice.isPlaying());
+        assertEquals(0.8, voice.getVolume(), 0.0001);
+        assertEquals(0.0, voice.getCurrentTime(), 0.0);
+
+        // Plays again from the start at the volume it had before the fade
+        voice.play();
+        mixer.renderBlock(mix, BLOCK);
+        assertEquals(0.8f, mix[0], 0.0001f);
+    }
+
+    @Test
+    void testSetVolumeCancelsFade() {
+        MixerVoice voice = mixer.createVoice(constant(1.0f, 100));
+        List<String> events = new ArrayList<>();
+        voice.play();
+        voice.fadeTo(0.0, 0.008, FadeCurve.LINEAR, true, () -> events.add("faded"));
+        mixer.renderBlock(mix, BLOCK);
+
+        voice.setVolume(1.0);
+        for (int block = 0; block < 4; block++) {
+            mixer.renderBlock(mix, BLOCK);
+        }
+
+        assertEquals(1.0f, mix[3], 0.0001f);
+        assertTrue(voice.isPlaying());
+        assertTrue(events.isEmpty());
+    }
+
+    @Test
+    void testFadeOnStoppedVoiceCompletesAtOnce() {
+        MixerVoice voice = mixer.createVoice(constant(1.0f, 100));
+        List<String> events = new ArrayList<>();
+
+        voice.fadeTo(0.3, 2.0, FadeCurve.S_CURVE, false, () -> events.add("faded"));
+
+        assertEquals(List.of("faded"), events);
+        assertEquals(0.3, voice.getVolume(), 0.0001);
+    }
+
+    @Test
+    void testChainedVoiceStartsOnFrameAfterEnd() {
+        List<String> events = new ArrayList<>();
+        MixerVoice a = mixer.createVoice(constant(0.25f, 6));
+        MixerVoice b = mixer.createVoice(constant(0.5f, 8));
+        a.setOnEndOfMedia(() -> events.add("end"));
+        b.setOnPlaying(() -> events.add("next"));
+        a.play();
+
+        assertTrue(a.chain(b, 0.0, null));
+        mixer.renderBlock(mix, BLOCK);
+        mixer.renderBlock(mix, BLOCK);
+
+        // The second voice picks up mid-block, on the frame after the first one's last
+        assertArrayEquals(new float[] { 0.25f, 0.25f, 0.5f, 0.5f }, mix, 0.0001f);
+        assertEquals(List.of("end", "next"), events);
+        assertEquals(0.002, b.getCurrentTime(), 0.0);
+
+        mixer.renderBlock(mix, BLOCK);
+        mixer.renderBlock(mix, BLOCK);
+        assertArrayEquals(new float[] { 0.5f, 0.5f, 0f, 0f }, mix, 0.0001f);
+    }
+
+    @Test
+    void testChainedCrossfade() {
+        MixerVoice a = mixer.createVoice(constant(1.0f, 12));
+        MixerVoice b = mixer.createVoice(constant(1.0f, 100));
+        a.play();
+
+        a.chain(b, 0.006, FadeCurve.LINEAR);
+        mixer.renderBlock(mix, BLOCK);
+        mixer.renderBlock(mix, BLOCK);
+
+        // The second voice starts six frames before the end, from silence
+        assertEquals(1.0f, mix[2], 0.0001f);
+        assertTrue(b.isPlaying());
+
+        mixer.renderBlock(mix, BLOCK);
+        assertTrue(mix[3] < 1.2f);
+        assertFalse(a.isPlaying());
+        assertEquals(1.0, a.getVolume(), 0.0); // Kept for the next play
+
+        mixer.renderBlock(mix, BLOCK);
+        assertArrayEquals(new float[] { 1f, 1f, 1f, 1f }, mix, 0.0001f);
+    }
+
+    @Test
+    void testStoppedChainDoesNotStart() {
+        MixerVoice a = mixer.createVoice(constant(0.25f, 4));
+        MixerVoice b = mixer.createVoice(constant(0.5f, 8));
+        MixerVoice c = mixer.createVoice(constant(0.5f, 8));
+        a.play();
+        a.chain(b, 0.0, null);
+        b.stop();
+
+        mixer.renderBlock(mix, BLOCK);
+        mixer.renderBlock(mix, BLOCK);
+
+        assertFalse(b.isPlaying());
+        assertArrayEquals(new float[BLOCK], mix, 0.0f);
+        // Only a playing voice can chain, and only to a stopped one
+        assertFalse(a.chain(c, 0.0, null));
+        c.play();
+        assertFalse(c.chain(c, 0.0, null));
+    }
+
+    @Test
+    void testVolumeRampsAcrossBlock() {
+        MixerVoice voice = mixer.createVoice(constant(1.0f, 100));
+        voice.play();
+        mixer.renderBlock(mix, BLOCK);
+
+        voice.setVolume(0.0);
+        mixer.renderBlock(mix, BLOCK);
+
+        assertEquals(1.0f, mix[0], 0.0001f);
+        assertTrue(mix[1] < mix[0] && mix[2] < mix[1] && mix[3] < mix[2]);
+
+        mixer.renderBlock(mix, BLOCK);
+        assertArrayEquals(new float[BLOCK], mix, 0.0001f);
+    }
+
+    @Test
+    void testReplayAfterEndStartsOver() {
+        MixerVoice voice = mixer.createVoice(constant(0.5f, 4));
+        voice.play();
+        mixer.renderBlock(mix, BLOCK);
+        mixer.renderBlock(mix, BLOCK);
+
+        voice.play();
+        mixer.renderBlock(mix, BLOCK);
+
+        assertArrayEquals(new float[] { 0.5f, 0.5f, 0.5f, 0.5f }, mix, 0.0001f);
+    }
+
+    @Test
+    void testDisposedVoiceCannotPlay() {
+        MixerVoice voice = mixer.createVoice(constant(0.5f, 4));
+        voice.dispose();
+
+        assertFalse(voice.isReusable());
+        assertThrows(IllegalStateException.class, voice::play);
+    }
+
+    @Test
+    void testFormatMismatchRejected() {
+        PcmAudio stereo = new PcmAudio(new float[8], 2, 1000f);
+
+        assertThrows(IllegalArgumentException.class, () -> mixer.createVoice(stereo));
+    }
+
+    @Test
+    void testPcm16ConversionClips() {
+        byte[] out = new byte[6];
+
+        PcmMixer.toPcm16(new float[] { 2.0f, -2.0f, 0.0f }, out);
+
+        assertEquals((short) 32767, (short) ((out[1] << 8) | (out[0] & 0xFF)));
+        assertEquals((short) -32767, (short) ((out[3] << 8) | (out[2] & 0xFF)));
+        assertEquals(0, out[4]);
+    }
+
+    @Test
+    void testRoutingSplitsTheBusIntoOutputs() throws Exception {
+        mixer.setOutputs(List.of(new OutputDevice("Mains", "", 1), new OutputDevice("Foldback", "", 2)));
+        MixerVoice mains = mixer.createVoice(constant(0.25f, 100));
+        MixerVoice foldback = mixer.createVoice(constant(0.5f, 100));
+        foldback.setRouting(OutputRouting.silent(1, 3).withGain(0, 1, 0.5).withGain(0, 2, 1.0));
+        float[] bus = new float[BLOCK * 3];
+
+        mains.play();
+        foldback.play();
+        mixer.renderBlock(bus, BLOCK);
+
+        assertArrayEquals(new float[] { 0.25f, 0.25f, 0.5f }, Arrays.copyOf(bus, 3), 0.0001f);
+        assertEquals(0.25f, mixer.getMasterMeter().getPeak(), 0.0001f);
+        assertEquals(0.25f, mixer.getOutputMeter(0).getPeak(), 0.0001f);
+        assertEquals(0.5f, mixer.getOutputMeter(1).getPeak(), 0.0001f);
+    }
+
+    @Test
+    void testRoutingChangeAppliesAtNextBlock() throws Exception {
+        mixer.setOutputs(List.of(new OutputDevice("Mains", "", 1), new OutputDevice("Sub", "", 1)));
+        MixerVoice voice = mixer.createVoice(constant(0.5f, 100));
+        float[] bus = new float[BLOCK * 2];
+
+        voice.play();
+        mixer.renderBlock(bus, BLOCK);
+        assertArrayEquals(new float[] { 0.5f, 0f }, Arrays.copyOf(bus, 2), 0.0001f);
+
+        voice.setRouting(OutputRouting.silent(1, 2).withGain(0, 1, 1.0));
+        mixer.renderBlock(bus, BLOCK);
+        assertArrayEquals(new float[] { 0f, 0.5f }, Arrays.copyOf(bus, 2), 0.0001f);
+    }
+
+    @Test
+    void testMasterAndGroupBusesScaleVoices() {
+        MixerVoice a = mixer.createVoice(constant(0.5f, 100));
+        MixerVoice b = mixer.createVoice(constant(0.5f, 100));
+        b.setGroup("Music");
+        mixer.getMasterBus().setLevel(0.5);
+        mixer.getMasterBus().child("Music").setLevel(0.5);
+
+        a.play();
+        b.play();
+        mixer.renderBlock(mix, BLOCK);
+
+        // Buses not in use before start at their level: 0.5 * 0.5 + 0.5 * 0.25
+        assertEquals(0.375f, mix[0], 0.0001f);
+        assertEquals(0.375f, mix[BLOCK - 1], 0.0001f);
+        assertEquals(0.5f, b.getMeter().getPeak(), 0.0001f); // Voice meters read before the buses
+    }
+
+    @Test
+    void testMasterMoveIsSmoothedWhilePlaying() {
+        MixerVoice voice = mixer.createVoice(constant(1.0f, 1000));
+        voice.play();
+        mixer.renderBlock(mix, BLOCK);
+
+        mixer.getMasterBus().setLevel(0.0);
+        mixer.renderBlock(mix, BLOCK);
+
+        assertTrue(mix[0] > 0.9f, "Starts from the old level");
+        assertTrue(mix[BLOCK - 1] < mix[0] && mix[BLOCK - 1] > 0f, "Moves part way within the block");
+        for (int i = 0; i < 100; i++) {
+            mixer.renderBlock(mix, BLOCK);
+        }
+        assertEquals(0f, mix[BLOCK - 1], 0.0f);
+    }
+
+    @Test
+    void testLoopJumpsBackOnExactFrameForItsCount() {
+        MixerVoice voice = mixer.createVoice(ramp(40));
+        List<String> events = new ArrayList<>();
+        voice.setOnEndOfMedia(() -> events.add("end"));
+        assertTrue(voice.setLoop(0.0, 0.006, 2));
+
+        voice.play();
+        float[] out = renderBlocks(4);
+
+        // No audio before the loop start, so the last 3 frames fade into 0..2 and 3 follows on
+        float[] expected = { 0f, 0.01f, 0.02f,
+            (float) (0.03 * Math.cos(Math.PI / 6)), (float) (0.04 * Math.cos(Math.PI / 3) + 0.01 * Math.sin(Math.PI / 3)),
+            0.02f, 0.03f, 0.04f, 0.05f, 0.06f, 0.07f, 0.08f, 0.09f, 0.10f, 0.11f, 0.12f };
+        assertArrayEquals(expected, out, 0.0001f);
+
+        voice.stop(); // Restarts the count
+        voice.play();
+        out = renderBlocks(4);
+        assertEquals(0.02f, out[5], 0.0001f);
+        assertEquals(0.03f, out[6], 0.0001f);
+        assertEquals(0.09f, out[12], 0.0001f);
+        assertTrue(events.isEmpty());
+    }
+
+    @Test
+    void testLoopJumpIsCrossfadedIntoLoopStart() {
+        MixerVoice voice = mixer.createVoice(ramp(100));
+        voice.setLoop(0.020, 0.040, 2);
+
+        voice.play();
+        float[] out = renderBlocks(16);
+
+        // The last 10 frames of the first pass fade from 30..39 into 10..19, which 20 follows on from
+        assertEquals(0.29f, out[29], 0.0001f);
+        assertEquals(0.30 * Math.cos(Math.PI / 20) + 0.10 * Math.sin(Math.PI / 20), out[30], 0.0001); // Equal power
+        assertEquals(0.19f, out[39], 0.0001f);
+        assertEquals(0.20f, out[40], 0.0001f);
+        // The last pass plays on into the tail as it is
+        assertEquals(0.39f, out[59], 0.0001f);
+        assertEquals(0.40f, out[60], 0.0001f);
+    }
+
+    @Test
+    void testLoopFromTopCrossfadesIntoItsHead() {
+        MixerVoice voice = mixer.createVoice(ramp(100));
+        voice.setLoop(0.0, 0.040, 3);
+
+        voice.play();
+        float[] out = renderBlocks(26);
+
+        // The last 10 frames of each pass fade from 30..39 into 0..9, and the next pass carries on from 10
+        assertEquals(0.29f, out[29], 0.0001f);
+        assertEquals(0.30 * Math.cos(Math.PI / 20) + 0.00 * Math.sin(Math.PI / 20), out[30], 0.0001);
+        assertEquals(0.34 * Math.cos(Math.PI / 4) + 0.04 * Math.sin(Math.PI / 4), out[34], 0.0001);
+        assertEquals(0.09f, out[39], 0.0001f);
+        assertEquals(0.10f, out[40], 0.0001f);
+        // Later passes are 30 frames long, and their jumps are crossfaded the same way
+        assertEquals(0.29f, out[59], 0.0001f);
+        assertEquals(0.09f, out[69], 0.0001f);
+        assertEquals(0.10f, out[70], 0.0001f);
+        // The last pass plays on into the tail as it is
+        assertEquals(0.39f, out[99], 0.0001f);
+        assertEquals(0.40f, out[100], 0.0001f);
+    }
+
+    @Test
+    void testDevampFinishesThePassThenPlaysTheTail() {
+        MixerVoice voice = mixer.createVoice(ramp(20));
+        List<String> events = new ArrayList<>();
+        voice.setOnEndOfMedia(() -> events.add("end"));
+        voice.setLoop(0.0, 0.008, 0);
+
+        voice.play();
+        float[] out = renderBlocks(20);
+        assertEquals(0.03f, out[79], 0.0001f); // Still looping, each pass fading into 0..3
+        assertTrue(events.isEmpty());
+
+        mixer.renderBlock(mix, BLOCK);
+        voice.devamp();
+        out = renderBlocks(4);
+
+        assertArrayEquals(new float[] { 0.04f, 0.05f, 0.06f, 0.07f, 0.08f, 0.09f, 0.10f, 0.11f }, Arrays.copyOf(out, 8), 0.0001f);
+        assertEquals(0.19f, out[15], 0.0001f);
+        assertEquals(List.of("end"), events);
+    }
+
+    @Test
+    void testStreamingVoiceDoesNotLoop() {
+        MixerVoice voice = mixer.createStreamingVoice(ramp(40));
+
+        assertFalse(voice.setLoop(0.0, 0.010, 0));
+        assertTrue(voice.setLoop(0.0, 0.0, 0)); // Clearing the loop is always possible
+    }
+
+    @Test
+    void testOutputLatencyIsFixed() {
+        PcmMixer defaults = new PcmMixer(Runnable::run);
+
+        // One block being mixed plus four buffered, at 48 kHz
+        assertEquals(256 * 5 * 1000.0 / 48000.0, defaults.getOutputLatencyMillis(), 0.0001);
+    }
+
+    private float[] renderBlocks(int blocks) {
+        float[] out = new float[blocks * BLOCK];
+        for (int b = 0; b < blocks; b++) {
+            mixer.renderBlock(mix, BLOCK);
+            System.arraycopy(mix, 0, out, b * BLOCK, BLOCK);
+        }
+        return out;
+    }
+
+    private static PcmAudio ramp(int frames) {
+        float[] samples = new float[frames];
+        for (int i = 0; i < frames; i++) {
+            samples[i] = i / 100f;
+        }
+        return new PcmAudio(samples, 1, 1000f);
+    }
+
+    /**
+     * A mono source whose reads throw.
+     */
+    private static PcmSource failing(RuntimeException error) {
+        return new PcmSource() {
+            @Override
+            public int getChannels() {
+                return 1;
+            }
+
+            @Override
+            public float getSampleRate() {
+                return 1000f;
+            }
+
+            @Override
+            public long getFrameCount() {
+                return 100;
+            }
+
+            @Override
+            public int read(long frame, float[] dest, int destOffset, int frames) {
+                throw error;
+            }
+        };
+    }
+
+    private static PcmAudio constant(float value, int frames) {
+        float[] samples = new float[frames];
+        Arrays.fill(samples, value);
+        return new PcmAudio(samples, 1, 1000f);
+    }
+}
@@ -0,0 +1,127 @@
+package com.winlabs.service.audio;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for PcmRingBuffer.
+ */
+class PcmRingBufferTest {
+
+    @Test
+    void testCapacityRoundsUpToPowerOfTwo() {
+        assertEquals(1024, new PcmRingBuffer(1000, 2).getCapacityFrames());
+        assertEquals(512, new PcmRingBuffer(512, 2).getCapacityFrames());
+        assertEquals(1, new PcmRingBuffer(1, 1).getCapacityFrames());
+        assertThrows(IllegalArgumentException.class, () -> new PcmRingBuffer(0, 2));
+        assertThrows(IllegalArgumentException.class, () -> new PcmRingBuffer(16, 0));
+    }
+
+    @Test
+    void testWriteThenRead() {
+        PcmRingBuffer ring = new PcmRingBuffer(8, 2);
+
+        assertEquals(3, ring.write(new float[] { 1, 2, 3, 4, 5, 6 }, 0, 3));
+        assertEquals(3, ring.availableToRead());
+        assertEquals(5, ring.availableToWrite());
+
+        float[] out = new float[6];
+        assertEquals(3, ring.read(out, 0, 3));
+        assertArrayEquals(new float[] { 1, 2, 3, 4, 5, 6 }, out, 0.0f);
+        assertEquals(0, ring.availableToRead());
+    }
+
+    @Test
+    void testWrapsAround() {
+        PcmRingBuffer ring = new PcmRingBuffer(4, 1);
+        float[] out = new float[4];
+        ring.write(new float[] { 1, 2, 3 }, 0, 3);
+        ring.read(out, 0, 3);
+
+        // Starts at index 3, so this write and the next read both wrap
+        assertEquals(4, ring.write(new float[] { 4, 5, 6, 7 }, 0, 4));
+        assertEquals(4, ring.read(out, 0, 4));
+
+        assertArrayEquals(new float[] { 4, 5, 6, 7 }, out, 0.0f);
+        assertEquals(7, ring.getWriteCount());
+        assertEquals(7, ring.getReadCount());
+    }
+
+    @Test
+    void testOverrunWritesWhatFits() {
+        PcmRingBuffer ring = new PcmRingBuffer(4, 1);
+
+        assertEquals(4, ring.write(new float[6], 0, 6));
+        assertEquals(0, ring.write(new float[1], 0, 1));
+
+        assertEquals(2, ring.getOverrunCount());
+    }
+
+    @Test
+    void testUnderrunReadsWhatIsThere() {
+        PcmRingBuffer ring = new PcmRingBuffer(4, 1);
+        ring.write(new float[] { 9 }, 0, 1);
+        float[] out = new float[4];
+
+        assertEquals(1, ring.read(out, 0, 4));
+        assertEquals(0, ring.read(out, 0, 1));
+
+        assertEquals(9f, out[0]);
+        assertEquals(2, ring.getUnderrunCount());
+    }
+
+    @Test
+    void testSkip() {
+        PcmRingBuffer ring = new PcmRingBuffer(8, 1);
+        ring.write(new float[] { 1, 2, 3, 4 }, 0, 4);
+
+        assertEquals(3, ring.skip(3));
+        float[] out = new float[1];
+        ring.read(out, 0, 1);
+
+        assertEquals(4f, out[0]);
+        assertEquals(0, ring.skip(2));
+        assertEquals(0, ring.getUnderrunCount());
+    }
+
+    @Test
+    void testProducerAndConsumerThreadsKeepOrder() throws Exception {
+        PcmRingBuffer ring = new PcmRingBuffer(256, 2);
+        int total = 500_000;
+
+        Thread producer = new Thread(() -> {
+            float[] block = new float[64 * 2];
+            int next = 0;
+            while (next < total) {
+                int frames = Math.min(64, total - next);
+                for (int i = 0; i < frames; i++) {
+                    block[i * 2] = next + i;
+                    block[i * 2 + 1] = -(next + i);
+                }
+                int written = 0;
+                while (written < frames) {
+                    written += ring.write(block, written * 2, frames - written);
+                    Thread.onSpinWait();
+                }
+                next += frames;
+            }
+        });
+        producer.start();
+
+        float[] out = new float[48 * 2];
+        int expected = 0;
+        while (expected < total) {
+            int count = ring.read(out, 0, 48);
+            for (int i = 0; i < count; i++) {
+                assertEquals(expected, out[i * 2], 0.0f);
+                assertEquals(-expected, out[i * 2 + 1], 0.0f);
+                expected++;
+            }
+        }
+        producer.join(5000);
+
+        assertEquals(total, ring.getReadCount());
+        assertEquals(0, ring.availableToRead());
+    }
+}
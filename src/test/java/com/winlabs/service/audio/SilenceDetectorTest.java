@@ -0,0 +1,75 @@
+package com.winlabs.service.audio;
+
+import com.winlabs.model.AudibleRange;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for SilenceDetector.
+ */
+class SilenceDetectorTest {
+
+    private static final float RATE = 48000f;
+
+    /**
+     * Makes stereo audio that is silent except for a tone on the right channel between two frames.
+     */
+    private static PcmAudio toneBetween(int frames, int toneStart, int toneEnd, float level) {
+        return new PcmAudio(toneSamples(frames, toneStart, toneEnd, level), 2, RATE);
+    }
+
+    private static float[] toneSamples(int frames, int toneStart, int toneEnd, float level) {
+        float[] samples = new float[frames * 2];
+        for (int f = toneStart; f < toneEnd; f++) {
+            samples[f * 2 + 1] = (float) (level * Math.sin(2 * Math.PI * 1000 * (f + 0.25) / RATE));
+        }
+        return samples;
+    }
+
+    @Test
+    void testFindsLeadingAndTrailingSilence() {
+        // Half a second of silence, a second of tone, then 1.5 seconds of silence
+        AudibleRange range = SilenceDetector.scan(toneBetween(144000, 24000, 72000, 0.5f), -60.0);
+
+        assertFalse(range.isSilent());
+        assertEquals(0.5 - SilenceDetector.PRE_ROLL_SECONDS, range.getStart(), 0.001);
+        assertEquals(1.5 + SilenceDetector.TAIL_SECONDS, range.getEnd(), 0.001);
+        assertEquals(3.0, range.getDuration(), 1e-9);
+        assertEquals(3.0 - 1.5 - SilenceDetector.TAIL_SECONDS, range.getTrailingSilence(), 0.001);
+    }
+
+    @Test
+    void testLowNoiseCountsAsSilence() {
+        float[] samples = toneSamples(48000, 0, 48000, 0.0005f); // About -66 dBFS
+        for (int f = 12000; f < 24000; f++) {
+            samples[f * 2] = 0.25f;
+        }
+        PcmAudio noise = new PcmAudio(samples, 2, RATE);
+
+        AudibleRange range = SilenceDetector.scan(noise, -60.0);
+
+        assertEquals(0.25 - SilenceDetector.PRE_ROLL_SECONDS, range.getStart(), 0.001);
+        assertEquals(0.5 + SilenceDetector.TAIL_SECONDS, range.getEnd(), 0.001);
+        assertTrue(SilenceDetector.scan(noise, -80.0).getStart() < 0.001);
+    }
+
+    @Test
+    void testAudioToTheEdgesIsNotTrimmed() {
+        AudibleRange range = SilenceDetector.scan(toneBetween(4800, 1, 4800, 0.5f), -60.0);
+
+        assertEquals(0.0, range.getStart(), 0.0);
+        assertEquals(0.1, range.getEnd(), 1e-9);
+        assertEquals(0.0, range.getLeadingSilence(), 0.0);
+        assertEquals(0.0, range.getTrailingSilence(), 1e-9);
+    }
+
+    @Test
+    void testSilentFileHasEmptyRange() {
+        AudibleRange range = SilenceDetector.scan(new PcmAudio(new float[9600], 2, RATE), -60.0);
+
+        assertTrue(range.isSilent());
+        assertEquals(0.1, range.getDuration(), 1e-9);
+        assertEquals(0.0, range.getLeadingSilence(), 0.0);
+    }
+}
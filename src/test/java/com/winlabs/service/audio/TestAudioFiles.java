@@ -0,0 +1,136 @@
+package com.winlabs.service.audio;
+
+import javax.sound.sampled.AudioFileFormat;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Writes small audio files for tests: 16-bit sine tones, or any PCM data as WAV or AIFF.
+ */
+public final class TestAudioFiles {
+
+    private TestAudioFiles() {
+        // Utility class
+    }
+
+    /**
+     * Starts a 16-bit sine tone file: by default one second at half scale, stereo at 48 kHz,
+     * sounding from start to end.
+     *
+     * @param frequency Frequency of the tone in Hz
+     */
+    public static Tone tone(double frequency) {
+        return new Tone(frequency);
+    }
+
+    /**
+     * Writes PCM data through AudioSystem.
+     *
+     * @param file Where to write
+     * @param format Format of the data
+     * @param data Interleaved sample bytes
+     * @param type WAVE or AIFF
+     * @return The file
+     */
+    public static Path write(Path file, AudioFormat format, byte[] data, AudioFileFormat.Type type) throws IOException {
+        try (AudioInputStream stream = new AudioInputStream(
+                new ByteArrayInputStream(data), format, data.length / format.getFrameSize())) {
+            AudioSystem.write(stream, type, file.toFile());
+        }
+        return file;
+    }
+
+    /**
+     * Packs 16-bit samples into bytes.
+     */
+    public static byte[] toBytes16(short[] values, boolean bigEndian) {
+        byte[] bytes = new byte[values.length * 2];
+        for (int i = 0; i < values.length; i++) {
+            byte low = (byte) values[i];
+            byte high = (byte) (values[i] >> 8);
+            bytes[i * 2] = bigEndian ? high : low;
+            bytes[i * 2 + 1] = bigEndian ? low : high;
+        }
+        return bytes;
+    }
+
+    /**
+     * A sine tone file to write, the same on every channel.
+     */
+    public static final class Tone {
+        private final double frequency;
+        private float sampleRate = 48000f;
+        private int channels = 2;
+        private double seconds = 1.0;
+        private double amplitude = 0.5;
+        private double toneStart = 0.0;
+        private double toneEnd = Double.MAX_VALUE;
+
+        private Tone(double frequency) {
+            this.frequency = frequency;
+        }
+
+        public Tone sampleRate(float sampleRate) {
+            this.sampleRate = sampleRate;
+            return this;
+        }
+
+        public Tone channels(int channels) {
+            this.channels = channels;
+            return this;
+        }
+
+        /**
+         * Sets the length of the file.
+         */
+        public Tone seconds(double seconds) {
+            this.seconds = seconds;
+            return this;
+        }
+
+        /**
+         * Sets the peak level of the tone in dBFS.
+         */
+        public Tone level(double levelDb) {
+            this.amplitude = Math.pow(10, levelDb / 20);
+            return this;
+        }
+
+        /**
+         * Makes the file silent except between two times, in seconds.
+         */
+        public Tone between(double start, double end) {
+            this.toneStart = start;
+            this.toneEnd = end;
+            return this;
+        }
+
+        /**
+         * Writes the tone as a WAV file.
+         *
+         * @return The file
+         */
+        public Path writeWav(Path file) throws IOException {
+            AudioFormat format = new AudioFormat(sampleRate, 16, channels, true, false);
+            int frames = (int) Math.round(seconds * sampleRate);
+            byte[] data = new byte[frames * format.getFrameSize()];
+            int first = (int) Math.max(0, toneStart * sampleRate);
+            int last = (int) Math.min(frames, toneEnd * sampleRate);
+            for (int f = first; f < last; f++) {
+                // A quarter of a sample late, so the tone's first sample is not a zero crossing
+                short value = (short) Math.round(amplitude * Short.MAX_VALUE
+                    * Math.sin(2 * Math.PI * frequency * (f + 0.25) / sampleRate));
+                for (int c = 0; c < channels; c++) {
+                    int i = (f * channels + c) * 2;
+                    data[i] = (byte) value;
+                    data[i + 1] = (byte) (value >> 8);
+                }
+            }
+            return write(file, format, data, AudioFileFormat.Type.WAVE);
+        }
+    }
+}
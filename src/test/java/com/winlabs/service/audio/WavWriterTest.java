@@ -0,0 +1,52 @@
+package com.winlabs.service.audio;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.concurrent.CancellationException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for WavWriter output and cancellation.
+ */
+class WavWriterTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testWrittenFileReadsBack() throws Exception {
+        float[] samples = new float[20000 * 2];
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = (float) Math.sin(i * 0.01) * 0.5f;
+        }
+        samples[0] = 1.5f; // Clipped to full scale
+        samples[1] = -2.0f;
+        Path file = tempDir.resolve("out.wav");
+
+        long frames = WavWriter.write(new PcmAudio(samples, 2, 44100f), file, () -> false);
+
+        assertEquals(20000, frames);
+        MappedPcmReader reader = MappedPcmReader.open(file);
+        assertEquals(2, reader.getChannels());
+        assertEquals(44100f, reader.getSampleRate());
+        assertEquals(20000, reader.getFrameCount());
+        float[] read = new float[samples.length];
+        assertEquals(20000, reader.read(0, read, 0, 20000));
+        assertEquals(1.0f, read[0], 0.0001f);
+        assertEquals(-1.0f, read[1], 0.0001f);
+        for (int i = 2; i < samples.length; i++) {
+            assertEquals(samples[i], read[i], 1.0f / 32767);
+        }
+    }
+
+    @Test
+    void testCancelStopsWriting() {
+        PcmAudio audio = new PcmAudio(new float[48000], 1, 48000f);
+
+        assertThrows(CancellationException.class,
+            () -> WavWriter.write(audio, tempDir.resolve("cancelled.wav"), () -> true));
+    }
+}
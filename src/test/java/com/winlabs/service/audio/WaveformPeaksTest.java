@@ -0,0 +1,140 @@
+package com.winlabs.service.audio;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for WaveformAnalyzer and the WaveformPeaks levels, rendering and cache format.
+ */
+class WaveformPeaksTest {
+
+    private static final float RATE = 1000f;
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Mono audio: one second of silence, then one second of a full-scale square wave,
+     * then one second at half scale.
+     */
+    private static PcmAudio steps() {
+        float[] samples = new float[3000];
+        for (int i = 1000; i < 2000; i++) {
+            samples[i] = i % 2 == 0 ? 1f : -1f;
+        }
+        for (int i = 2000; i < 3000; i++) {
+            samples[i] = i % 2 == 0 ? 0.5f : -0.5f;
+        }
+        return new PcmAudio(samples, 1, RATE);
+    }
+
+    @Test
+    void testLevelsHalveUpToOneBin() {
+        WaveformPeaks peaks = WaveformAnalyzer.analyze(steps(), 10, Runnable::run, 1);
+
+        assertEquals(300, peaks.getBinCount(0));
+        assertEquals(150, peaks.getBinCount(1));
+        assertEquals(1, peaks.getBinCount(peaks.getLevelCount() - 1));
+        assertEquals(40, peaks.getFramesPerBin(2));
+        int top = peaks.getLevelCount() - 1;
+        assertEquals(1f, peaks.getMax(top, 0), 1e-4);
+        assertEquals(-1f, peaks.getMin(top, 0), 1e-4);
+        assertEquals(0f, peaks.getMax(0, 50), 1e-4);
+        assertEquals(0.5f, peaks.getRms(0, 250), 1e-4);
+    }
+
+    @Test
+    void testParallelAnalysisMatchesSerial() {
+        PcmAudio audio = steps();
+        ExecutorService workers = Executors.newFixedThreadPool(4);
+        try {
+            WaveformPeaks serial = WaveformAnalyzer.analyze(audio, 16, Runnable::run, 1);
+            WaveformPeaks parallel = WaveformAnalyzer.analyze(audio, 16, workers, 4);
+
+            assertEquals(serial.getLevelCount(), parallel.getLevelCount());
+            for (int level = 0; level < serial.getLevelCount(); level++) {
+                for (int bin = 0; bin < serial.getBinCount(level); bin++) {
+                    assertEquals(serial.getMin(level, bin), parallel.getMin(level, bin));
+                    assertEquals(serial.getMax(level, bin), parallel.getMax(level, bin));
+                    assertEquals(serial.getRms(level, bin), parallel.getRms(level, bin));
+                }
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    @Test
+    void testRenderPicksCoarsestLevelPerPixel() {
+        WaveformPeaks peaks = WaveformAnalyzer.analyze(steps(), 125, Runnable::run, 1);
+        assertEquals(0, peaks.levelFor(100));
+        assertEquals(2, peaks.levelFor(999));
+        assertEquals(3, peaks.levelFor(1000));
+
+        float[] min = new float[3];
+        float[] max = new float[3];
+        float[] rms = new float[3];
+        peaks.render(0, 3, 3, min, max, rms);
+
+        assertEquals(0f, max[0], 1e-4);
+        assertEquals(1f, max[1], 1e-4);
+        assertEquals(-1f, min[1], 1e-4);
+        assertEquals(1f, rms[1], 1e-3);
+        assertEquals(0.5f, max[2], 1e-4);
+    }
+
+    @Test
+    void testRenderPastTheEndIsEmpty() {
+        WaveformPeaks peaks = WaveformAnalyzer.analyze(steps(), 125, Runnable::run, 1);
+        float[] min = new float[4];
+        float[] max = new float[4];
+        float[] rms = new float[4];
+
+        peaks.render(2, 6, 4, min, max, rms);
+
+        assertEquals(0.5f, max[0], 1e-4);
+        assertEquals(0f, max[1]);
+        assertEquals(0f, max[3]);
+    }
+
+    @Test
+    void testZoomedInPastFinestLevelRepeatsBins() {
+        WaveformPeaks peaks = WaveformAnalyzer.analyze(steps(), 100, Runnable::run, 1);
+        float[] min = new float[20];
+        float[] max = new float[20];
+        float[] rms = new float[20];
+
+        peaks.render(0.95, 1.05, 20, min, max, rms);
+
+        assertEquals(0f, max[0], 1e-4);
+        assertEquals(0f, max[9], 1e-4);
+        assertEquals(1f, max[10], 1e-4);
+        assertEquals(1f, max[19], 1e-4);
+    }
+
+    @Test
+    void testMappedCacheFileMatchesAnalysis() throws Exception {
+        WaveformPeaks analysed = WaveformAnalyzer.analyze(steps(), 10, Runnable::run, 1);
+        Path file = tempDir.resolve("steps.wlwf");
+
+        analysed.write(file);
+        WaveformPeaks mapped = WaveformPeaks.map(file);
+
+        assertEquals(RATE, mapped.getSampleRate());
+        assertEquals(3000, mapped.getFrameCount());
+        assertEquals(3.0, mapped.getDuration(), 1e-9);
+        assertEquals(analysed.getLevelCount(), mapped.getLevelCount());
+        for (int level = 0; level < analysed.getLevelCount(); level++) {
+            for (int bin = 0; bin < analysed.getBinCount(level); bin++) {
+                assertEquals(analysed.getMax(level, bin), mapped.getMax(level, bin));
+                assertEquals(analysed.getRms(level, bin), mapped.getRms(level, bin));
+            }
+        }
+    }
+}
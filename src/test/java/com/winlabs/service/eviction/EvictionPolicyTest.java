@@ -0,0 +1,80 @@
+package com.winlabs.service.eviction;
+
+import com.winlabs.model.EvictionPolicyType;
+import com.winlabs.model.PlaylistSettings;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the eviction policies used by the AudioPlayerPool culler.
+ */
+class EvictionPolicyTest {
+
+    private static final List<EvictionCandidate> CANDIDATES = List.of(
+        voice("/audio/old.wav", 90_000, false),
+        voice("/audio/next.wav", 60_000, true),
+        voice("/audio/recent.wav", 10_000, false));
+
+    @Test
+    void testIdleTimeEvictsOnlyPastTimeout() {
+        List<Eviction> evictions = new IdleTimePolicy(30_000).select(CANDIDATES);
+
+        assertEquals(List.of("/audio/old.wav", "/audio/next.wav"), keys(evictions));
+        assertEquals("idle 90s, limit 30s", evictions.get(0).getReason());
+    }
+
+    @Test
+    void testProtectUpcomingKeepsNextCues() {
+        List<Eviction> evictions = new ProtectUpcomingPolicy(30_000).select(CANDIDATES);
+
+        assertEquals(List.of("/audio/old.wav"), keys(evictions));
+        assertEquals("idle 90s, limit 30s, not upcoming", evictions.get(0).getReason());
+    }
+
+    @Test
+    void testLeastRecentlyUsedKeepsNewest() {
+        List<Eviction> evictions = new LeastRecentlyUsedPolicy(1).select(CANDIDATES);
+
+        assertEquals(List.of("/audio/old.wav", "/audio/next.wav"), keys(evictions));
+        assertTrue(evictions.get(0).getReason().startsWith("least recently used"));
+        assertTrue(new LeastRecentlyUsedPolicy(5).select(CANDIDATES).isEmpty());
+    }
+
+    @Test
+    void testMemoryPressureEvictsOnlyOverThreshold() {
+        assertTrue(new MemoryPressurePolicy(0.8, () -> 0.5).select(CANDIDATES).isEmpty());
+
+        List<Eviction> evictions = new MemoryPressurePolicy(0.8, () -> 0.9).select(CANDIDATES);
+
+        // The least recently used half, at least one
+        assertEquals(List.of("/audio/old.wav"), keys(evictions));
+        assertEquals("heap 90% used, threshold 80%", evictions.get(0).getReason());
+    }
+
+    @Test
+    void testCreateFromPlaylistSettings() {
+        PlaylistSettings settings = new PlaylistSettings();
+        assertEquals(EvictionPolicyType.IDLE_TIME, EvictionPolicy.create(settings).getType());
+
+        for (EvictionPolicyType type : EvictionPolicyType.values()) {
+            settings.setEvictionPolicy(type);
+            assertEquals(type, EvictionPolicy.create(settings).getType());
+        }
+
+        settings.setEvictionPolicy(EvictionPolicyType.PROTECT_UPCOMING);
+        settings.setEvictionIdleSeconds(5);
+        ProtectUpcomingPolicy policy = (ProtectUpcomingPolicy) EvictionPolicy.create(settings);
+        assertEquals(5000, policy.getTimeoutMillis());
+    }
+
+    private static EvictionCandidate voice(String filePath, long idleMillis, boolean upcoming) {
+        return new EvictionCandidate(EvictionCandidate.Kind.STANDBY_VOICE, filePath, idleMillis, upcoming);
+    }
+
+    private static List<String> keys(List<Eviction> evictions) {
+        return evictions.stream().map(eviction -> eviction.getCandidate().getKey()).toList();
+    }
+}